@@ -0,0 +1,98 @@
+#!/usr/bin/env bash
+# Compares startup of the JVM jar, the jar with Spring AOT and an AppCDS archive (as in the
+# Docker image), and the native binary: the time until the first 'axon >' prompt is rendered
+# (as reported by the app) and the peak resident set size.
+#
+# Usage: scripts/startup-benchmark.sh [runs]
+#   JAR=...     the executable jar   (default: target/axon-cli-*.jar, built with 'mvn package')
+#   NATIVE=...  the native binary    (default: target/axon, built with 'mvn -Pnative package')
+#
+# The AOT + CDS variant needs a jar built with 'mvn -Paot package'. Its archive is created in
+# target/cds by a training run, the same way the Dockerfile does it, unless it already exists.
+#
+# Each run starts the app with app.startup.exit-after-prompt=true, so it exits as soon as the
+# prompt appears. The AI warm-up request is disabled so that the network does not skew results.
+set -euo pipefail
+
+RUNS="${1:-5}"
+cd "$(dirname "$0")/.."
+JAR="${JAR:-$(ls target/axon-cli-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1 || true)}"
+NATIVE="${NATIVE:-target/axon}"
+CDS_DIR="target/cds"
+PROPS=(-Dapp.startup.exit-after-prompt=true -Dapp.ai.http.warm-up=false)
+export FW_API_KEY="${FW_API_KEY:-startup-benchmark}"
+
+# Runs the command once and prints "<time-to-prompt-ms> <peak-rss-kb>".
+measure() {
+    local output
+    output="$(mktemp)"
+    "$@" < /dev/null > "$output" 2>&1 &
+    local pid=$! peak=0 hwm
+    # VmHWM is the peak RSS so far; sample it until the process is gone.
+    while kill -0 "$pid" 2> /dev/null; do
+        hwm="$(awk '/^VmHWM:/ {print $2}' "/proc/$pid/status" 2> /dev/null || true)"
+        if [[ -n "$hwm" && "$hwm" -gt "$peak" ]]; then
+            peak="$hwm"
+        fi
+        sleep 0.01
+    done
+    wait "$pid" || true
+    local ttp
+    ttp="$(sed -n 's/.*time-to-prompt-ms=\([0-9]*\).*/\1/p' "$output" | tail -n 1)"
+    rm -f "$output"
+    if [[ -z "$ttp" ]]; then
+        echo "The app exited without reaching the prompt: $*" >&2
+        return 1
+    fi
+    echo "$ttp $peak"
+}
+
+# Prints the median of the numbers on stdin.
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+benchmark() {
+    local name="$1"
+    shift
+    local times=() rss=() result
+    for ((i = 1; i <= RUNS; i++)); do
+        result="$(measure "$@")"
+        times+=("${result% *}")
+        rss+=("${result#* }")
+    done
+    printf "%-8s %20s %18s\n" "$name" \
+        "$(printf '%s\n' "${times[@]}" | median)" \
+        "$(( $(printf '%s\n' "${rss[@]}" | median) / 1024 ))"
+}
+
+# Unpacks the jar into target/cds and records the classes loaded up to the first prompt.
+build_cds_archive() {
+    if [[ -f "$CDS_DIR/app.jsa" && "$CDS_DIR/app.jsa" -nt "$JAR" ]]; then
+        return
+    fi
+    rm -rf "$CDS_DIR"
+    java -Djarmode=tools -jar "$JAR" extract --destination "$CDS_DIR" > /dev/null
+    mv "$CDS_DIR"/axon-cli-*.jar "$CDS_DIR/app.jar"
+    (cd "$CDS_DIR" && java -XX:ArchiveClassesAtExit=app.jsa -Dspring.aot.enabled=true "${PROPS[@]}" \
+        -Duser.home="$(mktemp -d)" -jar app.jar < /dev/null > /dev/null 2>&1)
+}
+
+printf "%-8s %20s %18s\n" "" "time-to-prompt (ms)" "peak RSS (MiB)"
+if [[ -n "$JAR" && -f "$JAR" ]]; then
+    benchmark "jvm" java "${PROPS[@]}" -jar "$JAR"
+    if unzip -l "$JAR" | grep '__ApplicationContextInitializer' > /dev/null; then
+        build_cds_archive
+        benchmark "aot+cds" java -XX:SharedArchiveFile="$CDS_DIR/app.jsa" -Dspring.aot.enabled=true "${PROPS[@]}" -jar "$CDS_DIR/app.jar"
+    else
+        echo "aot+cds: the jar has no AOT code, build it with 'mvn -Paot package'" >&2
+    fi
+else
+    echo "jvm: no jar found, run 'mvn package' first" >&2
+fi
+if [[ -x "$NATIVE" ]]; then
+    benchmark "native" "$NATIVE" "${PROPS[@]}"
+else
+    echo "native: no binary at $NATIVE, run 'mvn -Pnative -DskipTests package' with GraalVM first" >&2
+fi
+echo "(median of $RUNS runs)"
@@ -0,0 +1,71 @@
+package com.axon;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads the AI responses under {@code src/jmh/resources/payloads}: one raw completion per
+ * technology, in the format the module prompts ask for (prose, then a fenced JSON module).
+ */
+public final class BenchmarkPayloads {
+
+    public static final String[] TECHNOLOGIES = {"git", "docker", "linux", "kubernetes"};
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BenchmarkPayloads() {
+    }
+
+    /**
+     * @return The raw completion text for the technology, exactly as the model returned it.
+     */
+    public static String rawResponse(String technology) {
+        String resource = "/payloads/" + technology + "-module.txt";
+        try (InputStream in = BenchmarkPayloads.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No benchmark payload for " + technology);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The module contained in the technology's payload.
+     */
+    public static LearningModule module(String technology) {
+        String raw = rawResponse(technology);
+        try {
+            return OBJECT_MAPPER.readValue(raw.substring(raw.indexOf('{'), raw.lastIndexOf('}') + 1), LearningModule.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return A module with {@code lessonCount} lessons, cycling through the recorded lessons
+     *         of every technology so that the content stays realistic at any size.
+     */
+    public static LearningModule moduleWithLessons(int lessonCount) {
+        List<Lesson> recorded = new ArrayList<>();
+        for (String technology : TECHNOLOGIES) {
+            recorded.addAll(module(technology).lessons());
+        }
+        List<Lesson> lessons = new ArrayList<>(lessonCount);
+        for (int i = 0; i < lessonCount; i++) {
+            Lesson lesson = recorded.get(i % recorded.size());
+            lessons.add(new Lesson(lesson.title() + " (" + (i + 1) + ")", lesson.concept(), lesson.command(),
+                    lesson.example_output(), lesson.practiceCommand(), lesson.hint()));
+        }
+        return new LearningModule("Benchmark Module", lessons);
+    }
+}
@@ -0,0 +1,95 @@
+package com.axon.service.impl;
+
+import com.axon.BenchmarkPayloads;
+import com.axon.model.BundledModule;
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.impl.CurriculumBundleServiceImpl.Bundle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening a library of pre-generated modules and reading the first lesson of one of
+ * them, from a curriculum pack and from a JSON bundle. Each module holds 30 lessons.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurriculumPackBenchmark {
+
+    @Param({"16", "256"})
+    public int moduleCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private Path pack;
+    private Path json;
+    private String technology;
+    private String moduleKey;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Lesson> lessons = BenchmarkPayloads.moduleWithLessons(30 * moduleCount).lessons();
+        List<BundledModule> modules = new ArrayList<>();
+        for (int i = 0; i < moduleCount; i++) {
+            String name = BenchmarkPayloads.TECHNOLOGIES[i % BenchmarkPayloads.TECHNOLOGIES.length];
+            modules.add(new BundledModule(name, "module" + i, "key" + i,
+                    new LearningModule("Module " + i, lessons.subList(30 * i, 30 * (i + 1)))));
+        }
+        pack = Files.createTempFile("axon-curriculum", CurriculumPack.SUFFIX);
+        json = Files.createTempFile("axon-curriculum", ".json");
+        CurriculumPack.write(pack, modules);
+        objectMapper.writeValue(json.toFile(), new Bundle(CurriculumBundleServiceImpl.BUNDLE_VERSION, Instant.now(), "model", modules));
+        BundledModule last = modules.getLast();
+        technology = last.technology();
+        moduleKey = last.moduleKey();
+
+        // The benchmark is only meaningful if the pack reads back what was written.
+        List<Lesson> read = CurriculumPack.open(pack).find(technology, moduleKey).orElseThrow().module().lessons();
+        if (!read.equals(last.module().lessons())) {
+            throw new IllegalStateException("The pack does not read back the lessons that were written.");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pack);
+        Files.deleteIfExists(json);
+    }
+
+    @Benchmark
+    public Lesson openPack() throws IOException {
+        return CurriculumPack.open(pack).find(technology, moduleKey).orElseThrow().module().lessons().getFirst();
+    }
+
+    @Benchmark
+    public Lesson parseJson() throws IOException {
+        Bundle bundle = objectMapper.readValue(json.toFile(), Bundle.class);
+        return bundle.modules().stream()
+                .filter(module -> module.technology().equals(technology) && module.moduleKey().equals(moduleKey))
+                .findFirst().orElseThrow().module().lessons().getFirst();
+    }
+}
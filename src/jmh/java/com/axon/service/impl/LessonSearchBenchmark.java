@@ -0,0 +1,77 @@
+package com.axon.service.impl;
+
+import com.axon.BenchmarkPayloads;
+import com.axon.model.Lesson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures a 'search' over a saved, memory-mapped index of every cached lesson. Each module
+ * holds 30 lessons; the query mixes words, an option and a prefix that has no exact match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LessonSearchBenchmark {
+
+    @Param({"10", "100"})
+    public int moduleCount;
+
+    @Param({"commit --amend", "container logs", "kube"})
+    public String query;
+
+    private Path dir;
+    private LessonSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("axon-search");
+        Path file = dir.resolve("search.idx");
+        LessonSearchIndex writer = new LessonSearchIndex(file);
+        List<Lesson> lessons = BenchmarkPayloads.moduleWithLessons(30 * moduleCount).lessons();
+        for (int i = 0; i < moduleCount; i++) {
+            String technology = BenchmarkPayloads.TECHNOLOGIES[i % BenchmarkPayloads.TECHNOLOGIES.length];
+            writer.index("module-" + i, technology, "module" + i, lessons.subList(30 * i, 30 * (i + 1)));
+        }
+        writer.save();
+        index = new LessonSearchIndex(file);
+        index.size();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        // The index is written as generations of search.idx, e.g. search~1.idx.
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public List<LessonSearchIndex.Hit> search() {
+        return index.search(query, 10);
+    }
+}
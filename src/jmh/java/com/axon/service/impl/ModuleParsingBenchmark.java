@@ -0,0 +1,71 @@
+package com.axon.service.impl;
+
+import com.axon.BenchmarkPayloads;
+import com.axon.model.LearningModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work done on an AI response before a module can be shown: cutting the JSON
+ * out of the raw completion, and deserializing modules of increasing size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModuleParsingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class RawResponse {
+
+        @Param({"git", "docker", "linux", "kubernetes"})
+        public String technology;
+
+        String raw;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            raw = BenchmarkPayloads.rawResponse(technology);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ModuleJson {
+
+        @Param({"30", "300", "3000"})
+        public int lessonCount;
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        byte[] json;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            json = objectMapper.writeValueAsBytes(BenchmarkPayloads.moduleWithLessons(lessonCount));
+        }
+    }
+
+    @Benchmark
+    public String extractJson(RawResponse state) {
+        return AiTutorServiceImpl.extractJson(state.raw);
+    }
+
+    @Benchmark
+    public LearningModule deserializeModule(ModuleJson state) throws IOException {
+        return state.objectMapper.readValue(state.json, LearningModule.class);
+    }
+}
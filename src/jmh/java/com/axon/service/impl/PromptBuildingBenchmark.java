@@ -0,0 +1,64 @@
+package com.axon.service.impl;
+
+import com.axon.BenchmarkPayloads;
+import com.axon.model.Lesson;
+import com.axon.service.api.PromptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the 'more' prompt, which summarises every command the learner has already
+ * seen. The summary is capped, so time and prompt size should stay flat as the module grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptBuildingBenchmark {
+
+    @Param({"git", "docker", "linux", "kubernetes"})
+    public String technology;
+
+    @Param({"30", "300"})
+    public int lessonCount;
+
+    @Param({"400"})
+    public int coverageMaxTokens;
+
+    private PromptService promptService;
+    private String moduleKey;
+    private List<Lesson> lessons;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        promptService = switch (technology) {
+            case "git" -> new GitPromptServiceImpl(coverageMaxTokens);
+            case "docker" -> new DockerPromptServiceImpl(coverageMaxTokens);
+            case "linux" -> new LinuxPromptServiceImpl(coverageMaxTokens);
+            case "kubernetes" -> new KubernetesPromptServiceImpl(coverageMaxTokens);
+            default -> throw new IllegalArgumentException("Unknown technology " + technology);
+        };
+        moduleKey = promptService.getAvailableModules().keySet().iterator().next();
+        lessons = BenchmarkPayloads.moduleWithLessons(lessonCount).lessons();
+    }
+
+    @Benchmark
+    public String buildMoreLessonsPrompt() {
+        return promptService.buildMoreLessonsPrompt(moduleKey, lessons);
+    }
+}
@@ -0,0 +1,104 @@
+package com.axon.shell;
+
+import com.axon.BenchmarkPayloads;
+import com.axon.model.Lesson;
+import com.axon.service.api.PromptService;
+import com.axon.service.impl.DockerPromptServiceImpl;
+import com.axon.service.impl.GitPromptServiceImpl;
+import com.axon.service.impl.KubernetesPromptServiceImpl;
+import com.axon.service.impl.LinuxPromptServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jline.terminal.Size;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.TerminalBuilder;
+import org.jline.utils.AttributedStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.core.metrics.ApplicationStartup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to turn the lessons of a recorded module into terminal output.
+ * Each invocation renders every lesson of the technology's payload once: from scratch, or
+ * through the render cache that paging with 'prev', 'next' and 'goto' goes through.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LessonRenderingBenchmark {
+
+    @Param({"git", "docker", "linux", "kubernetes"})
+    public String technology;
+
+    private Terminal terminal;
+    private TutorCommands commands;
+    private OutputColorizer colorizer;
+    private List<Lesson> lessons;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        terminal = TerminalBuilder.builder()
+                .dumb(true)
+                .streams(InputStream.nullInputStream(), OutputStream.nullOutputStream())
+                .build();
+        terminal.setSize(new Size(120, 40));
+        List<PromptService> promptServices = List.of(new GitPromptServiceImpl(400), new DockerPromptServiceImpl(400),
+                new LinuxPromptServiceImpl(400), new KubernetesPromptServiceImpl(400));
+        commands = new TutorCommands(new BuildProperties(new Properties()), new StartupTimer(false), null, terminal, promptServices, new SimpleMeterRegistry(),
+                ApplicationStartup.DEFAULT, null, null, null);
+        colorizer = promptServices.stream()
+                .filter(service -> service.getTechnologyName().equalsIgnoreCase(technology))
+                .findFirst()
+                .map(service -> new OutputColorizer(service.getOutputTagStyles(), AttributedStyle.DEFAULT))
+                .orElseThrow();
+        lessons = BenchmarkPayloads.module(technology).lessons();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        terminal.close();
+    }
+
+    @Benchmark
+    public void colorize(Blackhole blackhole) {
+        for (Lesson lesson : lessons) {
+            blackhole.consume(colorizer.colorize(lesson.example_output()));
+        }
+    }
+
+    @Benchmark
+    public void formatLessonForDisplay(Blackhole blackhole) {
+        for (Lesson lesson : lessons) {
+            blackhole.consume(commands.formatLessonForDisplay(lesson, technology));
+        }
+    }
+
+    @Benchmark
+    public void renderCachedLesson(Blackhole blackhole) {
+        for (Lesson lesson : lessons) {
+            blackhole.consume(commands.renderLesson(lesson, technology));
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package com.axon;
 
+import com.axon.service.impl.AiProviderProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(AxonRuntimeHints.class)
+@EnableConfigurationProperties(AiProviderProperties.class)
 public class AxonApplication {
 
+	// Enough for every startup step of the context; later steps are dropped once it is full.
+	private static final int STARTUP_STEP_CAPACITY = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(AxonApplication.class, args);
+		SpringApplication application = new SpringApplication(AxonApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 
 }
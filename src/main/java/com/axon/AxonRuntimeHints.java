@@ -0,0 +1,47 @@
+package com.axon;
+
+import com.axon.metrics.MeterSummary;
+import com.axon.metrics.MetricsFileExporter;
+import com.axon.metrics.StartupReport;
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.impl.AnswerCacheServiceImpl;
+import com.axon.service.impl.ChatCompletionRequest;
+import com.axon.service.impl.CurriculumBundleServiceImpl;
+import com.axon.service.impl.ModuleCacheServiceImpl;
+import com.axon.service.impl.TokenBudget;
+import com.axon.service.impl.TutorialStateServiceImpl;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * What a native image needs beyond what Spring's AOT processing finds on its own: the types
+ * Jackson reads and writes at runtime, and the resources loaded by name.
+ */
+public class AxonRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Records bound by Jackson: AI responses, the request body, and everything kept under ~/.axon.
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                LearningModule.class,
+                Lesson.class,
+                ChatCompletionRequest.class,
+                ChatCompletionRequest.StreamOptions.class,
+                TutorialStateServiceImpl.Progress.class,
+                TutorialStateServiceImpl.SavedProgress.class,
+                ModuleCacheServiceImpl.CachedModule.class,
+                AnswerCacheServiceImpl.CachedAnswer.class,
+                CurriculumBundleServiceImpl.Bundle.class,
+                TokenBudget.History.class,
+                MetricsFileExporter.Snapshot.class,
+                MeterSummary.class,
+                StartupReport.class);
+
+        // Read by BuildProperties for the 'version' command.
+        hints.resources().registerPattern("META-INF/build-info.properties");
+        // OkHttp loads its public suffix list lazily, by name, when it inspects host names.
+        hints.resources().registerPattern("okhttp3/internal/publicsuffix/publicsuffixes.gz");
+    }
+}
@@ -0,0 +1,67 @@
+package com.axon.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A point-in-time view of one timer or counter, in the form shown by the {@code metrics}
+ * command and written by the file exporter. Times are in milliseconds; for counters only
+ * {@code count} is set.
+ */
+public record MeterSummary(String name, Map<String, String> tags, String type, double count,
+                           Double meanMs, Double maxMs, Map<String, Double> percentilesMs) {
+
+    /**
+     * Summarises every timer and counter in the registry, ordered by name and tags.
+     *
+     * @param prefix Only meters whose name starts with this prefix are included.
+     */
+    public static List<MeterSummary> of(MeterRegistry registry, String prefix) {
+        return registry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().startsWith(prefix))
+                .map(MeterSummary::summarize)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(MeterSummary::name).thenComparing(summary -> summary.tags().toString()))
+                .toList();
+    }
+
+    private static MeterSummary summarize(Meter meter) {
+        Map<String, String> tags = meter.getId().getTags().stream()
+                .collect(Collectors.toMap(Tag::getKey, Tag::getValue, (a, b) -> b, LinkedHashMap::new));
+        String name = meter.getId().getName();
+        if (meter instanceof Timer timer) {
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                percentiles.put(percentileLabel(value.percentile()), value.value(TimeUnit.MILLISECONDS));
+            }
+            return new MeterSummary(name, tags, "timer", snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS), percentiles);
+        }
+        if (meter instanceof Counter counter) {
+            return new MeterSummary(name, tags, "counter", counter.count(), null, null, Map.of());
+        }
+        return null;
+    }
+
+    /**
+     * @return e.g. "p50" for 0.5 and "p99.9" for 0.999.
+     */
+    static String percentileLabel(double percentile) {
+        double value = percentile * 100;
+        return value == Math.rint(value) ? "p" + (long) value : "p" + value;
+    }
+}
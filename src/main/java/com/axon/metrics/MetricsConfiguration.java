@@ -0,0 +1,45 @@
+package com.axon.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Provides the in-process meter registry the application records its metrics in.
+ * <p>
+ * Every timer publishes its p50, p95 and p99 latencies. Percentiles are computed over a
+ * sliding window ({@code app.metrics.percentile-window}), so they describe recent behaviour
+ * rather than the whole session; counts and totals cover the whole session.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    @Bean
+    public MeterRegistry meterRegistry(@Value("${app.metrics.percentile-window:10m}") Duration percentileWindow) {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(PERCENTILES)
+                        .expiry(percentileWindow)
+                        .bufferLength(3)
+                        .build()
+                        .merge(config);
+            }
+        });
+        return registry;
+    }
+}
@@ -0,0 +1,94 @@
+package com.axon.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends a snapshot of all metrics to a local file at a fixed interval and once more on
+ * shutdown, so that sessions (and releases) can be compared afterwards. Each snapshot is one
+ * line of JSON. Disabled unless {@code app.metrics.export.file} is set.
+ */
+@Component
+public class MetricsFileExporter {
+
+    /** One line of the export file. */
+    public record Snapshot(Instant timestamp, List<MeterSummary> meters) {}
+
+    private final MeterRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+
+    public MetricsFileExporter(MeterRegistry registry, ObjectMapper objectMapper,
+                               @Value("${app.metrics.export.file:}") String file,
+                               @Value("${app.metrics.export.interval:1m}") Duration interval) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+        this.file = file.isBlank() ? null : Path.of(file.replaceFirst("^~", System.getProperty("user.home")));
+        this.interval = interval;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (file == null || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("axon-metrics-export").factory());
+        scheduler.scheduleAtFixedRate(this::export, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        export();
+    }
+
+    /**
+     * Appends the current snapshot to the export file.
+     *
+     * @return false if no export file is configured or the snapshot could not be written.
+     */
+    public synchronized boolean export() {
+        if (file == null) {
+            return false;
+        }
+        try {
+            String line = objectMapper.writeValueAsString(new Snapshot(Instant.now(), MeterSummary.of(registry, ""))) + "\n";
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not export metrics to " + file + ". " + e.getMessage());
+            return false;
+        }
+    }
+
+    public Optional<Path> getFile() {
+        return Optional.ofNullable(file);
+    }
+}
@@ -0,0 +1,39 @@
+package com.axon.metrics;
+
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The steps recorded while the application started, in the form shown by the {@code startup}
+ * command and written by {@code startup --json}. Times are in milliseconds; step start times
+ * are relative to the start of the application.
+ *
+ * @param timeToPromptMs The time from JVM start until the first prompt, or null if not shown yet.
+ */
+public record StartupReport(Long timeToPromptMs, List<Step> steps) {
+
+    /**
+     * @param parentId The enclosing step, or null for a top-level step.
+     */
+    public record Step(long id, Long parentId, String name, Map<String, String> tags, long startMs, long durationMs) {}
+
+    public static StartupReport of(StartupTimeline timeline, Long timeToPromptMs) {
+        Instant start = timeline.getStartTime();
+        List<Step> steps = timeline.getEvents().stream()
+                .map(event -> {
+                    StartupStep step = event.getStartupStep();
+                    Map<String, String> tags = new LinkedHashMap<>();
+                    step.getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+                    return new Step(step.getId(), step.getParentId(), step.getName(), tags,
+                            Duration.between(start, event.getStartTime()).toMillis(), event.getDuration().toMillis());
+                })
+                .toList();
+        return new StartupReport(timeToPromptMs, steps);
+    }
+}
@@ -0,0 +1,11 @@
+package com.axon.model;
+
+/**
+ * A generated module as it is shared between installs, in a JSON bundle or a curriculum pack.
+ *
+ * @param technology The technology, in lower case (e.g., "git").
+ * @param moduleKey The key of the module within its technology.
+ * @param cacheKey The module cache key of the request that generated the module.
+ */
+public record BundledModule(String technology, String moduleKey, String cacheKey, LearningModule module) {
+}
@@ -0,0 +1,21 @@
+package com.axon.service.api;
+
+import java.util.Locale;
+
+/**
+ * Describes what an AI request is for and which technology it is about. Comparable requests
+ * share a context, which is what metrics and token budgets are kept per.
+ *
+ * @param type What the request is for.
+ * @param technology The technology being learned, in lower case (e.g., "git").
+ */
+public record AiRequestContext(AiRequestType type, String technology) {
+
+    public AiRequestContext {
+        technology = technology.toLowerCase(Locale.ROOT);
+    }
+
+    public static AiRequestContext of(AiRequestType type, String technology) {
+        return new AiRequestContext(type, technology);
+    }
+}
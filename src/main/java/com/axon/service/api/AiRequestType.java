@@ -0,0 +1,31 @@
+package com.axon.service.api;
+
+import java.util.Locale;
+
+/**
+ * What an AI request is for. Used to tell comparable requests apart, e.g. in metrics.
+ */
+public enum AiRequestType {
+
+    /** The lessons of a new module, either in one completion or as one shard of it. */
+    MODULE,
+
+    /** The lesson titles of a new module, generated before its shards. */
+    OUTLINE,
+
+    /** A further batch of lessons for a completed module. */
+    MORE,
+
+    /** An answer to a learner's question. */
+    ASK,
+
+    /** The summary of a completed module. */
+    SUMMARY;
+
+    /**
+     * @return The lower-case name, e.g. for metric tags.
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
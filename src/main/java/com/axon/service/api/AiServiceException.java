@@ -0,0 +1,47 @@
+package com.axon.service.api;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Thrown when the AI provider could not produce a response, e.g. because of an HTTP error,
+ * a timeout or an empty result. Carries what a caller needs to decide whether to try again.
+ */
+public class AiServiceException extends RuntimeException {
+
+    private final int statusCode;
+    private final Duration retryAfter;
+    private final boolean retryable;
+
+    /**
+     * @param message The error message.
+     * @param statusCode The HTTP status code, or 0 if no response was received.
+     * @param retryAfter The delay requested by the provider's Retry-After header, or null.
+     * @param retryable Whether the same request may succeed if it is sent again.
+     * @param cause The underlying cause, or null.
+     */
+    public AiServiceException(String message, int statusCode, Duration retryAfter, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+        this.retryAfter = retryAfter;
+        this.retryable = retryable;
+    }
+
+    /**
+     * @return The HTTP status code, or 0 if no response was received.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return The delay the provider asked for before the next request, if it sent one.
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -1,6 +1,9 @@
 package com.axon.service.api;
 
 import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+
+import java.util.function.Consumer;
 
 /**
  * A generic service for interacting with the AI model to generate content.
@@ -10,18 +13,55 @@ public interface AiTutorService {
     /**
      * Executes a query to the AI to generate a learning module from a specific prompt.
      *
+     * @param context What the request is for, used for metrics and token budgeting.
      * @param prompt The complete, formatted prompt to send to the AI.
-     * @param maxTokens The maximum number of tokens for the response.
+     * @param maxTokens The nominal maximum number of tokens for the response; the limit actually sent
+     *                  may be adjusted to what comparable responses have needed.
      * @return A LearningModule object parsed from the AI's JSON output.
      */
-    LearningModule generateModuleFromPrompt(String prompt, int maxTokens);
+    LearningModule generateModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens);
+
+    /**
+     * Streams a learning module from the AI, publishing each lesson as soon as it has been
+     * generated instead of waiting for the complete response.
+     *
+     * @param context What the request is for, used for metrics and token budgeting.
+     * @param prompt The complete, formatted prompt to send to the AI.
+     * @param maxTokens The nominal maximum number of tokens for the response; the limit actually sent
+     *                  may be adjusted to what comparable responses have needed.
+     * @param onLesson Receives each lesson, in order, as soon as its JSON object is complete.
+     * @return The complete LearningModule once the response has finished.
+     */
+    LearningModule streamModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<Lesson> onLesson);
 
     /**
      * Executes a query to the AI to get a text-based answer to a question.
      *
+     * @param context What the request is for, used for metrics and token budgeting.
      * @param prompt The complete, formatted prompt containing the user's question.
-     * @param maxTokens The maximum number of tokens for the response.
+     * @param maxTokens The nominal maximum number of tokens for the response; the limit actually sent
+     *                  may be adjusted to what comparable responses have needed.
      * @return A raw string response from the AI.
      */
-    String answerQuestionFromPrompt(String prompt, int maxTokens);
+    String answerQuestionFromPrompt(AiRequestContext context, String prompt, int maxTokens);
+
+    /**
+     * Streams a text-based answer, delivering content as the AI generates it
+     * instead of waiting for the whole response.
+     *
+     * @param context What the request is for, used for metrics and token budgeting.
+     * @param prompt The complete, formatted prompt containing the user's question.
+     * @param maxTokens The nominal maximum number of tokens for the response; the limit actually sent
+     *                  may be adjusted to what comparable responses have needed.
+     * @param onDelta Receives each chunk of content as soon as it arrives, on the calling thread.
+     * @return The complete answer, i.e. the concatenation of all chunks.
+     */
+    String streamAnswerFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<String> onDelta);
+
+    /**
+     * @param type The kind of request.
+     * @return The identifier of the model preferred for that kind of request, e.g. for cache keys.
+     *         It stays the same while the configuration does.
+     */
+    String getModelName(AiRequestType type);
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.axon.service.api;
+
+import java.util.Optional;
+
+/**
+ * A two-tier cache of answers to learner questions: a bounded in-memory LRU in front of
+ * an on-disk store. Questions are normalized before lookup, so questions that differ only
+ * in case, whitespace, quoting or trailing punctuation share one entry. Entries expire
+ * after a configured time to live.
+ */
+public interface AnswerCacheService {
+
+    /**
+     * Hit and miss counters since startup, plus the current number of entries.
+     */
+    record Stats(long memoryHits, long diskHits, long misses, int memoryEntries, int diskEntries) {}
+
+    /**
+     * Looks up a cached answer.
+     *
+     * @param technology The technology the question was asked about (e.g., "git").
+     * @param question The question as the learner typed it.
+     * @param model The model identifier that would generate the answer.
+     * @return The cached answer, or empty if there is none or it has expired.
+     */
+    Optional<String> get(String technology, String question, String model);
+
+    /**
+     * Stores an answer in both tiers.
+     */
+    void put(String technology, String question, String model, String answer);
+
+    /**
+     * @return The counters and entry counts of the cache.
+     */
+    Stats getStats();
+
+    /**
+     * Deletes every cached answer from both tiers.
+     *
+     * @return The number of on-disk entries that were removed.
+     */
+    int purge();
+}
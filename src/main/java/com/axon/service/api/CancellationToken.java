@@ -0,0 +1,119 @@
+package com.axon.service.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
+
+/**
+ * A cooperative cancellation signal for background AI work.
+ * <p>
+ * A token is bound to the current thread with {@link #call(Supplier)}; threads started from
+ * inside that scope inherit it. Code that performs a cancellable operation (such as an HTTP
+ * call) looks up {@link #current()} and registers a callback that aborts the operation.
+ */
+public final class CancellationToken {
+
+    private static final InheritableThreadLocal<CancellationToken> CURRENT = new InheritableThreadLocal<>();
+    private static final CancellationToken NONE = new CancellationToken(false);
+
+    /**
+     * A handle for a registered callback; closing it unregisters the callback.
+     */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final boolean cancellable;
+    private final List<Runnable> callbacks = new ArrayList<>();
+    private volatile boolean cancelled = false;
+
+    public CancellationToken() {
+        this(true);
+    }
+
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    /**
+     * @return The token bound to the current thread, or a token that is never cancelled.
+     */
+    public static CancellationToken current() {
+        CancellationToken token = CURRENT.get();
+        return token != null ? token : NONE;
+    }
+
+    /**
+     * Runs the action with this token bound as the current token.
+     */
+    public <T> T call(Supplier<T> action) {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            throwIfCancelled();
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Registers a callback to run when the token is cancelled. If it already is,
+     * the callback runs immediately.
+     */
+    public Registration onCancel(Runnable callback) {
+        if (!cancellable) {
+            return () -> {};
+        }
+        synchronized (callbacks) {
+            if (!cancelled) {
+                callbacks.add(callback);
+                return () -> {
+                    synchronized (callbacks) {
+                        callbacks.remove(callback);
+                    }
+                };
+            }
+        }
+        callback.run();
+        return () -> {};
+    }
+
+    /**
+     * Cancels the token and runs every registered callback. Calling it again has no effect.
+     */
+    public void cancel() {
+        if (!cancellable) {
+            return;
+        }
+        List<Runnable> toRun;
+        synchronized (callbacks) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = List.copyOf(callbacks);
+            callbacks.clear();
+        }
+        toRun.forEach(Runnable::run);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the token has been cancelled.
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("The operation was cancelled.");
+        }
+    }
+}
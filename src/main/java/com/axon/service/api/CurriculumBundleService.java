@@ -0,0 +1,61 @@
+package com.axon.service.api;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Generates every module of one or more technologies ahead of time and writes them to a
+ * curriculum bundle: a single file that other installs import into their module cache, so
+ * that their learners' 'start' is served from disk instead of the AI.
+ */
+public interface CurriculumBundleService {
+
+    enum Status {
+        /** Generated by the AI for this bundle. */
+        GENERATED,
+        /** Taken from the module cache, where an identical request had already been generated. */
+        CACHED,
+        /** Not in the bundle: the AI failed or its lessons did not pass validation. */
+        FAILED
+    }
+
+    /**
+     * How one module of a bundle came about.
+     *
+     * @param error Why the module failed, or null.
+     */
+    record ModuleResult(String technology, String moduleKey, Status status, int lessonCount, Duration elapsed, String error) {}
+
+    /**
+     * @param file The bundle that was written, holding every module that did not fail.
+     */
+    record BundleReport(Path file, List<ModuleResult> modules, Duration elapsed) {}
+
+    /**
+     * @param imported The number of modules added to the module cache.
+     * @param skipped Modules this install does not have, or would generate from a different prompt or model.
+     */
+    record ImportReport(int imported, List<String> skipped) {}
+
+    /**
+     * Generates the modules of the given technologies with bounded concurrency and writes the bundle.
+     * Modules that fail are reported and left out; the others are also added to the module cache.
+     *
+     * @param technologies The technologies to include (e.g., "git"), or an empty list for all of them.
+     * @param file Where to write the bundle.
+     * @param regenerate Whether to ask the AI again for modules that are already cached.
+     * @param onModule Receives each result as soon as its module is done.
+     * @throws IllegalArgumentException if a technology is unknown.
+     */
+    BundleReport generateBundle(List<String> technologies, Path file, boolean regenerate, Consumer<ModuleResult> onModule);
+
+    /**
+     * Adds the modules of a bundle to the module cache.
+     *
+     * @param force Whether to also import modules generated from a different prompt or model, under the key this install uses.
+     * @throws IllegalArgumentException if the file is not a readable bundle.
+     */
+    ImportReport importBundle(Path file, boolean force);
+}
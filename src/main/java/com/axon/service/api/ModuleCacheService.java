@@ -0,0 +1,116 @@
+package com.axon.service.api;
+
+import com.axon.model.LearningModule;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An on-disk, content-addressed store of generated learning modules.
+ * Entries are keyed by a hash of everything that determines the AI output,
+ * so an identical request can be served from disk instead of the network.
+ */
+public interface ModuleCacheService {
+
+    /**
+     * A lightweight description of a cached module, used for inspection.
+     */
+    record Entry(String key, String technology, String moduleKey, String moduleName,
+                 int lessonCount, long sizeBytes, Instant lastAccessed) {}
+
+    /**
+     * A curriculum pack whose modules are served alongside the cache.
+     */
+    record Pack(String name, int moduleCount, int lessonCount, long sizeBytes) {}
+
+    /**
+     * A lesson found by {@link #search}.
+     *
+     * @param lessonNumber The 1-based number of the lesson in its module.
+     * @param score How well the lesson matches; only comparable within one search.
+     */
+    record SearchHit(String technology, String moduleKey, int lessonNumber, String title, double score) {}
+
+    /**
+     * Computes the cache key for a module generation request.
+     *
+     * @param technology The technology name (e.g., "git").
+     * @param moduleKey The module key (e.g., "basics").
+     * @param prompt The exact prompt sent to the AI.
+     * @param model The model identifier used for the generation.
+     * @param maxTokens The token limit used for the generation.
+     * @return A stable, hex-encoded hash identifying the request.
+     */
+    String keyFor(String technology, String moduleKey, String prompt, String model, int maxTokens);
+
+    /**
+     * Looks up a cached module and marks it as recently used.
+     *
+     * @param key The key returned by {@link #keyFor}.
+     * @return The cached module, or empty if it is not cached or unreadable.
+     */
+    Optional<LearningModule> get(String key);
+
+    /**
+     * Looks up a module in the cache and then in the curriculum packs. A module from a pack is
+     * only returned if it was generated for the same key, and its lessons are decoded as they are read.
+     *
+     * @param key The key returned by {@link #keyFor}.
+     * @param technology The technology name the key was computed for.
+     * @param moduleKey The module key the key was computed for.
+     * @return The module, or empty if neither the cache nor a pack has it.
+     */
+    Optional<LearningModule> find(String key, String technology, String moduleKey);
+
+    /**
+     * Copies a curriculum pack into the packs directory, so that its modules are served from then on.
+     *
+     * @return The pack as installed.
+     * @throws IllegalArgumentException if the file is not a readable curriculum pack.
+     */
+    Pack installPack(Path file);
+
+    /**
+     * @return The installed curriculum packs, most recently installed first.
+     */
+    List<Pack> listPacks();
+
+    /**
+     * Stores (or replaces) a module, evicting the least recently used entries
+     * if the cache grows beyond its configured size.
+     */
+    void put(String key, String technology, String moduleKey, LearningModule module);
+
+    /**
+     * @return All cached entries, most recently used first.
+     */
+    List<Entry> listEntries();
+
+    /**
+     * @return The total size of the cache on disk in bytes.
+     */
+    long totalSizeBytes();
+
+    /**
+     * @return The configured maximum size of the cache in bytes.
+     */
+    long maxSizeBytes();
+
+    /**
+     * Searches the title, concept, command and hint of every lesson in every cached module.
+     *
+     * @param query Words, commands or options to look for (e.g., "rebase -i").
+     * @param limit The most hits to return.
+     * @return The best matching lessons across technologies, best first.
+     */
+    List<SearchHit> search(String query, int limit);
+
+    /**
+     * Deletes every cached module. Installed curriculum packs are kept.
+     *
+     * @return The number of entries that were removed.
+     */
+    int purge();
+}
@@ -1,6 +1,8 @@
 package com.axon.service.api;
 
 import com.axon.model.Lesson;
+import org.jline.utils.AttributedStyle;
+
 import java.util.List;
 import java.util.Map;
 
@@ -11,6 +13,37 @@ public interface PromptService {
     Map<String, String> getAvailableModules();
     String getTechnologyName();
     String buildInitialModulePrompt(String moduleKey);
+    /**
+     * @return The number of lessons the initial module prompt asks for.
+     */
+    int getInitialLessonCount();
+
+    /**
+     * @return The inline tags the prompts ask the AI to use in "example_output"
+     *         (e.g., {@code <branch>}), mapped to the style their content is shown in.
+     */
+    Map<String, AttributedStyle> getOutputTagStyles();
+
+    /**
+     * Builds a prompt asking only for the ordered lesson titles of a module, used to plan
+     * a sharded generation. The response is a LearningModule whose lessons only have titles.
+     *
+     * @param moduleKey The module key (e.g., "basics").
+     * @return A formatted prompt string to be sent to the AI.
+     */
+    String buildOutlinePrompt(String moduleKey);
+
+    /**
+     * Builds a prompt for a contiguous slice of a previously generated outline.
+     *
+     * @param moduleKey The module key (e.g., "basics").
+     * @param outlineTitles All lesson titles of the outline, in order.
+     * @param fromIndex The 0-based index of the first lesson of the slice (inclusive).
+     * @param toIndex The 0-based index of the last lesson of the slice (exclusive).
+     * @return A formatted prompt string to be sent to the AI.
+     */
+    String buildLessonSlicePrompt(String moduleKey, List<String> outlineTitles, int fromIndex, int toIndex);
+
     String buildMoreLessonsPrompt(String moduleKey, List<Lesson> existingLessons);
     String buildQuestionPrompt(String question);
 
@@ -0,0 +1,12 @@
+package com.axon.service.api;
+
+/**
+ * Where the learner stands in one (technology, module) track.
+ *
+ * @param technology The lower-case technology key (e.g., "git").
+ * @param moduleKey The module key (e.g., "basics").
+ * @param lessonNumber The 1-based number of the current lesson.
+ * @param lessonCount The number of lessons in the module, or null if they have not been loaded yet.
+ * @param active Whether this is the track the navigation commands act on.
+ */
+public record TrackSummary(String technology, String moduleKey, int lessonNumber, Integer lessonCount, boolean active) {}
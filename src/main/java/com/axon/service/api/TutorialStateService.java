@@ -4,15 +4,42 @@ import com.axon.model.Lesson;
 import java.util.List; // Required for getCurrentModuleLessons
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface TutorialStateService {
     void startModule(String technology, String moduleKey);
     Optional<Lesson> getCurrentLesson();
     Optional<Lesson> getNextLesson();
     String getStatus();
+
+    /**
+     * @return The lower-case technology key of the module in progress (e.g., "git"), if any.
+     */
+    Optional<String> getCurrentTechnology();
     boolean isModuleComplete();
     void appendMoreLessons();
     String answerQuestion(String question);
+
+    /**
+     * Answers a question about the current technology, streaming the answer as it is generated.
+     *
+     * @param question The user's question.
+     * @param onDelta Receives each chunk of the answer as soon as it arrives.
+     * @return The complete answer.
+     */
+    String answerQuestion(String question, Consumer<String> onDelta);
+
+    /**
+     * Answers a question about the current technology, serving a cached answer to the same
+     * (normalized) question if there is one, and streaming a new answer otherwise.
+     *
+     * @param question The user's question.
+     * @param fresh Whether to bypass the answer cache and always ask the AI.
+     * @param onDelta Receives each chunk of the answer; a cached answer arrives as one chunk.
+     * @return The complete answer.
+     */
+    String answerQuestion(String question, boolean fresh, Consumer<String> onDelta);
     Map<String, String> getAvailableModulesForCurrentTechnology();
 
     // --- NEW METHODS FOR NAVIGATION AND SUMMARY ---
@@ -46,4 +73,68 @@ public interface TutorialStateService {
      * @throws IllegalStateException if the module is not yet complete.
      */
     String generateSummary();
+
+    /**
+     * Generates a summary of the current module, streaming it as it is generated.
+     *
+     * @param onDelta Receives each chunk of the summary as soon as it arrives.
+     * @return The complete summary.
+     * @throws IllegalStateException if the module is not yet complete.
+     */
+    String generateSummary(Consumer<String> onDelta);
+
+    /**
+     * Returns the background task that resumes the previous session at startup.
+     * Commands that need the active module should wait on it before reading lessons.
+     *
+     * @return A future that completes when the resume has finished, or an already
+     *         completed future if there was nothing to resume.
+     */
+    CompletableFuture<Void> getPendingResume();
+
+    /**
+     * @return true while lessons of the active module are still being generated in the background.
+     */
+    boolean isGeneratingLessons();
+
+    /**
+     * Checks whether a lesson has not arrived yet but is still expected from the ongoing generation.
+     *
+     * @param lessonNumber The 1-based lesson number.
+     * @return true if the caller should wait for the lesson rather than treat it as missing.
+     */
+    boolean isLessonPending(int lessonNumber);
+
+    /**
+     * @return The 1-based number of the current lesson, or 0 if no module is active.
+     */
+    int getCurrentLessonNumber();
+
+    /**
+     * Makes a previously started module the active one again, at the lesson where the
+     * learner left it. The lessons come from memory or the module cache, never from the AI.
+     *
+     * @param technology The lower-case technology key (e.g., "docker").
+     * @param moduleKey The module key (e.g., "volumes").
+     * @throws IllegalArgumentException if the module was never started.
+     * @throws IllegalStateException if its lessons are no longer cached.
+     */
+    void switchTrack(String technology, String moduleKey);
+
+    /**
+     * Jumps to a lesson of any cached module, such as a search hit: the module is switched to if
+     * it was started before, or started from the module cache otherwise, without asking the AI.
+     *
+     * @param technology The lower-case technology key (e.g., "git").
+     * @param moduleKey The module key (e.g., "basics").
+     * @param lessonNumber The 1-based lesson number to jump to.
+     * @return The lesson, or empty if the module has no lesson with that number.
+     * @throws IllegalStateException if the module's lessons are no longer cached.
+     */
+    Optional<Lesson> openLesson(String technology, String moduleKey, int lessonNumber);
+
+    /**
+     * @return Every module the learner has started, the active one first.
+     */
+    List<TrackSummary> getTracks();
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AiRequestType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The OpenAI-compatible providers and models that AI requests can be routed to, configured as
+ * {@code app.ai.providers[0].name}, {@code .url}, {@code .api-key}, {@code .model}, {@code .roles}
+ * and {@code .cost-per-million-tokens}. Unset fields fall back to {@code app.ai.api-url},
+ * {@code app.fireworks.api-key} and {@code app.ai.model}; when no provider is configured at all,
+ * those three form the only provider, serving every role.
+ *
+ * @param providers The providers, in order of preference when nothing is known about them yet.
+ */
+@ConfigurationProperties("app.ai")
+public record AiProviderProperties(List<Provider> providers) {
+
+    /**
+     * What a provider is used for.
+     */
+    public enum Role {
+        /** Lesson generation: modules, their outlines, and further batches. */
+        BULK,
+        /** Answers to the learner's questions. */
+        INTERACTIVE,
+        /** Module summaries. */
+        SUMMARY;
+
+        public static Role of(AiRequestType type) {
+            return switch (type) {
+                case MODULE, OUTLINE, MORE -> BULK;
+                case ASK -> INTERACTIVE;
+                case SUMMARY -> SUMMARY;
+            };
+        }
+    }
+
+    /**
+     * @param name A short name for metrics and messages (e.g., "small"); defaults to the last part of the model.
+     * @param url The chat completions endpoint.
+     * @param apiKey The bearer token for the endpoint.
+     * @param model The model to request.
+     * @param roles The roles this provider serves; all of them if empty.
+     * @param costPerMillionTokens The price, used to send lesson generation to the cheapest provider.
+     */
+    public record Provider(String name, String url, String apiKey, String model, Set<Role> roles, double costPerMillionTokens) {
+
+        public Provider {
+            roles = roles == null || roles.isEmpty() ? EnumSet.allOf(Role.class) : EnumSet.copyOf(roles);
+        }
+
+        /**
+         * @return This provider with its unset fields taken from the defaults.
+         */
+        Provider withDefaults(String defaultUrl, String defaultApiKey, String defaultModel) {
+            String resolvedModel = model != null && !model.isBlank() ? model : defaultModel;
+            return new Provider(
+                    name != null && !name.isBlank() ? name : resolvedModel.substring(resolvedModel.lastIndexOf('/') + 1),
+                    url != null && !url.isBlank() ? url : defaultUrl,
+                    apiKey != null && !apiKey.isBlank() ? apiKey : defaultApiKey,
+                    resolvedModel,
+                    roles,
+                    costPerMillionTokens);
+        }
+    }
+
+    public AiProviderProperties {
+        providers = providers == null ? List.of() : List.copyOf(providers);
+    }
+}
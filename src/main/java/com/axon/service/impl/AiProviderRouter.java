@@ -0,0 +1,245 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.impl.AiProviderProperties.Provider;
+import com.axon.service.impl.AiProviderProperties.Role;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which provider serves an AI request, and in which order the others are tried if it fails.
+ * <p>
+ * For every provider and kind of request it keeps a moving average of the latency (the time to
+ * the first token when streamed) and of the error rate. Answers and summaries go to the provider
+ * with the lowest latency, weighted up by its error rate; lesson generation, which is long and
+ * not watched as it happens, goes to the cheapest provider. A provider that has not served a kind
+ * of request yet is tried before the measured ones, so that it gets measured. A provider that has
+ * just failed is put last for a while.
+ * <p>
+ * Each provider also has its own {@link CircuitBreaker}: after repeated failures in a row it is
+ * skipped altogether until the breaker lets a trial request through, while the other providers
+ * keep serving.
+ */
+@Component
+public class AiProviderRouter {
+
+    // How much an error rate of 100% multiplies a provider's latency by, when ranking.
+    private static final double ERROR_PENALTY = 4.0;
+
+    /**
+     * What is known about one provider for one kind of request.
+     *
+     * @param streamed Whether the latency is to the first streamed token rather than to the whole response.
+     * @param latency The moving average latency, or null if it has not succeeded yet.
+     * @param errorRate The moving average share of failed requests, between 0 and 1.
+     * @param requests The number of requests it has completed or failed.
+     * @param coolingDown Whether it failed recently and is tried last.
+     */
+    public record Score(Provider provider, AiRequestType type, boolean streamed, Duration latency, double errorRate, long requests, boolean coolingDown) {}
+
+    private record Key(String provider, AiRequestType type, boolean streamed) {}
+
+    private static final class Stats {
+        private double latencyNanos = Double.NaN;
+        private double errorRate;
+        private long requests;
+        private long cooldownUntilNanos;
+    }
+
+    private final List<Provider> providers;
+    private final double smoothing;
+    private final Duration failureCooldown;
+    private final Map<Key, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers;
+
+    public AiProviderRouter(AiProviderProperties properties,
+                            @Value("${app.ai.api-url}") String apiUrl,
+                            @Value("${app.fireworks.api-key}") String apiKey,
+                            @Value("${app.ai.model}") String model,
+                            @Value("${app.ai.routing.smoothing:0.3}") double smoothing,
+                            @Value("${app.ai.routing.failure-cooldown:30s}") Duration failureCooldown,
+                            @Value("${app.ai.resilience.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                            @Value("${app.ai.resilience.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        List<Provider> configured = properties.providers().isEmpty()
+                ? List.of(new Provider(null, null, null, null, EnumSet.allOf(Role.class), 0))
+                : properties.providers();
+        this.providers = configured.stream().map(provider -> provider.withDefaults(apiUrl, apiKey, model)).toList();
+        Set<String> names = new HashSet<>();
+        for (Provider provider : providers) {
+            if (!names.add(provider.name())) {
+                throw new IllegalStateException("Two AI providers are named '" + provider.name() + "'. Give them distinct names in app.ai.providers[n].name.");
+            }
+        }
+        this.circuitBreakers = providers.stream().collect(Collectors.toUnmodifiableMap(Provider::name,
+                provider -> new CircuitBreaker(failureThreshold, openDuration)));
+        this.smoothing = Math.min(1.0, Math.max(0.01, smoothing));
+        this.failureCooldown = failureCooldown;
+        for (Role role : Role.values()) {
+            if (providers.stream().noneMatch(provider -> provider.roles().contains(role))) {
+                System.err.println("Warning: No AI provider has the role " + role + "; every provider will be used for it.");
+            }
+        }
+    }
+
+    public List<Provider> getProviders() {
+        return providers;
+    }
+
+    /**
+     * @return The providers to try for the request, best first. Never empty.
+     */
+    public List<Provider> candidates(AiRequestContext context, boolean streamed) {
+        Role role = Role.of(context.type());
+        List<Provider> eligible = providers.stream().filter(provider -> provider.roles().contains(role)).toList();
+        if (eligible.isEmpty()) {
+            eligible = providers;
+        }
+        long now = System.nanoTime();
+        Comparator<Provider> byLatency = Comparator.comparingDouble(provider -> weightedLatency(provider, context.type(), streamed));
+        Comparator<Provider> order = role == Role.BULK
+                ? Comparator.comparingDouble(Provider::costPerMillionTokens).thenComparing(byLatency)
+                : byLatency;
+        // The sort is stable, so providers that rank equally keep their configured order.
+        List<Provider> ordered = new ArrayList<>(eligible);
+        ordered.sort(Comparator.comparing((Provider provider) -> isCoolingDown(provider, context.type(), streamed, now)).thenComparing(order));
+        return ordered;
+    }
+
+    /**
+     * @return Whether a request may be sent to the provider now, i.e. its circuit breaker is not
+     *         open. A permitted request must report its outcome with one of the record methods.
+     */
+    public boolean tryAcquire(Provider provider) {
+        return circuitBreakers.get(provider.name()).tryAcquire();
+    }
+
+    /**
+     * @return How long the provider's circuit breaker stays open, or zero if requests may be sent.
+     */
+    public Duration circuitOpenTime(Provider provider) {
+        return circuitBreakers.get(provider.name()).remainingOpenTime();
+    }
+
+    /**
+     * @param latency How long the provider took to start answering.
+     */
+    public void recordSuccess(Provider provider, AiRequestContext context, boolean streamed, Duration latency) {
+        circuitBreakers.get(provider.name()).onSuccess();
+        Stats entry = stats.computeIfAbsent(new Key(provider.name(), context.type(), streamed), key -> new Stats());
+        synchronized (entry) {
+            double nanos = latency.toNanos();
+            entry.latencyNanos = Double.isNaN(entry.latencyNanos) ? nanos : entry.latencyNanos + smoothing * (nanos - entry.latencyNanos);
+            entry.errorRate -= smoothing * entry.errorRate;
+            entry.requests++;
+            entry.cooldownUntilNanos = 0;
+        }
+    }
+
+    /**
+     * @param retryable Whether the provider itself is failing, rather than rejecting this request;
+     *                  only then does the failure count towards opening its circuit breaker.
+     */
+    public void recordFailure(Provider provider, AiRequestContext context, boolean streamed, boolean retryable) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(provider.name());
+        if (retryable) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+        Stats entry = stats.computeIfAbsent(new Key(provider.name(), context.type(), streamed), key -> new Stats());
+        synchronized (entry) {
+            entry.errorRate += smoothing * (1.0 - entry.errorRate);
+            entry.requests++;
+            entry.cooldownUntilNanos = System.nanoTime() + failureCooldown.toNanos();
+        }
+    }
+
+    /**
+     * Reports a request that ended without telling anything about the provider, e.g. because it was cancelled.
+     */
+    public void recordAbandoned(Provider provider) {
+        circuitBreakers.get(provider.name()).onIgnored();
+    }
+
+    /**
+     * @return What is known about every provider, for each kind of request it has served.
+     */
+    public List<Score> getScores() {
+        long now = System.nanoTime();
+        List<Score> scores = new ArrayList<>();
+        for (Provider provider : providers) {
+            for (AiRequestType type : AiRequestType.values()) {
+                for (boolean streamed : new boolean[]{false, true}) {
+                    Stats entry = stats.get(new Key(provider.name(), type, streamed));
+                    if (entry == null) {
+                        continue;
+                    }
+                    synchronized (entry) {
+                        Duration latency = Double.isNaN(entry.latencyNanos) ? null : Duration.ofNanos((long) entry.latencyNanos);
+                        scores.add(new Score(provider, type, streamed, latency, entry.errorRate, entry.requests, isCoolingDown(entry, now)));
+                    }
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * @return The model of the provider that is preferred for the kind of request by configuration
+     * alone: the cheapest for lesson generation, otherwise the first one listed. Caches are keyed by
+     * it, so it does not change with measured latencies or when providers are added after it. A
+     * response that another provider served while this one was failing is cached under it too.
+     */
+    public String modelName(AiRequestType type) {
+        Role role = Role.of(type);
+        List<Provider> eligible = providers.stream().filter(provider -> provider.roles().contains(role)).toList();
+        if (eligible.isEmpty()) {
+            eligible = providers;
+        }
+        Comparator<Provider> preference = role == Role.BULK
+                ? Comparator.comparingDouble(Provider::costPerMillionTokens)
+                : (a, b) -> 0;
+        return eligible.stream().min(preference).orElseThrow().model();
+    }
+
+    private double weightedLatency(Provider provider, AiRequestType type, boolean streamed) {
+        Stats entry = stats.get(new Key(provider.name(), type, streamed));
+        if (entry == null) {
+            // Unmeasured providers rank first, so that every one of them gets measured.
+            return -1;
+        }
+        synchronized (entry) {
+            if (Double.isNaN(entry.latencyNanos)) {
+                // It has only ever failed.
+                return Double.POSITIVE_INFINITY;
+            }
+            return entry.latencyNanos * (1 + ERROR_PENALTY * entry.errorRate);
+        }
+    }
+
+    private boolean isCoolingDown(Provider provider, AiRequestType type, boolean streamed, long now) {
+        Stats entry = stats.get(new Key(provider.name(), type, streamed));
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            return isCoolingDown(entry, now);
+        }
+    }
+
+    private static boolean isCoolingDown(Stats entry, long now) {
+        return entry.cooldownUntilNanos != 0 && entry.cooldownUntilNanos - now > 0;
+    }
+}
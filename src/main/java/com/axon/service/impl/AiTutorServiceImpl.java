@@ -1,100 +1,404 @@
 package com.axon.service.impl;
 
 import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.AiServiceException;
 import com.axon.service.api.AiTutorService;
+import com.axon.service.api.CancellationToken;
+import com.axon.service.impl.AiProviderProperties.Provider;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Service
 public class AiTutorServiceImpl implements AiTutorService {
 
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
-    private final String apiUrl;
-    private final String apiToken;
+    private final MeterRegistry meterRegistry;
+    private final TokenBudget tokenBudget;
+    private final AiProviderRouter router;
+    private final boolean warmUp;
 
     public AiTutorServiceImpl(ObjectMapper objectMapper,
-                              @Value("${app.ai.api-url}") String apiUrl,
-                              @Value("${app.fireworks.api-key}") String apiToken) {
+                              MeterRegistry meterRegistry,
+                              TokenBudget tokenBudget,
+                              AiProviderRouter router,
+                              @Value("${app.ai.http.max-idle-connections:5}") int maxIdleConnections,
+                              @Value("${app.ai.http.keep-alive:5m}") Duration keepAlive,
+                              @Value("${app.ai.http.connect-timeout:10s}") Duration connectTimeout,
+                              @Value("${app.ai.http.read-timeout:60s}") Duration readTimeout,
+                              @Value("${app.ai.http.warm-up:true}") boolean warmUp) {
         this.objectMapper = objectMapper;
-        this.apiUrl = apiUrl;
-        this.apiToken = apiToken;
+        this.meterRegistry = meterRegistry;
+        this.tokenBudget = tokenBudget;
+        this.router = router;
+        this.warmUp = warmUp;
         this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(60, TimeUnit.SECONDS)
-                .writeTimeout(60, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                // OkHttp's default dispatcher threads are not daemons and linger for a minute after
+                // the warm-up request, which kept the JVM from exiting after 'exit'.
+                .dispatcher(new Dispatcher(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("axon-ai-async").factory())))
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(connectTimeout)
+                .writeTimeout(readTimeout)
+                .readTimeout(readTimeout)
                 .build();
     }
 
+    /**
+     * Opens (and TLS-handshakes) a pooled connection to each AI endpoint in the background,
+     * so the first real request does not pay for connection setup.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void warmUpConnection() {
+        if (!warmUp) {
+            return;
+        }
+        router.getProviders().stream().map(Provider::url).distinct().forEach(url -> {
+            Request request = new Request.Builder().url(url).head().build();
+            httpClient.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    // Warm-up is best effort; the first real request will simply connect itself.
+                }
+            });
+        });
+    }
+
+    /**
+     * One HTTP exchange with one provider.
+     */
+    @FunctionalInterface
+    private interface Exchange {
+        Completion run(Provider provider, Consumer<String> onDelta);
+    }
+
+    /**
+     * The text of a completion and why it stopped.
+     *
+     * @param maxTokens The token limit that was sent with the request.
+     */
+    private record Completion(String content, String finishReason, int maxTokens) {
+        boolean truncated() {
+            return "length".equals(finishReason);
+        }
+    }
+
+    @Override
+    public LearningModule generateModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+        return parseModule(context, executeAiQuery(context, prompt, maxTokens, 0.0));
+    }
+
+    @Override
+    public String answerQuestionFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+        return executeAiQuery(context, prompt, maxTokens, 0.1).content();
+    }
+
+    @Override
+    public LearningModule streamModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<Lesson> onLesson) {
+        IncrementalModuleParser parser = new IncrementalModuleParser(objectMapper, onLesson);
+        Completion completion = streamCompletion(context, prompt, maxTokens, 0.0, parser::feed);
+        if (parser.isComplete()) {
+            return parser.toModule();
+        }
+        // The stream was not clean JSON; fall back to parsing the complete response.
+        return parseModule(context, completion);
+    }
+
     @Override
-    public LearningModule generateModuleFromPrompt(String prompt, int maxTokens) {
-        String rawApiResponse = executeAiQuery(prompt, maxTokens, 0.0);
-        String cleanJson = extractJson(rawApiResponse);
+    public String streamAnswerFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<String> onDelta) {
+        return streamCompletion(context, prompt, maxTokens, 0.1, onDelta).content();
+    }
+
+    private LearningModule parseModule(AiRequestContext context, Completion completion) {
+        String cleanJson = completion.content();
         try {
+            cleanJson = extractJson(completion.content());
             return objectMapper.readValue(cleanJson, LearningModule.class);
         } catch (Exception e) {
+            meterRegistry.counter("axon.ai.parse.failures", "type", context.type().tag()).increment();
+            if (completion.truncated()) {
+                // The token budget has been raised for the next attempt, so this is worth retrying.
+                throw new AiServiceException("The AI response was cut off at " + completion.maxTokens() + " tokens.",
+                        0, null, true, e);
+            }
             System.err.println("Failed to parse the following JSON:\n" + cleanJson);
             throw new RuntimeException("Failed to parse AI module response.", e);
         }
     }
 
+    private Completion streamCompletion(AiRequestContext context, String prompt, int nominalTokens, double temperature, Consumer<String> onDelta) {
+        int maxTokens = tokenBudget.maxTokensFor(context, nominalTokens);
+        return route(context, true, onDelta, (provider, sink) ->
+                streamCompletion(provider, context, prompt, nominalTokens, maxTokens, temperature, sink));
+    }
+
+    /**
+     * Sends the request to the best provider the router knows of, and to the next one whenever a
+     * provider fails before anything has been passed to {@code onDelta}. Once part of a streamed
+     * answer has been delivered, a failure is thrown instead, as the answer cannot be restarted.
+     * Providers whose circuit breaker is open are skipped.
+     */
+    private Completion route(AiRequestContext context, boolean streamed, Consumer<String> onDelta, Exchange exchange) {
+        List<Provider> candidates = router.candidates(context, streamed);
+        AiServiceException lastError = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Provider provider = candidates.get(i);
+            if (!router.tryAcquire(provider)) {
+                continue;
+            }
+            AtomicBoolean delivered = new AtomicBoolean();
+            long start = System.nanoTime();
+            AtomicLong firstDeltaNanos = new AtomicLong();
+            try {
+                Completion completion = exchange.run(provider, delta -> {
+                    if (!delivered.getAndSet(true)) {
+                        firstDeltaNanos.set(System.nanoTime());
+                    }
+                    onDelta.accept(delta);
+                });
+                long end = streamed && delivered.get() ? firstDeltaNanos.get() : System.nanoTime();
+                router.recordSuccess(provider, context, streamed, Duration.ofNanos(end - start));
+                return completion;
+            } catch (AiServiceException e) {
+                router.recordFailure(provider, context, streamed, e.isRetryable());
+                if (delivered.get()) {
+                    throw e;
+                }
+                lastError = e;
+                if (i < candidates.size() - 1) {
+                    meterRegistry.counter("axon.ai.failovers", "type", context.type().tag(), "provider", provider.name()).increment();
+                    System.err.println("Warning: The AI provider '" + provider.name() + "' failed (" + e.getMessage() + "); trying the next one.");
+                }
+            } catch (RuntimeException e) {
+                router.recordAbandoned(provider);
+                throw e;
+            }
+        }
+        if (lastError != null) {
+            throw lastError;
+        }
+        Duration remaining = candidates.stream().map(router::circuitOpenTime).min(Comparator.naturalOrder()).orElse(Duration.ZERO);
+        throw new CircuitOpenException((candidates.size() == 1 ? "The AI provider is" : "Every AI provider is")
+                + " currently failing; requests are paused for another " + Math.max(1, remaining.toSeconds()) + "s.", remaining);
+    }
+
+    private Completion streamCompletion(Provider provider, AiRequestContext context, String prompt, int nominalTokens, int maxTokens,
+                                        double temperature, Consumer<String> onDelta) {
+        Request request = buildRequest(provider, prompt, maxTokens, temperature, true);
+        StringBuilder answer = new StringBuilder();
+        Call call = httpClient.newCall(request);
+        CancellationToken cancellation = CancellationToken.current();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean firstDelta = true;
+        JsonNode usage = null;
+        String finishReason = null;
+        try (CancellationToken.Registration ignored = cancellation.onCancel(call::cancel);
+             Response response = call.execute()) {
+            if (!response.isSuccessful()) {
+                String errorBody = response.body() != null ? response.body().string() : "No response body";
+                throw httpError(response, errorBody);
+            }
+            if (response.body() == null) {
+                throw new AiServiceException("API call returned no response body.", response.code(), null, true, null);
+            }
+            // Server-sent events: one "data: {json}" line per chunk, terminated by "data: [DONE]".
+            BufferedSource source = response.body().source();
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring(5).trim();
+                if (data.equals("[DONE]")) {
+                    break;
+                }
+                JsonNode chunk = objectMapper.readTree(data);
+                // Token usage and the finish reason arrive with the last chunk.
+                if (chunk.path("usage").isObject()) {
+                    usage = chunk.path("usage");
+                }
+                JsonNode choice = chunk.path("choices").path(0);
+                if (choice.hasNonNull("finish_reason")) {
+                    finishReason = choice.get("finish_reason").asText();
+                }
+                String delta = choice.path("delta").path("content").asText("");
+                if (!delta.isEmpty()) {
+                    if (firstDelta) {
+                        firstDelta = false;
+                        sample.stop(meterRegistry.timer("axon.ai.first.token", "type", context.type().tag()));
+                    }
+                    answer.append(delta);
+                    onDelta.accept(delta);
+                }
+            }
+            recordCompletion(provider, context, true, "success", sample, usage);
+            recordUsage(context, nominalTokens, maxTokens, usage, finishReason);
+            return new Completion(answer.toString(), finishReason, maxTokens);
+        } catch (Exception e) {
+            if (cancellation.isCancelled()) {
+                recordCompletion(provider, context, true, "cancelled", sample, usage);
+                throw new CancellationException("The AI request was cancelled.");
+            }
+            recordCompletion(provider, context, true, "error", sample, usage);
+            if (!answer.isEmpty()) {
+                System.err.println("\n--- PARTIAL STREAMED RESPONSE ---");
+                System.err.println(answer);
+                System.err.println("--- END PARTIAL RESPONSE ---\n");
+            }
+            throw toAiServiceException(e);
+        }
+    }
+
     @Override
-    public String answerQuestionFromPrompt(String prompt, int maxTokens) {
-        return executeAiQuery(prompt, maxTokens, 0.1);
+    public String getModelName(AiRequestType type) {
+        return router.modelName(type);
+    }
+
+    private Completion executeAiQuery(AiRequestContext context, String prompt, int nominalTokens, double temperature) {
+        int maxTokens = tokenBudget.maxTokensFor(context, nominalTokens);
+        return route(context, false, delta -> {}, (provider, sink) ->
+                executeAiQuery(provider, context, prompt, nominalTokens, maxTokens, temperature));
+    }
+
+    private Completion executeAiQuery(Provider provider, AiRequestContext context, String prompt, int nominalTokens, int maxTokens, double temperature) {
+        Request request = buildRequest(provider, prompt, maxTokens, temperature, false);
+
+        String rawApiResponseForDebugging = "";
+        Call call = httpClient.newCall(request);
+        CancellationToken cancellation = CancellationToken.current();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        JsonNode usage = null;
+        try (CancellationToken.Registration ignored = cancellation.onCancel(call::cancel);
+             Response response = call.execute()) {
+            rawApiResponseForDebugging = response.body() != null ? response.body().string() : "No response body";
+            if (!response.isSuccessful()) {
+                throw httpError(response, rawApiResponseForDebugging);
+            }
+            JsonNode root = objectMapper.readTree(rawApiResponseForDebugging);
+            usage = root.path("usage");
+            JsonNode choices = root.path("choices");
+            if (choices.isEmpty()) {
+                throw new AiServiceException("The AI returned no choices.", response.code(), null, true, null);
+            }
+            JsonNode choice = choices.get(0);
+            String finishReason = choice.hasNonNull("finish_reason") ? choice.get("finish_reason").asText() : null;
+            recordCompletion(provider, context, false, "success", sample, usage);
+            recordUsage(context, nominalTokens, maxTokens, usage, finishReason);
+            return new Completion(choice.path("message").path("content").asText(), finishReason, maxTokens);
+        } catch (Exception e) {
+            if (cancellation.isCancelled()) {
+                recordCompletion(provider, context, false, "cancelled", sample, usage);
+                throw new CancellationException("The AI request was cancelled.");
+            }
+            recordCompletion(provider, context, false, "error", sample, usage);
+            if (!rawApiResponseForDebugging.isEmpty()) {
+                System.err.println("\n--- RAW API RESPONSE ---");
+                System.err.println(rawApiResponseForDebugging);
+                System.err.println("--- END RAW RESPONSE ---\n");
+            }
+            throw toAiServiceException(e);
+        }
+    }
+
+    /**
+     * Records the latency of one HTTP exchange and the tokens it consumed, as reported in the
+     * response's {@code usage} block (if the provider sent one).
+     */
+    private void recordCompletion(Provider provider, AiRequestContext context, boolean streamed, String outcome, Timer.Sample sample, JsonNode usage) {
+        String type = context.type().tag();
+        sample.stop(meterRegistry.timer("axon.ai.request", "type", type, "provider", provider.name(),
+                "streamed", String.valueOf(streamed), "outcome", outcome));
+        if (usage != null && usage.isObject()) {
+            meterRegistry.counter("axon.ai.tokens", "type", type, "kind", "prompt").increment(usage.path("prompt_tokens").asLong(0));
+            meterRegistry.counter("axon.ai.tokens", "type", type, "kind", "completion").increment(usage.path("completion_tokens").asLong(0));
+        }
     }
 
-    private String executeAiQuery(String prompt, int maxTokens, double temperature) {
-        ObjectNode payload = objectMapper.createObjectNode();
-        payload.put("model", "accounts/fireworks/models/qwen3-coder-30b-a3b-instruct");
+    private void recordUsage(AiRequestContext context, int nominalTokens, int maxTokens, JsonNode usage, String finishReason) {
+        Integer completionTokens = usage != null && usage.path("completion_tokens").isNumber() ? usage.path("completion_tokens").asInt() : null;
+        if (tokenBudget.record(context, nominalTokens, maxTokens, completionTokens, finishReason)) {
+            meterRegistry.counter("axon.ai.truncations", "type", context.type().tag()).increment();
+        }
+    }
 
-        ArrayNode messages = objectMapper.createArrayNode();
-        ObjectNode userMessage = objectMapper.createObjectNode();
-        userMessage.put("role", "user");
-        userMessage.put("content", prompt);
-        messages.add(userMessage);
+    private AiServiceException httpError(Response response, String body) {
+        int code = response.code();
+        // Rate limiting, request timeouts and server errors are transient; other client errors are not.
+        boolean retryable = code == 408 || code == 429 || code >= 500;
+        return new AiServiceException("API call failed with code " + code + ": " + body, code, retryAfter(response), retryable, null);
+    }
 
-        payload.set("messages", messages);
-        payload.put("max_tokens", maxTokens);
-        payload.put("temperature", temperature);
+    private static Duration retryAfter(Response response) {
+        String value = response.header("Retry-After");
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            return date != null ? Duration.between(Instant.now(), date.toInstant()) : null;
+        }
+    }
 
-        String requestBodyJson;
+    private static AiServiceException toAiServiceException(Exception e) {
+        if (e instanceof AiServiceException aiServiceException) {
+            return aiServiceException;
+        }
+        // Timeouts and dropped connections surface as IOExceptions and are worth another attempt.
+        boolean retryable = e instanceof IOException;
+        return new AiServiceException("Could not get a response from the AI: " + e.getMessage(), 0, null, retryable, e);
+    }
+
+    private Request buildRequest(Provider provider, String prompt, int maxTokens, double temperature, boolean stream) {
+        byte[] requestBodyJson;
         try {
-            requestBodyJson = objectMapper.writeValueAsString(payload);
+            requestBodyJson = objectMapper.writeValueAsBytes(ChatCompletionRequest.of(provider.model(), prompt, maxTokens, temperature, stream));
         } catch (Exception e) {
             throw new RuntimeException("Internal error: Failed to create JSON payload", e);
         }
 
-        MediaType JSON = MediaType.get("application/json; charset=utf-8");
         RequestBody body = RequestBody.create(requestBodyJson, JSON);
-        Request request = new Request.Builder()
-                .url(this.apiUrl)
-                .header("Authorization", "Bearer " + this.apiToken)
+        return new Request.Builder()
+                .url(provider.url())
+                .header("Authorization", "Bearer " + provider.apiKey())
+                .header("Accept", stream ? "text/event-stream" : "application/json")
                 .post(body)
                 .build();
-
-        String rawApiResponseForDebugging = "";
-        try (Response response = httpClient.newCall(request).execute()) {
-            rawApiResponseForDebugging = response.body() != null ? response.body().string() : "No response body";
-            if (!response.isSuccessful()) {
-                throw new RuntimeException("API call failed with code " + response.code() + ": " + rawApiResponseForDebugging);
-            }
-            JsonNode responseNode = objectMapper.readTree(rawApiResponseForDebugging);
-            return responseNode.path("choices").get(0).path("message").path("content").asText();
-        } catch (Exception e) {
-            System.err.println("\n--- RAW API RESPONSE ---");
-            System.err.println(rawApiResponseForDebugging);
-            System.err.println("--- END RAW RESPONSE ---\n");
-            throw new RuntimeException("Could not get a response from the AI: " + e.getMessage(), e);
-        }
     }
 
-    private String extractJson(String text) {
+    static String extractJson(String text) {
         int firstBrace = text.indexOf('{');
         int lastBrace = text.lastIndexOf('}');
         if (firstBrace != -1 && lastBrace > firstBrace) {
@@ -0,0 +1,281 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AnswerCacheService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Service
+public class AnswerCacheServiceImpl implements AnswerCacheService {
+
+    /** The on-disk representation of a cache entry. */
+    public record CachedAnswer(String technology, String question, String model, String answer, Instant createdAt) {}
+
+    private record MemoryEntry(String answer, Instant createdAt) {}
+
+    private static final Path CACHE_DIR = Path.of(System.getProperty("user.home"), ".axon", "answers");
+    private static final String SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Temporary files older than this were left by a session that crashed while writing them.
+    private static final Duration STALE_TEMP_AGE = Duration.ofHours(1);
+
+    private static final Pattern QUOTES = Pattern.compile("[\"'`‘’“”]");
+    private static final Pattern SEPARATORS = Pattern.compile("[,;:]+(?=\\s|$)");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?!.]+$");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int maxDiskEntries;
+    private final Map<String, MemoryEntry> memory;
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // The entries on disk, counted on first use and then kept up to date by this session; other
+    // sessions' writes are only seen when an eviction lists the directory. -1 until counted.
+    private int diskEntries = -1;
+
+    public AnswerCacheServiceImpl(ObjectMapper objectMapper,
+                                  @Value("${app.cache.answers.ttl:7d}") Duration ttl,
+                                  @Value("${app.cache.answers.memory-entries:256}") int maxMemoryEntries,
+                                  @Value("${app.cache.answers.disk-entries:2000}") int maxDiskEntries) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.maxDiskEntries = Math.max(1, maxDiskEntries);
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+    }
+
+    /**
+     * Reduces a question to the form used for lookups: Unicode-normalized, lower case, without
+     * quotes, clause separators or trailing punctuation, and with whitespace collapsed.
+     * Punctuation inside words (e.g., "--hard" or "HEAD~1") is kept, since it changes the meaning.
+     */
+    static String normalize(String question) {
+        String text = Normalizer.normalize(question, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        text = QUOTES.matcher(text).replaceAll("");
+        text = SEPARATORS.matcher(text).replaceAll(" ");
+        text = TRAILING_PUNCTUATION.matcher(text.strip()).replaceAll("");
+        return WHITESPACE.matcher(text).replaceAll(" ").strip();
+    }
+
+    @Override
+    public synchronized Optional<String> get(String technology, String question, String model) {
+        String key = keyFor(technology, question, model);
+        Instant now = Instant.now();
+
+        MemoryEntry inMemory = memory.get(key);
+        if (inMemory != null) {
+            if (!isExpired(inMemory.createdAt(), now)) {
+                memoryHits.increment();
+                return Optional.of(inMemory.answer());
+            }
+            memory.remove(key);
+        }
+
+        Path file = fileFor(key);
+        if (Files.exists(file)) {
+            try {
+                CachedAnswer cached = objectMapper.readValue(file.toFile(), CachedAnswer.class);
+                if (!isExpired(cached.createdAt(), now)) {
+                    Files.setLastModifiedTime(file, FileTime.from(now));
+                    memory.put(key, new MemoryEntry(cached.answer(), cached.createdAt()));
+                    diskHits.increment();
+                    return Optional.of(cached.answer());
+                }
+                removeEntry(file);
+            } catch (IOException e) {
+                System.err.println("Warning: Discarding unreadable answer cache entry " + key + ". " + e.getMessage());
+                removeEntry(file);
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void put(String technology, String question, String model, String answer) {
+        String key = keyFor(technology, question, model);
+        Instant now = Instant.now();
+        memory.put(key, new MemoryEntry(answer, now));
+
+        Path file = fileFor(key);
+        try {
+            Files.createDirectories(CACHE_DIR);
+            int entries = countDiskEntries();
+            boolean replacing = Files.exists(file);
+            // Write to a temporary file first so a crash never leaves a half-written entry behind.
+            Path temp = Files.createTempFile(CACHE_DIR, key, TEMP_SUFFIX);
+            try {
+                objectMapper.writeValue(temp.toFile(), new CachedAnswer(technology.toLowerCase(), question, model, answer, now));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Only left behind if the write or the move failed.
+                Files.deleteIfExists(temp);
+            }
+            diskEntries = replacing ? entries : entries + 1;
+            evictIfNeeded();
+        } catch (IOException e) {
+            System.err.println("Warning: Could not write answer cache entry: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized Stats getStats() {
+        return new Stats(memoryHits.sum(), diskHits.sum(), misses.sum(), memory.size(), countDiskEntries());
+    }
+
+    @Override
+    public synchronized int purge() {
+        memory.clear();
+        int removed = 0;
+        for (Path file : cacheFiles().toList()) {
+            if (deleteQuietly(file)) {
+                removed++;
+            }
+        }
+        diskEntries = -1;
+        return removed;
+    }
+
+    /**
+     * Removes the temporary files that a session which crashed while writing an entry left behind.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void deleteStaleTempFiles() {
+        if (!Files.isDirectory(CACHE_DIR)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(STALE_TEMP_AGE);
+        try (Stream<Path> files = Files.list(CACHE_DIR)) {
+            files.filter(f -> f.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .filter(f -> lastModified(f).toInstant().isBefore(cutoff))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            System.err.println("Warning: Could not clean up temporary files in " + CACHE_DIR + ": " + e.getMessage());
+        }
+    }
+
+    private String keyFor(String technology, String question, String model) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{technology.toLowerCase(), normalize(question), model}) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available on this JVM.", e);
+        }
+    }
+
+    private boolean isExpired(Instant createdAt, Instant now) {
+        return createdAt == null || createdAt.plus(ttl).isBefore(now);
+    }
+
+    /**
+     * Removes the least recently used entries until the store fits its entry limit. The directory
+     * is only listed once the entry count says the limit is exceeded.
+     */
+    private void evictIfNeeded() {
+        if (countDiskEntries() <= maxDiskEntries) {
+            return;
+        }
+        List<Path> files = cacheFilesByRecency();
+        int remaining = files.size();
+        for (int i = files.size() - 1; i >= maxDiskEntries; i--) {
+            if (deleteQuietly(files.get(i))) {
+                remaining--;
+            }
+        }
+        diskEntries = remaining;
+    }
+
+    private int countDiskEntries() {
+        if (diskEntries < 0) {
+            try (Stream<Path> files = cacheFiles()) {
+                diskEntries = (int) files.count();
+            }
+        }
+        return diskEntries;
+    }
+
+    private List<Path> cacheFilesByRecency() {
+        try (Stream<Path> files = cacheFiles()) {
+            // Read each file's time once rather than on every comparison.
+            return files.map(f -> Map.entry(f, lastModified(f)))
+                    .sorted(Map.Entry.<Path, FileTime>comparingByValue().reversed())
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+
+    /**
+     * @return The cache entries on disk; the caller closes the stream.
+     */
+    private Stream<Path> cacheFiles() {
+        if (!Files.isDirectory(CACHE_DIR)) {
+            return Stream.empty();
+        }
+        try {
+            return Files.list(CACHE_DIR).filter(f -> f.getFileName().toString().endsWith(SUFFIX));
+        } catch (IOException e) {
+            System.err.println("Warning: Could not read answer cache directory: " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    private Path fileFor(String key) {
+        return CACHE_DIR.resolve(key + SUFFIX);
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void removeEntry(Path file) {
+        if (deleteQuietly(file) && diskEntries > 0) {
+            diskEntries--;
+        }
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Warning: Could not delete answer cache entry " + file.getFileName() + ". " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.axon.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * The request body of an OpenAI-compatible chat completion call, serialized directly by
+ * Jackson instead of being assembled node by node.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatCompletionRequest(
+        String model,
+        List<Message> messages,
+        @JsonProperty("max_tokens") int maxTokens,
+        double temperature,
+        Boolean stream,
+        @JsonProperty("stream_options") StreamOptions streamOptions
+) {
+
+    public record Message(String role, String content) {}
+
+    /**
+     * Without {@code include_usage}, OpenAI-compatible endpoints leave the token usage out of a
+     * streamed response; with it, the usage arrives in a last chunk that has no choices.
+     */
+    public record StreamOptions(@JsonProperty("include_usage") boolean includeUsage) {}
+
+    public static ChatCompletionRequest of(String model, String prompt, int maxTokens, double temperature, boolean stream) {
+        return new ChatCompletionRequest(model, List.of(new Message("user", prompt)), maxTokens, temperature,
+                stream ? Boolean.TRUE : null, stream ? new StreamOptions(true) : null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.axon.service.impl;
+
+import java.time.Duration;
+
+/**
+ * A consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row it
+ * opens and rejects calls for {@code openDuration}; then a single trial call is let through,
+ * whose outcome either closes the circuit again or re-opens it.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean trialInFlight = false;
+
+    CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return Whether a call may be sent now. A permitted call must report its outcome.
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialInFlight) {
+                    yield false;
+                }
+                trialInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * Releases a permit whose call ended without telling us anything about the provider,
+     * e.g. because it was cancelled.
+     */
+    synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    /**
+     * @return How long until a trial call will be let through, or zero if calls are allowed.
+     */
+    synchronized Duration remainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        long remaining = openDurationNanos - (System.nanoTime() - openedAt);
+        return Duration.ofNanos(Math.max(0, remaining));
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
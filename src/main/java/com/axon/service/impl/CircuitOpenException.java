@@ -0,0 +1,16 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AiServiceException;
+
+import java.time.Duration;
+
+/**
+ * Thrown without sending anything when the circuit breaker of every provider that could serve a
+ * request is open. Retrying it before the breakers let a trial request through is pointless.
+ */
+class CircuitOpenException extends AiServiceException {
+
+    CircuitOpenException(String message, Duration remaining) {
+        super(message, 0, remaining, false, null);
+    }
+}
@@ -0,0 +1,183 @@
+package com.axon.service.impl;
+
+import com.axon.model.Lesson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Condenses the commands a module has already taught into a short coverage summary for the
+ * prompt that asks for more lessons, e.g. {@code git: commit (-m, --amend), log (--oneline); ls (-la)}.
+ * <p>
+ * Commands are deduplicated by their base command and, for tools that have them, their
+ * subcommand; the options seen are listed under each. The summary is capped to a token budget,
+ * so the prompt stays the same size however many rounds of lessons have been generated. When
+ * the budget is tight, options are dropped first and then the least recently taught commands.
+ */
+final class CommandCoverage {
+
+    private static final Pattern SEGMENT_SEPARATOR = Pattern.compile("&&|\\|\\||[|;\\n]");
+    private static final Pattern COMMAND_NAME = Pattern.compile("[a-z0-9][a-z0-9._+-]*");
+    private static final Pattern SUBCOMMAND_NAME = Pattern.compile("[a-z][a-z0-9-]*");
+    private static final Pattern OPTION_NAME = Pattern.compile("--?[A-Za-z0-9][A-Za-z0-9-]*");
+    private static final Set<String> PREFIXES = Set.of("sudo", "env", "time", "nohup", "watch");
+
+    private CommandCoverage() {
+    }
+
+    /**
+     * @param lessons The lessons taught so far, oldest first.
+     * @param subcommandTools Base commands whose first word is a subcommand (e.g., "git", "kubectl").
+     * @param maxTokens The most tokens the summary may take, as estimated by {@link #estimateTokens}.
+     * @return The coverage summary, or "none" if no commands could be recognised.
+     */
+    static String summarize(List<Lesson> lessons, Set<String> subcommandTools, int maxTokens) {
+        // Base command -> subcommand ("" if none) -> options, each in order of most recent use.
+        Map<String, Map<String, Set<String>>> coverage = new LinkedHashMap<>();
+        for (Lesson lesson : lessons) {
+            if (lesson.command() == null) {
+                continue;
+            }
+            for (String segment : SEGMENT_SEPARATOR.split(lesson.command())) {
+                addSegment(coverage, segment, subcommandTools);
+            }
+        }
+        if (coverage.isEmpty()) {
+            return "none";
+        }
+
+        String full = render(coverage, true, 0);
+        if (estimateTokens(full) <= maxTokens) {
+            return full;
+        }
+        String withoutOptions = render(coverage, false, 0);
+        if (estimateTokens(withoutOptions) <= maxTokens) {
+            return withoutOptions;
+        }
+        return renderMostRecent(coverage, maxTokens);
+    }
+
+    /**
+     * A local approximation of a BPE tokenizer, good enough to keep prompts within a budget
+     * without calling the provider: every punctuation character counts as a token and runs of
+     * letters and digits count as one token per four characters.
+     */
+    static int estimateTokens(String text) {
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) / 4;
+            run = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (run + 3) / 4;
+    }
+
+    private static void addSegment(Map<String, Map<String, Set<String>>> coverage, String segment, Set<String> subcommandTools) {
+        String[] words = segment.trim().replace("`", "").split("\\s+");
+        int index = 0;
+        // Skip wrappers like "sudo" and leading environment assignments such as "FOO=bar".
+        while (index < words.length && (PREFIXES.contains(words[index]) || words[index].contains("="))) {
+            index++;
+        }
+        if (index >= words.length) {
+            return;
+        }
+        String base = words[index].substring(words[index].lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        if (!COMMAND_NAME.matcher(base).matches()) {
+            return;
+        }
+        String subcommand = "";
+        Set<String> options = new LinkedHashSet<>();
+        for (int i = index + 1; i < words.length; i++) {
+            String word = words[i];
+            if (word.startsWith("-")) {
+                String option = word.split("=", 2)[0];
+                if (OPTION_NAME.matcher(option).matches()) {
+                    options.add(option);
+                }
+            } else if (subcommand.isEmpty() && subcommandTools.contains(base) && options.isEmpty()
+                    && SUBCOMMAND_NAME.matcher(word).matches()) {
+                subcommand = word;
+            }
+        }
+
+        // Re-inserting moves an entry to the end, so iteration order is least to most recently used.
+        Map<String, Set<String>> subcommands = coverage.remove(base);
+        if (subcommands == null) {
+            subcommands = new LinkedHashMap<>();
+        }
+        coverage.put(base, subcommands);
+        Set<String> known = subcommands.remove(subcommand);
+        if (known == null) {
+            known = new LinkedHashSet<>();
+        }
+        known.addAll(options);
+        subcommands.put(subcommand, known);
+    }
+
+    private static String render(Map<String, Map<String, Set<String>>> coverage, boolean withOptions, int omitted) {
+        String summary = coverage.entrySet().stream()
+                .map(entry -> renderBase(entry.getKey(), entry.getValue(), withOptions))
+                .collect(Collectors.joining("; "));
+        if (omitted == 0) {
+            return summary;
+        }
+        return summary.isEmpty() ? omitted + " commands" : summary + "; and " + omitted + " earlier commands";
+    }
+
+    private static String renderBase(String base, Map<String, Set<String>> subcommands, boolean withOptions) {
+        String head = base;
+        List<String> parts = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : subcommands.entrySet()) {
+            // Options used without a subcommand belong to the base command itself.
+            if (entry.getKey().isEmpty()) {
+                head = withName(base, entry.getValue(), withOptions);
+            } else {
+                parts.add(withName(entry.getKey(), entry.getValue(), withOptions));
+            }
+        }
+        return parts.isEmpty() ? head : head + ": " + String.join(", ", parts);
+    }
+
+    private static String withName(String name, Set<String> options, boolean withOptions) {
+        return withOptions && !options.isEmpty() ? name + " (" + String.join(", ", options) + ")" : name;
+    }
+
+    private static String renderMostRecent(Map<String, Map<String, Set<String>>> coverage, int maxTokens) {
+        List<String[]> commands = new ArrayList<>();
+        coverage.forEach((base, subcommands) -> subcommands.keySet().forEach(sub -> commands.add(new String[]{base, sub})));
+
+        // Walk back from the most recently taught command until the budget is used up.
+        int total = commands.size();
+        int kept = 0;
+        String summary = render(Map.of(), false, total);
+        while (kept < total) {
+            Map<String, Map<String, Set<String>>> recent = new LinkedHashMap<>();
+            for (String[] command : commands.subList(total - kept - 1, total)) {
+                recent.computeIfAbsent(command[0], base -> new LinkedHashMap<>()).put(command[1], Set.of());
+            }
+            String candidate = render(recent, false, total - kept - 1);
+            if (estimateTokens(candidate) > maxTokens) {
+                break;
+            }
+            summary = candidate;
+            kept++;
+        }
+        return summary;
+    }
+}
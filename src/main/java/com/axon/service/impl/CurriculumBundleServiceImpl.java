@@ -0,0 +1,329 @@
+package com.axon.service.impl;
+
+import com.axon.model.BundledModule;
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.AiTutorService;
+import com.axon.service.api.CancellationToken;
+import com.axon.service.api.CurriculumBundleService;
+import com.axon.service.api.ModuleCacheService;
+import com.axon.service.api.PromptService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Writes and reads curriculum bundles.
+ * <p>
+ * A bundle is generated module by module: modules already in the module cache are taken from
+ * there, the others are generated by the {@link CurriculumGenerator} with at most
+ * {@code app.bundle.max-concurrency} modules at a time, and no more than
+ * {@code app.bundle.modules-per-minute} started per minute, so that a night's run stays under
+ * the provider's rate limits. Every module is validated before it is kept, and asked for again
+ * if it fails. Each bundled module carries its cache key, so that an import can tell whether the
+ * importing install would have sent the same prompt to the same model.
+ * <p>
+ * A bundle whose file name ends in {@code .pack} is written as a {@link CurriculumPack}. Importing
+ * one installs the file itself, and its modules are read from it when they are started.
+ */
+@Service
+public class CurriculumBundleServiceImpl implements CurriculumBundleService {
+
+    static final int BUNDLE_VERSION = 1;
+
+    // A module with fewer lessons than this share of what its prompt asks for is rejected.
+    private static final double MIN_LESSON_SHARE = 0.5;
+
+    /**
+     * The file format of a bundle.
+     */
+    public record Bundle(int version, Instant createdAt, String model, List<BundledModule> modules) {}
+
+    private final List<PromptService> promptServices;
+    private final CurriculumGenerator curriculumGenerator;
+    private final AiTutorService aiTutorService;
+    private final ModuleCacheService moduleCache;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrency;
+    private final Duration startInterval;
+    private final int attempts;
+    private final int moduleMaxTokens;
+    private final Object rateLock = new Object();
+    private long nextStartNanos;
+
+    public CurriculumBundleServiceImpl(List<PromptService> promptServices,
+                                       CurriculumGenerator curriculumGenerator,
+                                       AiTutorService aiTutorService,
+                                       ModuleCacheService moduleCache,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.bundle.max-concurrency:2}") int maxConcurrency,
+                                       @Value("${app.bundle.modules-per-minute:6}") int modulesPerMinute,
+                                       @Value("${app.bundle.attempts:2}") int attempts,
+                                       @Value("${app.ai.generation.module-max-tokens:5000}") int moduleMaxTokens) {
+        this.promptServices = promptServices;
+        this.curriculumGenerator = curriculumGenerator;
+        this.aiTutorService = aiTutorService;
+        this.moduleCache = moduleCache;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.startInterval = modulesPerMinute > 0 ? Duration.ofMinutes(1).dividedBy(modulesPerMinute) : Duration.ZERO;
+        this.attempts = Math.max(1, attempts);
+        this.moduleMaxTokens = moduleMaxTokens;
+    }
+
+    @Override
+    public BundleReport generateBundle(List<String> technologies, Path file, boolean regenerate, Consumer<ModuleResult> onModule) {
+        List<PromptService> selected = select(technologies);
+        long start = System.nanoTime();
+        Semaphore concurrencyLimit = new Semaphore(maxConcurrency);
+        CancellationToken cancellation = new CancellationToken();
+        List<CompletableFuture<BundledModule>> futures = new ArrayList<>();
+        List<ModuleResult> results = new ArrayList<>();
+        try {
+            cancellation.call(() -> {
+                for (PromptService promptService : selected) {
+                    for (String moduleKey : promptService.getAvailableModules().keySet()) {
+                        // The generations run on threads started here, so they inherit the cancellation.
+                        CompletableFuture<BundledModule> future = new CompletableFuture<>();
+                        futures.add(future);
+                        Thread.ofVirtual().name("axon-bundle").start(() -> {
+                            try {
+                                concurrencyLimit.acquire();
+                                try {
+                                    future.complete(bundle(promptService, moduleKey, regenerate, result -> {
+                                        synchronized (results) {
+                                            results.add(result);
+                                        }
+                                        onModule.accept(result);
+                                    }));
+                                } finally {
+                                    concurrencyLimit.release();
+                                }
+                            } catch (InterruptedException e) {
+                                future.completeExceptionally(new CancellationException("The bundle was cancelled."));
+                            } catch (Throwable e) {
+                                future.completeExceptionally(e);
+                            }
+                        });
+                    }
+                }
+                return null;
+            });
+            List<BundledModule> modules = new ArrayList<>();
+            for (CompletableFuture<BundledModule> future : futures) {
+                BundledModule module = future.get();
+                if (module != null) {
+                    modules.add(module);
+                }
+            }
+            write(file, new Bundle(BUNDLE_VERSION, Instant.now(), aiTutorService.getModelName(AiRequestType.MODULE), modules));
+        } catch (InterruptedException e) {
+            cancellation.cancel();
+            throw new CancellationException("The bundle was cancelled.");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        }
+        synchronized (results) {
+            return new BundleReport(file, List.copyOf(results), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Takes one module from the cache or generates it.
+     *
+     * @return The module, or null if it failed.
+     */
+    private BundledModule bundle(PromptService promptService, String moduleKey, boolean regenerate, Consumer<ModuleResult> onResult) {
+        String technology = promptService.getTechnologyName().toLowerCase(Locale.ROOT);
+        String prompt = promptService.buildInitialModulePrompt(moduleKey);
+        String cacheKey = moduleCache.keyFor(technology, moduleKey, prompt, aiTutorService.getModelName(AiRequestType.MODULE), moduleMaxTokens);
+        long start = System.nanoTime();
+        if (!regenerate) {
+            LearningModule cached = moduleCache.find(cacheKey, technology, moduleKey).orElse(null);
+            if (cached != null && validate(promptService, cached).isEmpty()) {
+                onResult.accept(new ModuleResult(technology, moduleKey, Status.CACHED, cached.lessons().size(), Duration.ofNanos(System.nanoTime() - start), null));
+                return new BundledModule(technology, moduleKey, cacheKey, cached);
+            }
+        }
+
+        String error = null;
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            try {
+                awaitStartSlot();
+                LearningModule module = curriculumGenerator.generate(promptService, moduleKey, moduleMaxTokens, lesson -> {});
+                List<String> problems = validate(promptService, module);
+                if (problems.isEmpty()) {
+                    moduleCache.put(cacheKey, technology, moduleKey, module);
+                    meterRegistry.counter("axon.bundle.modules", "outcome", "generated").increment();
+                    onResult.accept(new ModuleResult(technology, moduleKey, Status.GENERATED, module.lessons().size(), Duration.ofNanos(System.nanoTime() - start), null));
+                    return new BundledModule(technology, moduleKey, cacheKey, module);
+                }
+                meterRegistry.counter("axon.bundle.rejections").increment();
+                error = "Invalid lessons: " + String.join("; ", problems.subList(0, Math.min(3, problems.size())))
+                        + (problems.size() > 3 ? " (and " + (problems.size() - 3) + " more)" : "");
+            } catch (CancellationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                error = e.getMessage();
+            }
+        }
+        meterRegistry.counter("axon.bundle.modules", "outcome", "failed").increment();
+        onResult.accept(new ModuleResult(technology, moduleKey, Status.FAILED, 0, Duration.ofNanos(System.nanoTime() - start), error));
+        return null;
+    }
+
+    /**
+     * @return What is wrong with the module, or an empty list if it can be served to learners.
+     */
+    static List<String> validate(PromptService promptService, LearningModule module) {
+        List<String> problems = new ArrayList<>();
+        int expected = promptService.getInitialLessonCount();
+        if (module.lessons().size() < Math.ceil(expected * MIN_LESSON_SHARE)) {
+            problems.add(module.lessons().size() + " lessons instead of " + expected);
+        }
+        Set<String> titles = new HashSet<>();
+        for (int i = 0; i < module.lessons().size(); i++) {
+            Lesson lesson = module.lessons().get(i);
+            if (isBlank(lesson.title()) || isBlank(lesson.concept()) || isBlank(lesson.command())) {
+                problems.add("lesson " + (i + 1) + " has no title, concept or command");
+            } else if (!titles.add(lesson.title().trim().toLowerCase(Locale.ROOT))) {
+                problems.add("lesson " + (i + 1) + " repeats the title '" + lesson.title() + "'");
+            }
+        }
+        return problems;
+    }
+
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    /**
+     * Waits until another module may be started under the configured rate.
+     */
+    private void awaitStartSlot() {
+        long wait;
+        synchronized (rateLock) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextStartNanos);
+            nextStartNanos = slot + startInterval.toNanos();
+            wait = slot - now;
+        }
+        if (wait > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(wait));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("The bundle was cancelled.");
+            }
+        }
+        CancellationToken.current().throwIfCancelled();
+    }
+
+    @Override
+    public ImportReport importBundle(Path file, boolean force) {
+        boolean pack = file.getFileName().toString().endsWith(CurriculumPack.SUFFIX);
+        List<BundledModule> modules = pack ? readPack(file) : readBundle(file);
+        if (pack) {
+            // Its modules are served straight from the pack; only those generated for other keys are copied.
+            moduleCache.installPack(file);
+        }
+        int imported = 0;
+        List<String> skipped = new ArrayList<>();
+        for (BundledModule bundled : modules) {
+            PromptService promptService = promptServices.stream()
+                    .filter(service -> service.getTechnologyName().equalsIgnoreCase(bundled.technology()))
+                    .findFirst().orElse(null);
+            if (promptService == null || !promptService.getAvailableModules().containsKey(bundled.moduleKey())) {
+                skipped.add(bundled.technology() + " " + bundled.moduleKey());
+                continue;
+            }
+            String prompt = promptService.buildInitialModulePrompt(bundled.moduleKey());
+            String cacheKey = moduleCache.keyFor(bundled.technology(), bundled.moduleKey(), prompt, aiTutorService.getModelName(AiRequestType.MODULE), moduleMaxTokens);
+            boolean sameRequest = cacheKey.equals(bundled.cacheKey());
+            if (!sameRequest && !force) {
+                skipped.add(bundled.technology() + " " + bundled.moduleKey());
+                continue;
+            }
+            if (!pack || !sameRequest) {
+                moduleCache.put(cacheKey, bundled.technology(), bundled.moduleKey(), bundled.module());
+            }
+            imported++;
+        }
+        meterRegistry.counter("axon.bundle.imports").increment(imported);
+        return new ImportReport(imported, skipped);
+    }
+
+    private List<BundledModule> readBundle(Path file) {
+        Bundle bundle;
+        try {
+            bundle = objectMapper.readValue(file.toFile(), Bundle.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read the bundle " + file + ": " + e.getMessage(), e);
+        }
+        if (bundle.version() != BUNDLE_VERSION || bundle.modules() == null) {
+            throw new IllegalArgumentException(file + " is not a curriculum bundle of version " + BUNDLE_VERSION + ".");
+        }
+        return bundle.modules();
+    }
+
+    private static List<BundledModule> readPack(Path file) {
+        try {
+            return CurriculumPack.open(file).modules();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read the curriculum pack " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private List<PromptService> select(List<String> technologies) {
+        if (technologies.isEmpty()) {
+            return promptServices;
+        }
+        List<PromptService> selected = new ArrayList<>();
+        for (String technology : technologies) {
+            selected.add(promptServices.stream()
+                    .filter(service -> service.getTechnologyName().equalsIgnoreCase(technology))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown technology '" + technology + "'")));
+        }
+        return selected;
+    }
+
+    private void write(Path file, Bundle bundle) {
+        try {
+            if (file.getFileName().toString().endsWith(CurriculumPack.SUFFIX)) {
+                CurriculumPack.write(file, bundle.modules());
+                return;
+            }
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            // Write to a temporary file first so that an interrupted run never leaves a half-written bundle.
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(), bundle);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write the bundle " + file + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.AiTutorService;
+import com.axon.service.api.PromptService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Generates the initial lessons of a module, either as one streamed completion or sharded:
+ * a short outline of lesson titles is requested first, then contiguous slices of it are
+ * generated concurrently and merged in order. Lessons are published in curriculum order
+ * as soon as every lesson before them is available.
+ */
+@Service
+public class CurriculumGenerator {
+
+    public enum Mode { STREAM, SHARDED }
+
+    private static final int OUTLINE_MAX_TOKENS = 1000;
+    private static final Executor SHARD_EXECUTOR = task -> Thread.ofVirtual().name("axon-shard").start(task);
+
+    private final AiTutorService aiTutorService;
+    private final Mode mode;
+    private final int shards;
+    private final int maxConcurrency;
+    private final int shardRetries;
+
+    public CurriculumGenerator(AiTutorService aiTutorService,
+                               @Value("${app.ai.generation.mode:stream}") String mode,
+                               @Value("${app.ai.generation.shards:3}") int shards,
+                               @Value("${app.ai.generation.max-concurrency:3}") int maxConcurrency,
+                               @Value("${app.ai.generation.shard-retries:2}") int shardRetries) {
+        this.aiTutorService = aiTutorService;
+        this.mode = Mode.valueOf(mode.toUpperCase());
+        this.shards = Math.max(1, shards);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.shardRetries = Math.max(0, shardRetries);
+    }
+
+    /**
+     * Generates the initial module for the given key.
+     *
+     * @param promptService The prompt service of the module's technology.
+     * @param moduleKey The module key (e.g., "basics").
+     * @param maxTokens The token limit for generating the whole module in one completion;
+     *                  shards receive a proportional share of it.
+     * @param onLesson Receives each lesson in curriculum order as soon as it is available.
+     * @return The complete module.
+     */
+    public LearningModule generate(PromptService promptService, String moduleKey, int maxTokens, Consumer<Lesson> onLesson) {
+        AiRequestContext moduleContext = AiRequestContext.of(AiRequestType.MODULE, promptService.getTechnologyName());
+        if (mode == Mode.STREAM || shards == 1) {
+            return aiTutorService.streamModuleFromPrompt(moduleContext, promptService.buildInitialModulePrompt(moduleKey), maxTokens, onLesson);
+        }
+
+        LearningModule outline = aiTutorService.generateModuleFromPrompt(AiRequestContext.of(AiRequestType.OUTLINE, promptService.getTechnologyName()),
+                promptService.buildOutlinePrompt(moduleKey), OUTLINE_MAX_TOKENS);
+        List<String> titles = outline.lessons().stream().map(Lesson::title).toList();
+        if (titles.isEmpty()) {
+            throw new RuntimeException("The AI returned an empty curriculum outline.");
+        }
+
+        int shardCount = Math.min(shards, titles.size());
+        int shardSize = (titles.size() + shardCount - 1) / shardCount;
+        // Shards are smaller than the whole module, but keep some headroom for verbose lessons.
+        int shardMaxTokens = (int) Math.ceil(maxTokens * 1.25 * shardSize / titles.size());
+        OrderedPublisher publisher = new OrderedPublisher(shardCount, onLesson);
+        // The limit is per generation: a concurrent generation of the same module must not wait behind
+        // this one, or it could not share its in-flight shard requests.
+        Semaphore concurrencyLimit = new Semaphore(maxConcurrency);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            int index = shard;
+            int from = shard * shardSize;
+            int to = Math.min(titles.size(), from + shardSize);
+            futures.add(CompletableFuture.runAsync(() -> generateShard(index, from, to, promptService, moduleKey, titles,
+                    moduleContext, shardMaxTokens, publisher, concurrencyLimit), SHARD_EXECUTOR));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return new LearningModule(outline.moduleName(), publisher.allLessons());
+    }
+
+    /**
+     * Generates the lessons {@code from} to {@code to} of the outline as one shard, retrying it on
+     * its own if it fails or returns another number of lessons. Lessons that a failed attempt
+     * already published are kept, and the retry asks only for the part of the slice after them;
+     * the ones it received but did not publish yet are dropped.
+     */
+    private void generateShard(int shard, int from, int to, PromptService promptService, String moduleKey, List<String> titles,
+                               AiRequestContext context, int maxTokens, OrderedPublisher publisher, Semaphore concurrencyLimit) {
+        RuntimeException lastFailure = null;
+        for (int attempt = 0; attempt <= shardRetries; attempt++) {
+            int start = from + publisher.keepPublished(shard);
+            if (start == to) {
+                // Every lesson of the slice was published before the attempt failed.
+                publisher.complete(shard);
+                return;
+            }
+            String prompt = promptService.buildLessonSlicePrompt(moduleKey, titles, start, to);
+            int expected = to - start;
+            int[] received = {0};
+            try {
+                concurrencyLimit.acquire();
+                try {
+                    aiTutorService.streamModuleFromPrompt(context, prompt, maxTokens, lesson -> {
+                        // Lessons past the end of the slice would take the place of the next shard's.
+                        if (received[0]++ < expected) {
+                            publisher.add(shard, lesson);
+                        }
+                    });
+                } finally {
+                    concurrencyLimit.release();
+                }
+                if (received[0] != expected) {
+                    throw new RuntimeException("The AI returned " + received[0] + " lessons instead of " + expected + ".");
+                }
+                publisher.complete(shard);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while generating lessons.", e);
+            } catch (RuntimeException e) {
+                lastFailure = e;
+            }
+        }
+        throw new RuntimeException("Shard " + (shard + 1) + " failed after " + (shardRetries + 1) + " attempts: "
+                + lastFailure.getMessage(), lastFailure);
+    }
+
+    /**
+     * Collects lessons per shard and forwards them in curriculum order: a lesson is published
+     * once every shard before it has completed and every earlier lesson of its own shard is out.
+     */
+    static class OrderedPublisher {
+        private final List<List<Lesson>> shardLessons = new ArrayList<>();
+        private final boolean[] completed;
+        private final Consumer<Lesson> onLesson;
+        private int publishShard = 0;
+        private int publishIndex = 0;
+
+        OrderedPublisher(int shardCount, Consumer<Lesson> onLesson) {
+            for (int i = 0; i < shardCount; i++) {
+                shardLessons.add(new ArrayList<>());
+            }
+            this.completed = new boolean[shardCount];
+            this.onLesson = onLesson;
+        }
+
+        /**
+         * Drops the lessons of the shard that were received but not published yet.
+         *
+         * @return The number of the shard's lessons that were published, which are kept.
+         */
+        synchronized int keepPublished(int shard) {
+            List<Lesson> lessons = shardLessons.get(shard);
+            int published = shard < publishShard ? lessons.size() : shard == publishShard ? publishIndex : 0;
+            lessons.subList(published, lessons.size()).clear();
+            return published;
+        }
+
+        synchronized void add(int shard, Lesson lesson) {
+            shardLessons.get(shard).add(lesson);
+            drain();
+        }
+
+        synchronized void complete(int shard) {
+            completed[shard] = true;
+            drain();
+        }
+
+        synchronized List<Lesson> allLessons() {
+            return shardLessons.stream().flatMap(List::stream).toList();
+        }
+
+        private void drain() {
+            while (publishShard < shardLessons.size()) {
+                List<Lesson> lessons = shardLessons.get(publishShard);
+                while (publishIndex < lessons.size()) {
+                    onLesson.accept(lessons.get(publishIndex++));
+                }
+                if (!completed[publishShard]) {
+                    return;
+                }
+                publishShard++;
+                publishIndex = 0;
+            }
+        }
+    }
+}
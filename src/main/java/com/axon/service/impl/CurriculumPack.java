@@ -0,0 +1,403 @@
+package com.axon.service.impl;
+
+import com.axon.model.BundledModule;
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A read-only file of many pre-generated modules, as written by 'generate --out name.pack'.
+ * <p>
+ * The file is memory-mapped, and opening it only checks its header, so it takes the same time
+ * and heap however many lessons it holds. A module is found by a binary search of the module
+ * index, and its lessons are a list that decodes a {@link Lesson} the first time it is read.
+ * <p>
+ * Every distinct string (a title, a command, a hint repeated across lessons) is stored once, in
+ * a string table split into blocks of {@value #STRINGS_PER_BLOCK} strings. A block is deflated
+ * if that makes it smaller. The strings of the module index come first and their blocks are
+ * never deflated, so a lookup does not inflate anything. The file holds, big-endian:
+ * <pre>
+ * int magic, int version, int moduleCount, int lessonCount, int stringCount, int blockCount
+ * moduleCount x (int technology, int moduleKey, int cacheKey, int moduleName, int firstLesson, int lessonCount),
+ *                sorted by technology and module key
+ * lessonCount x (int title, int concept, int command, int example_output, int practiceCommand, int hint)
+ * blockCount  x (long offset, int storedLength, int rawLength)
+ * blocks
+ * </pre>
+ * where the lesson and module fields are string ids, -1 standing for null. A block in its raw
+ * form is {@code int count, (count + 1) x int offset, UTF-8 bytes}, and it is stored deflated
+ * when its stored length is less than its raw length.
+ */
+final class CurriculumPack {
+
+    static final String SUFFIX = ".pack";
+
+    private static final int MAGIC = 0x4158504B;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final int MODULE_BYTES = 24;
+    private static final int LESSON_FIELDS = 6;
+    private static final int LESSON_BYTES = LESSON_FIELDS * 4;
+    private static final int BLOCK_ENTRY_BYTES = 16;
+    private static final int STRINGS_PER_BLOCK = 64;
+    // Inflated blocks kept per pack; a lesson's strings are adjacent, so it needs one or two.
+    private static final int INFLATED_BLOCKS_KEPT = 16;
+
+    private final Path file;
+    private final MappedByteBuffer mapped;
+    private final int moduleCount;
+    private final int lessonCount;
+    private final int stringCount;
+    private final int blockCount;
+    private final int lessonTable;
+    private final int blockTable;
+    private final Map<Integer, ByteBuffer> inflatedBlocks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer> eldest) {
+            return size() > INFLATED_BLOCKS_KEPT;
+        }
+    };
+
+    private CurriculumPack(Path file, MappedByteBuffer mapped) throws IOException {
+        this.file = file;
+        this.mapped = mapped;
+        if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC) {
+            throw new IOException(file.getFileName() + " is not a curriculum pack.");
+        }
+        if (mapped.getInt(4) != VERSION) {
+            throw new IOException(file.getFileName() + " is a curriculum pack of version " + mapped.getInt(4) + "; this version reads " + VERSION + ".");
+        }
+        this.moduleCount = mapped.getInt(8);
+        this.lessonCount = mapped.getInt(12);
+        this.stringCount = mapped.getInt(16);
+        this.blockCount = mapped.getInt(20);
+        this.lessonTable = HEADER_BYTES + moduleCount * MODULE_BYTES;
+        this.blockTable = lessonTable + lessonCount * LESSON_BYTES;
+        if (moduleCount < 0 || lessonCount < 0 || stringCount < 0 || blockCount < 0
+                || (long) blockTable + (long) blockCount * BLOCK_ENTRY_BYTES > mapped.capacity()) {
+            throw new IOException(file.getFileName() + " is truncated or corrupt.");
+        }
+    }
+
+    /**
+     * Maps a pack. Only its header is read.
+     *
+     * @throws IOException if the file cannot be read or is not a pack of this version.
+     */
+    static CurriculumPack open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file.getFileName() + " is too large to be a curriculum pack.");
+            }
+            return new CurriculumPack(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    int moduleCount() {
+        return moduleCount;
+    }
+
+    int lessonCount() {
+        return lessonCount;
+    }
+
+    /**
+     * @return The module, whose lessons are decoded as they are read, or empty if the pack does not hold it.
+     */
+    Optional<BundledModule> find(String technology, String moduleKey) {
+        int low = 0;
+        int high = moduleCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = HEADER_BYTES + middle * MODULE_BYTES;
+            int comparison = string(mapped.getInt(entry)).compareTo(technology);
+            if (comparison == 0) {
+                comparison = string(mapped.getInt(entry + 4)).compareTo(moduleKey);
+            }
+            if (comparison == 0) {
+                return Optional.of(module(middle));
+            }
+            if (comparison < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return Every module of the pack, in index order; their lessons are decoded as they are read.
+     */
+    List<BundledModule> modules() {
+        List<BundledModule> modules = new ArrayList<>(moduleCount);
+        for (int i = 0; i < moduleCount; i++) {
+            modules.add(module(i));
+        }
+        return modules;
+    }
+
+    private BundledModule module(int index) {
+        int entry = HEADER_BYTES + index * MODULE_BYTES;
+        int first = mapped.getInt(entry + 16);
+        int count = mapped.getInt(entry + 20);
+        if (first < 0 || count < 0 || first + count > lessonCount) {
+            throw new IllegalStateException(file.getFileName() + " is corrupt: module " + index + " has invalid lessons.");
+        }
+        LearningModule module = new LearningModule(string(mapped.getInt(entry + 12)), new PackedLessons(first, count));
+        return new BundledModule(string(mapped.getInt(entry)), string(mapped.getInt(entry + 4)), string(mapped.getInt(entry + 8)), module);
+    }
+
+    private Lesson lesson(int index) {
+        int entry = lessonTable + index * LESSON_BYTES;
+        return new Lesson(
+                string(mapped.getInt(entry)),
+                string(mapped.getInt(entry + 4)),
+                string(mapped.getInt(entry + 8)),
+                string(mapped.getInt(entry + 12)),
+                string(mapped.getInt(entry + 16)),
+                string(mapped.getInt(entry + 20)));
+    }
+
+    private String string(int id) {
+        if (id < 0) {
+            return null;
+        }
+        if (id >= stringCount) {
+            throw new IllegalStateException(file.getFileName() + " is corrupt: string " + id + " is out of range.");
+        }
+        ByteBuffer block = block(id / STRINGS_PER_BLOCK);
+        int index = id % STRINGS_PER_BLOCK;
+        int count = block.getInt(0);
+        int data = 4 + (count + 1) * 4;
+        int start = block.getInt(4 + index * 4);
+        int end = block.getInt(8 + index * 4);
+        byte[] bytes = new byte[end - start];
+        block.get(data + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private ByteBuffer block(int block) {
+        int entry = blockTable + block * BLOCK_ENTRY_BYTES;
+        int offset = (int) mapped.getLong(entry);
+        int storedLength = mapped.getInt(entry + 8);
+        int rawLength = mapped.getInt(entry + 12);
+        if (offset < 0 || storedLength < 0 || (long) offset + storedLength > mapped.capacity()) {
+            throw new IllegalStateException(file.getFileName() + " is corrupt: block " + block + " is out of range.");
+        }
+        if (storedLength >= rawLength) {
+            return mapped.slice(offset, storedLength);
+        }
+        synchronized (inflatedBlocks) {
+            ByteBuffer inflated = inflatedBlocks.get(block);
+            if (inflated == null) {
+                inflated = inflate(block, mapped.slice(offset, storedLength), rawLength);
+                inflatedBlocks.put(block, inflated);
+            }
+            return inflated;
+        }
+    }
+
+    private ByteBuffer inflate(int block, ByteBuffer stored, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            byte[] raw = new byte[rawLength];
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawLength) {
+                throw new IllegalStateException(file.getFileName() + " is corrupt: block " + block + " is truncated.");
+            }
+            return ByteBuffer.wrap(raw);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(file.getFileName() + " is corrupt: block " + block + " cannot be inflated.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * The lessons of one module, each decoded from the pack when it is first read.
+     */
+    private final class PackedLessons extends AbstractList<Lesson> implements RandomAccess {
+        private final int first;
+        private final AtomicReferenceArray<Lesson> decoded;
+
+        PackedLessons(int first, int count) {
+            this.first = first;
+            this.decoded = new AtomicReferenceArray<>(count);
+        }
+
+        @Override
+        public Lesson get(int index) {
+            Objects.checkIndex(index, decoded.length());
+            Lesson lesson = decoded.get(index);
+            if (lesson == null) {
+                lesson = lesson(first + index);
+                decoded.set(index, lesson);
+            }
+            return lesson;
+        }
+
+        @Override
+        public int size() {
+            return decoded.length();
+        }
+    }
+
+    /**
+     * Writes the modules to a new pack, replacing the file at once when it is complete.
+     */
+    static void write(Path file, List<BundledModule> modules) throws IOException {
+        List<BundledModule> sorted = new ArrayList<>(modules);
+        sorted.sort(Comparator.comparing(BundledModule::technology).thenComparing(BundledModule::moduleKey));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).technology().equals(sorted.get(i - 1).technology()) && sorted.get(i).moduleKey().equals(sorted.get(i - 1).moduleKey())) {
+                throw new IllegalArgumentException("The module '" + sorted.get(i).moduleKey() + "' of " + sorted.get(i).technology() + " is in the pack twice.");
+            }
+        }
+
+        // The index strings get the first ids, so that their blocks can be left uncompressed.
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (BundledModule module : sorted) {
+            intern(ids, module.technology());
+            intern(ids, module.moduleKey());
+            intern(ids, module.cacheKey());
+            intern(ids, module.module().moduleName());
+        }
+        int indexStrings = ids.size();
+
+        ByteArrayOutputStream tables = new ByteArrayOutputStream();
+        DataOutputStream moduleTable = new DataOutputStream(tables);
+        ByteArrayOutputStream lessonBytes = new ByteArrayOutputStream();
+        DataOutputStream lessonTable = new DataOutputStream(lessonBytes);
+        int lessonCount = 0;
+        for (BundledModule module : sorted) {
+            List<Lesson> lessons = module.module().lessons();
+            moduleTable.writeInt(ids.get(module.technology()));
+            moduleTable.writeInt(ids.get(module.moduleKey()));
+            moduleTable.writeInt(ids.get(module.cacheKey()));
+            moduleTable.writeInt(intern(ids, module.module().moduleName()));
+            moduleTable.writeInt(lessonCount);
+            moduleTable.writeInt(lessons.size());
+            for (Lesson lesson : lessons) {
+                for (String field : new String[]{lesson.title(), lesson.concept(), lesson.command(), lesson.example_output(), lesson.practiceCommand(), lesson.hint()}) {
+                    lessonTable.writeInt(intern(ids, field));
+                }
+            }
+            lessonCount += lessons.size();
+        }
+
+        List<String> strings = new ArrayList<>(ids.keySet());
+        int blockCount = (strings.size() + STRINGS_PER_BLOCK - 1) / STRINGS_PER_BLOCK;
+        List<byte[]> storedBlocks = new ArrayList<>(blockCount);
+        List<Integer> rawLengths = new ArrayList<>(blockCount);
+        for (int block = 0; block < blockCount; block++) {
+            byte[] raw = rawBlock(strings.subList(block * STRINGS_PER_BLOCK, Math.min(strings.size(), (block + 1) * STRINGS_PER_BLOCK)));
+            byte[] deflated = block * STRINGS_PER_BLOCK < indexStrings ? raw : deflate(raw);
+            storedBlocks.add(deflated.length < raw.length ? deflated : raw);
+            rawLengths.add(raw.length);
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // Write to a temporary file first so that an interrupted run never leaves a half-written pack.
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sorted.size());
+            out.writeInt(lessonCount);
+            out.writeInt(strings.size());
+            out.writeInt(blockCount);
+            tables.writeTo(out);
+            lessonBytes.writeTo(out);
+            long offset = HEADER_BYTES + (long) tables.size() + lessonBytes.size() + (long) blockCount * BLOCK_ENTRY_BYTES;
+            for (int block = 0; block < blockCount; block++) {
+                out.writeLong(offset);
+                out.writeInt(storedBlocks.get(block).length);
+                out.writeInt(rawLengths.get(block));
+                offset += storedBlocks.get(block).length;
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The modules are too large for one curriculum pack.");
+            }
+            for (byte[] block : storedBlocks) {
+                out.write(block);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int intern(Map<String, Integer> ids, String value) {
+        return value == null ? -1 : ids.computeIfAbsent(value, key -> ids.size());
+    }
+
+    private static byte[] rawBlock(List<String> strings) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(strings.size());
+        out.writeInt(0);
+        for (String string : strings) {
+            data.write(string.getBytes(StandardCharsets.UTF_8));
+            out.writeInt(data.size());
+        }
+        data.writeTo(out);
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -1,14 +1,37 @@
 package com.axon.service.impl;
 import com.axon.model.Lesson;
 import com.axon.service.api.PromptService;
+import org.jline.utils.AttributedStyle;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service("dockerPromptService")
 public class DockerPromptServiceImpl implements PromptService {
 
+    private static final int INITIAL_LESSON_COUNT = 20;
+    private static final Set<String> SUBCOMMAND_TOOLS = Set.of("docker", "docker-compose");
+    private static final Map<String, AttributedStyle> OUTPUT_TAG_STYLES = Map.of(
+            "image", AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.CYAN),
+            "container", AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN),
+            "volume", AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW)
+    );
+
+    // The rules for a lesson object, shared by the initial module prompt and the slice prompts.
+    private static final String LESSON_RULES = """
+            Each lesson object MUST contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
+
+            - "practiceCommand": The exact command to practice, or "" if not applicable.
+            - "hint": A helpful tip, or "" if not applicable.
+
+            Inside "example_output", you MUST use these XML tags for colorization:
+            - Image names: <image>...</image>
+            - Container names/IDs: <container>...</container>
+            - Volume/Network names: <volume>...</volume>""";
+
     private final Map<String, String> modules = Map.of(
             "basics", "the absolute basics of Docker, covering running containers, `ps`, `logs`, and `stop`",
             "images", "building and managing Docker images, covering `build`, `tag`, `push`, `pull`, and `rmi`",
@@ -16,6 +39,12 @@ public class DockerPromptServiceImpl implements PromptService {
             "networking", "Docker container networking, covering bridge networks, port mapping, and `network create`"
     );
 
+    private final int coverageMaxTokens;
+
+    public DockerPromptServiceImpl(@Value("${app.prompt.more.coverage-max-tokens:400}") int coverageMaxTokens) {
+        this.coverageMaxTokens = coverageMaxTokens;
+    }
+
     @Override
     public String getTechnologyName() {
         return "Docker";
@@ -37,34 +66,43 @@ public class DockerPromptServiceImpl implements PromptService {
         String prompt = """
         You are a curriculum generation bot. Your only function is to output a single, valid JSON object.
         Generate a curriculum for a developer learning about '%s'.
-        The "lessons" array must contain exactly 20 lesson objects.
-        Each lesson object MUST contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
-        
-        - "practiceCommand": The exact command to practice, or "" if not applicable.
-        - "hint": A helpful tip, or "" if not applicable.
-        
-        Inside "example_output", you MUST use these XML tags for colorization:
-        - Image names: <image>...</image>
-        - Container names/IDs: <container>...</container>
-        - Volume/Network names: <volume>...</volume>
+        The "lessons" array must contain exactly %d lesson objects.
+        %s
         
         Output only the raw JSON.
         """;
-        return formatPrompt(String.format(prompt, topic));
+        return formatPrompt(String.format(prompt, topic, INITIAL_LESSON_COUNT, LESSON_RULES));
+    }
+
+    @Override
+    public int getInitialLessonCount() {
+        return INITIAL_LESSON_COUNT;
+    }
+
+    @Override
+    public Map<String, AttributedStyle> getOutputTagStyles() {
+        return OUTPUT_TAG_STYLES;
+    }
+
+    @Override
+    public String buildOutlinePrompt(String moduleKey) {
+        return formatPrompt(ShardPrompts.outline(modules.get(moduleKey), INITIAL_LESSON_COUNT));
+    }
+
+    @Override
+    public String buildLessonSlicePrompt(String moduleKey, List<String> outlineTitles, int fromIndex, int toIndex) {
+        return formatPrompt(ShardPrompts.lessonSlice(modules.get(moduleKey), outlineTitles, fromIndex, toIndex, LESSON_RULES));
     }
 
     @Override
     public String buildMoreLessonsPrompt(String moduleKey, List<Lesson> existingLessons) {
         String topic = modules.get(moduleKey);
-        String completedCommands = existingLessons.stream()
-                .map(Lesson::command)
-                .map(cmd -> "`" + cmd + "`")
-                .collect(Collectors.joining(", "));
+        String completedCommands = CommandCoverage.summarize(existingLessons, SUBCOMMAND_TOOLS, coverageMaxTokens);
 
         String prompt = """
         You are a curriculum generation bot outputting a single, valid JSON object.
         Generate a new curriculum with 10 more lessons for a developer learning about '%s'.
-        CRITICAL: The user has already learned these commands: %s. You MUST NOT create lessons for these commands.
+        CRITICAL: The user has already learned these commands (with the options used): %s. You MUST NOT create lessons for these commands.
         Introduce NEW, more advanced, or related commands and concepts.
         Each lesson object must contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
         
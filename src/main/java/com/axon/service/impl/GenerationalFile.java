@@ -0,0 +1,132 @@
+package com.axon.service.impl;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A file that is memory-mapped while it is read, and so is never replaced in place: Windows
+ * refuses to replace or delete a file that this or another process has mapped. Each version is
+ * written next to the others as a new generation, e.g. {@code search.idx} as {@code search~3.idx},
+ * and readers open the highest one. Older generations are deleted once nothing maps them; until
+ * then, deleting them fails and is tried again later. A file with the plain name is generation 0,
+ * so files written before generations existed are still read.
+ */
+final class GenerationalFile {
+
+    private static final char SEPARATOR = '~';
+    private static final int COMMIT_ATTEMPTS = 3;
+
+    private final Path dir;
+    private final String stem;
+    private final String extension;
+
+    /**
+     * @param file The plain name of the file, or the name of any of its generations.
+     */
+    GenerationalFile(Path file) {
+        this.dir = file.toAbsolutePath().getParent();
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        this.extension = dot > 0 ? name.substring(dot) : "";
+        int separator = stem.lastIndexOf(SEPARATOR);
+        this.stem = separator > 0 && isGeneration(stem.substring(separator + 1)) ? stem.substring(0, separator) : stem;
+    }
+
+    /**
+     * @return The plain name of the file, without its generation.
+     */
+    String name() {
+        return stem + extension;
+    }
+
+    Path directory() {
+        return dir;
+    }
+
+    /**
+     * @return The newest generation, or empty if there is none.
+     */
+    Optional<Path> current() throws IOException {
+        List<Path> generations = generations();
+        return generations.isEmpty() ? Optional.empty() : Optional.of(generations.getLast());
+    }
+
+    /**
+     * Moves a completely written temporary file into place as the next generation.
+     *
+     * @return The new generation.
+     */
+    Path commit(Path temp) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            long next = generations().stream().mapToLong(this::generationOf).max().orElse(0) + 1;
+            Path target = dir.resolve(stem + SEPARATOR + next + extension);
+            try {
+                return Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another session committed the same generation first.
+                if (attempt == COMMIT_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes every generation but the newest. Those that are still mapped are left for next time.
+     */
+    void deleteStale() {
+        try {
+            List<Path> generations = generations();
+            for (Path stale : generations.subList(0, Math.max(0, generations.size() - 1))) {
+                try {
+                    Files.deleteIfExists(stale);
+                } catch (IOException e) {
+                    // Still mapped (on Windows); it is deleted by a later call.
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Could not clean up old versions of " + name() + ". " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The generations that exist, oldest first.
+     */
+    List<Path> generations() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> generationOf(file) >= 0)
+                    .sorted(Comparator.comparingLong(this::generationOf))
+                    .toList();
+        }
+    }
+
+    /**
+     * @return The generation the file is, or -1 if it is not a generation of this file.
+     */
+    private long generationOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(stem) || !name.endsWith(extension) || name.length() < stem.length() + extension.length()) {
+            return -1;
+        }
+        String generation = name.substring(stem.length(), name.length() - extension.length());
+        if (generation.isEmpty()) {
+            return 0;
+        }
+        return generation.charAt(0) == SEPARATOR && isGeneration(generation.substring(1)) ? Long.parseLong(generation.substring(1)) : -1;
+    }
+
+    private static boolean isGeneration(String text) {
+        return !text.isEmpty() && text.length() < 19 && text.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+}
@@ -2,14 +2,47 @@ package com.axon.service.impl;
 
 import com.axon.model.Lesson;
 import com.axon.service.api.PromptService;
+import org.jline.utils.AttributedStyle;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service("gitPromptService")
 public class GitPromptServiceImpl implements PromptService {
 
+    private static final int INITIAL_LESSON_COUNT = 30;
+    private static final Set<String> SUBCOMMAND_TOOLS = Set.of("git");
+    private static final Map<String, AttributedStyle> OUTPUT_TAG_STYLES = Map.of(
+            "branch", AttributedStyle.DEFAULT.foreground(AttributedStyle.MAGENTA).bold(),
+            "file", AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.CYAN),
+            "commit", AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW)
+    );
+
+    // The rules for a lesson object, shared by the initial module prompt and the slice prompts.
+    private static final String LESSON_RULES = """
+            Each lesson object MUST contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
+
+            - "practiceCommand": This MUST be the *exact*, simple command the user should type to practice. For conceptual lessons, this can be an empty string "".
+            - "hint": A short, helpful tip related to the command's syntax. For conceptual lessons, this can be an empty string "".
+
+            Inside "example_output", you MUST use these XML tags for colorization:
+            - Branch names: <branch>...</branch>
+            - Filenames/paths: <file>...</file>
+            - Commit hashes: <commit>...</commit>
+
+            EXAMPLE LESSON OBJECT:
+            {
+              "title": "Adding a File",
+              "concept": "The 'git add' command stages changes for the next commit.",
+              "command": "git add <filename>",
+              "example_output": "...",
+              "practiceCommand": "git add README.md",
+              "hint": "Don't forget to specify which file you want to add after the command."
+            }""";
+
     private final Map<String, String> modules = Map.of(
             "basics", "the absolute basics of Git, covering init, add, commit, status, and log",
             "branching", "Git branching, covering create, switch, merge, and delete branches",
@@ -17,6 +50,12 @@ public class GitPromptServiceImpl implements PromptService {
             "history", "inspecting and rewriting Git history, covering rebase, amend, and reset"
     );
 
+    private final int coverageMaxTokens;
+
+    public GitPromptServiceImpl(@Value("${app.prompt.more.coverage-max-tokens:400}") int coverageMaxTokens) {
+        this.coverageMaxTokens = coverageMaxTokens;
+    }
+
     @Override
     public String getTechnologyName() {
         return "Git";
@@ -38,44 +77,43 @@ public class GitPromptServiceImpl implements PromptService {
         String prompt = """
         You are a curriculum generation bot. Your only function is to output a single, valid JSON object.
         Generate a curriculum for a developer learning about '%s'.
-        The "lessons" array must contain exactly 30 lesson objects.
-        Each lesson object MUST contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
-        
-        - "practiceCommand": This MUST be the *exact*, simple command the user should type to practice. For conceptual lessons, this can be an empty string "".
-        - "hint": A short, helpful tip related to the command's syntax. For conceptual lessons, this can be an empty string "".
-        
-        Inside "example_output", you MUST use these XML tags for colorization:
-        - Branch names: <branch>...</branch>
-        - Filenames/paths: <file>...</file>
-        - Commit hashes: <commit>...</commit>
-        
-        EXAMPLE LESSON OBJECT:
-        {
-          "title": "Adding a File",
-          "concept": "The 'git add' command stages changes for the next commit.",
-          "command": "git add <filename>",
-          "example_output": "...",
-          "practiceCommand": "git add README.md",
-          "hint": "Don't forget to specify which file you want to add after the command."
-        }
+        The "lessons" array must contain exactly %d lesson objects.
+        %s
         
         Output only the raw JSON.
         """;
-        return formatPrompt(String.format(prompt, topic));
+        return formatPrompt(String.format(prompt, topic, INITIAL_LESSON_COUNT, LESSON_RULES));
+    }
+
+    @Override
+    public int getInitialLessonCount() {
+        return INITIAL_LESSON_COUNT;
+    }
+
+    @Override
+    public Map<String, AttributedStyle> getOutputTagStyles() {
+        return OUTPUT_TAG_STYLES;
+    }
+
+    @Override
+    public String buildOutlinePrompt(String moduleKey) {
+        return formatPrompt(ShardPrompts.outline(modules.get(moduleKey), INITIAL_LESSON_COUNT));
+    }
+
+    @Override
+    public String buildLessonSlicePrompt(String moduleKey, List<String> outlineTitles, int fromIndex, int toIndex) {
+        return formatPrompt(ShardPrompts.lessonSlice(modules.get(moduleKey), outlineTitles, fromIndex, toIndex, LESSON_RULES));
     }
 
     @Override
     public String buildMoreLessonsPrompt(String moduleKey, List<Lesson> existingLessons) {
         String topic = modules.get(moduleKey);
-        String completedCommands = existingLessons.stream()
-                .map(Lesson::command)
-                .map(cmd -> "`" + cmd + "`")
-                .collect(Collectors.joining(", "));
+        String completedCommands = CommandCoverage.summarize(existingLessons, SUBCOMMAND_TOOLS, coverageMaxTokens);
 
         String prompt = """
         You are a curriculum generation bot outputting a single, valid JSON object.
         Generate a new curriculum with 15 more lessons for a developer learning about '%s'.
-        CRITICAL: The user has already learned these commands: %s. You MUST NOT create lessons for these commands.
+        CRITICAL: The user has already learned these commands (with the options used): %s. You MUST NOT create lessons for these commands.
         Introduce NEW, more advanced, or related commands and concepts.
         Each lesson object must contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
         
@@ -0,0 +1,150 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Parses a {@link LearningModule} from streamed AI output and publishes each {@link Lesson}
+ * as soon as its JSON object is closed, long before the rest of the module has arrived.
+ * <p>
+ * Any text before the first '{' (such as a markdown fence) and after the root object closes
+ * is ignored, mirroring what {@code extractJson} does for complete responses. Instances are
+ * single-use and not thread-safe.
+ */
+class IncrementalModuleParser {
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<Lesson> onLesson;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final List<Lesson> lessons = new ArrayList<>();
+
+    private boolean started = false;
+    private boolean finished = false;
+    private IOException failure;
+    private int depth = 0;
+    private String pendingField;
+    private String moduleName;
+    private boolean inLessonsArray = false;
+    private TokenBuffer currentLesson;
+
+    IncrementalModuleParser(ObjectMapper objectMapper, Consumer<Lesson> onLesson) {
+        this.objectMapper = objectMapper;
+        this.onLesson = onLesson;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create a non-blocking JSON parser.", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Feeds the next chunk of streamed content and publishes any lessons it completes.
+     */
+    void feed(String chunk) {
+        if (finished || failure != null) {
+            return;
+        }
+        if (!started) {
+            int firstBrace = chunk.indexOf('{');
+            if (firstBrace == -1) {
+                return;
+            }
+            chunk = chunk.substring(firstBrace);
+            started = true;
+        }
+        try {
+            byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        } catch (IOException e) {
+            this.failure = e;
+        }
+    }
+
+    /**
+     * @return The module parsed so far; complete if the root object was closed.
+     */
+    LearningModule toModule() {
+        return new LearningModule(moduleName, List.copyOf(lessons));
+    }
+
+    /**
+     * @return true if the root JSON object was fully parsed without errors.
+     */
+    boolean isComplete() {
+        return finished && failure == null;
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (currentLesson != null) {
+            currentLesson.copyCurrentEvent(parser);
+        }
+        switch (token) {
+            case START_OBJECT -> {
+                depth++;
+                if (inLessonsArray && depth == 3 && currentLesson == null) {
+                    currentLesson = new TokenBuffer(parser, null);
+                    currentLesson.copyCurrentEvent(parser);
+                }
+            }
+            case END_OBJECT -> {
+                depth--;
+                if (currentLesson != null && depth == 2) {
+                    publish(currentLesson);
+                    currentLesson = null;
+                } else if (depth == 0) {
+                    finished = true;
+                }
+            }
+            case START_ARRAY -> {
+                depth++;
+                if (depth == 2 && "lessons".equals(pendingField)) {
+                    inLessonsArray = true;
+                }
+            }
+            case END_ARRAY -> {
+                depth--;
+                if (depth == 1) {
+                    inLessonsArray = false;
+                }
+            }
+            case FIELD_NAME -> {
+                if (depth == 1) {
+                    pendingField = parser.currentName();
+                }
+            }
+            case VALUE_STRING -> {
+                if (depth == 1 && "moduleName".equals(pendingField)) {
+                    moduleName = parser.getText();
+                }
+            }
+            default -> {
+                // Scalars inside lessons are captured by the token buffer; others are irrelevant.
+            }
+        }
+    }
+
+    private void publish(TokenBuffer buffer) throws IOException {
+        try (JsonParser lessonParser = buffer.asParser(objectMapper)) {
+            Lesson lesson = objectMapper.readValue(lessonParser, Lesson.class);
+            lessons.add(lesson);
+            onLesson.accept(lesson);
+        }
+    }
+}
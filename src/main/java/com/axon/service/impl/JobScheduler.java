@@ -0,0 +1,205 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.CancellationToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Runs AI-backed commands as jobs, each on its own virtual thread, so that the shell does not
+ * have to wait for them.
+ * <p>
+ * Every job runs with its own {@link CancellationToken} bound, and the threads it starts inherit
+ * it. Cancelling a job cancels the token, which aborts the HTTP call in flight and any retry
+ * that is waiting. Jobs that change the session (such as 'start') are exclusive: only one of
+ * them can run at a time, while jobs that only read it (such as 'ask') can run alongside.
+ * The most recent finished jobs are kept so that 'jobs' can still show how they ended.
+ */
+@Service
+public class JobScheduler {
+
+    private static final int FINISHED_JOBS_KEPT = 20;
+
+    public enum State { RUNNING, DONE, FAILED, CANCELLED }
+
+    /**
+     * A submitted job. Its result completes with the value of the work, or exceptionally with
+     * a {@link CancellationException} if the job was cancelled.
+     */
+    public static final class Job<T> {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final boolean exclusive;
+        private final long startNanos = System.nanoTime();
+        private final CancellationToken cancellation = new CancellationToken();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile long endNanos;
+        private volatile String progress = "";
+
+        private Job(int id, String name, String description, boolean exclusive) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.exclusive = exclusive;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        public String description() {
+            return description;
+        }
+
+        public CompletableFuture<T> result() {
+            return result;
+        }
+
+        /**
+         * @return A short note on how far the job has got (e.g., "1.2k chars"), or an empty string.
+         */
+        public String progress() {
+            return progress;
+        }
+
+        /**
+         * Called by the work to describe how far it has got.
+         */
+        public void reportProgress(String progress) {
+            this.progress = progress;
+        }
+
+        public boolean isDone() {
+            return result.isDone();
+        }
+
+        public State state() {
+            if (!result.isDone()) {
+                return State.RUNNING;
+            }
+            if (cancellation.isCancelled()) {
+                return State.CANCELLED;
+            }
+            return result.isCompletedExceptionally() ? State.FAILED : State.DONE;
+        }
+
+        public Duration elapsed() {
+            long end = result.isDone() ? endNanos : System.nanoTime();
+            return Duration.ofNanos(end - startNanos);
+        }
+
+        /**
+         * Cancels the job. It has no effect once the job has finished.
+         *
+         * @return true if the job was still running.
+         */
+        public boolean cancel() {
+            if (result.isDone()) {
+                return false;
+            }
+            cancellation.cancel();
+            return true;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, Job<?>> jobs = new LinkedHashMap<>();
+    private int nextId = 1;
+
+    public JobScheduler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts the work on a new virtual thread and returns at once.
+     *
+     * @param name The command the job runs, used to tag its metrics (e.g., "ask").
+     * @param description What the job does, as shown by 'jobs'.
+     * @param exclusive Whether the job changes the session, so that no other such job may run with it.
+     * @param work The work; it receives its own job to report progress through.
+     * @throws IllegalStateException if the job is exclusive and another exclusive job is running.
+     */
+    public <T> Job<T> submit(String name, String description, boolean exclusive, Function<Job<T>, T> work) {
+        Job<T> job;
+        synchronized (this) {
+            if (exclusive) {
+                Optional<Job<?>> running = jobs.values().stream().filter(other -> other.exclusive && !other.isDone()).findFirst();
+                if (running.isPresent()) {
+                    throw new IllegalStateException("Job " + running.get().id + " (" + running.get().description
+                            + ") is still running. Wait for it, or stop it with 'cancel " + running.get().id + "'.");
+                }
+            }
+            job = new Job<>(nextId++, name, description, exclusive);
+            jobs.put(job.id, job);
+            pruneFinishedJobs();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Thread.ofVirtual().name("axon-job-" + job.id).start(() -> {
+            try {
+                T value = job.cancellation.call(() -> work.apply(job));
+                job.endNanos = System.nanoTime();
+                // Work that finished despite being cancelled is reported as cancelled, like its state.
+                if (job.cancellation.isCancelled()) {
+                    job.result.completeExceptionally(new CancellationException("The job was cancelled."));
+                } else {
+                    job.result.complete(value);
+                }
+            } catch (Throwable e) {
+                job.endNanos = System.nanoTime();
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                job.result.completeExceptionally(job.cancellation.isCancelled()
+                        ? new CancellationException("The job was cancelled.") : cause);
+            } finally {
+                sample.stop(meterRegistry.timer("axon.job", "command", job.name,
+                        "outcome", job.state().name().toLowerCase()));
+            }
+        });
+        return job;
+    }
+
+    /**
+     * @return The running jobs and the most recent finished ones, oldest first.
+     */
+    public synchronized List<Job<?>> getJobs() {
+        return jobs.values().stream().sorted(Comparator.comparingInt(Job::id)).toList();
+    }
+
+    public synchronized Optional<Job<?>> getJob(int id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void pruneFinishedJobs() {
+        List<Integer> finished = new ArrayList<>();
+        jobs.values().stream().filter(Job::isDone).forEach(job -> finished.add(job.id));
+        for (int i = 0; i < finished.size() - FINISHED_JOBS_KEPT; i++) {
+            jobs.remove(finished.get(i));
+        }
+    }
+
+    /**
+     * Cancels whatever is still running when the application shuts down.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void cancelAll() {
+        List<Job<?>> running;
+        synchronized (this) {
+            running = jobs.values().stream().filter(job -> !job.isDone()).toList();
+        }
+        running.forEach(Job::cancel);
+    }
+}
@@ -2,14 +2,37 @@ package com.axon.service.impl;
 
 import com.axon.model.Lesson;
 import com.axon.service.api.PromptService;
+import org.jline.utils.AttributedStyle;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service("kubernetesPromptService")
 public class KubernetesPromptServiceImpl implements PromptService {
 
+    private static final int INITIAL_LESSON_COUNT = 20;
+    private static final Set<String> SUBCOMMAND_TOOLS = Set.of("kubectl", "helm", "minikube", "kind");
+    private static final Map<String, AttributedStyle> OUTPUT_TAG_STYLES = Map.of(
+            "resource", AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN),
+            "type", AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.YELLOW),
+            "namespace", AttributedStyle.DEFAULT.foreground(AttributedStyle.MAGENTA).bold()
+    );
+
+    // The rules for a lesson object, shared by the initial module prompt and the slice prompts.
+    private static final String LESSON_RULES = """
+            Each lesson object MUST contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
+
+            - "practiceCommand": The exact command to practice, or "" if not applicable.
+            - "hint": A helpful tip, or "" if not applicable.
+
+            Inside "example_output", you MUST use these XML tags for colorization:
+            - Resource names (like a pod or deployment name): <resource>...</resource>
+            - Resource types (like 'pod', 'deployment', 'service'): <type>...</type>
+            - Namespaces: <namespace>...</namespace>""";
+
     private final Map<String, String> modules = Map.of(
             "core", "the core concepts of Kubernetes, covering Pods, Deployments, and Services with kubectl",
             "workloads", "managing application workloads, covering scaling, rollouts, and rollbacks of Deployments",
@@ -17,6 +40,12 @@ public class KubernetesPromptServiceImpl implements PromptService {
             "discovery", "service discovery and basic networking in Kubernetes using Services and Labels"
     );
 
+    private final int coverageMaxTokens;
+
+    public KubernetesPromptServiceImpl(@Value("${app.prompt.more.coverage-max-tokens:400}") int coverageMaxTokens) {
+        this.coverageMaxTokens = coverageMaxTokens;
+    }
+
     @Override
     public String getTechnologyName() {
         return "Kubernetes";
@@ -38,34 +67,43 @@ public class KubernetesPromptServiceImpl implements PromptService {
         String prompt = """
         You are a curriculum generation bot. Your only function is to output a single, valid JSON object.
         Generate a curriculum for a developer learning about '%s'.
-        The "lessons" array must contain exactly 20 lesson objects.
-        Each lesson object MUST contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
-        
-        - "practiceCommand": The exact command to practice, or "" if not applicable.
-        - "hint": A helpful tip, or "" if not applicable.
-        
-        Inside "example_output", you MUST use these XML tags for colorization:
-        - Resource names (like a pod or deployment name): <resource>...</resource>
-        - Resource types (like 'pod', 'deployment', 'service'): <type>...</type>
-        - Namespaces: <namespace>...</namespace>
+        The "lessons" array must contain exactly %d lesson objects.
+        %s
         
         Output only the raw JSON.
         """;
-        return formatPrompt(String.format(prompt, topic));
+        return formatPrompt(String.format(prompt, topic, INITIAL_LESSON_COUNT, LESSON_RULES));
+    }
+
+    @Override
+    public int getInitialLessonCount() {
+        return INITIAL_LESSON_COUNT;
+    }
+
+    @Override
+    public Map<String, AttributedStyle> getOutputTagStyles() {
+        return OUTPUT_TAG_STYLES;
+    }
+
+    @Override
+    public String buildOutlinePrompt(String moduleKey) {
+        return formatPrompt(ShardPrompts.outline(modules.get(moduleKey), INITIAL_LESSON_COUNT));
+    }
+
+    @Override
+    public String buildLessonSlicePrompt(String moduleKey, List<String> outlineTitles, int fromIndex, int toIndex) {
+        return formatPrompt(ShardPrompts.lessonSlice(modules.get(moduleKey), outlineTitles, fromIndex, toIndex, LESSON_RULES));
     }
 
     @Override
     public String buildMoreLessonsPrompt(String moduleKey, List<Lesson> existingLessons) {
         String topic = modules.get(moduleKey);
-        String completedCommands = existingLessons.stream()
-                .map(Lesson::command)
-                .map(cmd -> "`" + cmd + "`")
-                .collect(Collectors.joining(", "));
+        String completedCommands = CommandCoverage.summarize(existingLessons, SUBCOMMAND_TOOLS, coverageMaxTokens);
 
         String prompt = """
         You are a curriculum generation bot outputting a single, valid JSON object.
         Generate a new curriculum with 10 more lessons for a developer learning about '%s'.
-        CRITICAL: The user has already learned these commands: %s. You MUST NOT create lessons for these commands.
+        CRITICAL: The user has already learned these commands (with the options used): %s. You MUST NOT create lessons for these commands.
         Introduce NEW, more advanced, or related commands and concepts.
         Each lesson object must contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
         
@@ -0,0 +1,41 @@
+package com.axon.service.impl;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Keeps the most recent latency samples of one kind of call in a ring buffer and
+ * reports a percentile over them.
+ */
+class LatencyTracker {
+
+    private final long[] samples;
+    private int count = 0;
+    private int next = 0;
+
+    LatencyTracker(int capacity) {
+        this.samples = new long[Math.max(1, capacity)];
+    }
+
+    synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * @param percentile The percentile to compute, between 0 and 1.
+     * @param minSamples The number of samples needed for a meaningful answer.
+     * @return The percentile, or empty if fewer than {@code minSamples} have been recorded.
+     */
+    synchronized Optional<Duration> percentile(double percentile, int minSamples) {
+        if (count == 0 || count < minSamples) {
+            return Optional.empty();
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return Optional.of(Duration.ofNanos(sorted[Math.min(count - 1, Math.max(0, index))]));
+    }
+}
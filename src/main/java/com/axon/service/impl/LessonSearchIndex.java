@@ -0,0 +1,549 @@
+package com.axon.service.impl;
+
+import com.axon.model.Lesson;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An inverted index over the title, concept, command and hint of every cached lesson, and the
+ * technology and module it belongs to.
+ * <p>
+ * Text is split the way command lines are written: {@code --amend} and {@code -m} stay whole
+ * tokens, combined short options such as {@code -la} also count as {@code -l} and {@code -a},
+ * and compound words such as {@code docker-compose} or {@code origin/main} are indexed whole
+ * and by their parts. Hits are ranked by BM25-style term weights, with titles and commands
+ * weighing more than the prose, and a query term without an exact match falls back to the
+ * terms it is a prefix of.
+ * <p>
+ * The bulk of the index is a file that is memory-mapped on first use, so opening it costs
+ * neither parsing nor heap. Changes since it was written are kept in memory: lessons of new
+ * modules (or lessons appended to a module) are added to a small in-memory part, and lessons of
+ * removed modules are masked out. {@link #save()} merges both parts into a new file, written as
+ * the next {@link GenerationalFile generation} rather than over the mapped one. The file
+ * holds, big-endian:
+ * <pre>
+ * int magic, int version, int docCount, int termCount
+ * int[docCount]  offset of each lesson
+ * int[termCount] offset of each term, sorted by its UTF-8 bytes
+ * lesson: int lessonNumber, str cacheKey, str technology, str moduleKey, str title
+ * term:   str term, int postingCount, postingCount x (int lesson, float weight)
+ * </pre>
+ * where {@code str} is an unsigned short length followed by UTF-8 bytes.
+ */
+final class LessonSearchIndex {
+
+    private static final int MAGIC = 0x41584958;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float COMMAND_WEIGHT = 2f;
+    private static final float TEXT_WEIGHT = 1f;
+    // BM25 term frequency saturation.
+    private static final float K1 = 1.2f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_PREFIX_TERMS = 32;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int MAX_STRING_CHARS = 16_000;
+
+    private static final Pattern RAW_TOKEN = Pattern.compile("[^\\s\"'`,;()\\[\\]{}<>|&!?*]+");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    record Hit(String cacheKey, String technology, String moduleKey, int lessonNumber, String title, double score) {}
+
+    private record Doc(String cacheKey, String technology, String moduleKey, int lessonNumber, String title) {}
+
+    private record Posting(int doc, float weight) {}
+
+    private final GenerationalFile file;
+    private MappedByteBuffer mapped;
+    private int mappedDocs;
+    private int mappedTerms;
+    private Instant savedAt = Instant.EPOCH;
+    // Lessons added since the file was written; their ids continue after the mapped ones.
+    private final List<Doc> addedDocs = new ArrayList<>();
+    private final TreeMap<String, List<Posting>> addedPostings = new TreeMap<>();
+    private final Map<String, List<Integer>> docsByKey = new HashMap<>();
+    private final BitSet removed = new BitSet();
+    private boolean opened;
+    private boolean dirty;
+
+    LessonSearchIndex(Path file) {
+        this.file = new GenerationalFile(file);
+    }
+
+    /**
+     * @return The cache keys of the modules in the index.
+     */
+    synchronized Set<String> keys() {
+        ensureOpen();
+        return new HashSet<>(docsByKey.keySet());
+    }
+
+    /**
+     * @return When the index file was last written, or the epoch if there is none.
+     */
+    synchronized Instant savedAt() {
+        ensureOpen();
+        return savedAt;
+    }
+
+    /**
+     * @return The number of lessons that can be found.
+     */
+    synchronized int size() {
+        ensureOpen();
+        return mappedDocs + addedDocs.size() - removed.cardinality();
+    }
+
+    /**
+     * Indexes the lessons of a module. If the index already holds the start of the same lesson
+     * list (as after 'more'), only the lessons after it are added; otherwise the module's
+     * lessons are replaced.
+     */
+    synchronized void index(String cacheKey, String technology, String moduleKey, List<Lesson> lessons) {
+        ensureOpen();
+        List<Integer> indexed = docsByKey.getOrDefault(cacheKey, List.of());
+        int from = 0;
+        if (!indexed.isEmpty() && indexed.size() <= lessons.size()) {
+            Doc last = doc(indexed.getLast());
+            if (last.technology().equals(technology) && last.moduleKey().equals(moduleKey)
+                    && last.title().equals(Objects.requireNonNullElse(lessons.get(indexed.size() - 1).title(), ""))) {
+                from = indexed.size();
+            }
+        }
+        if (from == 0) {
+            remove(cacheKey);
+        }
+        for (int i = from; i < lessons.size(); i++) {
+            addDoc(new Doc(cacheKey, technology, moduleKey, i + 1, Objects.requireNonNullElse(lessons.get(i).title(), "")), lessons.get(i));
+        }
+    }
+
+    /**
+     * Removes the lessons of a module.
+     */
+    synchronized void remove(String cacheKey) {
+        ensureOpen();
+        List<Integer> ids = docsByKey.remove(cacheKey);
+        if (ids != null) {
+            ids.forEach(removed::set);
+            dirty = true;
+        }
+    }
+
+    /**
+     * @return The best matching lessons, best first.
+     */
+    synchronized List<Hit> search(String query, int limit) {
+        ensureOpen();
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        int liveDocs = Math.max(1, mappedDocs + addedDocs.size() - removed.cardinality());
+        // Per lesson: the summed score and the number of query terms it matched.
+        Map<Integer, float[]> scores = new HashMap<>();
+        for (String term : terms) {
+            List<Posting> exact = postings(term);
+            Map<String, List<Posting>> matches = !exact.isEmpty() || term.length() < MIN_PREFIX_LENGTH
+                    ? Map.of(term, exact) : prefixPostings(term);
+            float factor = exact.isEmpty() ? PREFIX_MATCH_FACTOR : 1f;
+            Map<Integer, Float> termScores = new HashMap<>();
+            for (List<Posting> postings : matches.values()) {
+                List<Posting> live = postings.stream().filter(posting -> !removed.get(posting.doc())).toList();
+                double idf = Math.log(1 + (liveDocs - live.size() + 0.5) / (live.size() + 0.5));
+                for (Posting posting : live) {
+                    float score = (float) (factor * idf * posting.weight() * (K1 + 1) / (posting.weight() + K1));
+                    termScores.merge(posting.doc(), score, Math::max);
+                }
+            }
+            termScores.forEach((doc, score) -> {
+                float[] total = scores.computeIfAbsent(doc, id -> new float[2]);
+                total[0] += score;
+                total[1]++;
+            });
+        }
+        // Lessons that match every term rank above those that match only some.
+        return scores.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()[0] * entry.getValue()[1] / terms.size()))
+                .sorted(Map.Entry.<Integer, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> {
+                    Doc doc = doc(entry.getKey());
+                    return new Hit(doc.cacheKey(), doc.technology(), doc.moduleKey(), doc.lessonNumber(), doc.title(), entry.getValue());
+                })
+                .toList();
+    }
+
+    /**
+     * Writes both parts of the index into a new generation of the file, through a temporary file
+     * and an atomic rename, and maps it in place of the old one. Does nothing if nothing has changed.
+     */
+    synchronized void save() {
+        ensureOpen();
+        if (!dirty) {
+            return;
+        }
+        int total = mappedDocs + addedDocs.size();
+        int[] newIds = new int[total];
+        List<Doc> docs = new ArrayList<>();
+        for (int id = 0; id < total; id++) {
+            newIds[id] = removed.get(id) ? -1 : docs.size();
+            if (!removed.get(id)) {
+                docs.add(doc(id));
+            }
+        }
+        TreeMap<byte[], List<Posting>> terms = new TreeMap<>(Arrays::compareUnsigned);
+        for (int index = 0; index < mappedTerms; index++) {
+            int offset = termOffset(index);
+            byte[] term = new byte[Short.toUnsignedInt(mapped.getShort(offset))];
+            mapped.get(offset + 2, term);
+            addRemapped(terms, term, readPostings(index), newIds);
+        }
+        addedPostings.forEach((term, postings) -> addRemapped(terms, term.getBytes(StandardCharsets.UTF_8), postings, newIds));
+
+        try {
+            Files.createDirectories(file.directory());
+            Path temp = Files.createTempFile(file.directory(), "search", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    write(out, docs, terms);
+                }
+                file.commit(temp);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Could not save the lesson search index. " + e.getMessage());
+            return;
+        }
+        reset();
+        ensureOpen();
+        // The old generation is no longer mapped by this index (though possibly by another session).
+        file.deleteStale();
+    }
+
+    /**
+     * Splits text into lower-case search terms, keeping command-line options and compound
+     * words whole and adding their parts.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher raw = RAW_TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+        while (raw.find()) {
+            String token = trimPunctuation(raw.group());
+            if (token.isEmpty() || token.length() > MAX_TERM_LENGTH) {
+                continue;
+            }
+            if (token.startsWith("-")) {
+                String option = token.contains("=") ? token.substring(0, token.indexOf('=')) : token;
+                addTerm(tokens, option);
+                String letters = option.substring(1);
+                if (!option.startsWith("--") && letters.length() > 1 && letters.chars().allMatch(Character::isLetter)) {
+                    // Combined short options: -la is -l and -a.
+                    letters.chars().forEach(letter -> tokens.add("-" + (char) letter));
+                }
+            } else {
+                addTerm(tokens, token);
+            }
+            // The words inside: 'docker-compose' is also found by 'compose', '--amend' by 'amend'.
+            Matcher word = WORD.matcher(token);
+            while (word.find()) {
+                if (!word.group().equals(token)) {
+                    addTerm(tokens, word.group());
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static String trimPunctuation(String token) {
+        int start = 0;
+        int end = token.length();
+        while (start < end && token.charAt(start) == '$') {
+            start++;
+        }
+        while (end > start && ".:=".indexOf(token.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        return token.substring(start, end);
+    }
+
+    private static void addTerm(List<String> tokens, String term) {
+        // Single letters are too common to search for; options such as '-m' are two characters.
+        if (term.length() > 1) {
+            tokens.add(term);
+        }
+    }
+
+    private void addDoc(Doc doc, Lesson lesson) {
+        int id = mappedDocs + addedDocs.size();
+        addedDocs.add(doc);
+        docsByKey.computeIfAbsent(doc.cacheKey(), key -> new ArrayList<>()).add(id);
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addField(weights, lesson.title(), TITLE_WEIGHT);
+        addField(weights, lesson.command(), COMMAND_WEIGHT);
+        addField(weights, lesson.concept(), TEXT_WEIGHT);
+        addField(weights, lesson.hint(), TEXT_WEIGHT);
+        // So that 'docker volumes' finds the lessons of that module even where they do not say so.
+        addField(weights, doc.technology() + " " + doc.moduleKey(), TEXT_WEIGHT);
+        weights.forEach((term, weight) -> addedPostings.computeIfAbsent(term, t -> new ArrayList<>()).add(new Posting(id, weight)));
+        dirty = true;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        tokenize(text).forEach(term -> weights.merge(term, weight, Float::sum));
+    }
+
+    private List<Posting> postings(String term) {
+        List<Posting> postings = new ArrayList<>(addedPostings.getOrDefault(term, List.of()));
+        byte[] key = term.getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(key);
+        if (index < mappedTerms && compareTerm(index, key) == 0) {
+            postings.addAll(readPostings(index));
+        }
+        return postings;
+    }
+
+    private Map<String, List<Posting>> prefixPostings(String prefix) {
+        Map<String, List<Posting>> matches = new HashMap<>();
+        for (Map.Entry<String, List<Posting>> entry : addedPostings.subMap(prefix, prefix + Character.MAX_VALUE).entrySet()) {
+            if (matches.size() == MAX_PREFIX_TERMS) {
+                break;
+            }
+            matches.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        for (int index = lowerBound(key); index < mappedTerms && matches.size() < MAX_PREFIX_TERMS && startsWith(index, key); index++) {
+            matches.computeIfAbsent(readTerm(index), term -> new ArrayList<>()).addAll(readPostings(index));
+        }
+        return matches;
+    }
+
+    private void ensureOpen() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Optional<Path> current = file.current();
+                if (current.isEmpty()) {
+                    return;
+                }
+                try {
+                    map(current.get());
+                    return;
+                } catch (NoSuchFileException e) {
+                    // Another session wrote a newer generation and deleted this one meanwhile.
+                    if (attempt == 2) {
+                        throw e;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Warning: Rebuilding the lesson search index. " + e.getMessage());
+            reset();
+            opened = true;
+        }
+    }
+
+    private void map(Path current) throws IOException {
+        try (FileChannel channel = FileChannel.open(current, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Unknown file format.");
+            }
+            mapped = buffer;
+            mappedDocs = buffer.getInt(8);
+            mappedTerms = buffer.getInt(12);
+            for (int id = 0; id < mappedDocs; id++) {
+                docsByKey.computeIfAbsent(readString(docOffset(id) + 4), key -> new ArrayList<>()).add(id);
+            }
+            savedAt = Files.getLastModifiedTime(current).toInstant();
+        }
+    }
+
+    private void reset() {
+        mapped = null;
+        mappedDocs = 0;
+        mappedTerms = 0;
+        savedAt = Instant.EPOCH;
+        addedDocs.clear();
+        addedPostings.clear();
+        docsByKey.clear();
+        removed.clear();
+        opened = false;
+        dirty = false;
+    }
+
+    private Doc doc(int id) {
+        if (id >= mappedDocs) {
+            return addedDocs.get(id - mappedDocs);
+        }
+        int offset = docOffset(id);
+        int lessonNumber = mapped.getInt(offset);
+        String[] fields = new String[4];
+        offset += 4;
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = readString(offset);
+            offset += 2 + Short.toUnsignedInt(mapped.getShort(offset));
+        }
+        return new Doc(fields[0], fields[1], fields[2], lessonNumber, fields[3]);
+    }
+
+    private int docOffset(int id) {
+        return mapped.getInt(HEADER_BYTES + 4 * id);
+    }
+
+    private int termOffset(int index) {
+        return mapped.getInt(HEADER_BYTES + 4 * mappedDocs + 4 * index);
+    }
+
+    private String readString(int offset) {
+        byte[] bytes = new byte[Short.toUnsignedInt(mapped.getShort(offset))];
+        mapped.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readTerm(int index) {
+        return readString(termOffset(index));
+    }
+
+    private List<Posting> readPostings(int index) {
+        int offset = termOffset(index);
+        offset += 2 + Short.toUnsignedInt(mapped.getShort(offset));
+        int count = mapped.getInt(offset);
+        List<Posting> postings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int position = offset + 4 + 8 * i;
+            postings.add(new Posting(mapped.getInt(position), mapped.getFloat(position + 4)));
+        }
+        return postings;
+    }
+
+    /**
+     * @return The index of the first mapped term that is not less than the key.
+     */
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = mappedTerms;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareTerm(middle, key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compareTerm(int index, byte[] key) {
+        int offset = termOffset(index);
+        int length = Short.toUnsignedInt(mapped.getShort(offset));
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int difference = Byte.toUnsignedInt(mapped.get(offset + 2 + i)) - Byte.toUnsignedInt(key[i]);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    private boolean startsWith(int index, byte[] prefix) {
+        int offset = termOffset(index);
+        int length = Short.toUnsignedInt(mapped.getShort(offset));
+        return length >= prefix.length && mapped.slice(offset + 2, prefix.length).equals(ByteBuffer.wrap(prefix));
+    }
+
+    private static void addRemapped(TreeMap<byte[], List<Posting>> terms, byte[] term, List<Posting> postings, int[] newIds) {
+        for (Posting posting : postings) {
+            int id = newIds[posting.doc()];
+            if (id >= 0) {
+                terms.computeIfAbsent(term, t -> new ArrayList<>()).add(new Posting(id, posting.weight()));
+            }
+        }
+    }
+
+    private static void write(OutputStream target, List<Doc> docs, TreeMap<byte[], List<Posting>> terms) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordData = new DataOutputStream(records);
+        int start = HEADER_BYTES + 4 * docs.size() + 4 * terms.size();
+        int[] docOffsets = new int[docs.size()];
+        for (int i = 0; i < docs.size(); i++) {
+            Doc doc = docs.get(i);
+            docOffsets[i] = start + recordData.size();
+            recordData.writeInt(doc.lessonNumber());
+            for (String field : new String[]{doc.cacheKey(), doc.technology(), doc.moduleKey(), doc.title()}) {
+                writeString(recordData, field.length() > MAX_STRING_CHARS ? field.substring(0, MAX_STRING_CHARS) : field);
+            }
+        }
+        int[] termOffsets = new int[terms.size()];
+        int index = 0;
+        for (Map.Entry<byte[], List<Posting>> term : terms.entrySet()) {
+            termOffsets[index++] = start + recordData.size();
+            recordData.writeShort(term.getKey().length);
+            recordData.write(term.getKey());
+            List<Posting> postings = term.getValue().stream().sorted(Comparator.comparingInt(Posting::doc)).toList();
+            recordData.writeInt(postings.size());
+            for (Posting posting : postings) {
+                recordData.writeInt(posting.doc());
+                recordData.writeFloat(posting.weight());
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(docs.size());
+        out.writeInt(terms.size());
+        for (int offset : docOffsets) {
+            out.writeInt(offset);
+        }
+        for (int offset : termOffsets) {
+            out.writeInt(offset);
+        }
+        records.writeTo(out);
+        out.flush();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
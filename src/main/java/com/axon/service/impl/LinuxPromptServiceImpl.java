@@ -2,14 +2,37 @@ package com.axon.service.impl;
 
 import com.axon.model.Lesson;
 import com.axon.service.api.PromptService;
+import org.jline.utils.AttributedStyle;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service("linuxPromptService")
 public class LinuxPromptServiceImpl implements PromptService {
 
+    private static final int INITIAL_LESSON_COUNT = 20;
+    private static final Set<String> SUBCOMMAND_TOOLS = Set.of("systemctl", "journalctl", "apt", "apt-get", "ip");
+    private static final Map<String, AttributedStyle> OUTPUT_TAG_STYLES = Map.of(
+            "path", AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.CYAN),
+            "user", AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN),
+            "pid", AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW)
+    );
+
+    // The rules for a lesson object, shared by the initial module prompt and the slice prompts.
+    private static final String LESSON_RULES = """
+            Each lesson object MUST contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
+
+            - "practiceCommand": The exact command to practice, or "" if not applicable.
+            - "hint": A helpful tip, or "" if not applicable.
+
+            Inside "example_output", you MUST use these XML tags for colorization:
+            - Filenames and directory paths: <path>...</path>
+            - User or group names: <user>...</user>
+            - Process IDs (PIDs): <pid>...</pid>""";
+
     private final Map<String, String> modules = Map.of(
             "files", "basic file system navigation and manipulation, covering ls, cd, pwd, cp, mv, rm, and mkdir",
             "permissions", "managing file permissions and ownership, covering chmod, chown, and the meaning of rwx",
@@ -17,6 +40,12 @@ public class LinuxPromptServiceImpl implements PromptService {
             "text", "processing text and using pipes, covering cat, grep, wc, head, tail, and the | operator"
     );
 
+    private final int coverageMaxTokens;
+
+    public LinuxPromptServiceImpl(@Value("${app.prompt.more.coverage-max-tokens:400}") int coverageMaxTokens) {
+        this.coverageMaxTokens = coverageMaxTokens;
+    }
+
     @Override
     public String getTechnologyName() {
         return "Linux";
@@ -38,34 +67,43 @@ public class LinuxPromptServiceImpl implements PromptService {
         String prompt = """
         You are a curriculum generation bot. Your only function is to output a single, valid JSON object.
         Generate a curriculum for a developer learning about '%s'.
-        The "lessons" array must contain exactly 20 lesson objects.
-        Each lesson object MUST contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
-        
-        - "practiceCommand": The exact command to practice, or "" if not applicable.
-        - "hint": A helpful tip, or "" if not applicable.
-        
-        Inside "example_output", you MUST use these XML tags for colorization:
-        - Filenames and directory paths: <path>...</path>
-        - User or group names: <user>...</user>
-        - Process IDs (PIDs): <pid>...</pid>
+        The "lessons" array must contain exactly %d lesson objects.
+        %s
         
         Output only the raw JSON.
         """;
-        return formatPrompt(String.format(prompt, topic));
+        return formatPrompt(String.format(prompt, topic, INITIAL_LESSON_COUNT, LESSON_RULES));
+    }
+
+    @Override
+    public int getInitialLessonCount() {
+        return INITIAL_LESSON_COUNT;
+    }
+
+    @Override
+    public Map<String, AttributedStyle> getOutputTagStyles() {
+        return OUTPUT_TAG_STYLES;
+    }
+
+    @Override
+    public String buildOutlinePrompt(String moduleKey) {
+        return formatPrompt(ShardPrompts.outline(modules.get(moduleKey), INITIAL_LESSON_COUNT));
+    }
+
+    @Override
+    public String buildLessonSlicePrompt(String moduleKey, List<String> outlineTitles, int fromIndex, int toIndex) {
+        return formatPrompt(ShardPrompts.lessonSlice(modules.get(moduleKey), outlineTitles, fromIndex, toIndex, LESSON_RULES));
     }
 
     @Override
     public String buildMoreLessonsPrompt(String moduleKey, List<Lesson> existingLessons) {
         String topic = modules.get(moduleKey);
-        String completedCommands = existingLessons.stream()
-                .map(Lesson::command)
-                .map(cmd -> "`" + cmd + "`")
-                .collect(Collectors.joining(", "));
+        String completedCommands = CommandCoverage.summarize(existingLessons, SUBCOMMAND_TOOLS, coverageMaxTokens);
 
         String prompt = """
         You are a curriculum generation bot outputting a single, valid JSON object.
         Generate a new curriculum with 10 more lessons for a developer learning about '%s'.
-        CRITICAL: The user has already learned these commands: %s. You MUST NOT create lessons for these commands.
+        CRITICAL: The user has already learned these commands (with the options used): %s. You MUST NOT create lessons for these commands.
         Introduce NEW, more advanced, or related commands and concepts.
         Each lesson object must contain "title", "concept", "command", "example_output", "practiceCommand", and "hint".
         
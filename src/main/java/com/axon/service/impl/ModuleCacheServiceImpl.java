@@ -0,0 +1,422 @@
+package com.axon.service.impl;
+
+import com.axon.model.BundledModule;
+import com.axon.model.LearningModule;
+import com.axon.service.api.ModuleCacheService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class ModuleCacheServiceImpl implements ModuleCacheService {
+
+    /** The on-disk representation of a cache entry. */
+    public record CachedModule(String technology, String moduleKey, LearningModule module) {}
+
+    private static final Path CACHE_DIR = Path.of(System.getProperty("user.home"), ".axon", "modules");
+    private static final String SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Temporary files older than this were left by a session that crashed while writing them.
+    private static final Duration STALE_TEMP_AGE = Duration.ofHours(1);
+    private static final Path SEARCH_INDEX_FILE = Path.of(System.getProperty("user.home"), ".axon", "search.idx");
+    private static final Path PACK_DIR = Path.of(System.getProperty("user.home"), ".axon", "packs");
+
+    private final ObjectMapper objectMapper;
+    private final long maxSizeBytes;
+    private final LessonSearchIndex searchIndex = new LessonSearchIndex(SEARCH_INDEX_FILE);
+    private volatile CompletableFuture<Void> searchIndexReady = CompletableFuture.completedFuture(null);
+    // Opened on first use; mapping a pack reads only its header.
+    private List<CurriculumPack> packs;
+
+    public ModuleCacheServiceImpl(ObjectMapper objectMapper,
+                                  @Value("${app.cache.modules.max-size-mb:64}") long maxSizeMb) {
+        this.objectMapper = objectMapper;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    @Override
+    public String keyFor(String technology, String moduleKey, String prompt, String model, int maxTokens) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{technology.toLowerCase(), moduleKey, prompt, model, Integer.toString(maxTokens)}) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available on this JVM.", e);
+        }
+    }
+
+    @Override
+    public synchronized Optional<LearningModule> get(String key) {
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            CachedModule cached = objectMapper.readValue(file.toFile(), CachedModule.class);
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return Optional.ofNullable(cached.module());
+        } catch (IOException e) {
+            System.err.println("Warning: Discarding unreadable module cache entry " + key + ". " + e.getMessage());
+            deleteQuietly(file);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public synchronized void put(String key, String technology, String moduleKey, LearningModule module) {
+        Path file = fileFor(key);
+        try {
+            Files.createDirectories(CACHE_DIR);
+            // Write to a temporary file first so a crash never leaves a half-written entry behind.
+            Path temp = Files.createTempFile(CACHE_DIR, key, TEMP_SUFFIX);
+            try {
+                objectMapper.writeValue(temp.toFile(), new CachedModule(technology.toLowerCase(), moduleKey, module));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Only left behind if the write or the move failed.
+                deleteQuietly(temp);
+            }
+            searchIndex.index(key, technology.toLowerCase(), moduleKey, module.lessons());
+            evictIfNeeded(file);
+        } catch (IOException e) {
+            System.err.println("Warning: Could not write module cache entry: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<LearningModule> find(String key, String technology, String moduleKey) {
+        Optional<LearningModule> cached = get(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        for (CurriculumPack pack : packs()) {
+            try {
+                Optional<BundledModule> packed = pack.find(technology.toLowerCase(), moduleKey);
+                if (packed.isPresent() && packed.get().cacheKey().equals(key)) {
+                    return Optional.of(packed.get().module());
+                }
+            } catch (IllegalStateException e) {
+                System.err.println("Warning: Skipping curriculum pack. " + e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized Pack installPack(Path file) {
+        try {
+            CurriculumPack.open(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read the curriculum pack " + file + ": " + e.getMessage(), e);
+        }
+        // A pack of the same name may be mapped right now, so it is installed as a new generation beside it.
+        GenerationalFile target = new GenerationalFile(PACK_DIR.resolve(file.getFileName()));
+        Path installed;
+        try {
+            Files.createDirectories(PACK_DIR);
+            Path temp = Files.createTempFile(PACK_DIR, target.name(), TEMP_SUFFIX);
+            try {
+                Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+                installed = target.commit(temp);
+            } finally {
+                deleteQuietly(temp);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not install the curriculum pack " + file + ": " + e.getMessage(), e);
+        }
+        packs = null;
+        CurriculumPack pack = packs().stream().filter(opened -> opened.file().equals(installed)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Could not open the installed curriculum pack " + installed + "."));
+        for (BundledModule module : pack.modules()) {
+            if (Files.exists(fileFor(module.cacheKey()))) {
+                // The cached module (e.g., with lessons from 'more') is the one that is served and indexed.
+                continue;
+            }
+            searchIndex.index(module.cacheKey(), module.technology(), module.moduleKey(), module.module().lessons());
+        }
+        target.deleteStale();
+        return describe(pack);
+    }
+
+    @Override
+    public List<Pack> listPacks() {
+        return packs().stream().map(this::describe).toList();
+    }
+
+    private Pack describe(CurriculumPack pack) {
+        return new Pack(new GenerationalFile(pack.file()).name(), pack.moduleCount(), pack.lessonCount(), sizeOf(pack.file()));
+    }
+
+    private synchronized List<CurriculumPack> packs() {
+        if (packs != null) {
+            return packs;
+        }
+        List<CurriculumPack> opened = new ArrayList<>();
+        for (Path file : packFiles()) {
+            try {
+                opened.add(CurriculumPack.open(file));
+            } catch (IOException e) {
+                System.err.println("Warning: Skipping curriculum pack " + file.getFileName() + ". " + e.getMessage());
+            }
+        }
+        packs = List.copyOf(opened);
+        return packs;
+    }
+
+    /**
+     * @return The newest generation of every installed pack, most recently installed first.
+     */
+    private List<Path> packFiles() {
+        if (!Files.isDirectory(PACK_DIR)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(PACK_DIR)) {
+            List<Path> current = new ArrayList<>();
+            for (GenerationalFile pack : files.filter(f -> f.getFileName().toString().endsWith(CurriculumPack.SUFFIX))
+                    .map(GenerationalFile::new).collect(Collectors.toMap(GenerationalFile::name, f -> f, (a, b) -> a)).values()) {
+                pack.current().ifPresent(current::add);
+            }
+            current.sort(Comparator.comparing(this::lastModified).reversed());
+            return current;
+        } catch (IOException e) {
+            System.err.println("Warning: Could not read the curriculum pack directory: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    @Override
+    public synchronized List<Entry> listEntries() {
+        List<Entry> entries = new ArrayList<>();
+        for (Path file : cacheFilesByRecency()) {
+            try {
+                CachedModule cached = objectMapper.readValue(file.toFile(), CachedModule.class);
+                entries.add(new Entry(
+                        keyOf(file),
+                        cached.technology(),
+                        cached.moduleKey(),
+                        cached.module() != null ? cached.module().moduleName() : null,
+                        cached.module() != null ? cached.module().lessons().size() : 0,
+                        Files.size(file),
+                        Files.getLastModifiedTime(file).toInstant()));
+            } catch (IOException e) {
+                System.err.println("Warning: Skipping unreadable module cache entry " + file.getFileName() + ". " + e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized long totalSizeBytes() {
+        long total = 0;
+        for (Path file : cacheFilesByRecency()) {
+            total += sizeOf(file);
+        }
+        return total;
+    }
+
+    @Override
+    public long maxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int limit) {
+        searchIndexReady.join();
+        return searchIndex.search(query, limit).stream()
+                .map(hit -> new SearchHit(hit.technology(), hit.moduleKey(), hit.lessonNumber(), hit.title(), hit.score()))
+                .toList();
+    }
+
+    @Override
+    public synchronized int purge() {
+        Set<String> purged = new HashSet<>();
+        for (Path file : cacheFilesByRecency()) {
+            if (deleteQuietly(file)) {
+                purged.add(keyOf(file));
+            }
+        }
+        purged.forEach(searchIndex::remove);
+        // Installed packs stay, and a pack module that a cached copy shadowed is now served, and indexed, from its pack.
+        for (CurriculumPack pack : packs()) {
+            try {
+                for (BundledModule module : pack.modules()) {
+                    if (purged.contains(module.cacheKey())) {
+                        searchIndex.index(module.cacheKey(), module.technology(), module.moduleKey(), module.module().lessons());
+                    }
+                }
+            } catch (IllegalStateException e) {
+                System.err.println("Warning: Could not index curriculum pack " + pack.file().getFileName() + ". " + e.getMessage());
+            }
+        }
+        searchIndex.save();
+        return purged.size();
+    }
+
+    /**
+     * Maps the search index and brings it up to date with the cache in the background: modules
+     * written since the index was saved (possibly by another session) are indexed, and modules
+     * that are gone are dropped.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void openSearchIndex() {
+        searchIndexReady = CompletableFuture.runAsync(this::reconcileSearchIndex,
+                task -> Thread.ofVirtual().name("axon-search-index").start(task));
+    }
+
+    private void reconcileSearchIndex() {
+        deleteStaleTempFiles(CACHE_DIR);
+        deleteStaleTempFiles(PACK_DIR);
+        // Generations replaced by a later install, which were still mapped when it happened.
+        packFiles().forEach(file -> new GenerationalFile(file).deleteStale());
+        Set<String> indexed = searchIndex.keys();
+        Instant savedAt = searchIndex.savedAt();
+        Set<String> cached = new HashSet<>();
+        for (Path file : cacheFilesByRecency()) {
+            String key = keyOf(file);
+            cached.add(key);
+            if (indexed.contains(key) && !lastModified(file).toInstant().isAfter(savedAt)) {
+                continue;
+            }
+            try {
+                CachedModule entry = objectMapper.readValue(file.toFile(), CachedModule.class);
+                if (entry.module() != null) {
+                    searchIndex.index(key, entry.technology(), entry.moduleKey(), entry.module().lessons());
+                }
+            } catch (IOException e) {
+                System.err.println("Warning: Could not index module cache entry " + key + ". " + e.getMessage());
+            }
+        }
+        // Modules of packs installed by another session are indexed here; reading their keys decodes no lesson.
+        for (CurriculumPack pack : packs()) {
+            boolean installedSinceSave = lastModified(pack.file()).toInstant().isAfter(savedAt);
+            try {
+                for (BundledModule module : pack.modules()) {
+                    if (cached.add(module.cacheKey()) && (installedSinceSave || !indexed.contains(module.cacheKey()))) {
+                        searchIndex.index(module.cacheKey(), module.technology(), module.moduleKey(), module.module().lessons());
+                    }
+                }
+            } catch (IllegalStateException e) {
+                System.err.println("Warning: Could not index curriculum pack " + pack.file().getFileName() + ". " + e.getMessage());
+            }
+        }
+        indexed.stream().filter(key -> !cached.contains(key)).forEach(searchIndex::remove);
+        searchIndex.save();
+        // Load the search code now, so that the first search is as fast as the ones after it.
+        searchIndex.search("warm up", 1);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void saveSearchIndex() {
+        searchIndexReady.exceptionally(e -> null).join();
+        searchIndex.save();
+    }
+
+    /**
+     * Removes the least recently used entries until the cache fits its size limit.
+     * The entry that was just written is never evicted.
+     */
+    private void evictIfNeeded(Path justWritten) {
+        List<Path> files = cacheFilesByRecency();
+        long total = files.stream().mapToLong(this::sizeOf).sum();
+        for (int i = files.size() - 1; i >= 0 && total > maxSizeBytes; i--) {
+            Path candidate = files.get(i);
+            if (candidate.equals(justWritten)) {
+                continue;
+            }
+            long size = sizeOf(candidate);
+            if (deleteQuietly(candidate)) {
+                searchIndex.remove(keyOf(candidate));
+                total -= size;
+            }
+        }
+    }
+
+    private void deleteStaleTempFiles(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(STALE_TEMP_AGE);
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(f -> f.getFileName().toString().endsWith(TEMP_SUFFIX))
+                    .filter(f -> lastModified(f).toInstant().isBefore(cutoff))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            System.err.println("Warning: Could not clean up temporary files in " + dir + ": " + e.getMessage());
+        }
+    }
+
+    private List<Path> cacheFilesByRecency() {
+        if (!Files.isDirectory(CACHE_DIR)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(CACHE_DIR)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing(this::lastModified).reversed())
+                    .toList();
+        } catch (IOException e) {
+            System.err.println("Warning: Could not read module cache directory: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    private Path fileFor(String key) {
+        return CACHE_DIR.resolve(key + SUFFIX);
+    }
+
+    private static String keyOf(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.substring(0, fileName.length() - SUFFIX.length());
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Warning: Could not delete module cache entry " + file.getFileName() + ". " + e.getMessage());
+            return false;
+        }
+    }
+}
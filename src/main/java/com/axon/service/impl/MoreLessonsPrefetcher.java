@@ -0,0 +1,182 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.AiTutorService;
+import com.axon.service.api.CancellationToken;
+import com.axon.service.api.PromptService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Speculatively generates the next 'more' batch while the learner is still working through
+ * the last lessons of a module, and stages it so it can be appended instantly.
+ * <p>
+ * A staged batch belongs to one module at one size, so it is never appended to a module that
+ * has changed in the meantime. Speculative spend is bounded: the tokens reserved by prefetches
+ * that were discarded unused (e.g., because the learner switched modules) within the last
+ * {@code app.prefetch.speculative-window} count against {@code app.prefetch.max-speculative-tokens}.
+ * A prefetch that failed is not counted, and neither is one that was used.
+ */
+@Service
+public class MoreLessonsPrefetcher {
+
+    private static final Executor PREFETCH_EXECUTOR = task -> Thread.ofVirtual().name("axon-prefetch").start(task);
+
+    private record StagingKey(String cacheKey, int lessonCount) {}
+
+    private record Prefetch(StagingKey key, CompletableFuture<LearningModule> batch, CancellationToken cancellation, int reservedTokens) {}
+
+    private record Discarded(Instant at, int tokens) {}
+
+    private final AiTutorService aiTutorService;
+    private final boolean enabled;
+    private final int lessonsBeforeEnd;
+    private final long maxSpeculativeTokens;
+    private final Duration speculativeWindow;
+
+    private Prefetch staged;
+    private final Deque<Discarded> discarded = new ArrayDeque<>();
+    private boolean capReported = false;
+
+    public MoreLessonsPrefetcher(AiTutorService aiTutorService,
+                                 @Value("${app.prefetch.enabled:true}") boolean enabled,
+                                 @Value("${app.prefetch.lessons-before-end:5}") int lessonsBeforeEnd,
+                                 @Value("${app.prefetch.max-speculative-tokens:12000}") long maxSpeculativeTokens,
+                                 @Value("${app.prefetch.speculative-window:1h}") Duration speculativeWindow) {
+        this.aiTutorService = aiTutorService;
+        this.enabled = enabled;
+        this.lessonsBeforeEnd = lessonsBeforeEnd;
+        this.maxSpeculativeTokens = maxSpeculativeTokens;
+        this.speculativeWindow = speculativeWindow;
+    }
+
+    /**
+     * Starts a background generation of the next batch once the learner is within
+     * the configured number of lessons from the end of the module.
+     *
+     * @param cacheKey The cache key identifying the active module.
+     * @param lessonIndex The learner's current 0-based lesson index.
+     * @param maxTokens The token limit to use for the batch.
+     */
+    public synchronized void onProgress(String cacheKey, PromptService promptService, String moduleKey,
+                                        List<Lesson> lessons, int lessonIndex, int maxTokens) {
+        if (!enabled || cacheKey == null) {
+            return;
+        }
+        int remaining = lessons.size() - lessonIndex - 1;
+        StagingKey key = new StagingKey(cacheKey, lessons.size());
+        if (remaining > lessonsBeforeEnd || (staged != null && staged.key().equals(key))) {
+            return;
+        }
+        cancel();
+        long wastedTokens = discardedTokens();
+        if (wastedTokens + maxTokens > maxSpeculativeTokens) {
+            if (!capReported) {
+                capReported = true;
+                System.err.println("Warning: Not prefetching more lessons: " + wastedTokens + " tokens of unused prefetches in the last "
+                        + speculativeWindow.toMinutes() + " minutes reached app.prefetch.max-speculative-tokens.");
+            }
+            return;
+        }
+        capReported = false;
+
+        String prompt = promptService.buildMoreLessonsPrompt(moduleKey, List.copyOf(lessons));
+        AiRequestContext context = AiRequestContext.of(AiRequestType.MORE, promptService.getTechnologyName());
+        CancellationToken cancellation = new CancellationToken();
+        CompletableFuture<LearningModule> batch = CompletableFuture.supplyAsync(
+                () -> cancellation.call(() -> aiTutorService.generateModuleFromPrompt(context, prompt, maxTokens)),
+                PREFETCH_EXECUTOR);
+        this.staged = new Prefetch(key, batch, cancellation, maxTokens);
+    }
+
+    /**
+     * Takes the staged batch for the given module, waiting for it if it is still being generated.
+     *
+     * @param cacheKey The cache key identifying the active module.
+     * @param lessonCount The current number of lessons in the module.
+     * @return The prefetched batch, or empty if none was staged for this module or the prefetch failed.
+     * @throws CancellationException if the current {@link CancellationToken} is cancelled or the
+     *         thread is interrupted while waiting; the batch is then staged again.
+     */
+    public Optional<LearningModule> take(String cacheKey, int lessonCount) {
+        Prefetch prefetch;
+        synchronized (this) {
+            if (staged == null || !staged.key().equals(new StagingKey(cacheKey, lessonCount))) {
+                return Optional.empty();
+            }
+            // The batch is being used, so its tokens are not counted as speculative.
+            prefetch = staged;
+            staged = null;
+        }
+        // The prefetch runs under its own token, so cancelling the caller only ends this wait.
+        CancellationToken caller = CancellationToken.current();
+        CompletableFuture<LearningModule> batch = prefetch.batch().copy();
+        try (CancellationToken.Registration ignored = caller.onCancel(() -> batch.cancel(false))) {
+            return Optional.of(batch.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            restage(prefetch);
+            throw new CancellationException("Waiting for the prefetched lessons was cancelled.");
+        } catch (CancellationException e) {
+            restage(prefetch);
+            throw e;
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cancels the staged prefetch, aborting its AI request if it is still in flight.
+     */
+    public synchronized void cancel() {
+        if (staged != null) {
+            discard(staged);
+            staged = null;
+        }
+    }
+
+    /**
+     * Stages a batch whose taker gave up waiting, so that the next 'more' can still use it. If
+     * another prefetch was staged in the meantime, the batch is discarded instead.
+     */
+    private synchronized void restage(Prefetch prefetch) {
+        if (staged == null) {
+            staged = prefetch;
+        } else {
+            discard(prefetch);
+        }
+    }
+
+    private void discard(Prefetch prefetch) {
+        if (!prefetch.batch().isCompletedExceptionally()) {
+            // Its tokens were (or are being) spent for nothing; a failed request is not counted.
+            discarded.addLast(new Discarded(Instant.now(), prefetch.reservedTokens()));
+        }
+        prefetch.cancellation().cancel();
+    }
+
+    /**
+     * @return The tokens reserved by prefetches discarded within the window; older ones are forgotten.
+     */
+    private long discardedTokens() {
+        Instant cutoff = Instant.now().minus(speculativeWindow);
+        while (!discarded.isEmpty() && discarded.peekFirst().at().isBefore(cutoff)) {
+            discarded.removeFirst();
+        }
+        return discarded.stream().mapToLong(Discarded::tokens).sum();
+    }
+}
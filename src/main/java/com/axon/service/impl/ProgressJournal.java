@@ -0,0 +1,291 @@
+package com.axon.service.impl;
+
+import com.axon.service.impl.TutorialStateServiceImpl.Progress;
+import com.axon.service.impl.TutorialStateServiceImpl.SavedProgress;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the learner's progress without making navigation wait on the disk.
+ * <p>
+ * {@link #save} only hands the new state to a background writer. The writer appends it as one
+ * JSON line to {@code ~/.axon-progress.journal}, gathering the saves that arrive within
+ * {@code app.progress.sync-delay} into a single write and fsync. Once the journal outgrows
+ * {@code app.progress.journal-max-size} it is compacted: the latest state is written to
+ * {@code ~/.axon-progress.json} through a temporary file and an atomic rename, and only then is
+ * the journal emptied. The state is the snapshot followed by every complete journal line, so a
+ * crash at any point loses at most the saves that were not yet synced, and a torn last line is
+ * skipped instead of discarding the progress. All file access happens under a lock on
+ * {@code ~/.axon-progress.lock}, so several running sessions never interleave their writes.
+ * <p>
+ * Each write is merged per track with what is on disk, so a track started by another session is
+ * kept. When two sessions advance the same track, the position written last wins.
+ */
+@Service
+public class ProgressJournal {
+
+    private static final Path HOME = Path.of(System.getProperty("user.home"));
+    private static final Path SNAPSHOT_FILE = HOME.resolve(".axon-progress.json");
+    private static final Path JOURNAL_FILE = HOME.resolve(".axon-progress.journal");
+    private static final Path LOCK_FILE = HOME.resolve(".axon-progress.lock");
+
+    // A file lock is held per JVM, so its threads take turns before locking, whichever journal
+    // they write through; a second lock from the same JVM would throw OverlappingFileLockException
+    // instead of waiting.
+    private static final Object FILE_MUTEX = new Object();
+
+    private final ObjectMapper objectMapper;
+    private final Duration syncDelay;
+    private final long journalMaxBytes;
+    private final Timer writeTimer;
+    private SavedProgress pending;
+    private boolean closed;
+    private Thread writer;
+
+    public ProgressJournal(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${app.progress.sync-delay:50ms}") Duration syncDelay,
+                           @Value("${app.progress.journal-max-size:64KB}") DataSize journalMaxSize) {
+        this.objectMapper = objectMapper;
+        this.syncDelay = syncDelay;
+        this.journalMaxBytes = journalMaxSize.toBytes();
+        this.writeTimer = Timer.builder("axon.progress.write")
+                .description("Time to append and fsync a batch of progress updates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The most recent durable progress, or empty if none was ever saved.
+     */
+    public Optional<SavedProgress> load() {
+        synchronized (FILE_MUTEX) {
+            try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+                return Optional.ofNullable(readLatest(true));
+            } catch (IOException e) {
+                System.err.println("Warning: Could not load progress. " + e.getMessage());
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Queues the progress to be written and returns immediately. When saves arrive faster than
+     * they can be synced, only the newest state is written.
+     */
+    public synchronized void save(SavedProgress progress) {
+        if (closed) {
+            return;
+        }
+        pending = progress;
+        if (writer == null) {
+            writer = Thread.ofVirtual().name("axon-progress-writer").start(this::writeLoop);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Writes any queued progress and stops the writer. Later saves are ignored.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void close() {
+        Thread running;
+        synchronized (this) {
+            closed = true;
+            running = writer;
+            notifyAll();
+        }
+        if (running != null) {
+            try {
+                running.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            SavedProgress progress;
+            synchronized (this) {
+                while (pending == null && !closed) {
+                    waitQuietly(0);
+                }
+                if (pending == null) {
+                    writer = null;
+                    return;
+                }
+                // Let saves that follow in quick succession share this write and fsync. Each of
+                // them wakes us up, so wait out the rest of the delay unless we are closing.
+                long deadline = System.nanoTime() + syncDelay.toNanos();
+                for (long remaining = syncDelay.toNanos(); !closed && remaining > 0; remaining = deadline - System.nanoTime()) {
+                    waitQuietly(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+                }
+                progress = pending;
+                pending = null;
+            }
+            writeTimer.record(() -> append(progress));
+        }
+    }
+
+    private void waitQuietly(long millis) {
+        try {
+            wait(millis);
+        } catch (InterruptedException e) {
+            closed = true;
+        }
+    }
+
+    private void append(SavedProgress progress) {
+        synchronized (FILE_MUTEX) {
+            try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+                SavedProgress merged = merge(progress, readLatest(false));
+                byte[] line = (objectMapper.writeValueAsString(merged) + "\n").getBytes(StandardCharsets.UTF_8);
+                long journalSize;
+                try (FileChannel journal = FileChannel.open(JOURNAL_FILE, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    // Other sessions append too, so always write at the current end of the file.
+                    journal.position(journal.size());
+                    ByteBuffer buffer = ByteBuffer.wrap(line);
+                    if (endsWithTornLine(journal)) {
+                        // Start on a fresh line so the torn entry stays the only unreadable one.
+                        buffer = ByteBuffer.allocate(line.length + 1).put((byte) '\n').put(line).flip();
+                    }
+                    while (buffer.hasRemaining()) {
+                        journal.write(buffer);
+                    }
+                    journal.force(false);
+                    journalSize = journal.size();
+                }
+                if (journalSize > journalMaxBytes) {
+                    compact();
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Warning: Could not save progress: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds the tracks that only the saved progress has (e.g., started by another session) to ours.
+     * Where both have a track, ours wins.
+     */
+    static SavedProgress merge(SavedProgress ours, SavedProgress saved) {
+        if (saved == null) {
+            return ours;
+        }
+        Map<String, Progress> tracks = new LinkedHashMap<>();
+        for (SavedProgress progress : List.of(saved, ours)) {
+            if (progress.tracks() != null) {
+                progress.tracks().forEach(track -> tracks.put(trackKey(track), track));
+            }
+            Progress active = new Progress(progress.currentTechnology(), progress.currentModuleKey(), progress.currentLessonIndex());
+            tracks.put(trackKey(active), active);
+        }
+        tracks.remove(trackKey(new Progress(ours.currentTechnology(), ours.currentModuleKey(), 0)));
+        return new SavedProgress(ours.currentTechnology(), ours.currentModuleKey(), ours.currentLessonIndex(), List.copyOf(tracks.values()));
+    }
+
+    private static String trackKey(Progress progress) {
+        return progress.currentTechnology().toLowerCase() + ' ' + progress.currentModuleKey();
+    }
+
+    /**
+     * Folds the journal into the snapshot. Must be called with the lock held.
+     */
+    private void compact() throws IOException {
+        SavedProgress latest = readLatest(false);
+        if (latest == null) {
+            return;
+        }
+        // The snapshot must be durable before the journal entries it replaces are dropped.
+        Path temp = Files.createTempFile(HOME, ".axon-progress", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(objectMapper.writeValueAsBytes(latest)));
+            channel.force(true);
+        }
+        Files.move(temp, SNAPSHOT_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // So is the rename: until the directory is synced, a crash can undo it after the truncate below.
+        syncDirectory(HOME);
+        try (FileChannel journal = FileChannel.open(JOURNAL_FILE, StandardOpenOption.WRITE)) {
+            journal.truncate(0);
+            journal.force(true);
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Windows cannot open a directory as a channel; the rename is then as durable as the file system makes it.
+        }
+    }
+
+    /**
+     * Replays the journal over the snapshot. Must be called with the lock held.
+     *
+     * @param report Whether to warn about unreadable entries.
+     */
+    private SavedProgress readLatest(boolean report) throws IOException {
+        SavedProgress latest = null;
+        if (Files.exists(SNAPSHOT_FILE)) {
+            try {
+                latest = objectMapper.readValue(SNAPSHOT_FILE.toFile(), SavedProgress.class);
+            } catch (IOException e) {
+                if (report) {
+                    System.err.println("Warning: Ignoring unreadable progress snapshot. " + e.getMessage());
+                }
+            }
+        }
+        if (Files.exists(JOURNAL_FILE)) {
+            List<String> lines = Files.readAllLines(JOURNAL_FILE, StandardCharsets.UTF_8);
+            for (int i = 0; i < lines.size(); i++) {
+                if (lines.get(i).isBlank()) {
+                    continue;
+                }
+                try {
+                    latest = objectMapper.readValue(lines.get(i), SavedProgress.class);
+                } catch (IOException e) {
+                    // Only the last line can be torn by a crash; anything else is worth reporting.
+                    if (report && i < lines.size() - 1) {
+                        System.err.println("Warning: Skipping unreadable progress journal entry. " + e.getMessage());
+                    }
+                }
+            }
+        }
+        return latest;
+    }
+
+    private static boolean endsWithTornLine(FileChannel journal) throws IOException {
+        long size = journal.size();
+        if (size == 0) {
+            return false;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        journal.read(last, size - 1);
+        return last.get(0) != '\n';
+    }
+
+    private static FileChannel openLockChannel() throws IOException {
+        return FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+}
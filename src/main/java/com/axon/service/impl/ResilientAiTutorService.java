@@ -0,0 +1,341 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.AiServiceException;
+import com.axon.service.api.AiTutorService;
+import com.axon.service.api.CancellationToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Wraps the AI transport with the resilience the rest of the application relies on:
+ * <ul>
+ *     <li>Transient failures are retried with jittered exponential backoff, honouring the
+ *     provider's Retry-After header. A streamed call is only retried if nothing has been
+ *     delivered to the caller yet.</li>
+ *     <li>Optionally ({@code app.ai.resilience.hedging.enabled}), when a call is slower than the
+ *     observed p95 latency of comparable calls, a duplicate is sent; whichever produces output
+ *     first wins and the other is cancelled. A hedged call can cost up to twice the tokens, and
+ *     neither the token budget nor the prefetch cap accounts for it, so it is off by default.</li>
+ *     <li>When the circuit breaker of every provider is open (see {@link AiProviderRouter}), the
+ *     last good response to the same prompt is served if there is one.</li>
+ * </ul>
+ */
+@Service
+public class ResilientAiTutorService implements AiTutorService {
+
+    private enum CallType {
+        MODULE("module"), MODULE_STREAM("module"), ANSWER("answer"), ANSWER_STREAM("answer");
+
+        private final String family;
+
+        CallType(String family) {
+            this.family = family;
+        }
+    }
+
+    /**
+     * One attempt at a call. Streamed items are passed to the sink.
+     */
+    @FunctionalInterface
+    private interface Attempt<T, E> {
+        T run(Consumer<E> sink);
+    }
+
+    private sealed interface Signal permits Item, Done, Failed {}
+    private record Item(int attempt, Object value) implements Signal {}
+    private record Done(int attempt, Object value) implements Signal {}
+    private record Failed(int attempt, RuntimeException error) implements Signal {}
+
+    private static final Executor ATTEMPT_EXECUTOR = task -> Thread.ofVirtual().name("axon-ai").start(task);
+    private static final double HEDGE_PERCENTILE = 0.95;
+    private static final int LATENCY_SAMPLES = 100;
+
+    private final AiTutorService delegate;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration maxRetryAfter;
+    private final boolean hedgingEnabled;
+    private final int hedgeMinSamples;
+    private final Duration hedgeMinDelay;
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    private final Map<String, Object> lastGoodResponses;
+
+    public ResilientAiTutorService(AiTutorServiceImpl delegate,
+                                   @Value("${app.ai.resilience.max-attempts:3}") int maxAttempts,
+                                   @Value("${app.ai.resilience.initial-backoff:500ms}") Duration initialBackoff,
+                                   @Value("${app.ai.resilience.max-backoff:8s}") Duration maxBackoff,
+                                   @Value("${app.ai.resilience.max-retry-after:30s}") Duration maxRetryAfter,
+                                   @Value("${app.ai.resilience.hedging.enabled:false}") boolean hedgingEnabled,
+                                   @Value("${app.ai.resilience.hedging.min-samples:10}") int hedgeMinSamples,
+                                   @Value("${app.ai.resilience.hedging.min-delay:1s}") Duration hedgeMinDelay,
+                                   @Value("${app.ai.resilience.fallback-entries:64}") int fallbackEntries) {
+        this.delegate = delegate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxRetryAfter = maxRetryAfter;
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgeMinSamples = Math.max(1, hedgeMinSamples);
+        this.hedgeMinDelay = hedgeMinDelay;
+        this.lastGoodResponses = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > fallbackEntries;
+            }
+        });
+    }
+
+    @Override
+    public LearningModule generateModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+        return execute(CallType.MODULE, prompt, maxTokens,
+                sink -> delegate.generateModuleFromPrompt(context, prompt, maxTokens), item -> {}, UnaryOperator.identity());
+    }
+
+    @Override
+    public LearningModule streamModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<Lesson> onLesson) {
+        return execute(CallType.MODULE_STREAM, prompt, maxTokens,
+                sink -> delegate.streamModuleFromPrompt(context, prompt, maxTokens, sink), onLesson, module -> {
+                    module.lessons().forEach(onLesson);
+                    return module;
+                });
+    }
+
+    @Override
+    public String answerQuestionFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+        return execute(CallType.ANSWER, prompt, maxTokens,
+                sink -> delegate.answerQuestionFromPrompt(context, prompt, maxTokens), item -> {}, UnaryOperator.identity());
+    }
+
+    @Override
+    public String streamAnswerFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<String> onDelta) {
+        return execute(CallType.ANSWER_STREAM, prompt, maxTokens,
+                sink -> delegate.streamAnswerFromPrompt(context, prompt, maxTokens, sink), onDelta, answer -> {
+                    onDelta.accept(answer);
+                    return answer;
+                });
+    }
+
+    @Override
+    public String getModelName(AiRequestType type) {
+        return delegate.getModelName(type);
+    }
+
+    /**
+     * Runs a call with retries, falling back to the last good response when no provider can be reached.
+     *
+     * @param replay Delivers a fallback response to the caller as if it had been streamed.
+     */
+    @SuppressWarnings("unchecked")
+    private <T, E> T execute(CallType callType, String prompt, int maxTokens, Attempt<T, E> attempt,
+                             Consumer<E> sink, UnaryOperator<T> replay) {
+        String fallbackKey = callType.family + ':' + maxTokens + ':' + prompt;
+        AtomicBoolean delivered = new AtomicBoolean(false);
+        Consumer<E> trackingSink = item -> {
+            delivered.set(true);
+            sink.accept(item);
+        };
+
+        AiServiceException lastError = null;
+        for (int attemptNumber = 1; attemptNumber <= maxAttempts; attemptNumber++) {
+            try {
+                T result = race(callType, maxTokens, attempt, trackingSink);
+                lastGoodResponses.put(fallbackKey, result);
+                return result;
+            } catch (CircuitOpenException e) {
+                lastError = e;
+                break;
+            } catch (AiServiceException e) {
+                lastError = e;
+                if (!e.isRetryable()) {
+                    // The provider answered; the request itself was rejected.
+                    throw e;
+                }
+                if (delivered.get() || attemptNumber == maxAttempts) {
+                    break;
+                }
+                Optional<Duration> delay = backoff(attemptNumber, e);
+                if (delay.isEmpty()) {
+                    break;
+                }
+                sleep(delay.get());
+            }
+        }
+
+        Object fallback = delivered.get() ? null : lastGoodResponses.get(fallbackKey);
+        if (fallback != null) {
+            System.err.println("Warning: " + lastError.getMessage() + " Showing a previously generated response instead.");
+            return replay.apply((T) fallback);
+        }
+        throw lastError;
+    }
+
+    /**
+     * Runs one attempt, sending a hedged duplicate if it has not produced anything by the time
+     * comparable calls usually have. Items are delivered to the sink on the calling thread,
+     * and only from the attempt that produced output first.
+     */
+    @SuppressWarnings("unchecked")
+    private <T, E> T race(CallType callType, int maxTokens, Attempt<T, E> attempt, Consumer<E> sink) {
+        LatencyTracker latency = latencies.computeIfAbsent(callType.name() + ':' + maxTokens,
+                key -> new LatencyTracker(LATENCY_SAMPLES));
+        long start = System.nanoTime();
+        Optional<Duration> hedgeDelay = hedgingEnabled
+                ? latency.percentile(HEDGE_PERCENTILE, hedgeMinSamples).map(p95 -> p95.compareTo(hedgeMinDelay) < 0 ? hedgeMinDelay : p95)
+                : Optional.empty();
+
+        if (hedgeDelay.isEmpty()) {
+            AtomicBoolean firstOutput = new AtomicBoolean(false);
+            T result = attempt.run(item -> {
+                if (firstOutput.compareAndSet(false, true)) {
+                    latency.record(Duration.ofNanos(System.nanoTime() - start));
+                }
+                sink.accept(item);
+            });
+            if (firstOutput.compareAndSet(false, true)) {
+                latency.record(Duration.ofNanos(System.nanoTime() - start));
+            }
+            return result;
+        }
+
+        CancellationToken parent = CancellationToken.current();
+        BlockingQueue<Signal> signals = new LinkedBlockingQueue<>();
+        List<CancellationToken> attempts = new CopyOnWriteArrayList<>();
+        long hedgeAt = start + hedgeDelay.get().toNanos();
+        boolean hedged = false;
+        int running = 1;
+        int winner = -1;
+        RuntimeException firstError = null;
+
+        try (CancellationToken.Registration ignored = parent.onCancel(() -> attempts.forEach(CancellationToken::cancel))) {
+            startAttempt(0, attempt, attempts, signals);
+            while (true) {
+                Signal signal;
+                if (!hedged && winner == -1) {
+                    signal = signals.poll(hedgeAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (signal == null) {
+                        hedged = true;
+                        running++;
+                        startAttempt(1, attempt, attempts, signals);
+                        continue;
+                    }
+                } else {
+                    signal = signals.take();
+                }
+
+                switch (signal) {
+                    case Item(int index, Object value) -> {
+                        if (winner == -1) {
+                            winner = index;
+                            latency.record(Duration.ofNanos(System.nanoTime() - start));
+                            cancelAllExcept(attempts, index);
+                        }
+                        if (winner == index) {
+                            sink.accept((E) value);
+                        }
+                    }
+                    case Done(int index, Object value) -> {
+                        if (winner == -1 || winner == index) {
+                            if (winner == -1) {
+                                latency.record(Duration.ofNanos(System.nanoTime() - start));
+                            }
+                            return (T) value;
+                        }
+                    }
+                    case Failed(int index, RuntimeException error) -> {
+                        running--;
+                        if (winner == index) {
+                            throw error;
+                        }
+                        if (winner == -1) {
+                            firstError = firstError != null ? firstError : error;
+                            if (running == 0) {
+                                throw firstError;
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The AI request was interrupted.");
+        } finally {
+            attempts.forEach(CancellationToken::cancel);
+        }
+    }
+
+    private static <T, E> void startAttempt(int index, Attempt<T, E> attempt, List<CancellationToken> attempts,
+                                            BlockingQueue<Signal> signals) {
+        CancellationToken cancellation = new CancellationToken();
+        attempts.add(cancellation);
+        ATTEMPT_EXECUTOR.execute(() -> {
+            try {
+                T result = cancellation.call(() -> attempt.run(item -> signals.add(new Item(index, item))));
+                signals.add(new Done(index, result));
+            } catch (RuntimeException e) {
+                signals.add(new Failed(index, e));
+            }
+        });
+    }
+
+    private static void cancelAllExcept(List<CancellationToken> attempts, int index) {
+        for (int i = 0; i < attempts.size(); i++) {
+            if (i != index) {
+                attempts.get(i).cancel();
+            }
+        }
+    }
+
+    /**
+     * @return The delay before the next attempt, or empty if the provider asked us to wait
+     *         longer than we are willing to.
+     */
+    private Optional<Duration> backoff(int attemptNumber, AiServiceException error) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attemptNumber - 1, 20));
+        // "Equal jitter": at least half of the exponential delay, so retries never pile up immediately.
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        Optional<Duration> retryAfter = error.getRetryAfter();
+        if (retryAfter.isPresent()) {
+            if (retryAfter.get().compareTo(maxRetryAfter) > 0) {
+                return Optional.empty();
+            }
+            delay = Math.max(delay, retryAfter.get().toMillis());
+        }
+        return Optional.of(Duration.ofMillis(delay));
+    }
+
+    private static void sleep(Duration delay) {
+        CancellationToken cancellation = CancellationToken.current();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        try (CancellationToken.Registration ignored = cancellation.onCancel(cancelled::countDown)) {
+            cancelled.await(delay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The AI request was interrupted.");
+        }
+        cancellation.throwIfCancelled();
+    }
+}
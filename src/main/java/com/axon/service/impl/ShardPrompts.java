@@ -0,0 +1,62 @@
+package com.axon.service.impl;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The prompts of a sharded generation, which are the same for every technology apart from the
+ * topic and the rules its lessons follow. A prompt service passes the same rules (fields, output
+ * tags and any example lesson) as it puts in its initial module prompt, so a slice is held to
+ * the same standard as a module generated in one piece.
+ */
+final class ShardPrompts {
+
+    private ShardPrompts() {
+    }
+
+    /**
+     * @param topic What the module teaches.
+     * @param lessonCount The number of lesson titles to plan.
+     * @return The user content of a prompt asking only for the ordered lesson titles.
+     */
+    static String outline(String topic, int lessonCount) {
+        String prompt = """
+        You are a curriculum planning bot. Your only function is to output a single, valid JSON object.
+        Plan a curriculum for a developer learning about '%s'.
+        The JSON object must contain a "moduleName" and a "lessons" array of exactly %d lesson objects.
+        Each lesson object MUST contain only a "title". Order the lessons from basic to advanced.
+        Output only the raw JSON.
+        """;
+        return String.format(prompt, topic, lessonCount);
+    }
+
+    /**
+     * @param topic What the module teaches.
+     * @param outlineTitles All lesson titles of the outline, in order.
+     * @param fromIndex The 0-based index of the first lesson of the slice (inclusive).
+     * @param toIndex The 0-based index of the last lesson of the slice (exclusive).
+     * @param lessonRules The technology's rules for a lesson object, as in its initial module prompt.
+     * @return The user content of a prompt for the lessons of the slice.
+     */
+    static String lessonSlice(String topic, List<String> outlineTitles, int fromIndex, int toIndex, String lessonRules) {
+        String outline = IntStream.range(0, outlineTitles.size())
+                .mapToObj(i -> (i + 1) + ". " + outlineTitles.get(i))
+                .collect(Collectors.joining("\n"));
+        String sliceTitles = outlineTitles.subList(fromIndex, toIndex).stream()
+                .map(title -> "\"" + title + "\"")
+                .collect(Collectors.joining(", "));
+
+        String prompt = """
+        You are a curriculum generation bot. Your only function is to output a single, valid JSON object.
+        A curriculum for a developer learning about '%s' has this outline:
+        %s
+
+        Write lessons %d to %d only. The "lessons" array must contain exactly these lesson objects, in this order: %s.
+        %s
+
+        Output only the raw JSON.
+        """;
+        return String.format(prompt, topic, outline, fromIndex + 1, toIndex, sliceTitles, lessonRules);
+    }
+}
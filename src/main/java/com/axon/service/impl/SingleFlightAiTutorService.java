@@ -0,0 +1,203 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.AiTutorService;
+import com.axon.service.api.CancellationToken;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Collapses identical AI requests that are in flight at the same time into one. A request is
+ * identified by its call type (which determines whether it is streamed and its temperature),
+ * model, token limit and prompt. Callers that arrive while it is running attach to it: streamed
+ * items produced so far are replayed to them, and they share its result or failure.
+ * <p>
+ * The shared request is cancelled only when every caller attached to it has been cancelled.
+ */
+@Service
+@Primary
+public class SingleFlightAiTutorService implements AiTutorService {
+
+    private enum CallType { MODULE, MODULE_STREAM, ANSWER, ANSWER_STREAM }
+
+    private record Key(CallType callType, String model, int maxTokens, String prompt) {}
+
+    private sealed interface Signal permits Item, Done, Failed, Cancelled {}
+    private record Item(Object value) implements Signal {}
+    private record Done(Object value) implements Signal {}
+    private record Failed(RuntimeException error) implements Signal {}
+    private record Cancelled() implements Signal {}
+
+    private static final Executor FLIGHT_EXECUTOR = task -> Thread.ofVirtual().name("axon-flight").start(task);
+
+    private final AiTutorService delegate;
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightAiTutorService(ResilientAiTutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public LearningModule generateModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+        return execute(context, CallType.MODULE, prompt, maxTokens, sink -> delegate.generateModuleFromPrompt(context, prompt, maxTokens), item -> {});
+    }
+
+    @Override
+    public LearningModule streamModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<Lesson> onLesson) {
+        return execute(context, CallType.MODULE_STREAM, prompt, maxTokens, sink -> delegate.streamModuleFromPrompt(context, prompt, maxTokens, sink), onLesson);
+    }
+
+    @Override
+    public String answerQuestionFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+        return execute(context, CallType.ANSWER, prompt, maxTokens, sink -> delegate.answerQuestionFromPrompt(context, prompt, maxTokens), item -> {});
+    }
+
+    @Override
+    public String streamAnswerFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<String> onDelta) {
+        return execute(context, CallType.ANSWER_STREAM, prompt, maxTokens, sink -> delegate.streamAnswerFromPrompt(context, prompt, maxTokens, sink), onDelta);
+    }
+
+    @Override
+    public String getModelName(AiRequestType type) {
+        return delegate.getModelName(type);
+    }
+
+    /**
+     * Attaches to the flight for this request, starting one if there is none, and relays its
+     * items and outcome to the caller on the calling thread.
+     */
+    @SuppressWarnings("unchecked")
+    private <T, E> T execute(AiRequestContext context, CallType callType, String prompt, int maxTokens, Function<Consumer<E>, T> call, Consumer<E> sink) {
+        Key key = new Key(callType, delegate.getModelName(context.type()), maxTokens, prompt);
+        CancellationToken cancellation = CancellationToken.current();
+
+        Flight flight;
+        BlockingQueue<Signal> signals;
+        do {
+            cancellation.throwIfCancelled();
+            Flight created = new Flight();
+            flight = inFlight.putIfAbsent(key, created);
+            if (flight == null) {
+                flight = created;
+                signals = flight.join();
+                start(key, flight, call);
+            } else {
+                // Null if the flight was abandoned by all its callers a moment ago; start a new one.
+                signals = flight.join();
+            }
+        } while (signals == null);
+
+        BlockingQueue<Signal> queue = signals;
+        try (CancellationToken.Registration ignored = cancellation.onCancel(() -> queue.add(new Cancelled()))) {
+            while (true) {
+                Signal signal = queue.take();
+                if (cancellation.isCancelled()) {
+                    throw new CancellationException("The AI request was cancelled.");
+                }
+                switch (signal) {
+                    case Item(Object value) -> sink.accept((E) value);
+                    case Done(Object value) -> {
+                        return (T) value;
+                    }
+                    case Failed(RuntimeException error) -> throw error;
+                    case Cancelled() -> throw new CancellationException("The AI request was cancelled.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The AI request was interrupted.");
+        } finally {
+            flight.leave(queue);
+            if (flight.isAbandoned()) {
+                inFlight.remove(key, flight);
+            }
+        }
+    }
+
+    private <T, E> void start(Key key, Flight flight, Function<Consumer<E>, T> call) {
+        FLIGHT_EXECUTOR.execute(() -> {
+            try {
+                T result = flight.cancellation.call(() -> call.apply(flight::publish));
+                flight.complete(new Done(result));
+            } catch (RuntimeException e) {
+                flight.complete(new Failed(e));
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        });
+    }
+
+    /**
+     * One shared request and the callers attached to it.
+     */
+    private static final class Flight {
+
+        private final CancellationToken cancellation = new CancellationToken();
+        private final List<Object> items = new ArrayList<>();
+        private final List<BlockingQueue<Signal>> subscribers = new ArrayList<>();
+        private int references = 0;
+        private Signal outcome;
+        private boolean abandoned = false;
+
+        /**
+         * @return A queue that receives the items published so far followed by everything
+         *         that happens from now on, or null if the flight has been abandoned.
+         */
+        synchronized BlockingQueue<Signal> join() {
+            if (abandoned) {
+                return null;
+            }
+            BlockingQueue<Signal> queue = new LinkedBlockingQueue<>();
+            items.forEach(item -> queue.add(new Item(item)));
+            if (outcome != null) {
+                queue.add(outcome);
+            } else {
+                subscribers.add(queue);
+            }
+            references++;
+            return queue;
+        }
+
+        synchronized void publish(Object item) {
+            items.add(item);
+            subscribers.forEach(queue -> queue.add(new Item(item)));
+        }
+
+        synchronized void complete(Signal result) {
+            outcome = result;
+            subscribers.forEach(queue -> queue.add(result));
+            subscribers.clear();
+        }
+
+        void leave(BlockingQueue<Signal> queue) {
+            synchronized (this) {
+                subscribers.remove(queue);
+                references--;
+                if (references > 0 || outcome != null) {
+                    return;
+                }
+                abandoned = true;
+            }
+            // The last caller is gone and nobody needs the result any more.
+            cancellation.cancel();
+        }
+
+        synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+    }
+}
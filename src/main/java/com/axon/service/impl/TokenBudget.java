@@ -0,0 +1,169 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AiRequestContext;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sizes the {@code max_tokens} of AI requests from what comparable requests (same type and
+ * technology) actually used, instead of reserving a fixed worst case.
+ * <p>
+ * Usage is kept as a fraction of the caller's nominal limit, so differently sized requests of
+ * the same kind (e.g., a whole module and one shard of it) share their history. The limit sent
+ * is a high percentile of recent usage plus headroom. When a response is cut off because it hit
+ * the limit, the next comparable request gets a larger one; that raise wears off gradually as
+ * untruncated responses come in. History is kept in {@code ~/.axon/token-usage.json}.
+ */
+@Service
+public class TokenBudget {
+
+    /** The usage history of one kind of request, as fractions of the nominal limit. */
+    public record History(List<Double> usage, double truncationFloor) {}
+
+    private static final Path HISTORY_FILE = Path.of(System.getProperty("user.home"), ".axon", "token-usage.json");
+    // Each untruncated response lowers the floor left by a truncation by this fraction.
+    private static final double FLOOR_DECAY = 0.05;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final double percentile;
+    private final double headroom;
+    private final int minSamples;
+    private final int maxSamples;
+    private final double truncationGrowth;
+    private final int minTokens;
+    private final int maxTokens;
+    private Map<String, History> histories;
+
+    public TokenBudget(ObjectMapper objectMapper,
+                       @Value("${app.ai.token-budget.enabled:true}") boolean enabled,
+                       @Value("${app.ai.token-budget.percentile:0.95}") double percentile,
+                       @Value("${app.ai.token-budget.headroom:0.2}") double headroom,
+                       @Value("${app.ai.token-budget.min-samples:5}") int minSamples,
+                       @Value("${app.ai.token-budget.samples:50}") int maxSamples,
+                       @Value("${app.ai.token-budget.truncation-growth:1.5}") double truncationGrowth,
+                       @Value("${app.ai.token-budget.min-tokens:256}") int minTokens,
+                       @Value("${app.ai.token-budget.max-tokens:16384}") int maxTokens) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.headroom = headroom;
+        this.minSamples = Math.max(1, minSamples);
+        this.maxSamples = Math.max(this.minSamples, maxSamples);
+        this.truncationGrowth = Math.max(1.0, truncationGrowth);
+        this.minTokens = minTokens;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * @param context The kind of request.
+     * @param nominalTokens The limit the caller asked for.
+     * @return The limit to send: the caller's limit until enough history exists, then the
+     *         observed usage percentile plus headroom, but never below a recent truncation.
+     */
+    public synchronized int maxTokensFor(AiRequestContext context, int nominalTokens) {
+        if (!enabled) {
+            return nominalTokens;
+        }
+        History history = histories().get(keyFor(context));
+        if (history == null) {
+            return nominalTokens;
+        }
+        double fraction = history.usage().size() >= minSamples
+                ? percentileOf(history.usage()) * (1 + headroom)
+                : 1.0;
+        fraction = Math.max(fraction, history.truncationFloor());
+        long limit = (long) Math.ceil(fraction * nominalTokens);
+        return (int) Math.max(Math.min(minTokens, nominalTokens), Math.min(Math.max(maxTokens, nominalTokens), limit));
+    }
+
+    /**
+     * Records the outcome of a completed request.
+     *
+     * @param nominalTokens The limit the caller asked for.
+     * @param sentTokens The limit that was actually sent.
+     * @param completionTokens The completion tokens the provider reported, or null if it did not.
+     * @param finishReason Why the completion stopped, e.g. "stop" or "length".
+     * @return True if the response was cut off by the limit.
+     */
+    public synchronized boolean record(AiRequestContext context, int nominalTokens, int sentTokens,
+                                       Integer completionTokens, String finishReason) {
+        boolean truncated = "length".equals(finishReason);
+        if (!enabled || nominalTokens <= 0) {
+            return truncated;
+        }
+        String key = keyFor(context);
+        History history = histories().getOrDefault(key, new History(List.of(), 0));
+        List<Double> usage = new ArrayList<>(history.usage());
+        double floor = history.truncationFloor();
+        if (truncated) {
+            // The true need is unknown, only that it exceeds what was sent.
+            floor = Math.max(floor, truncationGrowth * sentTokens / nominalTokens);
+        } else {
+            floor = floor * (1 - FLOOR_DECAY);
+            if (completionTokens != null) {
+                usage.add((double) completionTokens / nominalTokens);
+                if (usage.size() > maxSamples) {
+                    usage.subList(0, usage.size() - maxSamples).clear();
+                }
+            }
+        }
+        histories.put(key, new History(List.copyOf(usage), floor));
+        save();
+        return truncated;
+    }
+
+    private double percentileOf(List<Double> usage) {
+        double[] sorted = usage.stream().mapToDouble(Double::doubleValue).toArray();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.min(sorted.length - 1, Math.max(0, index))];
+    }
+
+    private static String keyFor(AiRequestContext context) {
+        return context.type().tag() + ':' + context.technology();
+    }
+
+    private Map<String, History> histories() {
+        if (histories == null) {
+            histories = new HashMap<>();
+            if (Files.exists(HISTORY_FILE)) {
+                try {
+                    histories.putAll(objectMapper.readValue(HISTORY_FILE.toFile(), new TypeReference<Map<String, History>>() {}));
+                } catch (IOException e) {
+                    System.err.println("Warning: Discarding unreadable token usage history. " + e.getMessage());
+                }
+            }
+        }
+        return histories;
+    }
+
+    private void save() {
+        try {
+            Files.createDirectories(HISTORY_FILE.getParent());
+            // Write to a temporary file first so a crash never leaves a half-written history behind.
+            Path temp = Files.createTempFile(HISTORY_FILE.getParent(), "token-usage", ".tmp");
+            try {
+                objectMapper.writeValue(temp.toFile(), histories);
+                Files.move(temp, HISTORY_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Only left behind if the write or the move failed.
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Warning: Could not save token usage history: " + e.getMessage());
+        }
+    }
+}
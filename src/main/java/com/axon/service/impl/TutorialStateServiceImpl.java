@@ -2,98 +2,468 @@ package com.axon.service.impl;
 
 import com.axon.model.LearningModule;
 import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
 import com.axon.service.api.AiTutorService;
+import com.axon.service.api.AnswerCacheService;
+import com.axon.service.api.CancellationToken;
+import com.axon.service.api.ModuleCacheService;
 import com.axon.service.api.PromptService;
+import com.axon.service.api.TrackSummary;
 import com.axon.service.api.TutorialStateService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.annotation.PostConstruct;
-import org.springframework.context.ApplicationContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TutorialStateServiceImpl implements TutorialStateService {
 
+    /** The position in one (technology, module) track. */
     public record Progress(String currentTechnology, String currentModuleKey, int currentLessonIndex) {}
-    private static final Path PROGRESS_FILE = Path.of(System.getProperty("user.home"), ".axon-progress.json");
 
-    private final ObjectMapper objectMapper;
+    /**
+     * What is persisted: the active track in the same fields as the single-track format, so
+     * older progress files still load, and the positions in all other tracks.
+     */
+    public record SavedProgress(String currentTechnology, String currentModuleKey, int currentLessonIndex, List<Progress> tracks) {}
+
+    /**
+     * A track that is not active, kept whole so that switching back to it is instant. The
+     * module is null for tracks restored from disk until they are first switched to.
+     */
+    private record Track(PromptService promptService, Progress progress, String cacheKey, LearningModule module,
+                         CompletableFuture<LearningModule> generation, String generationFailure) {}
+
+    private static final int MORE_MAX_TOKENS = 4000;
+    private static final int ANSWER_MAX_TOKENS = 2500;
+    private static final Executor RESUME_EXECUTOR = task -> Thread.ofVirtual().name("axon-resume").start(task);
+    private static final Executor GENERATION_EXECUTOR = task -> Thread.ofVirtual().name("axon-generate").start(task);
+
+    private final ProgressJournal progressJournal;
     private final AiTutorService aiTutorService;
-    private final ApplicationContext context;
+    private final ModuleCacheService moduleCache;
+    private final AnswerCacheService answerCache;
+    private final CurriculumGenerator curriculumGenerator;
+    private final MoreLessonsPrefetcher moreLessonsPrefetcher;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationStartup applicationStartup;
+    private final Map<String, PromptService> promptServices;
 
     private LearningModule currentModule;
     private Progress currentProgress;
     private PromptService currentPromptService;
+    private String currentCacheKey;
+    private String resumeFailure;
+    private CompletableFuture<LearningModule> pendingGeneration;
+    private String generationFailure;
+    // Keyed by "technology:moduleKey"; the active track is held in the fields above instead.
+    private final Map<String, Track> inactiveTracks = new HashMap<>();
+    private volatile CompletableFuture<Void> pendingResume = CompletableFuture.completedFuture(null);
+    private final int moduleMaxTokens;
+    // False when commands are given on the command line and the shell exits after running them.
+    private final boolean interactive;
 
-    public TutorialStateServiceImpl(ObjectMapper objectMapper, AiTutorService aiTutorService, ApplicationContext context) {
-        this.objectMapper = objectMapper;
+    public TutorialStateServiceImpl(ProgressJournal progressJournal, AiTutorService aiTutorService, ModuleCacheService moduleCache,
+                                    AnswerCacheService answerCache, CurriculumGenerator curriculumGenerator, MoreLessonsPrefetcher moreLessonsPrefetcher,
+                                    MeterRegistry meterRegistry, ApplicationStartup applicationStartup,
+                                    List<PromptService> promptServices, ApplicationArguments applicationArguments,
+                                    @Value("${spring.shell.interactive.enabled:true}") boolean interactiveEnabled,
+                                    @Value("${app.ai.generation.module-max-tokens:5000}") int moduleMaxTokens) {
+        this.progressJournal = progressJournal;
         this.aiTutorService = aiTutorService;
-        this.context = context;
+        this.moduleCache = moduleCache;
+        this.answerCache = answerCache;
+        this.curriculumGenerator = curriculumGenerator;
+        this.moreLessonsPrefetcher = moreLessonsPrefetcher;
+        this.meterRegistry = meterRegistry;
+        this.applicationStartup = applicationStartup;
+        this.promptServices = promptServices.stream()
+                .collect(Collectors.toMap(service -> service.getTechnologyName().toLowerCase(), Function.identity()));
+        // Options such as --app.ai.generation.mode=sharded only configure the session; a command does not continue one.
+        this.interactive = interactiveEnabled && applicationArguments.getNonOptionArgs().isEmpty();
+        this.moduleMaxTokens = moduleMaxTokens;
     }
 
-    @PostConstruct
+    /**
+     * Restores the saved progress record immediately and resumes the module on a virtual
+     * thread, so the shell prompt is not held up by a network call. Runs on context refresh,
+     * which happens before Spring Shell starts reading commands. Skipped when the commands come
+     * from the command line, e.g. {@code generate --all}, which do not continue a session.
+     */
+    @EventListener(ContextRefreshedEvent.class)
     public void loadProgress() {
-        if (Files.exists(PROGRESS_FILE)) {
+        if (!interactive) {
+            return;
+        }
+        StartupStep step = applicationStartup.start("axon.progress.load");
+        try {
+            progressJournal.load().ifPresent(saved -> {
+                Progress savedProgress = new Progress(saved.currentTechnology(), saved.currentModuleKey(), saved.currentLessonIndex());
+                PromptService promptService = getPromptServiceFor(savedProgress.currentTechnology());
+                int tracks;
+                synchronized (this) {
+                    this.currentProgress = savedProgress;
+                    this.currentPromptService = promptService;
+                    this.resumeFailure = null;
+                    restoreInactiveTracks(saved.tracks());
+                    tracks = inactiveTracks.size() + 1;
+                }
+                this.pendingResume = CompletableFuture.runAsync(() -> resume(savedProgress, promptService), RESUME_EXECUTOR);
+                step.tag("technology", savedProgress.currentTechnology().toLowerCase())
+                        .tag("tracks", String.valueOf(tracks));
+            });
+        } catch (RuntimeException e) {
+            System.err.println("Warning: Could not load progress file. " + e.getMessage());
+            this.currentProgress = null;
+        } finally {
+            step.end();
+        }
+    }
+
+    private void restoreInactiveTracks(List<Progress> tracks) {
+        if (tracks == null) {
+            return;
+        }
+        for (Progress progress : tracks) {
             try {
-                this.currentProgress = objectMapper.readValue(PROGRESS_FILE.toFile(), Progress.class);
-                if (this.currentProgress != null) {
-                    System.out.println("Resuming previous session for " + currentProgress.currentTechnology() + "...");
-                    this.currentPromptService = getPromptServiceFor(currentProgress.currentTechnology());
-                    String prompt = currentPromptService.buildInitialModulePrompt(currentProgress.currentModuleKey());
-                    // Increased tokens to accommodate new fields for practice mode
-                    this.currentModule = aiTutorService.generateModuleFromPrompt(prompt, 5000);
+                inactiveTracks.put(trackKey(progress.currentTechnology(), progress.currentModuleKey()),
+                        new Track(getPromptServiceFor(progress.currentTechnology()), progress, null, null, null, null));
+            } catch (RuntimeException e) {
+                System.err.println("Warning: Ignoring saved progress for unknown technology '" + progress.currentTechnology() + "'.");
+            }
+        }
+    }
+
+    /**
+     * Runs off the startup path, so it is timed with a meter ({@code axon.progress.resume})
+     * rather than as a startup step.
+     */
+    private void resume(Progress savedProgress, PromptService promptService) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            ResolvedModule resolved = loadOrGenerateModule(promptService, savedProgress.currentTechnology(), savedProgress.currentModuleKey());
+            synchronized (this) {
+                // A 'start' issued while we were resuming wins over the old session.
+                if (currentProgress == savedProgress) {
+                    this.currentModule = resolved.module();
+                    this.currentCacheKey = resolved.cacheKey();
+                    schedulePrefetch();
                 }
-            } catch (IOException e) {
-                System.err.println("Warning: Could not load progress file. " + e.getMessage());
-                this.currentProgress = null;
             }
+            outcome = "success";
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (currentProgress == savedProgress) {
+                    this.currentProgress = null;
+                    this.currentPromptService = null;
+                    this.resumeFailure = e.getMessage();
+                }
+            }
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("axon.progress.resume", "outcome", outcome));
         }
     }
 
+    @Override
+    public CompletableFuture<Void> getPendingResume() {
+        return pendingResume;
+    }
+
     @Override
     public void startModule(String technology, String moduleKey) {
-        this.currentPromptService = getPromptServiceFor(technology);
-        if (!currentPromptService.getAvailableModules().containsKey(moduleKey)) {
+        PromptService promptService = getPromptServiceFor(technology);
+        if (!promptService.getAvailableModules().containsKey(moduleKey)) {
             throw new IllegalArgumentException("Unknown module key '" + moduleKey + "' for " + technology);
         }
-        String prompt = currentPromptService.buildInitialModulePrompt(moduleKey);
-        // Increased tokens to accommodate new fields for practice mode
-        this.currentModule = aiTutorService.generateModuleFromPrompt(prompt, 5000);
+        Timer.Sample timeToFirstLesson = Timer.start(meterRegistry);
+        String prompt = promptService.buildInitialModulePrompt(moduleKey);
+        String cacheKey = moduleCache.keyFor(technology, moduleKey, prompt, aiTutorService.getModelName(AiRequestType.MODULE), moduleMaxTokens);
+        Optional<LearningModule> cached = moduleCache.find(cacheKey, technology, moduleKey);
+        if (cached.isPresent()) {
+            activateModule(promptService, technology, moduleKey, cacheKey, cached.get(), null);
+            timeToFirstLesson.stop(firstLessonTimer(technology, "cache"));
+            return;
+        }
+
+        // Stream the module and return as soon as the first lesson exists; the rest keeps
+        // arriving in the background and is appended to the live lesson list.
+        List<Lesson> streamedLessons = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> firstLesson = new CompletableFuture<>();
+        // The generation has its own token, so that it can be aborted while we wait for the first
+        // lesson; cancelling the command cancels it too.
+        CancellationToken generationCancellation = new CancellationToken();
+        CancellationToken.Registration commandCancellation = CancellationToken.current().onCancel(generationCancellation::cancel);
+        Timer.Sample generationTime = Timer.start(meterRegistry);
+        CompletableFuture<LearningModule> generation = CompletableFuture.supplyAsync(
+                () -> generationCancellation.call(() -> curriculumGenerator.generate(promptService, moduleKey, moduleMaxTokens, lesson -> {
+                    streamedLessons.add(lesson);
+                    firstLesson.complete(null);
+                })),
+                GENERATION_EXECUTOR);
+        generation.whenComplete((module, error) -> {
+            commandCancellation.close();
+            firstLesson.complete(null);
+            generationTime.stop(meterRegistry.timer("axon.module.generation",
+                    "technology", technology.toLowerCase(), "outcome", error == null ? "success" : "error"));
+        });
+        try {
+            firstLesson.get();
+        } catch (InterruptedException e) {
+            generationCancellation.cancel();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("The module generation was cancelled.");
+        } catch (ExecutionException e) {
+            // Never completed exceptionally; a failed generation is reported below.
+        }
+
+        if (streamedLessons.isEmpty()) {
+            // Nothing could be published incrementally, so the generation has already finished or failed.
+            LearningModule module = joinUnwrapped(generation);
+            moduleCache.put(cacheKey, technology, moduleKey, module);
+            activateModule(promptService, technology, moduleKey, cacheKey, module, null);
+            timeToFirstLesson.stop(firstLessonTimer(technology, "generated"));
+            return;
+        }
+        activateModule(promptService, technology, moduleKey, cacheKey, new LearningModule(null, streamedLessons), generation);
+        timeToFirstLesson.stop(firstLessonTimer(technology, "generated"));
+        generation.whenComplete((module, error) -> completeGeneration(technology, moduleKey, cacheKey, generation, module, error));
+    }
+
+    /**
+     * The time from 'start' until the first lesson of the module can be shown.
+     */
+    private Timer firstLessonTimer(String technology, String source) {
+        return meterRegistry.timer("axon.module.first.lesson", "technology", technology.toLowerCase(), "source", source);
+    }
+
+    private synchronized void activateModule(PromptService promptService, String technology, String moduleKey,
+                                             String cacheKey, LearningModule module, CompletableFuture<LearningModule> generation) {
+        moreLessonsPrefetcher.cancel();
+        stashActiveTrack();
+        inactiveTracks.remove(trackKey(technology, moduleKey));
+        this.currentPromptService = promptService;
+        this.currentModule = module;
+        this.currentCacheKey = cacheKey;
         this.currentProgress = new Progress(technology, moduleKey, 0);
+        this.pendingGeneration = generation;
+        this.generationFailure = null;
+        this.resumeFailure = null;
         saveProgress();
+        schedulePrefetch();
+    }
+
+    private void completeGeneration(String technology, String moduleKey, String cacheKey,
+                                    CompletableFuture<LearningModule> generation, LearningModule module, Throwable error) {
+        if (module != null) {
+            moduleCache.put(cacheKey, technology, moduleKey, module);
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        synchronized (this) {
+            // The learner may have switched to another module in the meantime.
+            if (pendingGeneration != generation) {
+                String key = trackKey(technology, moduleKey);
+                Track track = inactiveTracks.get(key);
+                if (track != null && track.generation() == generation) {
+                    inactiveTracks.put(key, new Track(track.promptService(), track.progress(), cacheKey,
+                            module != null ? module : track.module(), generation, module != null ? null : cause.getMessage()));
+                }
+                return;
+            }
+            if (module != null) {
+                this.currentModule = module;
+                schedulePrefetch();
+            } else {
+                this.generationFailure = cause.getMessage();
+            }
+        }
     }
 
     @Override
-    public Optional<Lesson> getCurrentLesson() {
-        if (currentModule == null || currentProgress == null || isModuleComplete()) {
+    public void switchTrack(String technology, String moduleKey) {
+        String key = trackKey(technology, moduleKey);
+        Track track;
+        synchronized (this) {
+            if (currentProgress != null && key.equals(trackKey(currentProgress.currentTechnology(), currentProgress.currentModuleKey()))) {
+                return;
+            }
+            track = inactiveTracks.get(key);
+        }
+        if (track == null) {
+            throw new IllegalArgumentException("You have not started '" + moduleKey + "' for " + technology + " yet. Use 'start' to begin it.");
+        }
+        // Tracks restored from disk only know their position; their lessons are read from the module cache.
+        LearningModule cachedModule = null;
+        String cacheKey = track.cacheKey();
+        if (track.module() == null) {
+            String prompt = track.promptService().buildInitialModulePrompt(moduleKey);
+            cacheKey = moduleCache.keyFor(technology, moduleKey, prompt, aiTutorService.getModelName(AiRequestType.MODULE), moduleMaxTokens);
+            cachedModule = moduleCache.find(cacheKey, technology, moduleKey).orElseThrow(() -> new IllegalStateException(
+                    "The lessons of '" + moduleKey + "' for " + technology + " are no longer cached. Use 'start' to generate them again."));
+        }
+
+        synchronized (this) {
+            Track latest = inactiveTracks.remove(key);
+            if (latest == null) {
+                // Another command activated it meanwhile.
+                return;
+            }
+            moreLessonsPrefetcher.cancel();
+            stashActiveTrack();
+            this.currentPromptService = latest.promptService();
+            this.currentProgress = latest.progress();
+            this.currentModule = latest.module() != null ? latest.module() : cachedModule;
+            this.currentCacheKey = latest.module() != null ? latest.cacheKey() : cacheKey;
+            this.pendingGeneration = latest.generation();
+            this.generationFailure = latest.generationFailure();
+            this.resumeFailure = null;
+            saveProgress();
+            schedulePrefetch();
+        }
+    }
+
+    @Override
+    public Optional<Lesson> openLesson(String technology, String moduleKey, int lessonNumber) {
+        String key = trackKey(technology, moduleKey);
+        boolean active;
+        boolean started;
+        synchronized (this) {
+            active = currentProgress != null && key.equals(trackKey(currentProgress.currentTechnology(), currentProgress.currentModuleKey()));
+            started = inactiveTracks.containsKey(key);
+        }
+        if (started) {
+            switchTrack(technology, moduleKey);
+        } else if (!active) {
+            PromptService promptService = getPromptServiceFor(technology);
+            String prompt = promptService.buildInitialModulePrompt(moduleKey);
+            String cacheKey = moduleCache.keyFor(technology, moduleKey, prompt, aiTutorService.getModelName(AiRequestType.MODULE), moduleMaxTokens);
+            LearningModule module = moduleCache.find(cacheKey, technology, moduleKey).orElseThrow(() -> new IllegalStateException(
+                    "The lessons of '" + moduleKey + "' for " + technology + " are no longer cached. Use 'start' to generate them again."));
+            activateModule(promptService, technology, moduleKey, cacheKey, module, null);
+        }
+        return goToLesson(lessonNumber);
+    }
+
+    @Override
+    public synchronized List<TrackSummary> getTracks() {
+        List<TrackSummary> tracks = new ArrayList<>();
+        if (currentProgress != null) {
+            tracks.add(summarize(currentProgress, currentModule, true));
+        }
+        inactiveTracks.values().stream()
+                .map(track -> summarize(track.progress(), track.module(), false))
+                .sorted(Comparator.comparing(TrackSummary::technology).thenComparing(TrackSummary::moduleKey))
+                .forEach(tracks::add);
+        return tracks;
+    }
+
+    private static TrackSummary summarize(Progress progress, LearningModule module, boolean active) {
+        return new TrackSummary(progress.currentTechnology().toLowerCase(), progress.currentModuleKey(), progress.currentLessonIndex() + 1,
+                module != null ? module.lessons().size() : null, active);
+    }
+
+    /**
+     * Moves the active track, including a generation still in progress, into the inactive tracks.
+     */
+    private void stashActiveTrack() {
+        if (currentProgress == null || currentPromptService == null) {
+            return;
+        }
+        inactiveTracks.put(trackKey(currentProgress.currentTechnology(), currentProgress.currentModuleKey()),
+                new Track(currentPromptService, currentProgress, currentCacheKey, currentModule, pendingGeneration, generationFailure));
+    }
+
+    private static String trackKey(String technology, String moduleKey) {
+        return technology.toLowerCase() + ":" + moduleKey;
+    }
+
+    @Override
+    public synchronized boolean isGeneratingLessons() {
+        return pendingGeneration != null && !pendingGeneration.isDone();
+    }
+
+    @Override
+    public synchronized boolean isLessonPending(int lessonNumber) {
+        return isGeneratingLessons() && currentModule != null && lessonNumber > currentModule.lessons().size();
+    }
+
+    @Override
+    public synchronized int getCurrentLessonNumber() {
+        return currentProgress != null ? currentProgress.currentLessonIndex() + 1 : 0;
+    }
+
+    @Override
+    public synchronized Optional<Lesson> getCurrentLesson() {
+        if (currentModule == null || currentProgress == null || isModuleComplete()
+                || currentProgress.currentLessonIndex() >= currentModule.lessons().size()) {
             return Optional.empty();
         }
         return Optional.of(currentModule.lessons().get(currentProgress.currentLessonIndex()));
     }
 
     @Override
-    public Optional<Lesson> getNextLesson() {
-        if (currentModule == null || isModuleComplete()) {
+    public synchronized Optional<Lesson> getNextLesson() {
+        if (currentModule == null || isModuleComplete()
+                || currentProgress.currentLessonIndex() >= currentModule.lessons().size()) {
             return Optional.empty();
         }
         currentProgress = new Progress(currentProgress.currentTechnology(), currentProgress.currentModuleKey(), currentProgress.currentLessonIndex() + 1);
         saveProgress();
+        schedulePrefetch();
         return getCurrentLesson();
     }
 
     @Override
-    public String getStatus() {
+    public synchronized Optional<String> getCurrentTechnology() {
+        return currentProgress != null ? Optional.of(currentProgress.currentTechnology().toLowerCase()) : Optional.empty();
+    }
+
+    @Override
+    public synchronized String getStatus() {
+        if (resumeFailure != null) {
+            return "Could not resume your previous session (" + resumeFailure + "). Use 'start' to begin.";
+        }
         if (currentProgress == null || currentPromptService == null) {
             return "No tutorial in progress. Use 'start' to begin.";
         }
+        if (currentModule == null) {
+            return String.format("Technology: %s | Module: '%s' | Lesson %d (resuming previous session...)",
+                    currentPromptService.getTechnologyName(),
+                    currentProgress.currentModuleKey(),
+                    currentProgress.currentLessonIndex() + 1);
+        }
+        if (isGeneratingLessons() || generationFailure != null) {
+            return String.format("Technology: %s | Module: '%s' | Lesson %d of %d (%s).",
+                    currentPromptService.getTechnologyName(),
+                    currentProgress.currentModuleKey(),
+                    currentProgress.currentLessonIndex() + 1,
+                    currentModule.lessons().size(),
+                    generationFailure != null ? "generation stopped early: " + generationFailure : "more lessons are being generated...");
+        }
         if (isModuleComplete()) {
             return String.format("You have completed all %d lessons of the '%s' module for %s!",
                     currentModule.lessons().size(), currentProgress.currentModuleKey(), currentPromptService.getTechnologyName());
@@ -106,8 +476,8 @@ public class TutorialStateServiceImpl implements TutorialStateService {
     }
 
     @Override
-    public boolean isModuleComplete() {
-        if (currentModule == null || currentProgress == null) {
+    public synchronized boolean isModuleComplete() {
+        if (currentModule == null || currentProgress == null || isGeneratingLessons()) {
             return false;
         }
         return currentProgress.currentLessonIndex() >= currentModule.lessons().size();
@@ -115,29 +485,93 @@ public class TutorialStateServiceImpl implements TutorialStateService {
 
     @Override
     public void appendMoreLessons() {
-        if (!isModuleComplete()) throw new IllegalStateException("Finish current lessons first.");
-        if (currentModule == null) throw new IllegalStateException("No active module.");
+        // The AI call runs outside the lock: it may be a background job while the learner keeps navigating.
+        PromptService promptService;
+        LearningModule module;
+        Progress progress;
+        String cacheKey;
+        synchronized (this) {
+            if (!isModuleComplete()) throw new IllegalStateException("Finish current lessons first.");
+            if (currentModule == null) throw new IllegalStateException("No active module.");
+            promptService = currentPromptService;
+            module = currentModule;
+            progress = currentProgress;
+            cacheKey = currentCacheKey;
+        }
 
-        String prompt = currentPromptService.buildMoreLessonsPrompt(currentProgress.currentModuleKey(), currentModule.lessons());
-        LearningModule newLessonsModule = aiTutorService.generateModuleFromPrompt(prompt, 4000);
+        // A batch prefetched while the learner finished the module is appended instantly.
+        LearningModule newLessonsModule = moreLessonsPrefetcher.take(cacheKey, module.lessons().size())
+                .orElseGet(() -> {
+                    String prompt = promptService.buildMoreLessonsPrompt(progress.currentModuleKey(), module.lessons());
+                    return aiTutorService.generateModuleFromPrompt(AiRequestContext.of(AiRequestType.MORE, progress.currentTechnology()),
+                            prompt, MORE_MAX_TOKENS);
+                });
 
-        List<Lesson> combinedLessons = new ArrayList<>(currentModule.lessons());
+        List<Lesson> combinedLessons = new ArrayList<>(module.lessons());
         combinedLessons.addAll(newLessonsModule.lessons());
-        this.currentModule = new LearningModule(currentModule.moduleName(), combinedLessons);
-        saveProgress();
+        LearningModule combined = new LearningModule(module.moduleName(), combinedLessons);
+        synchronized (this) {
+            if (currentModule != module) {
+                throw new IllegalStateException("You switched modules while the lessons were generated. Switch back and use 'more' again.");
+            }
+            // A cancelled 'more' must not change the module, even if its lessons already arrived.
+            CancellationToken.current().throwIfCancelled();
+            this.currentModule = combined;
+            saveProgress();
+        }
+        moduleCache.put(cacheKey, progress.currentTechnology(), progress.currentModuleKey(), combined);
     }
 
     @Override
     public String answerQuestion(String question) {
-        if (currentPromptService == null) {
+        TechnologyPrompt request = buildQuestionRequest(question);
+        Optional<String> cached = answerCache.get(request.technology(), question, aiTutorService.getModelName(AiRequestType.ASK));
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String answer = aiTutorService.answerQuestionFromPrompt(request.context(AiRequestType.ASK), request.prompt(), ANSWER_MAX_TOKENS);
+        answerCache.put(request.technology(), question, aiTutorService.getModelName(AiRequestType.ASK), answer);
+        return answer;
+    }
+
+    @Override
+    public String answerQuestion(String question, Consumer<String> onDelta) {
+        return answerQuestion(question, false, onDelta);
+    }
+
+    @Override
+    public String answerQuestion(String question, boolean fresh, Consumer<String> onDelta) {
+        TechnologyPrompt request = buildQuestionRequest(question);
+        if (!fresh) {
+            Optional<String> cached = answerCache.get(request.technology(), question, aiTutorService.getModelName(AiRequestType.ASK));
+            if (cached.isPresent()) {
+                onDelta.accept(cached.get());
+                return cached.get();
+            }
+        }
+        String answer = aiTutorService.streamAnswerFromPrompt(request.context(AiRequestType.ASK), request.prompt(), ANSWER_MAX_TOKENS, onDelta);
+        answerCache.put(request.technology(), question, aiTutorService.getModelName(AiRequestType.ASK), answer);
+        return answer;
+    }
+
+    /**
+     * A prompt together with the technology it was built for, taken from the same snapshot of the session.
+     */
+    private record TechnologyPrompt(String technology, String prompt) {
+        AiRequestContext context(AiRequestType type) {
+            return AiRequestContext.of(type, technology);
+        }
+    }
+
+    private synchronized TechnologyPrompt buildQuestionRequest(String question) {
+        if (currentPromptService == null || currentProgress == null) {
             throw new IllegalStateException("Cannot answer question without context. Please start a module first.");
         }
-        String prompt = currentPromptService.buildQuestionPrompt(question);
-        return aiTutorService.answerQuestionFromPrompt(prompt, 2500);
+        return new TechnologyPrompt(currentProgress.currentTechnology(), currentPromptService.buildQuestionPrompt(question));
     }
 
     @Override
-    public Map<String, String> getAvailableModulesForCurrentTechnology() {
+    public synchronized Map<String, String> getAvailableModulesForCurrentTechnology() {
         if (currentPromptService == null) {
             return Map.of();
         }
@@ -145,7 +579,7 @@ public class TutorialStateServiceImpl implements TutorialStateService {
     }
 
     @Override
-    public Optional<Lesson> getPreviousLesson() {
+    public synchronized Optional<Lesson> getPreviousLesson() {
         if (currentProgress == null || currentProgress.currentLessonIndex() <= 0) {
             return Optional.empty();
         }
@@ -155,23 +589,36 @@ public class TutorialStateServiceImpl implements TutorialStateService {
     }
 
     @Override
-    public Optional<Lesson> goToLesson(int lessonNumber) {
+    public synchronized Optional<Lesson> goToLesson(int lessonNumber) {
         int lessonIndex = lessonNumber - 1;
         if (currentModule == null || lessonIndex < 0 || lessonIndex >= currentModule.lessons().size()) {
             return Optional.empty();
         }
         this.currentProgress = new Progress(currentProgress.currentTechnology(), currentProgress.currentModuleKey(), lessonIndex);
         saveProgress();
+        schedulePrefetch();
         return getCurrentLesson();
     }
 
     @Override
-    public List<Lesson> getCurrentModuleLessons() {
+    public synchronized List<Lesson> getCurrentModuleLessons() {
         return currentModule != null ? currentModule.lessons() : Collections.emptyList();
     }
 
     @Override
     public String generateSummary() {
+        TechnologyPrompt request = buildSummaryRequest();
+        System.out.println("Generating AI summary of the module... please wait.");
+        return aiTutorService.answerQuestionFromPrompt(request.context(AiRequestType.SUMMARY), request.prompt(), ANSWER_MAX_TOKENS);
+    }
+
+    @Override
+    public String generateSummary(Consumer<String> onDelta) {
+        TechnologyPrompt request = buildSummaryRequest();
+        return aiTutorService.streamAnswerFromPrompt(request.context(AiRequestType.SUMMARY), request.prompt(), ANSWER_MAX_TOKENS, onDelta);
+    }
+
+    private synchronized TechnologyPrompt buildSummaryRequest() {
         if (!isModuleComplete()) {
             throw new IllegalStateException("A summary can only be generated after completing all lessons in the module.");
         }
@@ -180,22 +627,56 @@ public class TutorialStateServiceImpl implements TutorialStateService {
         }
 
         String moduleName = currentPromptService.getAvailableModules().get(currentProgress.currentModuleKey());
-        String prompt = currentPromptService.buildSummaryPrompt(moduleName, currentModule.lessons());
+        return new TechnologyPrompt(currentProgress.currentTechnology(), currentPromptService.buildSummaryPrompt(moduleName, currentModule.lessons()));
+    }
 
-        System.out.println("Generating AI summary of the module... please wait.");
-        return aiTutorService.answerQuestionFromPrompt(prompt, 2500);
+    private synchronized void schedulePrefetch() {
+        if (currentModule == null || currentProgress == null || isGeneratingLessons()) {
+            return;
+        }
+        moreLessonsPrefetcher.onProgress(currentCacheKey, currentPromptService, currentProgress.currentModuleKey(),
+                currentModule.lessons(), currentProgress.currentLessonIndex(), MORE_MAX_TOKENS);
     }
 
-    private void saveProgress() {
+    private synchronized void saveProgress() {
+        List<Progress> others = inactiveTracks.values().stream().map(Track::progress).toList();
+        progressJournal.save(new SavedProgress(currentProgress.currentTechnology(), currentProgress.currentModuleKey(),
+                currentProgress.currentLessonIndex(), others));
+    }
+
+    /**
+     * Serves the module from the on-disk cache when the identical request was made before,
+     * so the saved lesson index keeps pointing at the same lessons across restarts.
+     */
+    private ResolvedModule loadOrGenerateModule(PromptService promptService, String technology, String moduleKey) {
+        String prompt = promptService.buildInitialModulePrompt(moduleKey);
+        String cacheKey = moduleCache.keyFor(technology, moduleKey, prompt, aiTutorService.getModelName(AiRequestType.MODULE), moduleMaxTokens);
+        LearningModule module = moduleCache.find(cacheKey, technology, moduleKey).orElseGet(() -> {
+            LearningModule generated = curriculumGenerator.generate(promptService, moduleKey, moduleMaxTokens, lesson -> {});
+            moduleCache.put(cacheKey, technology, moduleKey, generated);
+            return generated;
+        });
+        return new ResolvedModule(cacheKey, module);
+    }
+
+    private static <T> T joinUnwrapped(CompletableFuture<T> future) {
         try {
-            objectMapper.writeValue(PROGRESS_FILE.toFile(), currentProgress);
-        } catch (IOException e) {
-            System.err.println("Warning: Could not save progress: " + e.getMessage());
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 
+    private record ResolvedModule(String cacheKey, LearningModule module) {}
+
     private PromptService getPromptServiceFor(String technology) {
-        String beanName = technology.toLowerCase() + "PromptService";
-        return context.getBean(beanName, PromptService.class);
+        PromptService promptService = promptServices.get(technology.toLowerCase());
+        if (promptService == null) {
+            throw new IllegalArgumentException("Unknown technology '" + technology + "'");
+        }
+        return promptService;
     }
 }
\ No newline at end of file
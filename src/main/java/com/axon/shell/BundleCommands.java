@@ -0,0 +1,107 @@
+package com.axon.shell;
+
+import com.axon.service.api.CurriculumBundleService;
+import com.axon.service.api.CurriculumBundleService.BundleReport;
+import com.axon.service.api.CurriculumBundleService.ImportReport;
+import com.axon.service.api.CurriculumBundleService.ModuleResult;
+import com.axon.service.api.CurriculumBundleService.Status;
+import org.jline.terminal.Terminal;
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+@ShellComponent
+public class BundleCommands {
+
+    private static final AttributedStyle HEADER_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).bold();
+    private static final AttributedStyle KEY_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.YELLOW);
+    private static final AttributedStyle INFO_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).italic();
+    private static final AttributedStyle ERROR_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.RED);
+    private static final AttributedStyle SUCCESS_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.GREEN).bold();
+
+    private final CurriculumBundleService bundleService;
+    private final Terminal terminal;
+
+    public BundleCommands(CurriculumBundleService bundleService, Terminal terminal) {
+        this.bundleService = bundleService;
+        this.terminal = terminal;
+    }
+
+    @ShellMethod(key = "generate", value = "Generate every module ahead of time and write them to a curriculum bundle.")
+    public void generate(@ShellOption(help = "Generate the modules of every technology.", defaultValue = "false") boolean all,
+                         @ShellOption(help = "Only generate these technologies, separated by commas (e.g., 'git,docker').", defaultValue = "") String technology,
+                         @ShellOption(help = "The bundle file to write; a name ending in .pack writes a memory-mapped curriculum pack.", defaultValue = "axon-curriculum.json") String out,
+                         @ShellOption(help = "Ask the AI again for modules that are already cached.", defaultValue = "false") boolean regenerate) {
+        List<String> technologies = Arrays.stream(technology.split(",")).map(String::trim).filter(name -> !name.isEmpty()).toList();
+        if (all == !technologies.isEmpty()) {
+            terminal.writer().println(new AttributedString("Error: Use either '--all' or '--technology'.", ERROR_STYLE).toAnsi());
+            terminal.writer().flush();
+            return;
+        }
+        Path file = Path.of(out.replaceFirst("^~", System.getProperty("user.home")));
+        terminal.writer().println(new AttributedString("\nGenerating " + (all ? "every module" : "the modules of " + String.join(", ", technologies))
+                + " into " + file + "...", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        terminal.writer().flush();
+        try {
+            BundleReport report = bundleService.generateBundle(technologies, file, regenerate, this::printResult);
+            long failed = report.modules().stream().filter(result -> result.status() == Status.FAILED).count();
+            long generated = report.modules().stream().filter(result -> result.status() == Status.GENERATED).count();
+            terminal.writer().println("─".repeat(40));
+            terminal.writer().println(new AttributedString(String.format("Wrote %d module(s) to %s in %ds (%d generated, %d from the cache).",
+                    report.modules().size() - failed, report.file(), report.elapsed().toSeconds(), generated,
+                    report.modules().size() - failed - generated), SUCCESS_STYLE).toAnsi());
+            if (failed > 0) {
+                terminal.writer().println(new AttributedString(failed + " module(s) failed and are not in the bundle. Run the command again to retry them; "
+                        + "the others are taken from the cache.", ERROR_STYLE).toAnsi());
+            }
+            terminal.writer().println(new AttributedString("Other installs can load it with 'import " + report.file() + "'.", INFO_STYLE).toAnsi());
+        } catch (IllegalArgumentException e) {
+            terminal.writer().println(new AttributedString("Error: " + e.getMessage(), ERROR_STYLE).toAnsi());
+        } catch (CancellationException e) {
+            terminal.writer().println(new AttributedString("Cancelled. Modules that were already generated are kept in the cache.", INFO_STYLE).toAnsi());
+        }
+        terminal.writer().flush();
+    }
+
+    @ShellMethod(key = "import", value = "Load the modules of a curriculum bundle into the module cache.")
+    public void importBundle(@ShellOption(help = "The bundle file, as written by 'generate'.") String file,
+                             @ShellOption(help = "Also import modules generated from a different prompt or model than this install uses.", defaultValue = "false") boolean force) {
+        try {
+            ImportReport report = bundleService.importBundle(Path.of(file.replaceFirst("^~", System.getProperty("user.home"))), force);
+            terminal.writer().println(new AttributedString("Imported " + report.imported() + " module(s).", SUCCESS_STYLE).toAnsi());
+            if (!report.skipped().isEmpty()) {
+                terminal.writer().println(new AttributedString("Skipped " + String.join(", ", report.skipped())
+                        + ": this install has no such module, or would generate it from a different prompt or model. Add '--force' to import the latter anyway.", INFO_STYLE).toAnsi());
+            }
+        } catch (IllegalArgumentException e) {
+            terminal.writer().println(new AttributedString("Error: " + e.getMessage(), ERROR_STYLE).toAnsi());
+        }
+        terminal.writer().flush();
+    }
+
+    private void printResult(ModuleResult result) {
+        AttributedStringBuilder line = new AttributedStringBuilder()
+                .append("  ")
+                .style(KEY_STYLE).append(String.format("%-24s", result.technology() + " " + result.moduleKey()))
+                .style(result.status() == Status.FAILED ? ERROR_STYLE : AttributedStyle.DEFAULT)
+                .append(String.format(" %-9s", result.status().name().toLowerCase()))
+                .style(AttributedStyle.DEFAULT)
+                .append(String.format(" %3d lessons %5ds", result.lessonCount(), result.elapsed().toSeconds()));
+        if (result.error() != null) {
+            line.append(" | ").append(result.error());
+        }
+        synchronized (terminal) {
+            terminal.writer().println(line.toAnsi());
+            terminal.writer().flush();
+        }
+    }
+}
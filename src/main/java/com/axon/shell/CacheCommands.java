@@ -0,0 +1,102 @@
+package com.axon.shell;
+
+import com.axon.service.api.AnswerCacheService;
+import com.axon.service.api.ModuleCacheService;
+import org.jline.terminal.Terminal;
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@ShellComponent
+public class CacheCommands {
+
+    private static final AttributedStyle HEADER_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).bold();
+    private static final AttributedStyle KEY_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.YELLOW);
+    private static final AttributedStyle INFO_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).italic();
+    private static final AttributedStyle SUCCESS_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.GREEN).bold();
+    private static final DateTimeFormatter LAST_USED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+
+    private final ModuleCacheService moduleCache;
+    private final AnswerCacheService answerCache;
+    private final Terminal terminal;
+
+    public CacheCommands(ModuleCacheService moduleCache, AnswerCacheService answerCache, Terminal terminal) {
+        this.moduleCache = moduleCache;
+        this.answerCache = answerCache;
+        this.terminal = terminal;
+    }
+
+    @ShellMethod(key = "cache", value = "Inspect or purge the caches of generated modules and answers.")
+    public void cache(@ShellOption(help = "Delete every cached module and answer.", defaultValue = "false") boolean purge) {
+        if (purge) {
+            int removedModules = moduleCache.purge();
+            int removedAnswers = answerCache.purge();
+            terminal.writer().println(new AttributedString("Removed " + removedModules + " cached module(s) and "
+                    + removedAnswers + " cached answer(s).", SUCCESS_STYLE).toAnsi());
+            terminal.writer().flush();
+            return;
+        }
+
+        List<ModuleCacheService.Entry> entries = moduleCache.listEntries();
+        terminal.writer().println(new AttributedString("\nCached Modules:", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        if (entries.isEmpty()) {
+            terminal.writer().println(new AttributedString("The module cache is empty.", INFO_STYLE).toAnsi());
+        }
+        for (ModuleCacheService.Entry entry : entries) {
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append("  - ")
+                    .style(KEY_STYLE).append(String.format("%-24s", entry.technology() + " " + entry.moduleKey()))
+                    .style(AttributedStyle.DEFAULT)
+                    .append(String.format(" | %3d lessons | %6s | last used %s",
+                            entry.lessonCount(), formatSize(entry.sizeBytes()), LAST_USED_FORMAT.format(entry.lastAccessed())))
+                    .toAnsi());
+        }
+        terminal.writer().println("─".repeat(40));
+        terminal.writer().println(String.format("Total: %s of %s", formatSize(moduleCache.totalSizeBytes()), formatSize(moduleCache.maxSizeBytes())));
+
+        List<ModuleCacheService.Pack> packs = moduleCache.listPacks();
+        if (!packs.isEmpty()) {
+            terminal.writer().println(new AttributedString("\nCurriculum Packs:", HEADER_STYLE).toAnsi());
+            terminal.writer().println("─".repeat(40));
+            for (ModuleCacheService.Pack pack : packs) {
+                terminal.writer().println(new AttributedStringBuilder()
+                        .append("  - ")
+                        .style(KEY_STYLE).append(String.format("%-24s", pack.name()))
+                        .style(AttributedStyle.DEFAULT)
+                        .append(String.format(" | %3d modules | %5d lessons | %6s", pack.moduleCount(), pack.lessonCount(), formatSize(pack.sizeBytes())))
+                        .toAnsi());
+            }
+            terminal.writer().println("─".repeat(40));
+        }
+
+        AnswerCacheService.Stats stats = answerCache.getStats();
+        long lookups = stats.memoryHits() + stats.diskHits() + stats.misses();
+        terminal.writer().println(new AttributedString("\nCached Answers:", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        terminal.writer().println(String.format("  %d on disk, %d in memory", stats.diskEntries(), stats.memoryEntries()));
+        terminal.writer().println(String.format("  This session: %d memory hit(s), %d disk hit(s), %d miss(es)%s",
+                stats.memoryHits(), stats.diskHits(), stats.misses(),
+                lookups > 0 ? String.format(" (%.0f%% hit rate)", 100.0 * (stats.memoryHits() + stats.diskHits()) / lookups) : ""));
+        terminal.writer().println("─".repeat(40));
+        terminal.writer().println(new AttributedString("Type 'cache --purge' to clear the cache.", INFO_STYLE).toAnsi());
+        terminal.writer().flush();
+    }
+
+    private String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -0,0 +1,84 @@
+package com.axon.shell;
+
+import com.axon.service.impl.JobScheduler;
+import com.axon.service.impl.JobScheduler.Job;
+import com.axon.service.impl.JobScheduler.State;
+import org.jline.terminal.Terminal;
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.util.List;
+import java.util.Optional;
+
+@ShellComponent
+public class JobCommands {
+
+    private static final AttributedStyle HEADER_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).bold();
+    private static final AttributedStyle KEY_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.YELLOW);
+    private static final AttributedStyle INFO_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).italic();
+    private static final AttributedStyle ERROR_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.RED);
+    private static final AttributedStyle SUCCESS_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.GREEN).bold();
+
+    private final JobScheduler jobScheduler;
+    private final Terminal terminal;
+
+    public JobCommands(JobScheduler jobScheduler, Terminal terminal) {
+        this.jobScheduler = jobScheduler;
+        this.terminal = terminal;
+    }
+
+    @ShellMethod(key = "jobs", value = "List the running AI jobs and the ones that finished recently.")
+    public void jobs() {
+        List<Job<?>> jobs = jobScheduler.getJobs();
+        terminal.writer().println(new AttributedString("\nJobs:", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        if (jobs.isEmpty()) {
+            terminal.writer().println(new AttributedString("No AI job has run yet. Add '--background' to 'start', 'more', 'ask' or 'summary' to keep using the shell while it runs.", INFO_STYLE).toAnsi());
+        }
+        for (Job<?> job : jobs) {
+            String progress = job.state() == State.RUNNING && !job.progress().isEmpty() ? " | " + job.progress() : "";
+            terminal.writer().println(new AttributedStringBuilder()
+                    .style(KEY_STYLE).append(String.format("  %3d ", job.id()))
+                    .style(job.state() == State.FAILED ? ERROR_STYLE : AttributedStyle.DEFAULT)
+                    .append(String.format("%-10s", job.state().name().toLowerCase()))
+                    .style(AttributedStyle.DEFAULT)
+                    .append(String.format("%6ds  ", job.elapsed().toSeconds()))
+                    .append(job.description()).append(progress)
+                    .toAnsi());
+        }
+        terminal.writer().println("─".repeat(40));
+        terminal.writer().flush();
+    }
+
+    @ShellMethod(key = "cancel", value = "Cancel a running AI job.")
+    public void cancel(@ShellOption(help = "The job number from 'jobs'. Omit to cancel every running job.", defaultValue = "0") int id) {
+        List<Job<?>> running = jobScheduler.getJobs().stream()
+                .filter(job -> job.state() == State.RUNNING)
+                .toList();
+        if (id == 0 && running.isEmpty()) {
+            terminal.writer().println(new AttributedString("No job is running.", INFO_STYLE).toAnsi());
+        } else if (id == 0) {
+            running.forEach(this::cancelJob);
+        } else {
+            Optional<Job<?>> job = jobScheduler.getJob(id);
+            if (job.isEmpty()) {
+                terminal.writer().println(new AttributedString("Error: There is no job " + id + ". Use 'jobs' to list them.", ERROR_STYLE).toAnsi());
+            } else if (job.get().state() != State.RUNNING) {
+                terminal.writer().println(new AttributedString("Job " + id + " has already " + (job.get().state() == State.CANCELLED ? "been cancelled." : "finished."), INFO_STYLE).toAnsi());
+            } else {
+                cancelJob(job.get());
+            }
+        }
+        terminal.writer().flush();
+    }
+
+    private void cancelJob(Job<?> job) {
+        if (job.cancel()) {
+            terminal.writer().println(new AttributedString("Cancelled job " + job.id() + " (" + job.description() + ").", SUCCESS_STYLE).toAnsi());
+        }
+    }
+}
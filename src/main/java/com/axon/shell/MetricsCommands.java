@@ -0,0 +1,147 @@
+package com.axon.shell;
+
+import com.axon.metrics.MeterSummary;
+import com.axon.metrics.MetricsFileExporter;
+import com.axon.service.impl.AiProviderProperties.Provider;
+import com.axon.service.impl.AiProviderRouter;
+import com.axon.service.impl.AiProviderRouter.Score;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jline.terminal.Terminal;
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@ShellComponent
+public class MetricsCommands {
+
+    private static final AttributedStyle HEADER_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).bold();
+    private static final AttributedStyle KEY_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.YELLOW);
+    private static final AttributedStyle INFO_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).italic();
+    private static final AttributedStyle SUCCESS_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.GREEN).bold();
+    private static final AttributedStyle ERROR_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.RED);
+    private static final String METRIC_PREFIX = "axon.";
+
+    private final MeterRegistry meterRegistry;
+    private final MetricsFileExporter exporter;
+    private final AiProviderRouter router;
+    private final Terminal terminal;
+
+    public MetricsCommands(MeterRegistry meterRegistry, MetricsFileExporter exporter, AiProviderRouter router, Terminal terminal) {
+        this.meterRegistry = meterRegistry;
+        this.exporter = exporter;
+        this.router = router;
+        this.terminal = terminal;
+    }
+
+    @ShellMethod(key = "metrics", value = "Show latency percentiles and counters for this session.")
+    public void metrics(@ShellOption(help = "Only show metrics whose name contains this text (e.g., 'ai').", defaultValue = "") String filter,
+                        @ShellOption(help = "Also append a snapshot to the configured export file.", defaultValue = "false") boolean export) {
+        List<MeterSummary> summaries = MeterSummary.of(meterRegistry, METRIC_PREFIX).stream()
+                .filter(summary -> summary.name().contains(filter))
+                .toList();
+        List<MeterSummary> timers = summaries.stream().filter(summary -> summary.type().equals("timer")).toList();
+        List<MeterSummary> counters = summaries.stream().filter(summary -> summary.type().equals("counter")).toList();
+
+        terminal.writer().println(new AttributedString("\nLatencies (ms):", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        if (timers.isEmpty()) {
+            terminal.writer().println(new AttributedString("Nothing has been measured yet.", INFO_STYLE).toAnsi());
+        } else {
+            terminal.writer().println(String.format("  %-56s %6s %8s %8s %8s %8s %8s", "", "count", "mean", "p50", "p95", "p99", "max"));
+        }
+        for (MeterSummary timer : timers) {
+            Map<String, Double> percentiles = timer.percentilesMs();
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append("  ")
+                    .style(KEY_STYLE).append(String.format("%-56s", describe(timer)))
+                    .style(AttributedStyle.DEFAULT)
+                    .append(String.format(" %6d %8.0f %8.0f %8.0f %8.0f %8.0f", (long) timer.count(), timer.meanMs(),
+                            percentiles.getOrDefault("p50", 0.0), percentiles.getOrDefault("p95", 0.0),
+                            percentiles.getOrDefault("p99", 0.0), timer.maxMs()))
+                    .toAnsi());
+        }
+
+        terminal.writer().println(new AttributedString("\nCounters:", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        if (counters.isEmpty()) {
+            terminal.writer().println(new AttributedString("Nothing has been counted yet.", INFO_STYLE).toAnsi());
+        }
+        for (MeterSummary counter : counters) {
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append("  ")
+                    .style(KEY_STYLE).append(String.format("%-56s", describe(counter)))
+                    .style(AttributedStyle.DEFAULT)
+                    .append(String.format(" %,d", (long) counter.count()))
+                    .toAnsi());
+        }
+        terminal.writer().println("─".repeat(40));
+        terminal.writer().println(new AttributedString("Percentiles cover recent activity; counts cover the whole session.", INFO_STYLE).toAnsi());
+
+        if (export) {
+            if (exporter.export()) {
+                terminal.writer().println(new AttributedString("Snapshot appended to " + exporter.getFile().orElseThrow() + ".", SUCCESS_STYLE).toAnsi());
+            } else {
+                terminal.writer().println(new AttributedString("No export file is configured (set app.metrics.export.file).", INFO_STYLE).toAnsi());
+            }
+        }
+        terminal.writer().flush();
+    }
+
+    @ShellMethod(key = "providers", value = "Show the AI providers and how they have performed this session.")
+    public void providers() {
+        terminal.writer().println(new AttributedString("\nAI providers:", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        for (Provider provider : router.getProviders()) {
+            Duration circuitOpen = router.circuitOpenTime(provider);
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append("  ")
+                    .style(KEY_STYLE).append(String.format("%-16s", provider.name()))
+                    .style(AttributedStyle.DEFAULT)
+                    .append(" " + provider.model() + " | " + provider.roles().stream().map(role -> role.name().toLowerCase()).collect(Collectors.joining(", "))
+                            + (provider.costPerMillionTokens() > 0 ? String.format(" | %.2f per 1M tokens", provider.costPerMillionTokens()) : ""))
+                    .style(ERROR_STYLE)
+                    .append(circuitOpen.isZero() ? "" : " | paused for " + Math.max(1, circuitOpen.toSeconds()) + "s after repeated failures")
+                    .toAnsi());
+        }
+
+        List<Score> scores = router.getScores();
+        terminal.writer().println(new AttributedString("\nRouting scores:", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        if (scores.isEmpty()) {
+            terminal.writer().println(new AttributedString("No AI request has been sent yet.", INFO_STYLE).toAnsi());
+        } else {
+            terminal.writer().println(String.format("  %-16s %-8s %-9s %8s %7s %8s", "", "type", "latency", "avg ms", "errors", "requests"));
+        }
+        for (Score score : scores) {
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append("  ")
+                    .style(KEY_STYLE).append(String.format("%-16s", score.provider().name()))
+                    .style(AttributedStyle.DEFAULT)
+                    .append(String.format(" %-8s %-9s %8s %6.0f%% %8d", score.type().tag(), score.streamed() ? "1st token" : "response",
+                            score.latency() == null ? "-" : String.valueOf(score.latency().toMillis()), 100 * score.errorRate(), score.requests()))
+                    .append(score.coolingDown() ? " (cooling down)" : "")
+                    .toAnsi());
+        }
+        terminal.writer().println("─".repeat(40));
+        terminal.writer().println(new AttributedString("Latency is to the first token when streamed; both it and the error rate are moving averages.", INFO_STYLE).toAnsi());
+        terminal.writer().flush();
+    }
+
+    private static String describe(MeterSummary summary) {
+        String name = summary.name().substring(METRIC_PREFIX.length());
+        if (summary.tags().isEmpty()) {
+            return name;
+        }
+        return summary.tags().entrySet().stream()
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(",", name + "{", "}"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.axon.shell;
+
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+
+import java.util.Map;
+
+/**
+ * Colors the inline tags of a technology's example output, e.g. {@code <branch>main</branch>}.
+ * <p>
+ * The text is scanned once from left to right: at each {@code <} the tag name is read and
+ * looked up, and only a known tag is matched against its closing tag. A tag must close on the
+ * same line; anything that is not a complete, known tag is kept as plain text.
+ */
+final class OutputColorizer {
+
+    private final Map<String, AttributedStyle> tagStyles;
+    private final AttributedStyle textStyle;
+
+    /**
+     * @param tagStyles The style of each tag's content, keyed by tag name.
+     * @param textStyle The style of the text outside of tags.
+     */
+    OutputColorizer(Map<String, AttributedStyle> tagStyles, AttributedStyle textStyle) {
+        this.tagStyles = Map.copyOf(tagStyles);
+        this.textStyle = textStyle;
+    }
+
+    AttributedString colorize(String text) {
+        AttributedStringBuilder builder = new AttributedStringBuilder(text.length());
+        int length = text.length();
+        int plainStart = 0;
+        int position = text.indexOf('<');
+        while (position >= 0) {
+            int nameStart = position + 1;
+            int nameEnd = nameStart;
+            while (nameEnd < length && isTagNameChar(text.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            int next = position + 1;
+            if (nameEnd > nameStart && nameEnd < length && text.charAt(nameEnd) == '>') {
+                AttributedStyle style = styleFor(text, nameStart, nameEnd);
+                if (style != null) {
+                    int contentStart = nameEnd + 1;
+                    int contentEnd = findClosingTag(text, contentStart, nameStart, nameEnd);
+                    if (contentEnd >= 0) {
+                        builder.style(textStyle).append(text, plainStart, position);
+                        builder.style(style).append(text, contentStart, contentEnd);
+                        plainStart = contentEnd + (nameEnd - nameStart) + 3;
+                        next = plainStart;
+                    }
+                }
+            }
+            position = next < length ? text.indexOf('<', next) : -1;
+        }
+        if (plainStart < length) {
+            builder.style(textStyle).append(text, plainStart, length);
+        }
+        return builder.toAttributedString();
+    }
+
+    private AttributedStyle styleFor(String text, int nameStart, int nameEnd) {
+        for (Map.Entry<String, AttributedStyle> entry : tagStyles.entrySet()) {
+            String name = entry.getKey();
+            if (name.length() == nameEnd - nameStart && text.regionMatches(nameStart, name, 0, name.length())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The index where the closing tag starts, or -1 if the tag is not closed on this line.
+     */
+    private static int findClosingTag(String text, int from, int nameStart, int nameEnd) {
+        int nameLength = nameEnd - nameStart;
+        int closingLength = nameLength + 3; // "</" + name + ">"
+        for (int i = from; i + closingLength <= text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                return -1;
+            }
+            if (c == '<' && text.charAt(i + 1) == '/' && text.charAt(i + closingLength - 1) == '>'
+                    && text.regionMatches(i + 2, text, nameStart, nameLength)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isTagNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+}
@@ -8,10 +8,13 @@ import org.springframework.shell.jline.PromptProvider;
 @Configuration
 public class ShellPromptConfiguration {
     @Bean
-    public PromptProvider axonPrompt() {
-        return () -> new AttributedString(
-                "axon > ",
-                AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.CYAN)
-        );
+    public PromptProvider axonPrompt(StartupTimer startupTimer) {
+        return () -> {
+            startupTimer.markPromptShown();
+            return new AttributedString(
+                    "axon > ",
+                    AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.CYAN)
+            );
+        };
     }
 }
\ No newline at end of file
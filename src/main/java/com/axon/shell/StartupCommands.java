@@ -0,0 +1,150 @@
+package com.axon.shell;
+
+import com.axon.metrics.StartupReport;
+import com.axon.metrics.StartupReport.Step;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jline.terminal.Terminal;
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.shell.standard.ShellComponent;
+import org.springframework.shell.standard.ShellMethod;
+import org.springframework.shell.standard.ShellOption;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@ShellComponent
+public class StartupCommands {
+
+    private static final AttributedStyle HEADER_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).bold();
+    private static final AttributedStyle KEY_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.YELLOW);
+    private static final AttributedStyle BAR_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.RED);
+    private static final AttributedStyle INFO_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).italic();
+    private static final AttributedStyle ERROR_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.RED);
+    private static final AttributedStyle SUCCESS_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.GREEN).bold();
+    private static final int BAR_WIDTH = 30;
+    private static final int LABEL_WIDTH = 64;
+    // Tags that identify a step better than its name alone.
+    private static final Set<String> LABEL_TAGS = Set.of("beanName", "technology", "count");
+
+    private final ApplicationStartup applicationStartup;
+    private final StartupTimer startupTimer;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Terminal terminal;
+
+    public StartupCommands(ApplicationStartup applicationStartup, StartupTimer startupTimer, MeterRegistry meterRegistry,
+                           ObjectMapper objectMapper, Terminal terminal) {
+        this.applicationStartup = applicationStartup;
+        this.startupTimer = startupTimer;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.terminal = terminal;
+    }
+
+    @ShellMethod(key = "startup", value = "Show where the time went while Axon started.")
+    public void startup(@ShellOption(help = "Hide steps shorter than this many milliseconds.", defaultValue = "10") long min,
+                        @ShellOption(help = "Also write every recorded step as JSON to this file (e.g., for CI).", defaultValue = "") String json) {
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            terminal.writer().println(new AttributedString("Startup steps were not recorded in this run.", INFO_STYLE).toAnsi());
+            terminal.writer().flush();
+            return;
+        }
+        Long timeToPrompt = startupTimer.getTimeToPrompt().map(Duration::toMillis).orElse(null);
+        StartupReport report = StartupReport.of(buffering.getBufferedTimeline(), timeToPrompt);
+
+        Map<Long, List<Step>> children = new HashMap<>();
+        Set<Long> ids = report.steps().stream().map(Step::id).collect(Collectors.toSet());
+        List<Step> roots = new ArrayList<>();
+        for (Step step : report.steps()) {
+            if (step.parentId() == null || !ids.contains(step.parentId())) {
+                roots.add(step);
+            } else {
+                children.computeIfAbsent(step.parentId(), id -> new ArrayList<>()).add(step);
+            }
+        }
+        long longest = roots.stream().mapToLong(Step::durationMs).max().orElse(1);
+
+        terminal.writer().println(new AttributedString("\nStartup steps (ms):", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        printSteps(roots, children, 0, Math.max(1, longest), min);
+        terminal.writer().println("─".repeat(40));
+        if (timeToPrompt != null) {
+            terminal.writer().println(new AttributedString("Time to prompt: " + timeToPrompt + " ms since JVM start.", INFO_STYLE).toAnsi());
+        }
+        Timer resume = meterRegistry.find("axon.progress.resume").timer();
+        if (resume != null && resume.count() > 0) {
+            terminal.writer().println(new AttributedString(String.format("Resuming the previous session took %.0f ms in the background.",
+                    resume.max(TimeUnit.MILLISECONDS)), INFO_STYLE).toAnsi());
+        }
+
+        if (!json.isBlank()) {
+            Path file = Path.of(json.replaceFirst("^~", System.getProperty("user.home")));
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+                terminal.writer().println(new AttributedString("Wrote " + report.steps().size() + " steps to " + file + ".", SUCCESS_STYLE).toAnsi());
+            } catch (IOException e) {
+                terminal.writer().println(new AttributedString("Error: Could not write " + file + ". " + e.getMessage(), ERROR_STYLE).toAnsi());
+            }
+        }
+        terminal.writer().flush();
+    }
+
+    /**
+     * Prints the steps as an indented flame graph, slowest first. Steps shorter than the
+     * minimum are folded into one line per level.
+     */
+    private void printSteps(List<Step> steps, Map<Long, List<Step>> children, int depth, long longest, long min) {
+        List<Step> sorted = steps.stream().sorted(Comparator.comparingLong(Step::durationMs).reversed()).toList();
+        long hiddenCount = 0;
+        long hiddenMs = 0;
+        for (Step step : sorted) {
+            if (step.durationMs() < min) {
+                hiddenCount++;
+                hiddenMs += step.durationMs();
+                continue;
+            }
+            int bar = (int) Math.max(1, step.durationMs() * BAR_WIDTH / longest);
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append(String.format("%7d ", step.durationMs()))
+                    .style(BAR_STYLE).append(String.format("%-" + BAR_WIDTH + "s", "█".repeat(Math.min(bar, BAR_WIDTH))))
+                    .style(KEY_STYLE).append(" ").append(truncate("  ".repeat(depth) + label(step)))
+                    .toAnsi());
+            printSteps(children.getOrDefault(step.id(), List.of()), children, depth + 1, longest, min);
+        }
+        if (hiddenMs > 0) {
+            terminal.writer().println(new AttributedString(String.format("%7d %-" + BAR_WIDTH + "s %s", hiddenMs, "",
+                    truncate("  ".repeat(depth) + "… " + hiddenCount + " shorter steps")), INFO_STYLE).toAnsi());
+        }
+    }
+
+    private static String label(Step step) {
+        String tags = step.tags().entrySet().stream()
+                .filter(tag -> LABEL_TAGS.contains(tag.getKey()))
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(", "));
+        return tags.isEmpty() ? step.name() : step.name() + " (" + tags + ")";
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= LABEL_WIDTH ? text : text.substring(0, LABEL_WIDTH - 1) + "…";
+    }
+}
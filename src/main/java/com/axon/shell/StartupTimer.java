@@ -0,0 +1,44 @@
+package com.axon.shell;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Measures the time from JVM start until the first {@code axon >} prompt is rendered.
+ * <p>
+ * Setting {@code app.startup.exit-after-prompt=true} prints the measurement as
+ * {@code time-to-prompt-ms=<n>} and exits, which lets scripts track startup regressions.
+ */
+@Component
+public class StartupTimer {
+
+    private final boolean exitAfterPrompt;
+    private volatile Duration timeToPrompt;
+
+    public StartupTimer(@Value("${app.startup.exit-after-prompt:false}") boolean exitAfterPrompt) {
+        this.exitAfterPrompt = exitAfterPrompt;
+    }
+
+    /**
+     * Records the time-to-prompt the first time it is called; later calls are ignored.
+     */
+    public void markPromptShown() {
+        if (timeToPrompt != null) {
+            return;
+        }
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        this.timeToPrompt = Duration.ofMillis(System.currentTimeMillis() - jvmStart);
+        if (exitAfterPrompt) {
+            System.out.println("time-to-prompt-ms=" + timeToPrompt.toMillis());
+            System.exit(0);
+        }
+    }
+
+    public Optional<Duration> getTimeToPrompt() {
+        return Optional.ofNullable(timeToPrompt);
+    }
+}
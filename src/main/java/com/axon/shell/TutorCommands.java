@@ -1,34 +1,56 @@
 package com.axon.shell;
 
 import com.axon.model.Lesson;
+import com.axon.service.api.ModuleCacheService;
 import com.axon.service.api.PromptService;
+import com.axon.service.api.TrackSummary;
 import com.axon.service.api.TutorialStateService;
+import com.axon.service.impl.JobScheduler;
+import com.axon.service.impl.JobScheduler.Job;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Getter;
+import org.jline.reader.LineReader;
 import org.jline.terminal.Terminal;
 import org.jline.utils.AttributedString;
 import org.jline.utils.AttributedStringBuilder;
 import org.jline.utils.AttributedStyle;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.info.BuildProperties;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.shell.standard.ShellComponent;
 import org.springframework.shell.standard.ShellMethod;
 import org.springframework.shell.standard.ShellOption;
 
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @ShellComponent
 public class TutorCommands {
 
     private final BuildProperties buildProperties;
+    private final StartupTimer startupTimer;
 
     private final TutorialStateService stateService;
+    private final ModuleCacheService moduleCache;
     private final Terminal terminal;
     private final Map<String, PromptService> promptServiceMap;
+    private final MeterRegistry meterRegistry;
+    private final JobScheduler jobScheduler;
+    // Looked up lazily: the line reader is built from the command catalog, which includes this class.
+    private final ObjectProvider<LineReader> lineReader;
 
     // --- UI STYLES ---
     private static final AttributedStyle HEADER_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW).bold();
@@ -41,24 +63,40 @@ public class TutorCommands {
     private static final AttributedStyle COMMAND_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.GREEN);
     private static final AttributedStyle CONCEPT_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.CYAN).italic();
     private static final AttributedStyle OUTPUT_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BLUE);
-    private static final AttributedStyle GIT_BRANCH_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.MAGENTA).bold();
-    private static final AttributedStyle GIT_FILE_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.CYAN);
-    private static final AttributedStyle GIT_COMMIT_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW);
-    private static final AttributedStyle DOCKER_IMAGE_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.BRIGHT | AttributedStyle.CYAN);
-    private static final AttributedStyle DOCKER_CONTAINER_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN);
-    private static final AttributedStyle DOCKER_VOLUME_STYLE = AttributedStyle.DEFAULT.foreground(AttributedStyle.YELLOW);
-
-    private String lastUsedTechnology = null;
+    private static final int RENDER_CACHE_SIZE = 256;
+    private static final int JOB_DESCRIPTION_LENGTH = 48;
+    private static final int SEARCH_LIMIT = 10;
+    private static final String[] SPINNER_FRAMES = {"⠋", "⠙", "⠹", "⠸", "⠼", "⠴", "⠦", "⠧", "⠇", "⠏"};
+
+    private record RenderedLesson(int width, String text) {}
+
+    private final Map<String, OutputColorizer> colorizers;
+    private final OutputColorizer plainColorizer = new OutputColorizer(Map.of(), OUTPUT_STYLE);
+    private final Map<Lesson, RenderedLesson> renderCache = new IdentityHashMap<>();
+    // Also reset by background jobs when they finish.
     @Getter
-    private boolean inPracticeMode = false;
-    private Lesson currentPracticeLesson = null;
+    private volatile boolean inPracticeMode = false;
+    private volatile Lesson currentPracticeLesson = null;
 
-    public TutorCommands(BuildProperties buildProperties, TutorialStateService stateService, Terminal terminal, List<PromptService> promptServices) {
+    public TutorCommands(BuildProperties buildProperties, StartupTimer startupTimer, TutorialStateService stateService, Terminal terminal, List<PromptService> promptServices,
+                        MeterRegistry meterRegistry, ApplicationStartup applicationStartup, JobScheduler jobScheduler, ObjectProvider<LineReader> lineReader,
+                        ModuleCacheService moduleCache) {
         this.buildProperties = buildProperties;
+        this.startupTimer = startupTimer;
         this.stateService = stateService;
+        this.moduleCache = moduleCache;
         this.terminal = terminal;
+        this.meterRegistry = meterRegistry;
+        this.jobScheduler = jobScheduler;
+        this.lineReader = lineReader;
+        StartupStep step = applicationStartup.start("axon.commands.prompt-services")
+                .tag("count", String.valueOf(promptServices.size()));
         this.promptServiceMap = promptServices.stream()
                 .collect(Collectors.toMap(s -> s.getTechnologyName().toLowerCase(), Function.identity()));
+        this.colorizers = promptServices.stream()
+                .collect(Collectors.toMap(s -> s.getTechnologyName().toLowerCase(),
+                        s -> new OutputColorizer(s.getOutputTagStyles(), OUTPUT_STYLE)));
+        step.end();
     }
 
     // --- FINAL, CORRECTED PRACTICE COMMAND ---
@@ -69,203 +107,650 @@ public class TutorCommands {
             // The user MUST provide quotes in the shell for this to work with commands that have spaces.
             @ShellOption(value = "", help = "The full command to practice, enclosed in quotes.") String userInput
     ) {
-        if (!inPracticeMode || currentPracticeLesson == null) {
-            terminal.writer().println(new AttributedString("There is no active practice exercise. Use 'next' to find one.", INFO_STYLE).toAnsi());
-            terminal.writer().flush();
-            return;
-        }
+        timed("practice", () -> {
+            if (!inPracticeMode || currentPracticeLesson == null) {
+                terminal.writer().println(new AttributedString("There is no active practice exercise. Use 'next' to find one.", INFO_STYLE).toAnsi());
+                terminal.writer().flush();
+                return;
+            }
 
-        if (userInput.equals(currentPracticeLesson.practiceCommand())) {
-            terminal.writer().println(new AttributedString("\nCorrect! Well done.", SUCCESS_STYLE).toAnsi());
-            next(); // Automatically advance on success
-        } else {
-            terminal.writer().println(new AttributedString("Not quite. Please try again. Type 'hint' if you're stuck.", ERROR_STYLE).toAnsi());
-            terminal.writer().flush();
-        }
+            if (userInput.equals(currentPracticeLesson.practiceCommand())) {
+                terminal.writer().println(new AttributedString("\nCorrect! Well done.", SUCCESS_STYLE).toAnsi());
+                advance(); // Automatically advance on success
+            } else {
+                terminal.writer().println(new AttributedString("Not quite. Please try again. Type 'hint' if you're stuck.", ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+            }
+        });
     }
 
     // --- ALL OTHER COMMANDS (Unchanged) ---
 
     @ShellMethod(key = "list", value = "List all available technologies and their learning modules.")
     public void list() {
-        terminal.writer().println(new AttributedString("\nAvailable Learning Tracks:", HEADER_STYLE).toAnsi());
-        terminal.writer().println("─".repeat(40));
-        promptServiceMap.values().forEach(service -> {
-            String techName = service.getTechnologyName();
-            terminal.writer().println(new AttributedString("\n" + techName + " Modules:", LABEL_STYLE).toAnsi());
-            service.getAvailableModules().forEach((key, name) -> {
-                String formattedLine = new AttributedStringBuilder()
-                        .append("  - ")
-                        .style(KEY_STYLE).append(String.format("%-12s", key))
-                        .style(AttributedStyle.DEFAULT).append(" | ").append(name)
-                        .toAnsi();
-                terminal.writer().println(formattedLine);
+        timed("list", () -> {
+            terminal.writer().println(new AttributedString("\nAvailable Learning Tracks:", HEADER_STYLE).toAnsi());
+            terminal.writer().println("─".repeat(40));
+            promptServiceMap.values().forEach(service -> {
+                String techName = service.getTechnologyName();
+                terminal.writer().println(new AttributedString("\n" + techName + " Modules:", LABEL_STYLE).toAnsi());
+                service.getAvailableModules().forEach((key, name) -> {
+                    String formattedLine = new AttributedStringBuilder()
+                            .append("  - ")
+                            .style(KEY_STYLE).append(String.format("%-12s", key))
+                            .style(AttributedStyle.DEFAULT).append(" | ").append(name)
+                            .toAnsi();
+                    terminal.writer().println(formattedLine);
+                });
             });
+            terminal.writer().println(new AttributedString("\nType 'start [technology] [module_key]' to begin (e.g., 'start git basics').", INFO_STYLE).toAnsi());
+            terminal.writer().flush();
         });
-        terminal.writer().println(new AttributedString("\nType 'start [technology] [module_key]' to begin (e.g., 'start git basics').", INFO_STYLE).toAnsi());
-        terminal.writer().flush();
     }
 
     @ShellMethod(key = "start", value = "Start a new learning module for a specific technology.")
-    public void start(@ShellOption(help = "The technology to learn (e.g., 'git', 'docker').") String technology, @ShellOption(help = "The key of the module to start (e.g., 'basics').") String moduleKey) {
-        String techKey = technology.toLowerCase();
-        if (!promptServiceMap.containsKey(techKey)) {
-            terminal.writer().println(new AttributedString("Error: Unknown technology '" + technology + "'.", ERROR_STYLE).toAnsi());
-            terminal.writer().flush();
-            return;
+    public void start(@ShellOption(help = "The technology to learn (e.g., 'git', 'docker').") String technology, @ShellOption(help = "The key of the module to start (e.g., 'basics').") String moduleKey,
+                      @ShellOption(help = "Generate the lessons in the background and return to the prompt.", defaultValue = "false") boolean background) {
+        timed("start", () -> {
+            String techKey = technology.toLowerCase();
+            if (!promptServiceMap.containsKey(techKey)) {
+                terminal.writer().println(new AttributedString("Error: Unknown technology '" + technology + "'.", ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+                return;
+            }
+            Optional<Job<Void>> job = submitJob("start", "start " + techKey + " " + moduleKey, true, j -> {
+                stateService.startModule(techKey, moduleKey);
+                return null;
+            });
+            if (job.isEmpty()) {
+                return;
+            }
+            if (background) {
+                announceWhenDone(job.get(), ignored -> {
+                    this.inPracticeMode = false;
+                    this.currentPracticeLesson = null;
+                    return new AttributedString("Your " + techKey + " " + moduleKey + " lessons are ready. Type 'goto 1' to begin.", SUCCESS_STYLE).toAnsi();
+                }, "Fatal Error: ");
+                return;
+            }
+            try {
+                terminal.writer().println(new AttributedString("Please wait, generating your personalized lesson plan from the AI...", INFO_STYLE).toAnsi());
+                awaitJob(job.get(), "Generating lessons", () -> false);
+                this.inPracticeMode = false;
+                this.currentPracticeLesson = null;
+                displayCurrentLesson();
+            } catch (CancellationException e) {
+                printCancelled(job.get());
+            } catch (Exception e) {
+                String errorMessage = "Fatal Error: " + e.getMessage();
+                terminal.writer().println(new AttributedString(errorMessage, ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+            }
+        });
+    }
+
+    @ShellMethod(key = "switch", value = "Switch to another module you have started, continuing where you left off.")
+    public void switchTrack(@ShellOption(help = "The technology (e.g., 'docker'). Omit to list the modules you have started.", defaultValue = "") String technology,
+                            @ShellOption(help = "The module key (e.g., 'volumes'). May be omitted if you started only one module of the technology.", defaultValue = "") String moduleKey) {
+        timed("switch", () -> {
+            if (!awaitResume()) {
+                return;
+            }
+            List<TrackSummary> tracks = stateService.getTracks();
+            if (technology.isBlank()) {
+                printTracks(tracks);
+                return;
+            }
+            String techKey = technology.toLowerCase();
+            String module = moduleKey;
+            if (module.isBlank()) {
+                List<TrackSummary> matching = tracks.stream().filter(track -> track.technology().equals(techKey)).toList();
+                if (matching.size() != 1) {
+                    terminal.writer().println(new AttributedString(matching.isEmpty()
+                            ? "Error: You have not started any " + technology + " module. Use 'start' to begin one."
+                            : "Error: You have started several " + technology + " modules. Say which one, e.g., 'switch " + techKey + " " + matching.getFirst().moduleKey() + "'.",
+                            ERROR_STYLE).toAnsi());
+                    terminal.writer().flush();
+                    return;
+                }
+                module = matching.getFirst().moduleKey();
+            }
+            try {
+                stateService.switchTrack(techKey, module);
+                this.inPracticeMode = false;
+                this.currentPracticeLesson = null;
+                displayCurrentLesson();
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                terminal.writer().println(new AttributedString("Error: " + e.getMessage(), ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+            }
+        });
+    }
+
+    private void printTracks(List<TrackSummary> tracks) {
+        terminal.writer().println(new AttributedString("\nYour Learning Tracks:", HEADER_STYLE).toAnsi());
+        terminal.writer().println("─".repeat(40));
+        if (tracks.isEmpty()) {
+            terminal.writer().println(new AttributedString("You have not started any module yet. Use 'start' to begin.", INFO_STYLE).toAnsi());
         }
-        try {
-            terminal.writer().println(new AttributedString("Please wait, generating your personalized lesson plan from the AI...", INFO_STYLE).toAnsi());
-            stateService.startModule(techKey, moduleKey);
-            this.lastUsedTechnology = techKey;
-            this.inPracticeMode = false;
-            this.currentPracticeLesson = null;
-            displayCurrentLesson();
-        } catch (Exception e) {
-            String errorMessage = "Fatal Error: " + e.getMessage();
-            terminal.writer().println(new AttributedString(errorMessage, ERROR_STYLE).toAnsi());
-            terminal.writer().flush();
+        for (TrackSummary track : tracks) {
+            String position = track.lessonCount() != null
+                    ? "lesson " + track.lessonNumber() + " of " + track.lessonCount()
+                    : "lesson " + track.lessonNumber();
+            terminal.writer().println(new AttributedStringBuilder()
+                    .append(track.active() ? "  * " : "  - ")
+                    .style(KEY_STYLE).append(String.format("%-24s", track.technology() + " " + track.moduleKey()))
+                    .style(AttributedStyle.DEFAULT).append(" | ").append(position)
+                    .append(track.active() ? " (active)" : "")
+                    .toAnsi());
         }
+        terminal.writer().println(new AttributedString("\nType 'switch [technology] [module_key]' to continue a track (e.g., 'switch git basics').", INFO_STYLE).toAnsi());
+        terminal.writer().flush();
     }
 
     @ShellMethod(key = "next", value = "Proceed to the next lesson in the current module.")
     public void next() {
+        timed("next", this::advance);
+    }
+
+    private void advance() {
+        if (!awaitResume()) {
+            return;
+        }
         this.inPracticeMode = false;
         this.currentPracticeLesson = null;
+        int nextLessonNumber = stateService.getCurrentLessonNumber() + 1;
+        if (!spinWhile(() -> stateService.isLessonPending(nextLessonNumber), "Lesson " + nextLessonNumber + " is still being generated...")) {
+            return;
+        }
         stateService.getNextLesson();
         displayCurrentLesson();
     }
 
     @ShellMethod(key = "prev", value = "Return to the previous lesson.")
     public void prev() {
-        this.inPracticeMode = false;
-        this.currentPracticeLesson = null;
-        Optional<Lesson> lessonOpt = stateService.getPreviousLesson();
-        if (lessonOpt.isPresent()) {
-            displayCurrentLesson();
-        } else {
-            terminal.writer().println(new AttributedString("You are already on the first lesson.", INFO_STYLE).toAnsi());
-            terminal.writer().flush();
-        }
+        timed("prev", () -> {
+            if (!awaitResume()) {
+                return;
+            }
+            this.inPracticeMode = false;
+            this.currentPracticeLesson = null;
+            Optional<Lesson> lessonOpt = stateService.getPreviousLesson();
+            if (lessonOpt.isPresent()) {
+                displayCurrentLesson();
+            } else {
+                terminal.writer().println(new AttributedString("You are already on the first lesson.", INFO_STYLE).toAnsi());
+                terminal.writer().flush();
+            }
+        });
     }
 
     @ShellMethod(key = "toc", value = "Show the table of contents for the current module.")
     public void toc() {
-        List<Lesson> lessons = stateService.getCurrentModuleLessons();
-        if (lessons.isEmpty()) {
-            terminal.writer().println(new AttributedString("No active module. Use 'start' to begin.", INFO_STYLE).toAnsi());
+        timed("toc", () -> {
+            if (!awaitResume()) {
+                return;
+            }
+            List<Lesson> lessons = stateService.getCurrentModuleLessons();
+            if (lessons.isEmpty()) {
+                terminal.writer().println(new AttributedString("No active module. Use 'start' to begin.", INFO_STYLE).toAnsi());
+                terminal.writer().flush();
+                return;
+            }
+            terminal.writer().println(new AttributedString("\nTable of Contents:", HEADER_STYLE).toAnsi());
+            terminal.writer().println("─".repeat(40));
+            for (int i = 0; i < lessons.size(); i++) {
+                Lesson lesson = lessons.get(i);
+                terminal.writer().println(String.format("[%d] %s", i + 1, lesson.title()));
+            }
+            if (stateService.isGeneratingLessons()) {
+                terminal.writer().println(new AttributedString(String.format("[%d...] More lessons are still being generated.", lessons.size() + 1), INFO_STYLE).toAnsi());
+            }
+            terminal.writer().println("─".repeat(40));
             terminal.writer().flush();
-            return;
-        }
-        terminal.writer().println(new AttributedString("\nTable of Contents:", HEADER_STYLE).toAnsi());
-        terminal.writer().println("─".repeat(40));
-        for (int i = 0; i < lessons.size(); i++) {
-            Lesson lesson = lessons.get(i);
-            terminal.writer().println(String.format("[%d] %s", i + 1, lesson.title()));
-        }
-        terminal.writer().println("─".repeat(40));
-        terminal.writer().flush();
+        });
     }
 
     @ShellMethod(key = "goto", value = "Jump to a specific lesson number.")
     public void goTo(@ShellOption(help = "The lesson number from the 'toc'.") int lessonNumber) {
+        timed("goto", () -> {
+            if (!awaitResume()) {
+                return;
+            }
+            this.inPracticeMode = false;
+            this.currentPracticeLesson = null;
+            if (!spinWhile(() -> stateService.isLessonPending(lessonNumber), "Lesson " + lessonNumber + " is still being generated...")) {
+                return;
+            }
+            Optional<Lesson> lessonOpt = stateService.goToLesson(lessonNumber);
+            if (lessonOpt.isEmpty()) {
+                terminal.writer().println(new AttributedString("Error: Invalid lesson number. Use 'toc' to see the list.", ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+            } else {
+                displayCurrentLesson();
+            }
+        });
+    }
+
+    @ShellMethod(key = "search", value = "Search the lessons of every module you have generated.")
+    public void search(@ShellOption(arity = Integer.MAX_VALUE, help = "The words, commands or options to look for. Quote options, e.g., 'rebase -i'.") String[] terms,
+                       @ShellOption(help = "Open this hit from the list (e.g., 1 for the best match).", defaultValue = "0") int go) {
+        timed("search", () -> {
+            if (terms == null || terms.length == 0) {
+                terminal.writer().println(new AttributedString("Please provide what to search for, e.g., 'search rebase'.", ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+                return;
+            }
+            String query = String.join(" ", terms);
+            long started = System.nanoTime();
+            List<ModuleCacheService.SearchHit> hits = moduleCache.search(query, SEARCH_LIMIT);
+            double elapsedMs = (System.nanoTime() - started) / 1e6;
+            if (go > 0) {
+                openHit(hits, go);
+                return;
+            }
+            terminal.writer().println(new AttributedString(String.format("\nLessons matching '%s' (%.2f ms):", query, elapsedMs), HEADER_STYLE).toAnsi());
+            terminal.writer().println("─".repeat(40));
+            if (hits.isEmpty()) {
+                terminal.writer().println(new AttributedString("No lesson matches. Only modules in the cache are searched; see 'cache'.", INFO_STYLE).toAnsi());
+            }
+            for (int i = 0; i < hits.size(); i++) {
+                ModuleCacheService.SearchHit hit = hits.get(i);
+                terminal.writer().println(new AttributedStringBuilder()
+                        .append(String.format("[%d] ", i + 1))
+                        .style(KEY_STYLE).append(String.format("%-20s", hit.technology() + " " + hit.moduleKey()))
+                        .style(AttributedStyle.DEFAULT).append(String.format(" | %3d | ", hit.lessonNumber())).append(hit.title())
+                        .toAnsi());
+            }
+            terminal.writer().println("─".repeat(40));
+            if (!hits.isEmpty()) {
+                terminal.writer().println(new AttributedString("Type \"search '" + query + "' --go 1\" to open the best match.", INFO_STYLE).toAnsi());
+            }
+            terminal.writer().flush();
+        });
+    }
+
+    private void openHit(List<ModuleCacheService.SearchHit> hits, int number) {
+        if (number > hits.size()) {
+            terminal.writer().println(new AttributedString("Error: There is no hit " + number + ". Search without '--go' to see the list.", ERROR_STYLE).toAnsi());
+            terminal.writer().flush();
+            return;
+        }
+        if (!awaitResume()) {
+            return;
+        }
+        ModuleCacheService.SearchHit hit = hits.get(number - 1);
         this.inPracticeMode = false;
         this.currentPracticeLesson = null;
-        Optional<Lesson> lessonOpt = stateService.goToLesson(lessonNumber);
-        if (lessonOpt.isEmpty()) {
-            terminal.writer().println(new AttributedString("Error: Invalid lesson number. Use 'toc' to see the list.", ERROR_STYLE).toAnsi());
-            terminal.writer().flush();
-        } else {
+        try {
+            if (stateService.openLesson(hit.technology(), hit.moduleKey(), hit.lessonNumber()).isEmpty()) {
+                terminal.writer().println(new AttributedString("Error: Lesson " + hit.lessonNumber() + " of " + hit.technology() + " "
+                        + hit.moduleKey() + " is no longer available.", ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+                return;
+            }
             displayCurrentLesson();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            terminal.writer().println(new AttributedString("Error: " + e.getMessage(), ERROR_STYLE).toAnsi());
+            terminal.writer().flush();
         }
     }
 
     @ShellMethod(key = "skip", value = "Skip the current practice exercise and move to the next lesson.")
     public void skip() {
-        if (inPracticeMode) {
-            terminal.writer().println(new AttributedString("Skipping exercise...", INFO_STYLE).toAnsi());
-        }
-        next();
+        timed("skip", () -> {
+            if (inPracticeMode) {
+                terminal.writer().println(new AttributedString("Skipping exercise...", INFO_STYLE).toAnsi());
+            }
+            advance();
+        });
     }
 
     @ShellMethod(key = "hint", value = "Get a hint for the current practice exercise.")
     public void hint() {
-        if (!inPracticeMode || currentPracticeLesson == null) {
-            terminal.writer().println(new AttributedString("There is no active practice exercise.", INFO_STYLE).toAnsi());
+        timed("hint", () -> {
+            if (!inPracticeMode || currentPracticeLesson == null) {
+                terminal.writer().println(new AttributedString("There is no active practice exercise.", INFO_STYLE).toAnsi());
+                terminal.writer().flush();
+                return;
+            }
+            String hintText = currentPracticeLesson.hint();
+            if (hintText == null || hintText.isBlank()) {
+                terminal.writer().println(new AttributedString("Sorry, no hint is available for this lesson.", INFO_STYLE).toAnsi());
+            } else {
+                terminal.writer().println(new AttributedString("Hint: " + hintText, INFO_STYLE).toAnsi());
+            }
             terminal.writer().flush();
-            return;
-        }
-        String hintText = currentPracticeLesson.hint();
-        if (hintText == null || hintText.isBlank()) {
-            terminal.writer().println(new AttributedString("Sorry, no hint is available for this lesson.", INFO_STYLE).toAnsi());
-        } else {
-            terminal.writer().println(new AttributedString("Hint: " + hintText, INFO_STYLE).toAnsi());
-        }
-        terminal.writer().flush();
+        });
     }
 
     @ShellMethod(key = "more", value = "Generate more lessons for the current topic after completing a module.")
-    public void more() {
-        if (!stateService.isModuleComplete()) {
-            terminal.writer().println(new AttributedString("You must finish the current set of lessons before requesting more.", ERROR_STYLE).toAnsi());
-            return;
+    public void more(@ShellOption(help = "Generate the lessons in the background and return to the prompt.", defaultValue = "false") boolean background) {
+        timed("more", () -> {
+            if (!awaitResume()) {
+                return;
+            }
+            if (!stateService.isModuleComplete()) {
+                terminal.writer().println(new AttributedString("You must finish the current set of lessons before requesting more.", ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+                return;
+            }
+            String description = "more " + stateService.getCurrentTechnology().orElse("");
+            Optional<Job<Void>> job = submitJob("more", description.strip(), true, j -> {
+                stateService.appendMoreLessons();
+                return null;
+            });
+            if (job.isEmpty()) {
+                return;
+            }
+            if (background) {
+                announceWhenDone(job.get(), ignored -> new AttributedString("New lessons have been added! Type 'next' to continue.", SUCCESS_STYLE).toAnsi(),
+                        "Error: Could not generate more lessons. ");
+                return;
+            }
+            try {
+                terminal.writer().println(new AttributedString("Generating more advanced lessons... this may take a moment.", INFO_STYLE).toAnsi());
+                awaitJob(job.get(), "Generating lessons", () -> false);
+                terminal.writer().println(new AttributedString("\nNew lessons have been added! Type 'next' to continue.", SUCCESS_STYLE).toAnsi());
+            } catch (CancellationException e) {
+                printCancelled(job.get());
+            } catch (Exception e) {
+                terminal.writer().println(new AttributedString("Error: Could not generate more lessons. " + e.getMessage(), ERROR_STYLE).toAnsi());
+            }
+            terminal.writer().flush();
+        });
+    }
+
+    @ShellMethod(key = "ask", value = "Ask the AI for help about the current technology.")
+    public void ask(@ShellOption(arity = Integer.MAX_VALUE, help = "Your question.") String[] questionParts,
+                    @ShellOption(help = "Ask the AI again instead of reusing a cached answer.", defaultValue = "false") boolean fresh,
+                    @ShellOption(help = "Get the answer in the background; it is printed when it is complete.", defaultValue = "false") boolean background) {
+        timed("ask", () -> {
+            if (questionParts == null || questionParts.length == 0) {
+                terminal.writer().println(new AttributedString("Please provide a question after the 'ask' command.", ERROR_STYLE).toAnsi());
+                terminal.writer().flush();
+                return;
+            }
+            String question = String.join(" ", questionParts);
+            streamJob("ask", "ask " + question, "AI TUTOR'S RESPONSE:", background,
+                    "\nFatal Error: Could not get an answer from the AI. ",
+                    onDelta -> stateService.answerQuestion(question, fresh, onDelta),
+                    () -> {
+                        terminal.writer().println(new AttributedString("Asking the AI tutor for help...", INFO_STYLE).toAnsi());
+                        terminal.writer().flush();
+                    });
+        });
+    }
+
+    @ShellMethod(key = "status", value = "Check your current tutorial progress.")
+    public void status() {
+        timed("status", () -> {
+            terminal.writer().println(new AttributedString(stateService.getStatus(), LABEL_STYLE).toAnsi());
+            terminal.writer().flush();
+        });
+    }
+
+    @ShellMethod(key = "summary", value = "Generate an AI summary of the completed module.")
+    public void summary(@ShellOption(help = "Generate the summary in the background; it is printed when it is complete.", defaultValue = "false") boolean background) {
+        timed("summary", () -> {
+            if (!awaitResume()) {
+                return;
+            }
+            String description = "summary " + stateService.getCurrentTechnology().orElse("");
+            streamJob("summary", description.strip(), "AI-POWERED MODULE SUMMARY:", background, "Error: ",
+                    stateService::generateSummary,
+                    () -> {
+                        if (stateService.isModuleComplete()) {
+                            terminal.writer().println(new AttributedString("Generating AI summary of the module... please wait.", INFO_STYLE).toAnsi());
+                            terminal.writer().flush();
+                        }
+                    });
+        });
+    }
+
+    // --- DISPLAY LOGIC & HELPERS ---
+
+    /**
+     * Runs a command body and records how long it took, by command name.
+     */
+    private void timed(String command, Runnable body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            body.run();
+        } finally {
+            sample.stop(meterRegistry.timer("axon.command", "command", command));
         }
+    }
+
+    /**
+     * Starts AI work as a job, or prints why it cannot start yet.
+     */
+    private <T> Optional<Job<T>> submitJob(String name, String description, boolean exclusive, Function<Job<T>, T> work) {
+        String shortDescription = description.length() <= JOB_DESCRIPTION_LENGTH
+                ? description : description.substring(0, JOB_DESCRIPTION_LENGTH - 1) + "…";
         try {
-            terminal.writer().println(new AttributedString("Generating more advanced lessons... this may take a moment.", INFO_STYLE).toAnsi());
-            stateService.appendMoreLessons();
-            terminal.writer().println(new AttributedString("\nNew lessons have been added! Type 'next' to continue.", SUCCESS_STYLE).toAnsi());
-        } catch (Exception e) {
-            terminal.writer().println(new AttributedString("Error: Could not generate more lessons. " + e.getMessage(), ERROR_STYLE).toAnsi());
+            return Optional.of(jobScheduler.submit(name, shortDescription, exclusive, work));
+        } catch (IllegalStateException e) {
+            terminal.writer().println(new AttributedString("Error: " + e.getMessage(), ERROR_STYLE).toAnsi());
+            terminal.writer().flush();
+            return Optional.empty();
         }
+    }
+
+    /**
+     * Waits for a job in the foreground, showing a spinner with its progress unless {@code quiet}
+     * says its output is already on screen. Ctrl-C interrupts the shell thread, which cancels the job.
+     *
+     * @return The result of the job.
+     * @throws CancellationException if the job was cancelled.
+     */
+    private <T> T awaitJob(Job<T> job, String message, BooleanSupplier quiet) {
+        int frame = 0;
+        try {
+            while (true) {
+                synchronized (terminal) {
+                    if (!quiet.getAsBoolean()) {
+                        String progress = job.progress().isEmpty() ? "" : ", " + job.progress();
+                        terminal.writer().print("\r" + new AttributedString(String.format("%s %s... %ds%s (Ctrl-C to cancel)",
+                                SPINNER_FRAMES[frame++ % SPINNER_FRAMES.length], message, job.elapsed().toSeconds(), progress), INFO_STYLE).toAnsi());
+                        terminal.writer().flush();
+                    }
+                }
+                try {
+                    return job.result().get(100, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // Still running: draw the next frame.
+                }
+            }
+        } catch (InterruptedException e) {
+            job.cancel();
+            throw new CancellationException("The job was cancelled.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            synchronized (terminal) {
+                if (frame > 0 && !quiet.getAsBoolean()) {
+                    clearLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Leaves a job running in the background and prints its outcome above the prompt once it
+     * finishes. Jobs stopped with 'cancel' finish silently; the command has already said so.
+     */
+    private <T> void announceWhenDone(Job<T> job, Function<T, String> onSuccess, String errorPrefix) {
+        terminal.writer().println(new AttributedString("Started job " + job.id() + " (" + job.description()
+                + "). Type 'jobs' to follow it or 'cancel " + job.id() + "' to stop it.", INFO_STYLE).toAnsi());
         terminal.writer().flush();
+        job.result().whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                return;
+            }
+            String outcome = error == null
+                    ? new AttributedString("Job " + job.id() + " (" + job.description() + ") finished.", INFO_STYLE).toAnsi()
+                            + System.lineSeparator() + onSuccess.apply(value)
+                    : new AttributedString(errorPrefix + error.getMessage(), ERROR_STYLE).toAnsi();
+            printAbove(outcome);
+        });
     }
 
-    @ShellMethod(key = "ask", value = "Ask the AI for help about the current technology.")
-    public void ask(@ShellOption(arity = Integer.MAX_VALUE, help = "Your question.") String[] questionParts) {
-        if (questionParts == null || questionParts.length == 0) {
-            terminal.writer().println(new AttributedString("Please provide a question after the 'ask' command.", ERROR_STYLE).toAnsi());
-            terminal.writer().flush();
+    /**
+     * Runs a streamed AI response as a job. In the foreground the response is printed as it
+     * arrives; in the background it is collected and printed whole when it is complete.
+     */
+    private void streamJob(String name, String description, String title, boolean background, String errorPrefix,
+                           Function<Consumer<String>, String> request, Runnable beforeForeground) {
+        if (background) {
+            Optional<Job<String>> job = submitJob(name, description, false, j -> {
+                StringBuilder received = new StringBuilder();
+                return request.apply(delta -> {
+                    received.append(delta);
+                    j.reportProgress(received.length() + " chars");
+                });
+            });
+            job.ifPresent(j -> announceWhenDone(j, text -> formatResponse(title, text), errorPrefix));
+            return;
+        }
+        beforeForeground.run();
+        StreamingResponsePrinter printer = new StreamingResponsePrinter(title);
+        Optional<Job<String>> job = submitJob(name, description, false, j -> request.apply(printer));
+        if (job.isEmpty()) {
             return;
         }
         try {
-            String question = String.join(" ", questionParts);
-            terminal.writer().println(new AttributedString("Asking the AI tutor for help...", INFO_STYLE).toAnsi());
-            String answer = stateService.answerQuestion(question);
-            String separator = "─".repeat(terminal.getWidth());
-            terminal.writer().println("\n" + separator);
-            terminal.writer().println(new AttributedString("AI TUTOR'S RESPONSE:", HEADER_STYLE).toAnsi());
-            terminal.writer().println(separator + "\n");
-            terminal.writer().println(new AttributedString(answer, CONCEPT_STYLE).toAnsi());
-            terminal.writer().println("\n" + separator);
+            printer.finish(awaitJob(job.get(), "Waiting for the AI", printer::isStarted));
+        } catch (CancellationException e) {
+            printCancelled(job.get());
         } catch (Exception e) {
-            terminal.writer().println(new AttributedString("Fatal Error: Could not get an answer from the AI. " + e.getMessage(), ERROR_STYLE).toAnsi());
+            terminal.writer().println(new AttributedString(errorPrefix + e.getMessage(), ERROR_STYLE).toAnsi());
         }
         terminal.writer().flush();
     }
 
-    @ShellMethod(key = "status", value = "Check your current tutorial progress.")
-    public void status() {
-        terminal.writer().println(new AttributedString(stateService.getStatus(), LABEL_STYLE).toAnsi());
+    private void printCancelled(Job<?> job) {
+        terminal.writer().println(new AttributedString("\nCancelled job " + job.id() + " (" + job.description() + ").", INFO_STYLE).toAnsi());
         terminal.writer().flush();
     }
 
-    @ShellMethod(key = "summary", value = "Generate an AI summary of the completed module.")
-    public void summary() {
-        try {
-            String summaryText = stateService.generateSummary();
-            String separator = "─".repeat(terminal.getWidth());
-            terminal.writer().println("\n" + separator);
-            terminal.writer().println(new AttributedString("AI-POWERED MODULE SUMMARY:", HEADER_STYLE).toAnsi());
-            terminal.writer().println(separator + "\n");
-            terminal.writer().println(new AttributedString(summaryText, CONCEPT_STYLE).toAnsi());
-            terminal.writer().println("\n" + separator);
-        } catch (Exception e) {
-            terminal.writer().println(new AttributedString("Error: " + e.getMessage(), ERROR_STYLE).toAnsi());
+    /**
+     * Prints text while the user may be typing at the prompt, redrawing the prompt below it.
+     */
+    private void printAbove(String text) {
+        LineReader reader = lineReader.getIfAvailable();
+        if (reader != null) {
+            reader.printAbove(text);
+        } else {
+            synchronized (terminal) {
+                terminal.writer().println(text);
+                terminal.writer().flush();
+            }
         }
+    }
+
+    private void clearLine() {
+        terminal.writer().print("\r" + " ".repeat(Math.max(0, terminal.getWidth() - 1)) + "\r");
         terminal.writer().flush();
     }
 
-    // --- DISPLAY LOGIC & HELPERS ---
+    private String formatResponse(String title, String text) {
+        String separator = "─".repeat(terminal.getWidth());
+        return new AttributedStringBuilder()
+                .append(separator).append("\n")
+                .style(HEADER_STYLE).append(title).style(AttributedStyle.DEFAULT).append("\n")
+                .append(separator).append("\n\n")
+                .style(CONCEPT_STYLE).append(text).style(AttributedStyle.DEFAULT).append("\n\n")
+                .append(separator)
+                .toAnsi();
+    }
+
+    /**
+     * Writes an AI response to the terminal chunk by chunk as it streams in.
+     * The header is printed lazily with the first chunk, so validation errors
+     * raised before streaming starts are not preceded by an empty frame.
+     * Chunks arrive on the job's thread while the shell thread draws the spinner,
+     * so both write under the terminal's lock.
+     */
+    private class StreamingResponsePrinter implements Consumer<String> {
+        private final String title;
+        private final String separator = "─".repeat(terminal.getWidth());
+        private volatile boolean started = false;
+
+        StreamingResponsePrinter(String title) {
+            this.title = title;
+        }
+
+        @Override
+        public void accept(String delta) {
+            synchronized (terminal) {
+                if (!started) {
+                    started = true;
+                    clearLine();
+                    terminal.writer().println("\n" + separator);
+                    terminal.writer().println(new AttributedString(title, HEADER_STYLE).toAnsi());
+                    terminal.writer().println(separator + "\n");
+                }
+                terminal.writer().print(new AttributedString(delta, CONCEPT_STYLE).toAnsi());
+                terminal.writer().flush();
+            }
+        }
+
+        boolean isStarted() {
+            return started;
+        }
+
+        void finish(String fullText) {
+            if (!started) {
+                accept(fullText);
+            }
+            terminal.writer().println("\n\n" + separator);
+        }
+    }
+
+    /**
+     * Waits for the background resume of the previous session, showing a spinner while it runs.
+     *
+     * @return true if the caller can proceed, false if the resume failed (the error has been printed).
+     */
+    private boolean awaitResume() {
+        CompletableFuture<Void> resume = stateService.getPendingResume();
+        if (!spinWhile(() -> !resume.isDone(), "Resuming your previous session...")) {
+            return false;
+        }
+        if (resume.isCompletedExceptionally() && stateService.getCurrentModuleLessons().isEmpty()) {
+            terminal.writer().println(new AttributedString(stateService.getStatus(), ERROR_STYLE).toAnsi());
+            terminal.writer().flush();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Shows a spinner with the given message until the condition becomes false.
+     *
+     * @return false if the wait was interrupted.
+     */
+    private boolean spinWhile(BooleanSupplier condition, String message) {
+        int frame = 0;
+        while (condition.getAsBoolean()) {
+            terminal.writer().print("\r" + new AttributedString(SPINNER_FRAMES[frame++ % SPINNER_FRAMES.length] + " " + message, INFO_STYLE).toAnsi());
+            terminal.writer().flush();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (frame > 0) {
+            clearLine();
+        }
+        return true;
+    }
 
     private void displayCurrentLesson() {
         Optional<Lesson> lessonOpt = stateService.getCurrentLesson();
@@ -279,36 +764,35 @@ public class TutorCommands {
             terminal.writer().println(completionMessage);
         } else {
             Lesson lesson = lessonOpt.get();
-            String formattedLesson = formatLessonForDisplay(lesson);
-            terminal.writer().println(formattedLesson);
-
-            if (lesson.practiceCommand() != null && !lesson.practiceCommand().isBlank()) {
-                this.inPracticeMode = true;
-                this.currentPracticeLesson = lesson;
+            boolean hasPracticeCommand = lesson.practiceCommand() != null && !lesson.practiceCommand().isBlank();
+            this.inPracticeMode = hasPracticeCommand;
+            this.currentPracticeLesson = hasPracticeCommand ? lesson : null;
+            terminal.writer().println(renderLesson(lesson, stateService.getCurrentTechnology().orElse(null)));
+        }
+        terminal.writer().flush();
+    }
 
-                // --- CORRECTED PROMPT: Shows the user how to use single quotes ---
-                String practiceExample = "p '" + lesson.practiceCommand() + "'";
-                terminal.writer().println(new AttributedStringBuilder()
-                        .append("\n▶️ ", AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
-                        .append("PRACTICE: Use the 'p' command with quotes. E.g., ", INFO_STYLE)
-                        .style(COMMAND_STYLE)
-                        .append(practiceExample)
-                        .toAnsi()
-                );
-            } else {
-                this.inPracticeMode = false;
-                this.currentPracticeLesson = null;
-                terminal.writer().println(new AttributedStringBuilder()
-                        .append("\n", INFO_STYLE)
-                        .append("Type 'next' to continue or 'ask [question]' for help.")
-                        .toAnsi()
-                );
+    /**
+     * Returns a lesson exactly as {@link #displayCurrentLesson()} prints it. The text is rendered
+     * the first time a lesson is shown at the current terminal width and reused afterwards, so
+     * paging back and forth with 'prev', 'next' and 'goto' only costs the terminal write.
+     * Lessons are cached by identity: a regenerated module never sees stale output.
+     */
+    String renderLesson(Lesson lesson, String technology) {
+        int width = terminal.getWidth();
+        RenderedLesson rendered = renderCache.get(lesson);
+        if (rendered == null || rendered.width() != width) {
+            if (renderCache.size() >= RENDER_CACHE_SIZE) {
+                renderCache.clear();
             }
+            rendered = new RenderedLesson(width, formatLessonForDisplay(lesson, technology)
+                    + System.lineSeparator() + formatLessonFooter(lesson));
+            renderCache.put(lesson, rendered);
         }
-        terminal.writer().flush();
+        return rendered.text();
     }
 
-    private String formatLessonForDisplay(Lesson lesson) {
+    String formatLessonForDisplay(Lesson lesson, String technology) {
         String separator = "─".repeat(terminal.getWidth());
         AttributedStringBuilder builder = new AttributedStringBuilder()
                 .append("\n").style(HEADER_STYLE).append(separator).append("\n")
@@ -319,84 +803,42 @@ public class TutorCommands {
             builder.style(LABEL_STYLE).append("[COMMAND]:\n").style(COMMAND_STYLE).append("  ").append(lesson.command()).append("\n\n");
         }
         if (lesson.example_output() != null && !lesson.example_output().isBlank()) {
-            AttributedString colorizedOutput = parseAndColorize(lesson.example_output());
+            AttributedString colorizedOutput = colorizerFor(technology).colorize(lesson.example_output());
             builder.style(LABEL_STYLE).append("[EXAMPLE OUTPUT]:\n").append(colorizedOutput).append("\n");
         }
         builder.style(HEADER_STYLE).append(separator);
         return builder.toAnsi();
     }
 
-    private AttributedString parseAndColorize(String text) {
-        if (lastUsedTechnology == null) {
-            lastUsedTechnology = stateService.getStatus().contains("Docker") ? "docker" : "git";
-        }
-        Pattern pattern;
-        switch (lastUsedTechnology) {
-            case "git" -> pattern = Pattern.compile("<(branch|file|commit)>(.*?)</\\1>");
-            case "docker" -> pattern = Pattern.compile("<(image|container|volume)>(.*?)</\\1>");
-            case "linux" -> pattern = Pattern.compile("<(path|user|pid)>(.*?)</\\1>");
-            case "kubernetes" -> pattern = Pattern.compile("<(resource|type|namespace)>(.*?)</\\1>");
-            default -> {
-                return new AttributedString(text, OUTPUT_STYLE);
-            }
-        }
-
-        AttributedStringBuilder builder = new AttributedStringBuilder();
-        Matcher matcher = pattern.matcher(text);
-        int lastEnd = 0;
-        while (matcher.find()) {
-            builder.style(OUTPUT_STYLE).append(text.substring(lastEnd, matcher.start()));
-            String tagType = matcher.group(1);
-            String content = matcher.group(2);
-            addTechnologySpecificColoring(builder, tagType, content);
-            lastEnd = matcher.end();
-        }
-        if (lastEnd < text.length()) {
-            builder.style(OUTPUT_STYLE).append(text.substring(lastEnd));
+    private String formatLessonFooter(Lesson lesson) {
+        if (lesson.practiceCommand() != null && !lesson.practiceCommand().isBlank()) {
+            // --- CORRECTED PROMPT: Shows the user how to use single quotes ---
+            String practiceExample = "p '" + lesson.practiceCommand() + "'";
+            return new AttributedStringBuilder()
+                    .append("\n▶️ ", AttributedStyle.DEFAULT.foreground(AttributedStyle.GREEN))
+                    .append("PRACTICE: Use the 'p' command with quotes. E.g., ", INFO_STYLE)
+                    .style(COMMAND_STYLE)
+                    .append(practiceExample)
+                    .toAnsi();
         }
-        return builder.toAttributedString();
+        return new AttributedStringBuilder()
+                .append("\n", INFO_STYLE)
+                .append("Type 'next' to continue or 'ask [question]' for help.")
+                .toAnsi();
     }
 
-    private void addTechnologySpecificColoring(AttributedStringBuilder builder, String tagType, String content) {
-        switch (lastUsedTechnology) {
-            case "git" -> {
-                switch (tagType) {
-                    case "branch" -> builder.style(GIT_BRANCH_STYLE).append(content);
-                    case "file" -> builder.style(GIT_FILE_STYLE).append(content);
-                    case "commit" -> builder.style(GIT_COMMIT_STYLE).append(content);
-                    default -> builder.style(OUTPUT_STYLE).append(content);
-                }
-            }
-            case "docker" -> {
-                switch (tagType) {
-                    case "image" -> builder.style(DOCKER_IMAGE_STYLE).append(content);
-                    case "container" -> builder.style(DOCKER_CONTAINER_STYLE).append(content);
-                    case "volume" -> builder.style(DOCKER_VOLUME_STYLE).append(content);
-                    default -> builder.style(OUTPUT_STYLE).append(content);
-                }
-            }
-            case "linux" -> {
-                switch (tagType) {
-                    case "path" -> builder.style(GIT_FILE_STYLE).append(content);
-                    case "user" -> builder.style(DOCKER_CONTAINER_STYLE).append(content);
-                    case "pid" -> builder.style(GIT_COMMIT_STYLE).append(content);
-                    default -> builder.style(OUTPUT_STYLE).append(content);
-                }
-            }
-            case "kubernetes" -> {
-                switch (tagType) {
-                    case "resource" -> builder.style(DOCKER_CONTAINER_STYLE).append(content);
-                    case "type" -> builder.style(KEY_STYLE).append(content);
-                    case "namespace" -> builder.style(GIT_BRANCH_STYLE).append(content);
-                    default -> builder.style(OUTPUT_STYLE).append(content);
-                }
-            }
-        }
+    private OutputColorizer colorizerFor(String technology) {
+        OutputColorizer colorizer = technology != null ? colorizers.get(technology) : null;
+        return colorizer != null ? colorizer : plainColorizer;
     }
 
     @ShellMethod(key = "version", value = "Display the application version.")
     public void version() {
-        terminal.writer().println("axon-cli version " + buildProperties.getVersion()); // <-- CHANGE THIS LINE
-        terminal.writer().flush();
+        timed("version", () -> {
+            terminal.writer().println("axon-cli version " + buildProperties.getVersion()); // <-- CHANGE THIS LINE
+            startupTimer.getTimeToPrompt().ifPresent(timeToPrompt ->
+                    terminal.writer().println("time-to-prompt: " + timeToPrompt.toMillis() + " ms"));
+            terminal.writer().flush();
+        });
     }
 }
\ No newline at end of file
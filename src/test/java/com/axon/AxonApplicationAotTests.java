@@ -0,0 +1,39 @@
+package com.axon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.SpringApplicationAotProcessor;
+import org.springframework.context.aot.AbstractAotProcessor.Settings;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Spring AOT processing that the 'aot' profile, and with it the Docker image, relies on,
+ * so that a bean it cannot handle fails here rather than in the image build.
+ */
+class AxonApplicationAotTests {
+
+	@TempDir
+	Path output;
+
+	@Test
+	void generatesTheBeanDefinitionsAheadOfTime() {
+		Settings settings = Settings.builder()
+				.sourceOutput(output.resolve("sources"))
+				.resourceOutput(output.resolve("resources"))
+				.classOutput(output.resolve("classes"))
+				.groupId("com.axon")
+				.artifactId("axon-cli")
+				.build();
+
+		new SpringApplicationAotProcessor(AxonApplication.class, settings,
+				new String[]{"--app.fireworks.api-key=test", "--spring.shell.interactive.enabled=false"}).process();
+
+		assertThat(output.resolve("sources/com/axon/AxonApplication__ApplicationContextInitializer.java")).exists();
+		assertThat(output.resolve("resources/META-INF/native-image/com.axon/axon-cli/reflect-config.json"))
+				.content().contains("com.axon.model.LearningModule");
+	}
+
+}
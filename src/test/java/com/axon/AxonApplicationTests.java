@@ -3,7 +3,12 @@ package com.axon;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Without a shell reading stdin and with a placeholder key, the context loads without the network or a terminal.
+@SpringBootTest(properties = {
+		"spring.shell.interactive.enabled=false",
+		"app.fireworks.api-key=test",
+		"app.ai.http.warm-up=false"
+})
 class AxonApplicationTests {
 
 	@Test
@@ -0,0 +1,46 @@
+package com.axon;
+
+import com.axon.metrics.MeterSummary;
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.impl.AnswerCacheServiceImpl;
+import com.axon.service.impl.TokenBudget;
+import com.axon.service.impl.TutorialStateServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AxonRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    AxonRuntimeHintsTest() {
+        new AxonRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void letsJacksonBindTheRecordsItReadsAndWrites() throws NoSuchMethodException {
+        for (Class<?> type : List.of(LearningModule.class, Lesson.class, TutorialStateServiceImpl.SavedProgress.class,
+                AnswerCacheServiceImpl.CachedAnswer.class, TokenBudget.History.class, MeterSummary.class)) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(type)).as(type.getSimpleName()).accepts(hints);
+            Class<?>[] components = Arrays.stream(type.getRecordComponents())
+                    .map(RecordComponent::getType).toArray(Class<?>[]::new);
+            assertThat(RuntimeHintsPredicates.reflection().onConstructor(type.getDeclaredConstructor(components)).invoke())
+                    .as(type.getSimpleName() + " constructor").accepts(hints);
+        }
+        // Nested records are found through the fields that hold them.
+        assertThat(RuntimeHintsPredicates.reflection().onType(TutorialStateServiceImpl.Progress.class)).accepts(hints);
+    }
+
+    @Test
+    void includesTheResourcesLoadedByName() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/build-info.properties")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("okhttp3/internal/publicsuffix/publicsuffixes.gz")).accepts(hints);
+    }
+}
@@ -0,0 +1,49 @@
+package com.axon.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class MeterSummaryTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void summarizesTimersAndCountersOrderedByNameAndTags() {
+        registry.counter("axon.ai.failovers", "provider", "small").increment(2);
+        registry.counter("axon.ai.failovers", "provider", "large").increment();
+        Timer timer = Timer.builder("axon.ai.requests").tag("type", "ask").publishPercentiles(0.5, 0.999).register(registry);
+        timer.record(Duration.ofMillis(100));
+        timer.record(Duration.ofMillis(300));
+        registry.counter("jvm.other").increment();
+
+        List<MeterSummary> summaries = MeterSummary.of(registry, "axon.");
+
+        assertThat(summaries).extracting(MeterSummary::name, MeterSummary::tags, MeterSummary::type).containsExactly(
+                tuple("axon.ai.failovers", Map.of("provider", "large"), "counter"),
+                tuple("axon.ai.failovers", Map.of("provider", "small"), "counter"),
+                tuple("axon.ai.requests", Map.of("type", "ask"), "timer"));
+        assertThat(summaries.get(1).count()).isEqualTo(2);
+        assertThat(summaries.get(1).meanMs()).isNull();
+        MeterSummary requests = summaries.get(2);
+        assertThat(requests.count()).isEqualTo(2);
+        assertThat(requests.meanMs()).isEqualTo(200);
+        assertThat(requests.maxMs()).isEqualTo(300);
+        assertThat(requests.percentilesMs()).containsOnlyKeys("p50", "p99.9");
+    }
+
+    @Test
+    void labelsPercentilesWithoutTrailingZeros() {
+        assertThat(MeterSummary.percentileLabel(0.5)).isEqualTo("p50");
+        assertThat(MeterSummary.percentileLabel(0.99)).isEqualTo("p99");
+        assertThat(MeterSummary.percentileLabel(0.999)).isEqualTo("p99.9");
+    }
+}
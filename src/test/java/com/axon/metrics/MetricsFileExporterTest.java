@@ -0,0 +1,65 @@
+package com.axon.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsFileExporterTest {
+
+    // Snapshots carry their timestamp, as written with Spring's ObjectMapper.
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsOneLineOfJsonPerSnapshot() throws IOException {
+        Path file = directory.resolve("metrics/axon.jsonl");
+        MetricsFileExporter exporter = new MetricsFileExporter(registry, objectMapper, file.toString(), Duration.ofMinutes(1));
+        registry.counter("axon.commands", "command", "next").increment();
+
+        assertThat(exporter.export()).isTrue();
+        registry.counter("axon.commands", "command", "next").increment();
+        assertThat(exporter.export()).isTrue();
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        JsonNode last = objectMapper.readTree(lines.get(1));
+        assertThat(last.path("timestamp").isMissingNode()).isFalse();
+        assertThat(last.path("meters").get(0).path("name").asText()).isEqualTo("axon.commands");
+        assertThat(last.path("meters").get(0).path("count").asDouble()).isEqualTo(2);
+    }
+
+    @Test
+    void writesAFinalSnapshotWhenStopped() throws IOException {
+        Path file = directory.resolve("axon.jsonl");
+        MetricsFileExporter exporter = new MetricsFileExporter(registry, objectMapper, file.toString(), Duration.ofHours(1));
+
+        exporter.start();
+        exporter.stop();
+
+        assertThat(Files.readAllLines(file)).hasSize(1);
+    }
+
+    @Test
+    void isDisabledWithoutAFile() {
+        MetricsFileExporter exporter = new MetricsFileExporter(registry, objectMapper, "", Duration.ofMinutes(1));
+
+        exporter.start();
+
+        assertThat(exporter.getFile()).isEmpty();
+        assertThat(exporter.export()).isFalse();
+    }
+}
@@ -0,0 +1,180 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.impl.AiProviderProperties.Provider;
+import com.axon.service.impl.AiProviderProperties.Role;
+import com.axon.service.impl.AiProviderRouter.Score;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiProviderRouterTest {
+
+    private static final AiRequestContext ASK = AiRequestContext.of(AiRequestType.ASK, "git");
+    private static final AiRequestContext MODULE = AiRequestContext.of(AiRequestType.MODULE, "git");
+
+    @Test
+    void usesTheDefaultEndpointAndModelWhenNoProviderIsConfigured() {
+        AiProviderRouter router = newRouter(Duration.ofMinutes(1), 5);
+
+        assertThat(router.getProviders()).singleElement().satisfies(provider -> {
+            assertThat(provider.name()).isEqualTo("default-model");
+            assertThat(provider.url()).isEqualTo("https://example.com/v1");
+            assertThat(provider.apiKey()).isEqualTo("key");
+            assertThat(provider.roles()).containsExactlyInAnyOrder(Role.values());
+        });
+        assertThat(router.modelName(AiRequestType.ASK)).isEqualTo("models/default-model");
+    }
+
+    @Test
+    void rejectsTwoProvidersWithTheSameName() {
+        assertThatThrownBy(() -> newRouter(Duration.ofMinutes(1), 5,
+                provider("same", "model-a", Set.of(), 0), provider("same", "model-b", Set.of(), 0)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("'same'");
+    }
+
+    @Test
+    void triesUnmeasuredProvidersFirstAndThenTheFastest() {
+        AiProviderRouter router = newRouter(Duration.ofMinutes(1), 5,
+                provider("slow", "a", Set.of(), 0), provider("fast", "b", Set.of(), 0), provider("new", "c", Set.of(), 0));
+        router.recordSuccess(provider(router, "slow"), ASK, true, Duration.ofMillis(400));
+        router.recordSuccess(provider(router, "fast"), ASK, true, Duration.ofMillis(100));
+
+        assertThat(names(router.candidates(ASK, true))).containsExactly("new", "fast", "slow");
+        // Latencies are kept per kind of request and per streamed or not.
+        assertThat(names(router.candidates(ASK, false))).containsExactly("slow", "fast", "new");
+    }
+
+    @Test
+    void weighsLatencyUpByTheErrorRate() {
+        // No cooldown, so only the error rate counts against the failed provider.
+        AiProviderRouter router = newRouter(Duration.ZERO, 5,
+                provider("flaky", "a", Set.of(), 0), provider("steady", "b", Set.of(), 0));
+        router.recordSuccess(provider(router, "flaky"), ASK, true, Duration.ofMillis(100));
+        router.recordSuccess(provider(router, "steady"), ASK, true, Duration.ofMillis(150));
+        assertThat(names(router.candidates(ASK, true))).containsExactly("flaky", "steady");
+
+        router.recordFailure(provider(router, "flaky"), ASK, true, true);
+
+        assertThat(names(router.candidates(ASK, true))).containsExactly("steady", "flaky");
+    }
+
+    @Test
+    void putsARecentlyFailedProviderLast() {
+        AiProviderRouter router = newRouter(Duration.ofMinutes(1), 5,
+                provider("first", "a", Set.of(), 0), provider("second", "b", Set.of(), 0));
+        router.recordSuccess(provider(router, "first"), ASK, true, Duration.ofMillis(100));
+        router.recordSuccess(provider(router, "second"), ASK, true, Duration.ofMillis(900));
+
+        router.recordFailure(provider(router, "first"), ASK, true, false);
+        assertThat(names(router.candidates(ASK, true))).containsExactly("second", "first");
+
+        router.recordSuccess(provider(router, "first"), ASK, true, Duration.ofMillis(100));
+        assertThat(names(router.candidates(ASK, true))).containsExactly("first", "second");
+    }
+
+    @Test
+    void sendsLessonGenerationToTheCheapestProvider() {
+        AiProviderRouter router = newRouter(Duration.ofMinutes(1), 5,
+                provider("large", "large-model", Set.of(), 0.9), provider("small", "small-model", Set.of(), 0.2));
+        router.recordSuccess(provider(router, "large"), MODULE, true, Duration.ofMillis(100));
+        router.recordSuccess(provider(router, "small"), MODULE, true, Duration.ofMillis(900));
+
+        assertThat(names(router.candidates(MODULE, true))).containsExactly("small", "large");
+        assertThat(names(router.candidates(ASK, true))).containsExactly("large", "small");
+    }
+
+    @Test
+    void routesEachKindOfRequestToTheProvidersWithItsRole() {
+        AiProviderRouter router = newRouter(Duration.ofMinutes(1), 5,
+                provider("bulk", "bulk-model", Set.of(Role.BULK), 0), provider("chat", "chat-model", Set.of(Role.INTERACTIVE), 0));
+
+        assertThat(names(router.candidates(MODULE, true))).containsExactly("bulk");
+        assertThat(names(router.candidates(ASK, true))).containsExactly("chat");
+        // No provider has the summary role, so every one of them may serve it.
+        assertThat(names(router.candidates(AiRequestContext.of(AiRequestType.SUMMARY, "git"), false))).containsExactly("bulk", "chat");
+    }
+
+    @Test
+    void namesTheModelByConfigurationAloneSoThatCacheKeysStayStable() {
+        AiProviderRouter router = newRouter(Duration.ofMinutes(1), 5,
+                provider("large", "large-model", Set.of(), 0.9), provider("small", "small-model", Set.of(), 0.2));
+
+        router.recordSuccess(provider(router, "small"), ASK, true, Duration.ofMillis(10));
+        router.recordFailure(provider(router, "small"), MODULE, true, true);
+
+        assertThat(router.modelName(AiRequestType.MODULE)).isEqualTo("small-model");
+        assertThat(router.modelName(AiRequestType.MORE)).isEqualTo("small-model");
+        assertThat(router.modelName(AiRequestType.ASK)).isEqualTo("large-model");
+        assertThat(router.modelName(AiRequestType.SUMMARY)).isEqualTo("large-model");
+    }
+
+    @Test
+    void opensTheCircuitOfAFailingProviderOnly() {
+        AiProviderRouter router = newRouter(Duration.ofMinutes(1), 2,
+                provider("failing", "a", Set.of(), 0), provider("healthy", "b", Set.of(), 0));
+        Provider failing = provider(router, "failing");
+
+        // A rejected request says nothing about the provider's health.
+        router.recordFailure(failing, ASK, true, false);
+        router.recordFailure(failing, ASK, true, true);
+        assertThat(router.tryAcquire(failing)).isTrue();
+        router.recordFailure(failing, ASK, true, true);
+
+        assertThat(router.tryAcquire(failing)).isFalse();
+        assertThat(router.circuitOpenTime(failing)).isPositive();
+        assertThat(router.tryAcquire(provider(router, "healthy"))).isTrue();
+        assertThat(router.circuitOpenTime(provider(router, "healthy"))).isZero();
+    }
+
+    @Test
+    void reportsWhatIsKnownAboutEachProvider() {
+        AiProviderRouter router = newRouter(Duration.ofMinutes(1), 5,
+                provider("first", "a", Set.of(), 0), provider("second", "b", Set.of(), 0));
+        router.recordSuccess(provider(router, "first"), ASK, true, Duration.ofMillis(200));
+        router.recordFailure(provider(router, "second"), MODULE, false, true);
+
+        List<Score> scores = router.getScores();
+
+        assertThat(scores).hasSize(2);
+        assertThat(scores.get(0)).satisfies(score -> {
+            assertThat(score.provider().name()).isEqualTo("first");
+            assertThat(score.type()).isEqualTo(AiRequestType.ASK);
+            assertThat(score.streamed()).isTrue();
+            assertThat(score.latency()).isEqualTo(Duration.ofMillis(200));
+            assertThat(score.errorRate()).isZero();
+            assertThat(score.requests()).isEqualTo(1);
+            assertThat(score.coolingDown()).isFalse();
+        });
+        assertThat(scores.get(1)).satisfies(score -> {
+            assertThat(score.provider().name()).isEqualTo("second");
+            assertThat(score.latency()).isNull();
+            assertThat(score.errorRate()).isEqualTo(0.5);
+            assertThat(score.coolingDown()).isTrue();
+        });
+    }
+
+    private static AiProviderRouter newRouter(Duration failureCooldown, int failureThreshold, Provider... providers) {
+        return new AiProviderRouter(new AiProviderProperties(List.of(providers)), "https://example.com/v1", "key",
+                "models/default-model", 0.5, failureCooldown, failureThreshold, Duration.ofMinutes(1));
+    }
+
+    private static Provider provider(String name, String model, Set<Role> roles, double costPerMillionTokens) {
+        return new Provider(name, null, null, model, roles, costPerMillionTokens);
+    }
+
+    private static Provider provider(AiProviderRouter router, String name) {
+        return router.getProviders().stream().filter(provider -> provider.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static List<String> names(List<Provider> providers) {
+        return providers.stream().map(Provider::name).toList();
+    }
+}
@@ -0,0 +1,241 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.impl.AiProviderProperties.Provider;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AiTutorServiceImplTest {
+
+    private static final AiRequestContext ASK = AiRequestContext.of(AiRequestType.ASK, "git");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FakeProvider server = new FakeProvider();
+    private TokenBudget tokenBudget;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.deleteIfExists(Path.of(System.getProperty("user.home"), ".axon", "token-usage.json"));
+        // Every observed response counts, with no headroom, so the next limit shows what was recorded.
+        tokenBudget = new TokenBudget(objectMapper, true, 1.0, 0.0, 1, 50, 1.5, 1, 16384);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void streamsTheAnswerChunkByChunk() {
+        server.respond("/v1", exchange -> sse(exchange,
+                chunk("Use ", null),
+                chunk("git ", null),
+                chunk("status.", "stop"),
+                "{\"choices\":[],\"usage\":{\"prompt_tokens\":20,\"completion_tokens\":100,\"total_tokens\":120}}"));
+        AiTutorServiceImpl service = newService(router("/v1"));
+        List<String> deltas = new ArrayList<>();
+
+        String answer = service.streamAnswerFromPrompt(ASK, "How do I see changes?", 1000, deltas::add);
+
+        assertThat(deltas).containsExactly("Use ", "git ", "status.");
+        assertThat(answer).isEqualTo("Use git status.");
+    }
+
+    @Test
+    void asksForTheUsageOfStreamedResponsesAndRecordsIt() throws IOException {
+        server.respond("/v1", exchange -> sse(exchange,
+                chunk("Done.", "stop"),
+                "{\"choices\":[],\"usage\":{\"prompt_tokens\":20,\"completion_tokens\":100,\"total_tokens\":120}}"));
+        AiTutorServiceImpl service = newService(router("/v1"));
+
+        service.streamAnswerFromPrompt(ASK, "question", 1000, delta -> {});
+
+        JsonNode request = objectMapper.readTree(server.requests.getFirst());
+        assertThat(request.path("stream").asBoolean()).isTrue();
+        assertThat(request.path("stream_options").path("include_usage").asBoolean()).isTrue();
+        // 100 of the nominal 1000 tokens were used.
+        assertThat(tokenBudget.maxTokensFor(ASK, 1000)).isEqualTo(100);
+    }
+
+    @Test
+    void warmsUpAConnectionThatTheFirstRequestReuses() throws InterruptedException {
+        server.respond("/v1", exchange -> sse(exchange, chunk("Hi.", "stop")));
+        AiTutorServiceImpl service = newService(router("/v1"), true);
+
+        service.warmUpConnection();
+        awaitExchanges(1);
+        // The warm-up returns its connection to the pool once it has read the response.
+        Thread.sleep(100);
+        service.streamAnswerFromPrompt(ASK, "question", 1000, delta -> {});
+        service.streamAnswerFromPrompt(ASK, "another question", 1000, delta -> {});
+
+        assertThat(server.exchanges).hasSize(3);
+        assertThat(server.exchanges.get(0)).startsWith("HEAD ");
+        String port = server.exchanges.get(0).split(" ")[1];
+        assertThat(server.exchanges).allSatisfy(exchange -> assertThat(exchange).endsWith(" " + port));
+    }
+
+    @Test
+    void skipsAProviderWhoseCircuitIsOpenWithoutAffectingTheOthers() {
+        AtomicInteger primaryCalls = new AtomicInteger();
+        AtomicInteger secondaryCalls = new AtomicInteger();
+        server.respond("/primary", exchange -> {
+            primaryCalls.incrementAndGet();
+            send(exchange, 503, "text/plain", "overloaded");
+        });
+        server.respond("/secondary", exchange -> {
+            secondaryCalls.incrementAndGet();
+            sse(exchange, chunk("From secondary.", "stop"));
+        });
+        AiProviderRouter router = new AiProviderRouter(new AiProviderProperties(List.of(
+                new Provider("primary", server.url("/primary"), "key", "model-a", Set.of(), 0),
+                new Provider("secondary", server.url("/secondary"), "key", "model-b", Set.of(), 0))),
+                server.url("/v1"), "key", "model", 0.3, Duration.ZERO, 1, Duration.ofMinutes(1));
+        AiTutorServiceImpl service = newService(router);
+
+        String first = service.streamAnswerFromPrompt(ASK, "question", 1000, delta -> {});
+        String second = service.streamAnswerFromPrompt(ASK, "another question", 1000, delta -> {});
+
+        assertThat(first).isEqualTo("From secondary.");
+        assertThat(second).isEqualTo("From secondary.");
+        // The primary failed once, which opened only its own circuit.
+        assertThat(primaryCalls).hasValue(1);
+        assertThat(secondaryCalls).hasValue(2);
+        assertThat(router.circuitOpenTime(router.getProviders().get(0))).isPositive();
+        assertThat(router.circuitOpenTime(router.getProviders().get(1))).isZero();
+    }
+
+    @Test
+    void extractsTheModuleFromTheProseAndFencesAroundIt() {
+        String raw = "Here is your module:\n```json\n{\"moduleName\":\"Git\",\"lessons\":[{\"title\":\"{braces}\"}]}\n```\nHave fun!";
+
+        assertThat(AiTutorServiceImpl.extractJson(raw)).isEqualTo("{\"moduleName\":\"Git\",\"lessons\":[{\"title\":\"{braces}\"}]}");
+        assertThatThrownBy(() -> AiTutorServiceImpl.extractJson("Sorry, I cannot help with that."))
+                .hasMessageContaining("Could not find valid JSON");
+    }
+
+    private void awaitExchanges(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (server.exchanges.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private AiTutorServiceImpl newService(AiProviderRouter router) {
+        return newService(router, false);
+    }
+
+    private AiTutorServiceImpl newService(AiProviderRouter router, boolean warmUp) {
+        return new AiTutorServiceImpl(objectMapper, new SimpleMeterRegistry(), tokenBudget, router,
+                1, Duration.ofMinutes(1), Duration.ofSeconds(5), Duration.ofSeconds(5), warmUp);
+    }
+
+    private AiProviderRouter router(String path) {
+        return new AiProviderRouter(new AiProviderProperties(List.of()), server.url(path), "key", "model",
+                0.3, Duration.ofSeconds(30), 5, Duration.ofSeconds(30));
+    }
+
+    static String chunk(String content, String finishReason) {
+        return "{\"choices\":[{\"delta\":{\"content\":\"" + content + "\"},\"finish_reason\":"
+                + (finishReason == null ? "null" : "\"" + finishReason + "\"") + "}]}";
+    }
+
+    static void sse(HttpExchange exchange, String... chunks) throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (String chunk : chunks) {
+            body.append("data: ").append(chunk).append("\n\n");
+        }
+        body.append("data: [DONE]\n\n");
+        send(exchange, 200, "text/event-stream", body.toString());
+    }
+
+    static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * A chat completions endpoint on localhost, answering each path with a handler set by the test.
+     */
+    static class FakeProvider {
+
+        @FunctionalInterface
+        interface Handler {
+            void handle(HttpExchange exchange) throws IOException;
+        }
+
+        final List<String> requests = new CopyOnWriteArrayList<>();
+        // The method and client port of every exchange, e.g. "POST 53122", to tell connections apart.
+        final List<String> exchanges = new CopyOnWriteArrayList<>();
+        private final Map<String, Handler> handlers = new ConcurrentHashMap<>();
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private HttpServer server;
+
+        void start() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            // A slow response must not hold up the others.
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> {
+                exchanges.add(exchange.getRequestMethod() + " " + exchange.getRemoteAddress().getPort());
+                if (exchange.getRequestMethod().equals("HEAD")) {
+                    exchange.sendResponseHeaders(200, -1);
+                    exchange.close();
+                    return;
+                }
+                requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                Handler handler = handlers.get(exchange.getRequestURI().getPath());
+                if (handler == null) {
+                    send(exchange, 404, "text/plain", "no handler");
+                } else {
+                    handler.handle(exchange);
+                }
+            });
+            server.start();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        void respond(String path, Handler handler) {
+            handlers.put(path, handler);
+        }
+
+        String url(String path) {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AnswerCacheService.Stats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerCacheServiceImplTest {
+
+    // The test JVM's user.home is a directory under target/, see the surefire configuration.
+    private static final Path CACHE_DIR = Path.of(System.getProperty("user.home"), ".axon", "answers");
+
+    // Entries are stored with their creation time, as Spring's ObjectMapper would.
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileSystemUtils.deleteRecursively(CACHE_DIR);
+    }
+
+    @Test
+    void normalizesQuestionsWithoutChangingWhatTheyAsk() {
+        assertThat(AnswerCacheServiceImpl.normalize("  What does `git reset --hard` do?? ")).isEqualTo("what does git reset --hard do");
+        assertThat(AnswerCacheServiceImpl.normalize("Wait, what is “HEAD~1”?")).isEqualTo("wait what is head~1");
+        assertThat(AnswerCacheServiceImpl.normalize("git   log\t--oneline.")).isEqualTo("git log --oneline");
+        assertThat(AnswerCacheServiceImpl.normalize("git reset --soft"))
+                .isNotEqualTo(AnswerCacheServiceImpl.normalize("git reset --hard"));
+    }
+
+    @Test
+    void answersEquivalentQuestionsForTheSameTechnologyAndModel() {
+        AnswerCacheServiceImpl cache = new AnswerCacheServiceImpl(objectMapper, Duration.ofDays(7), 16, 16);
+
+        cache.put("Git", "How do I undo a commit?", "model", "Use git revert.");
+
+        assertThat(cache.get("git", "how do I undo a commit", "model")).contains("Use git revert.");
+        assertThat(cache.get("docker", "How do I undo a commit?", "model")).isEmpty();
+        assertThat(cache.get("git", "How do I undo a commit?", "other-model")).isEmpty();
+        assertThat(cache.getStats()).isEqualTo(new Stats(1, 0, 2, 1, 1));
+    }
+
+    @Test
+    void keepsAnswersOnDiskAcrossRestarts() {
+        new AnswerCacheServiceImpl(objectMapper, Duration.ofDays(7), 16, 16).put("git", "question", "model", "answer");
+
+        AnswerCacheServiceImpl restarted = new AnswerCacheServiceImpl(objectMapper, Duration.ofDays(7), 16, 16);
+
+        assertThat(restarted.get("git", "question", "model")).contains("answer");
+        assertThat(restarted.get("git", "question", "model")).contains("answer");
+        // The first lookup came from disk and put the answer back in memory.
+        assertThat(restarted.getStats()).isEqualTo(new Stats(1, 1, 0, 1, 1));
+    }
+
+    @Test
+    void expiresAnswersAfterTheTtl() throws InterruptedException {
+        AnswerCacheServiceImpl cache = new AnswerCacheServiceImpl(objectMapper, Duration.ofMillis(1), 16, 16);
+        cache.put("git", "question", "model", "answer");
+
+        Thread.sleep(20);
+
+        assertThat(cache.get("git", "question", "model")).isEmpty();
+        assertThat(new AnswerCacheServiceImpl(objectMapper, Duration.ofDays(7), 16, 16).getStats().diskEntries()).isZero();
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedAnswersOverTheDiskLimit() throws IOException {
+        // Nothing is kept in memory, so every lookup reads the disk.
+        AnswerCacheServiceImpl cache = new AnswerCacheServiceImpl(objectMapper, Duration.ofDays(7), 0, 2);
+        cache.put("git", "a", "model", "A");
+        age(Duration.ofMinutes(2));
+        cache.put("git", "b", "model", "B");
+        age(Duration.ofMinutes(1));
+
+        assertThat(cache.get("git", "a", "model")).contains("A");
+        cache.put("git", "c", "model", "C");
+
+        assertThat(cache.get("git", "b", "model")).isEmpty();
+        assertThat(cache.get("git", "a", "model")).contains("A");
+        assertThat(cache.get("git", "c", "model")).contains("C");
+    }
+
+    @Test
+    void purgeRemovesEveryAnswer() {
+        AnswerCacheServiceImpl cache = new AnswerCacheServiceImpl(objectMapper, Duration.ofDays(7), 16, 16);
+        cache.put("git", "a", "model", "A");
+        cache.put("git", "b", "model", "B");
+
+        assertThat(cache.purge()).isEqualTo(2);
+
+        assertThat(cache.get("git", "a", "model")).isEmpty();
+        assertThat(cache.getStats().diskEntries()).isZero();
+    }
+
+    @Test
+    void sweepsOnlyStaleTemporaryFilesAtStartup() throws IOException {
+        Files.createDirectories(CACHE_DIR);
+        Path stale = Files.createFile(CACHE_DIR.resolve("crashed.tmp"));
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Path fresh = Files.createFile(CACHE_DIR.resolve("writing.tmp"));
+        AnswerCacheServiceImpl cache = new AnswerCacheServiceImpl(objectMapper, Duration.ofDays(7), 16, 16);
+
+        cache.deleteStaleTempFiles();
+
+        assertThat(stale).doesNotExist();
+        assertThat(fresh).exists();
+        assertThat(cache.getStats().diskEntries()).isZero();
+    }
+
+    /**
+     * Moves the last use of every entry on disk back by the given amount.
+     */
+    private static void age(Duration amount) throws IOException {
+        try (Stream<Path> files = Files.list(CACHE_DIR)) {
+            for (Path file : files.toList()) {
+                Instant lastUsed = Files.getLastModifiedTime(file).toInstant();
+                Files.setLastModifiedTime(file, FileTime.from(lastUsed.minus(amount)));
+            }
+        }
+    }
+}
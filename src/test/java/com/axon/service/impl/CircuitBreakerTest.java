@@ -0,0 +1,95 @@
+package com.axon.service.impl;
+
+import com.axon.service.impl.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterTheThresholdOfFailuresInARow() {
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMinutes(1));
+
+        fail(breaker, 2);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+        fail(breaker, 2);
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        fail(breaker, 1);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.remainingOpenTime()).isPositive();
+    }
+
+    @Test
+    void letsASingleTrialThroughOnceTheOpenDurationHasPassed() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(20));
+        fail(breaker, 1);
+
+        Thread.sleep(40);
+
+        assertThat(breaker.remainingOpenTime()).isZero();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void aSuccessfulTrialClosesTheCircuit() throws InterruptedException {
+        CircuitBreaker breaker = halfOpen();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void aFailedTrialReopensTheCircuit() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofMillis(20));
+        fail(breaker, 3);
+        Thread.sleep(40);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // A single failure is enough while half open.
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void anIgnoredTrialLetsTheNextOneThrough() throws InterruptedException {
+        CircuitBreaker breaker = halfOpen();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    /**
+     * @return A breaker whose trial call is in flight.
+     */
+    private static CircuitBreaker halfOpen() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(20));
+        fail(breaker, 1);
+        Thread.sleep(40);
+        assertThat(breaker.tryAcquire()).isTrue();
+        return breaker;
+    }
+
+    private static void fail(CircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.axon.service.impl;
+
+import com.axon.model.Lesson;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandCoverageTest {
+
+    private static final Set<String> TOOLS = Set.of("git", "kubectl");
+
+    @Test
+    void groupsOptionsUnderTheirCommandInOrderOfMostRecentUse() {
+        List<Lesson> lessons = lessons("git commit -m 'x'", "git log --oneline", "git commit --amend", "sudo ls -la /tmp");
+
+        assertThat(CommandCoverage.summarize(lessons, TOOLS, 400)).isEqualTo("git: log (--oneline), commit (-m, --amend); ls (-la)");
+    }
+
+    @Test
+    void splitsCompoundCommandsAndSkipsWrappers() {
+        List<Lesson> lessons = lessons("FOO=bar ./scripts/deploy.sh --dry-run && git status | grep modified",
+                "git log --format=%h; `kubectl get pods -n demo`");
+
+        assertThat(CommandCoverage.summarize(lessons, TOOLS, 400))
+                .isEqualTo("deploy.sh (--dry-run); grep; git: status, log (--format); kubectl: get (-n)");
+    }
+
+    @Test
+    void saysNoneWhenNoCommandIsRecognised() {
+        List<Lesson> lessons = List.of(new Lesson("Concepts", "", null, "", "", ""), lesson("  "), lesson("$ ?"));
+
+        assertThat(CommandCoverage.summarize(lessons, TOOLS, 400)).isEqualTo("none");
+    }
+
+    @Test
+    void dropsTheOptionsFirstWhenOverBudget() {
+        List<Lesson> lessons = lessons("git commit -m 'x'", "git log --oneline", "ls -la");
+        int budget = CommandCoverage.estimateTokens("git: commit, log; ls");
+
+        assertThat(CommandCoverage.summarize(lessons, TOOLS, budget)).isEqualTo("git: commit, log; ls");
+    }
+
+    @Test
+    void keepsTheMostRecentCommandsWhenEvenThatIsOverBudget() {
+        List<Lesson> lessons = lessons(IntStream.rangeClosed(1, 10).mapToObj(i -> "cmd" + i).toArray(String[]::new));
+
+        assertThat(CommandCoverage.summarize(lessons, TOOLS, CommandCoverage.estimateTokens("cmd9; cmd10; and 8 earlier commands")))
+                .isEqualTo("cmd9; cmd10; and 8 earlier commands");
+        assertThat(CommandCoverage.summarize(lessons, TOOLS, 3)).isEqualTo("10 commands");
+    }
+
+    @Test
+    void estimatesOneTokenPerPunctuationAndPerFourLetters() {
+        assertThat(CommandCoverage.estimateTokens("")).isZero();
+        assertThat(CommandCoverage.estimateTokens("git commit -m")).isEqualTo(5);
+        assertThat(CommandCoverage.estimateTokens("kubernetes")).isEqualTo(3);
+    }
+
+    private static List<Lesson> lessons(String... commands) {
+        return Arrays.stream(commands).map(CommandCoverageTest::lesson).toList();
+    }
+
+    private static Lesson lesson(String command) {
+        return new Lesson("Lesson", "", command, "", "", "");
+    }
+}
@@ -0,0 +1,171 @@
+package com.axon.service.impl;
+
+import com.axon.model.BundledModule;
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.CurriculumBundleService.BundleReport;
+import com.axon.service.api.CurriculumBundleService.ImportReport;
+import com.axon.service.api.CurriculumBundleService.ModuleResult;
+import com.axon.service.api.CurriculumBundleService.Status;
+import com.axon.service.impl.CurriculumBundleServiceImpl.Bundle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CurriculumBundleServiceImplTest {
+
+    // The test JVM's user.home is a directory under target/, see the surefire configuration.
+    private static final Path AXON_DIR = Path.of(System.getProperty("user.home"), ".axon");
+
+    private final StubAiTutorService ai = new StubAiTutorService();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final GitPromptServiceImpl git = new GitPromptServiceImpl(400);
+    private ModuleCacheServiceImpl moduleCache;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileSystemUtils.deleteRecursively(AXON_DIR);
+        moduleCache = new ModuleCacheServiceImpl(objectMapper, 64);
+    }
+
+    @Test
+    void generatesEveryModuleOfATechnologyIntoABundle() throws IOException {
+        ai.modules = prompt -> StubAiTutorService.module("Git", 30);
+        List<ModuleResult> reported = new CopyOnWriteArrayList<>();
+        Path file = directory.resolve("git.json");
+
+        BundleReport report = newService().generateBundle(List.of("Git"), file, false, reported::add);
+
+        assertThat(report.modules()).extracting(ModuleResult::moduleKey, ModuleResult::status, ModuleResult::lessonCount)
+                .containsExactlyInAnyOrder(tuple("basics", Status.GENERATED, 30), tuple("branching", Status.GENERATED, 30),
+                        tuple("remotes", Status.GENERATED, 30), tuple("history", Status.GENERATED, 30));
+        assertThat(reported).hasSameElementsAs(report.modules());
+        assertThat(ai.prompts).hasSize(4);
+        Bundle bundle = objectMapper.readValue(file.toFile(), Bundle.class);
+        assertThat(bundle.version()).isEqualTo(CurriculumBundleServiceImpl.BUNDLE_VERSION);
+        assertThat(bundle.model()).isEqualTo("stub-model");
+        assertThat(bundle.modules()).extracting(BundledModule::cacheKey).containsExactlyInAnyOrder(
+                cacheKey("basics"), cacheKey("branching"), cacheKey("remotes"), cacheKey("history"));
+        // Generated modules are cached, so that learners on this install are served from there too.
+        assertThat(moduleCache.find(cacheKey("basics"), "git", "basics")).isPresent();
+    }
+
+    @Test
+    void takesValidModulesFromTheCacheUnlessAskedToRegenerate() {
+        moduleCache.put(cacheKey("basics"), "git", "basics", StubAiTutorService.module("Cached", 30));
+        ai.modules = prompt -> StubAiTutorService.module("Generated", 30);
+
+        BundleReport report = newService().generateBundle(List.of("git"), directory.resolve("git.json"), false, result -> {});
+        assertThat(report.modules()).filteredOn(result -> result.moduleKey().equals("basics"))
+                .extracting(ModuleResult::status).containsExactly(Status.CACHED);
+        assertThat(ai.prompts).hasSize(3);
+
+        report = newService().generateBundle(List.of("git"), directory.resolve("git.json"), true, result -> {});
+        assertThat(report.modules()).extracting(ModuleResult::status).containsOnly(Status.GENERATED);
+        assertThat(moduleCache.find(cacheKey("basics"), "git", "basics")).get()
+                .extracting(LearningModule::moduleName).isEqualTo("Generated");
+    }
+
+    @Test
+    void retriesAnInvalidModuleAndLeavesItOutIfItStaysInvalid() throws IOException {
+        ai.modules = prompt -> prompt.equals(git.buildInitialModulePrompt("basics"))
+                ? StubAiTutorService.module("Too short", 3)
+                : StubAiTutorService.module("Git", 30);
+        Path file = directory.resolve("git.json");
+
+        BundleReport report = newService().generateBundle(List.of("git"), file, false, result -> {});
+
+        assertThat(report.modules()).filteredOn(result -> result.status() == Status.FAILED).singleElement().satisfies(result -> {
+            assertThat(result.moduleKey()).isEqualTo("basics");
+            assertThat(result.error()).startsWith("Invalid lessons: 3 lessons instead of 30");
+        });
+        // Two attempts for the invalid module, one for each of the others.
+        assertThat(ai.prompts).hasSize(5);
+        assertThat(objectMapper.readValue(file.toFile(), Bundle.class).modules())
+                .extracting(BundledModule::moduleKey).containsExactlyInAnyOrder("branching", "remotes", "history");
+    }
+
+    @Test
+    void rejectsModulesWithTooFewLessonsMissingFieldsOrRepeatedTitles() {
+        List<Lesson> lessons = new ArrayList<>(StubAiTutorService.module("Git", 12).lessons());
+        lessons.add(new Lesson("Lesson 1", "Again", "git status", "", "", ""));
+        lessons.add(new Lesson("Empty", " ", "git log", "", "", ""));
+
+        assertThat(CurriculumBundleServiceImpl.validate(git, new LearningModule("Git", lessons))).containsExactly(
+                "14 lessons instead of 30",
+                "lesson 13 repeats the title 'Lesson 1'",
+                "lesson 14 has no title, concept or command");
+        assertThat(CurriculumBundleServiceImpl.validate(git, StubAiTutorService.module("Git", 15))).isEmpty();
+    }
+
+    @Test
+    void rejectsAnUnknownTechnology() {
+        assertThatThrownBy(() -> newService().generateBundle(List.of("cobol"), directory.resolve("x.json"), false, result -> {}))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown technology 'cobol'");
+    }
+
+    @Test
+    void importsTheModulesThatThisInstallWouldHaveRequestedTheSameWay() throws IOException {
+        LearningModule module = StubAiTutorService.module("Git", 30);
+        Path file = directory.resolve("git.json");
+        objectMapper.writeValue(file.toFile(), new Bundle(CurriculumBundleServiceImpl.BUNDLE_VERSION, Instant.now(), "stub-model", List.of(
+                new BundledModule("git", "basics", cacheKey("basics"), module),
+                new BundledModule("git", "branching", "generated with another prompt", module),
+                new BundledModule("git", "unknown", "a module this install does not have", module),
+                new BundledModule("cobol", "basics", "a technology this install does not have", module))));
+
+        ImportReport report = newService().importBundle(file, false);
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.skipped()).containsExactly("git branching", "git unknown", "cobol basics");
+        assertThat(moduleCache.find(cacheKey("basics"), "git", "basics")).contains(module);
+        assertThat(moduleCache.find(cacheKey("branching"), "git", "branching")).isEmpty();
+
+        // Forcing it imports modules generated from other prompts too, under this install's key.
+        report = newService().importBundle(file, true);
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(moduleCache.find(cacheKey("branching"), "git", "branching")).contains(module);
+    }
+
+    @Test
+    void refusesAFileThatIsNotABundle() throws IOException {
+        Path file = Files.writeString(directory.resolve("notes.json"), "{\"version\": 99, \"modules\": []}");
+
+        assertThatThrownBy(() -> newService().importBundle(file, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("is not a curriculum bundle of version 1");
+        assertThatThrownBy(() -> newService().importBundle(directory.resolve("missing.json"), false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Could not read the bundle");
+    }
+
+    private CurriculumBundleServiceImpl newService() {
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "stream", 1, 1, 0);
+        return new CurriculumBundleServiceImpl(List.of(git), generator, ai, moduleCache, objectMapper,
+                new SimpleMeterRegistry(), 2, 0, 2, 5000);
+    }
+
+    private String cacheKey(String moduleKey) {
+        return moduleCache.keyFor("git", moduleKey, git.buildInitialModulePrompt(moduleKey), ai.getModelName(AiRequestType.MODULE), 5000);
+    }
+}
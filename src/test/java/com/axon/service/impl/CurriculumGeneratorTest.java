@@ -0,0 +1,196 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.impl.CurriculumGenerator.OrderedPublisher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CurriculumGeneratorTest {
+
+    private static final Pattern SLICE = Pattern.compile("Write lessons (\\d+) to (\\d+) only");
+
+    private final StubAiTutorService ai = new StubAiTutorService();
+    private final GitPromptServiceImpl git = new GitPromptServiceImpl(400);
+
+    @Test
+    void publisherHoldsLessonsBackUntilEveryEarlierShardIsComplete() {
+        List<String> published = new ArrayList<>();
+        OrderedPublisher publisher = new OrderedPublisher(3, lesson -> published.add(lesson.title()));
+
+        publisher.add(1, lesson("B1"));
+        publisher.add(2, lesson("C1"));
+        publisher.add(0, lesson("A1"));
+        assertThat(published).containsExactly("A1");
+
+        publisher.complete(1);
+        publisher.add(0, lesson("A2"));
+        assertThat(published).containsExactly("A1", "A2");
+
+        publisher.complete(0);
+        assertThat(published).containsExactly("A1", "A2", "B1", "C1");
+
+        publisher.add(2, lesson("C2"));
+        publisher.complete(2);
+        assertThat(published).containsExactly("A1", "A2", "B1", "C1", "C2");
+        assertThat(publisher.allLessons()).extracting(Lesson::title).containsExactly("A1", "A2", "B1", "C1", "C2");
+    }
+
+    @Test
+    void generatesShardsOfTheOutlineAndMergesThemInOrder() {
+        answerWithOutline(7);
+        ai.streamedModules = (prompt, onLesson) -> slice(prompt, onLesson);
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "sharded", 3, 3, 0);
+        List<Lesson> published = new CopyOnWriteArrayList<>();
+
+        LearningModule module = generator.generate(git, "basics", 5000, published::add);
+
+        assertThat(module.moduleName()).isEqualTo("Outline");
+        assertThat(module.lessons()).extracting(Lesson::title).containsExactly("T1", "T2", "T3", "T4", "T5", "T6", "T7");
+        assertThat(published).isEqualTo(module.lessons());
+        // The outline, and three slices of at most three lessons each.
+        assertThat(ai.prompts).hasSize(4);
+    }
+
+    @Test
+    void retriesAFailedShardWithoutRepeatingItsPublishedLessons() {
+        answerWithOutline(6);
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        ai.streamedModules = (prompt, onLesson) -> {
+            if (prompt.contains("Write lessons 3 to 4 only") && attempts.computeIfAbsent(prompt, p -> new AtomicInteger()).getAndIncrement() == 0) {
+                onLesson.accept(lesson("T3"));
+                throw new RuntimeException("connection reset");
+            }
+            return slice(prompt, onLesson);
+        };
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "sharded", 3, 3, 1);
+        List<String> published = new CopyOnWriteArrayList<>();
+
+        LearningModule module = generator.generate(git, "basics", 5000, lesson -> published.add(lesson.title()));
+
+        assertThat(module.lessons()).extracting(Lesson::title).containsExactly("T1", "T2", "T3", "T4", "T5", "T6");
+        assertThat(published).containsExactly("T1", "T2", "T3", "T4", "T5", "T6");
+    }
+
+    @Test
+    void retriesOnlyTheLessonsOfAShardThatWereNotPublished() {
+        answerWithOutline(6);
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        ai.streamedModules = (prompt, onLesson) -> {
+            if (prompt.contains("Write lessons 1 to 2 only") && attempts.computeIfAbsent(prompt, p -> new AtomicInteger()).getAndIncrement() == 0) {
+                // The first shard publishes its lessons as they arrive.
+                onLesson.accept(lesson("T1"));
+                throw new RuntimeException("connection reset");
+            }
+            return slice(prompt, onLesson);
+        };
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "sharded", 3, 3, 1);
+        List<String> published = new CopyOnWriteArrayList<>();
+
+        generator.generate(git, "basics", 5000, lesson -> published.add(lesson.title()));
+
+        assertThat(published).containsExactly("T1", "T2", "T3", "T4", "T5", "T6");
+        assertThat(ai.prompts).anyMatch(prompt -> prompt.contains("Write lessons 2 to 2 only"));
+    }
+
+    @Test
+    void failsAShardThatReturnsTooFewLessons() {
+        answerWithOutline(6);
+        ai.streamedModules = (prompt, onLesson) -> {
+            if (prompt.contains("Write lessons 5 to 6 only")) {
+                onLesson.accept(lesson("T5"));
+                return new LearningModule(null, List.of(lesson("T5")));
+            }
+            return slice(prompt, onLesson);
+        };
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "sharded", 3, 3, 0);
+
+        assertThatThrownBy(() -> generator.generate(git, "basics", 5000, lesson -> {}))
+                .hasMessageContaining("Shard 3 failed after 1 attempts")
+                .hasMessageContaining("returned 1 lessons instead of 2");
+    }
+
+    @Test
+    void dropsLessonsPastTheEndOfASlice() {
+        answerWithOutline(6);
+        Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        ai.streamedModules = (prompt, onLesson) -> {
+            if (prompt.contains("Write lessons 1 to 2 only") && attempts.computeIfAbsent(prompt, p -> new AtomicInteger()).getAndIncrement() == 0) {
+                List.of(lesson("T1"), lesson("T2"), lesson("Extra")).forEach(onLesson);
+                return null;
+            }
+            return slice(prompt, onLesson);
+        };
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "sharded", 3, 3, 1);
+
+        LearningModule module = generator.generate(git, "basics", 5000, lesson -> {});
+
+        assertThat(module.lessons()).extracting(Lesson::title).containsExactly("T1", "T2", "T3", "T4", "T5", "T6");
+        // Both lessons of the slice were published, so nothing was left to retry.
+        assertThat(attempts.values()).extracting(AtomicInteger::get).containsExactly(1);
+    }
+
+    @Test
+    void failsWhenAShardFailsEveryAttempt() {
+        answerWithOutline(6);
+        ai.streamedModules = (prompt, onLesson) -> {
+            if (prompt.contains("Write lessons 5 to 6 only")) {
+                throw new RuntimeException("provider down");
+            }
+            return slice(prompt, onLesson);
+        };
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "sharded", 3, 3, 1);
+
+        assertThatThrownBy(() -> generator.generate(git, "basics", 5000, lesson -> {}))
+                .hasMessageContaining("Shard 3 failed after 2 attempts")
+                .hasMessageContaining("provider down");
+    }
+
+    @Test
+    void streamModeGeneratesTheModuleInOneRequest() {
+        ai.modules = prompt -> StubAiTutorService.module("Git Basics", 4);
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "stream", 3, 3, 0);
+
+        LearningModule module = generator.generate(git, "basics", 5000, lesson -> {});
+
+        assertThat(module.lessons()).hasSize(4);
+        assertThat(ai.prompts).containsExactly(git.buildInitialModulePrompt("basics"));
+    }
+
+    private void answerWithOutline(int lessons) {
+        String outlinePrompt = git.buildOutlinePrompt("basics");
+        ai.modules = prompt -> {
+            assertThat(prompt).isEqualTo(outlinePrompt);
+            return new LearningModule("Outline", IntStream.rangeClosed(1, lessons).mapToObj(i -> lesson("T" + i)).toList());
+        };
+    }
+
+    /**
+     * Answers a slice prompt with the lessons it asks for, titled after their place in the outline.
+     */
+    private static LearningModule slice(String prompt, Consumer<Lesson> onLesson) {
+        Matcher matcher = SLICE.matcher(prompt);
+        assertThat(matcher.find()).as("a slice prompt").isTrue();
+        List<Lesson> lessons = IntStream.rangeClosed(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                .mapToObj(i -> lesson("T" + i)).toList();
+        lessons.forEach(onLesson);
+        return new LearningModule(null, lessons);
+    }
+
+    private static Lesson lesson(String title) {
+        return new Lesson(title, "", "", "", "", "");
+    }
+}
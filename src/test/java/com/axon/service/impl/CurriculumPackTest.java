@@ -0,0 +1,122 @@
+package com.axon.service.impl;
+
+import com.axon.model.BundledModule;
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CurriculumPackTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryModuleItWasWrittenWith() throws IOException {
+        BundledModule gitBasics = bundled("git", "basics", StubAiTutorService.module("Git Basics", 30));
+        BundledModule gitBranching = bundled("git", "branching", StubAiTutorService.module("Git Branching", 30));
+        BundledModule docker = bundled("docker", "volumes", new LearningModule(null, List.of(
+                new Lesson("Volumes", "Keep data outside containers. ✓", "docker volume create data", null, "", null))));
+        Path file = directory.resolve("curriculum.pack");
+
+        CurriculumPack.write(file, List.of(gitBranching, docker, gitBasics));
+        CurriculumPack pack = CurriculumPack.open(file);
+
+        assertThat(pack.moduleCount()).isEqualTo(3);
+        assertThat(pack.lessonCount()).isEqualTo(61);
+        assertThat(pack.find("git", "basics")).contains(gitBasics);
+        assertThat(pack.find("git", "branching")).contains(gitBranching);
+        assertThat(pack.find("docker", "volumes")).contains(docker);
+        assertThat(pack.find("git", "remotes")).isEmpty();
+        assertThat(pack.find("linux", "basics")).isEmpty();
+        // The index is sorted by technology and module key.
+        assertThat(pack.modules()).containsExactly(docker, gitBasics, gitBranching);
+    }
+
+    @Test
+    void decodesTheLessonsOfAModuleOnlyAsTheyAreRead() throws IOException {
+        LearningModule module = StubAiTutorService.module("Git Basics", 200);
+        Path file = directory.resolve("curriculum.pack");
+        CurriculumPack.write(file, List.of(bundled("git", "basics", module)));
+
+        List<Lesson> lessons = CurriculumPack.open(file).find("git", "basics").orElseThrow().module().lessons();
+
+        assertThat(lessons).hasSize(200);
+        assertThat(lessons.get(150)).isEqualTo(module.lessons().get(150));
+        assertThat(lessons.get(150)).isSameAs(lessons.get(150));
+        assertThatThrownBy(() -> lessons.get(200)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void storesRepeatedTextOnceAndDeflatesTheLessons() throws IOException {
+        String concept = "Every commit records a snapshot of the whole project. ".repeat(20);
+        List<Lesson> lessons = IntStream.range(0, 300)
+                .mapToObj(i -> new Lesson("Lesson " + i, concept + i, "git status", "", "git status", "Run git status."))
+                .toList();
+        Path file = directory.resolve("curriculum.pack");
+
+        CurriculumPack.write(file, List.of(bundled("git", "basics", new LearningModule("Git", lessons))));
+
+        // 300 distinct concepts of about 1 KB each.
+        assertThat(Files.size(file)).isLessThan(100_000);
+        assertThat(CurriculumPack.open(file).find("git", "basics").orElseThrow().module().lessons().get(299))
+                .isEqualTo(lessons.get(299));
+    }
+
+    @Test
+    void refusesToWriteTheSameModuleTwice() {
+        BundledModule module = bundled("git", "basics", StubAiTutorService.module("Git Basics", 1));
+
+        assertThatThrownBy(() -> CurriculumPack.write(directory.resolve("curriculum.pack"), List.of(module, module)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'basics' of git is in the pack twice");
+    }
+
+    @Test
+    void replacesAnExistingPackWithoutLeavingTemporaryFiles() throws IOException {
+        Path file = directory.resolve("curriculum.pack");
+        CurriculumPack.write(file, List.of(bundled("git", "basics", StubAiTutorService.module("Old", 1))));
+
+        CurriculumPack.write(file, List.of(bundled("git", "basics", StubAiTutorService.module("New", 2))));
+
+        assertThat(CurriculumPack.open(file).find("git", "basics").orElseThrow().module().moduleName()).isEqualTo("New");
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotPacksOfThisVersion() throws IOException {
+        Path notAPack = Files.writeString(directory.resolve("notes.pack"), "These are not lessons at all.");
+        assertThatThrownBy(() -> CurriculumPack.open(notAPack)).isInstanceOf(IOException.class)
+                .hasMessage("notes.pack is not a curriculum pack.");
+
+        Path file = directory.resolve("curriculum.pack");
+        CurriculumPack.write(file, List.of(bundled("git", "basics", StubAiTutorService.module("Git Basics", 3))));
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path newer = Files.write(directory.resolve("newer.pack"), ByteBuffer.wrap(bytes.clone()).putInt(4, 2).array());
+        assertThatThrownBy(() -> CurriculumPack.open(newer)).isInstanceOf(IOException.class)
+                .hasMessageContaining("of version 2");
+
+        Path truncated = Files.write(directory.resolve("truncated.pack"), Arrays.copyOf(bytes, 40));
+        assertThatThrownBy(() -> CurriculumPack.open(truncated)).isInstanceOf(IOException.class)
+                .hasMessage("truncated.pack is truncated or corrupt.");
+    }
+
+    private static BundledModule bundled(String technology, String moduleKey, LearningModule module) {
+        return new BundledModule(technology, moduleKey, technology + "-" + moduleKey + "-key", module);
+    }
+}
@@ -0,0 +1,81 @@
+package com.axon.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationalFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void knowsItsPlainNameFromAnyGeneration() {
+        assertThat(new GenerationalFile(directory.resolve("search.idx")).name()).isEqualTo("search.idx");
+        assertThat(new GenerationalFile(directory.resolve("search~12.idx")).name()).isEqualTo("search.idx");
+        assertThat(new GenerationalFile(directory.resolve("git~basics.axonpack")).name()).isEqualTo("git~basics.axonpack");
+        assertThat(new GenerationalFile(directory.resolve("journal")).name()).isEqualTo("journal");
+    }
+
+    @Test
+    void commitsEachVersionAsTheNextGeneration() throws IOException {
+        GenerationalFile file = new GenerationalFile(directory.resolve("search.idx"));
+        assertThat(file.current()).isEmpty();
+
+        Path first = file.commit(Files.writeString(directory.resolve("first.tmp"), "1"));
+        Path second = file.commit(Files.writeString(directory.resolve("second.tmp"), "2"));
+
+        assertThat(first.getFileName()).hasToString("search~1.idx");
+        assertThat(second.getFileName()).hasToString("search~2.idx");
+        assertThat(file.current()).contains(second);
+        assertThat(file.generations()).containsExactly(first, second);
+        assertThat(directory.resolve("first.tmp")).doesNotExist();
+    }
+
+    @Test
+    void readsAFileWithThePlainNameAsTheFirstGeneration() throws IOException {
+        Path plain = Files.writeString(directory.resolve("search.idx"), "0");
+        GenerationalFile file = new GenerationalFile(plain);
+
+        assertThat(file.current()).contains(plain);
+        assertThat(file.commit(Files.writeString(directory.resolve("next.tmp"), "1")).getFileName()).hasToString("search~1.idx");
+    }
+
+    @Test
+    void ordersGenerationsNumericallyAndIgnoresOtherFiles() throws IOException {
+        for (String name : new String[]{"search~10.idx", "search~9.idx", "search~x.idx", "search.tmp", "searches.idx", "other~11.idx"}) {
+            Files.writeString(directory.resolve(name), name);
+        }
+        GenerationalFile file = new GenerationalFile(directory.resolve("search.idx"));
+
+        assertThat(file.generations()).containsExactly(directory.resolve("search~9.idx"), directory.resolve("search~10.idx"));
+        assertThat(file.commit(Files.writeString(directory.resolve("next.tmp"), "")).getFileName()).hasToString("search~11.idx");
+    }
+
+    @Test
+    void deletesEveryGenerationButTheNewest() throws IOException {
+        GenerationalFile file = new GenerationalFile(directory.resolve("search.idx"));
+        Files.writeString(directory.resolve("search.idx"), "0");
+        file.commit(Files.writeString(directory.resolve("first.tmp"), "1"));
+        Path newest = file.commit(Files.writeString(directory.resolve("second.tmp"), "2"));
+
+        file.deleteStale();
+
+        assertThat(file.generations()).containsExactly(newest);
+        assertThat(newest).hasContent("2");
+    }
+
+    @Test
+    void hasNoGenerationsInADirectoryThatDoesNotExist() throws IOException {
+        GenerationalFile file = new GenerationalFile(directory.resolve("missing").resolve("search.idx"));
+
+        assertThat(file.generations()).isEmpty();
+        assertThat(file.current()).isEmpty();
+        file.deleteStale();
+    }
+}
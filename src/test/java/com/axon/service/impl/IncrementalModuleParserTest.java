@@ -0,0 +1,96 @@
+package com.axon.service.impl;
+
+import com.axon.model.Lesson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalModuleParserTest {
+
+    private static final String LESSON_1 = "{\"title\":\"Init\",\"concept\":\"Create a repository\",\"command\":\"git init\","
+            + "\"example_output\":\"Initialized\",\"practiceCommand\":\"git init demo\",\"hint\":\"Start here\"}";
+    private static final String LESSON_2 = "{\"title\":\"Status\",\"concept\":\"See changes\",\"command\":\"git status\","
+            + "\"example_output\":\"On branch main\",\"practiceCommand\":\"git status -s\",\"hint\":\"Often\"}";
+    private static final String MODULE = "{\"moduleName\":\"Git Basics\",\"lessons\":[" + LESSON_1 + "," + LESSON_2 + "]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Lesson> published = new ArrayList<>();
+    private final IncrementalModuleParser parser = new IncrementalModuleParser(objectMapper, published::add);
+
+    @Test
+    void publishesEachLessonAsSoonAsItsObjectCloses() {
+        String untilFirstLessonEnds = MODULE.substring(0, MODULE.indexOf(LESSON_1) + LESSON_1.length());
+
+        feedInPieces(untilFirstLessonEnds, 7);
+
+        assertThat(published).extracting(Lesson::title).containsExactly("Init");
+        assertThat(parser.isComplete()).isFalse();
+
+        feedInPieces(MODULE.substring(untilFirstLessonEnds.length()), 7);
+
+        assertThat(published).extracting(Lesson::title).containsExactly("Init", "Status");
+        assertThat(parser.isComplete()).isTrue();
+        assertThat(parser.toModule().moduleName()).isEqualTo("Git Basics");
+        assertThat(parser.toModule().lessons()).isEqualTo(published);
+    }
+
+    @Test
+    void ignoresTextAroundTheRootObject() {
+        parser.feed("Here is the module:\n```json\n");
+        parser.feed(MODULE);
+        parser.feed("\n```\nEnjoy!");
+
+        assertThat(parser.isComplete()).isTrue();
+        assertThat(published).hasSize(2);
+    }
+
+    @Test
+    void skipsFieldsAndNestingItDoesNotKnow() {
+        String lesson = "{\"title\":\"Nested\",\"extra\":{\"tags\":[\"a\",{\"b\":[1,2]}]},\"hint\":\"h\"}";
+        String module = "{\"meta\":{\"lessons\":[{\"title\":\"Not a lesson\"}]},\"lessons\":[" + lesson + "],\"moduleName\":\"Late name\"}";
+
+        feedInPieces(module, 3);
+
+        assertThat(published).extracting(Lesson::title).containsExactly("Nested");
+        assertThat(parser.toModule().moduleName()).isEqualTo("Late name");
+        assertThat(parser.isComplete()).isTrue();
+    }
+
+    @Test
+    void keepsCharactersSplitAcrossChunks() {
+        String module = "{\"moduleName\":\"Grundlagen – Übersicht 🚀\",\"lessons\":[{\"title\":\"Café ☕\"}]}";
+
+        feedInPieces(module, 1);
+
+        assertThat(parser.toModule().moduleName()).isEqualTo("Grundlagen – Übersicht 🚀");
+        assertThat(published).extracting(Lesson::title).containsExactly("Café ☕");
+    }
+
+    @Test
+    void keepsTheLessonsBeforeMalformedOutput() {
+        parser.feed("{\"moduleName\":\"Git\",\"lessons\":[" + LESSON_1 + ",{\"title\":\"Broken\" \"hint\"}]}");
+
+        assertThat(parser.isComplete()).isFalse();
+        assertThat(published).extracting(Lesson::title).containsExactly("Init");
+    }
+
+    @Test
+    void isIncompleteWhenTheStreamStopsEarly() {
+        parser.feed(MODULE.substring(0, MODULE.length() - 5));
+
+        assertThat(parser.isComplete()).isFalse();
+        assertThat(parser.toModule().lessons()).hasSize(1);
+    }
+
+    private void feedInPieces(String text, int size) {
+        // Split on code points, as streamed deltas never cut a character in half.
+        int[] codePoints = text.codePoints().toArray();
+        for (int i = 0; i < codePoints.length; i += size) {
+            parser.feed(new String(codePoints, i, Math.min(size, codePoints.length - i)));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.CancellationToken;
+import com.axon.service.impl.JobScheduler.Job;
+import com.axon.service.impl.JobScheduler.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JobScheduler scheduler = new JobScheduler(meterRegistry);
+
+    @Test
+    void runsTheWorkInTheBackgroundAndKeepsItsOutcome() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        Job<String> job = scheduler.submit("ask", "ask: what is HEAD?", false, self -> {
+            self.reportProgress("12 chars");
+            await(release);
+            return "An answer.";
+        });
+
+        assertThat(job.state()).isEqualTo(State.RUNNING);
+        release.countDown();
+        assertThat(job.result().get(5, TimeUnit.SECONDS)).isEqualTo("An answer.");
+        assertThat(job.state()).isEqualTo(State.DONE);
+        assertThat(job.progress()).isEqualTo("12 chars");
+        assertThat(job.cancel()).isFalse();
+        awaitTimer("done");
+    }
+
+    @Test
+    void reportsTheCauseOfAFailure() {
+        Job<String> job = scheduler.submit("start", "start git basics", true, self -> {
+            throw new IllegalStateException("provider down");
+        });
+
+        assertThatThrownBy(() -> job.result().get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("provider down");
+        assertThat(job.state()).isEqualTo(State.FAILED);
+    }
+
+    @Test
+    void cancellingAJobCancelsTheTokenItRunsWith() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Job<String> job = scheduler.submit("start", "start git basics", true, self -> {
+            CountDownLatch cancelled = new CountDownLatch(1);
+            try (CancellationToken.Registration ignored = CancellationToken.current().onCancel(cancelled::countDown)) {
+                started.countDown();
+                await(cancelled);
+            }
+            CancellationToken.current().throwIfCancelled();
+            return "not cancelled";
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(job.cancel()).isTrue();
+
+        assertThatThrownBy(() -> job.result().get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        assertThat(job.state()).isEqualTo(State.CANCELLED);
+    }
+
+    @Test
+    void runsOnlyOneExclusiveJobAtATime() {
+        CountDownLatch release = new CountDownLatch(1);
+        Job<String> start = scheduler.submit("start", "start git basics", true, self -> {
+            await(release);
+            return "started";
+        });
+
+        assertThatThrownBy(() -> scheduler.submit("more", "more", true, self -> "more"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Job " + start.id() + " (start git basics) is still running");
+        Job<String> ask = scheduler.submit("ask", "ask", false, self -> "answer");
+
+        assertThat(ask.result().join()).isEqualTo("answer");
+        release.countDown();
+        start.result().join();
+        assertThat(scheduler.submit("more", "more", true, self -> "more").result().join()).isEqualTo("more");
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentFinishedJobs() {
+        for (int i = 0; i < 25; i++) {
+            scheduler.submit("ask", "ask " + i, false, self -> "answer").result().join();
+        }
+
+        scheduler.submit("ask", "last", false, self -> "answer").result().join();
+
+        assertThat(scheduler.getJobs()).hasSize(21);
+        assertThat(scheduler.getJobs().getFirst().id()).isEqualTo(6);
+        assertThat(scheduler.getJob(1)).isEmpty();
+    }
+
+    @Test
+    void cancelsRunningJobsOnShutdown() {
+        Job<String> job = scheduler.submit("start", "start git basics", true, self -> {
+            CountDownLatch cancelled = new CountDownLatch(1);
+            try (CancellationToken.Registration ignored = CancellationToken.current().onCancel(cancelled::countDown)) {
+                await(cancelled);
+            }
+            return "stopped";
+        });
+
+        scheduler.cancelAll();
+
+        assertThatThrownBy(() -> job.result().get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+    }
+
+    private void awaitTimer(String outcome) throws InterruptedException {
+        // The timer is stopped just after the result completes.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("axon.job").tag("outcome", outcome).timer() == null) {
+            assertThat(System.nanoTime()).as("waiting for the job timer").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
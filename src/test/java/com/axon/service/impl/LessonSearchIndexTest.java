@@ -0,0 +1,135 @@
+package com.axon.service.impl;
+
+import com.axon.model.Lesson;
+import com.axon.service.impl.LessonSearchIndex.Hit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class LessonSearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tokenizesCommandLines() {
+        assertThat(LessonSearchIndex.tokenize("Run `git commit --amend -m \"Fix\"`."))
+                .containsExactly("run", "git", "commit", "--amend", "amend", "-m", "fix");
+        assertThat(LessonSearchIndex.tokenize("ls -la")).containsExactly("ls", "-la", "-l", "-a", "la");
+        assertThat(LessonSearchIndex.tokenize("docker-compose up --scale=3"))
+                .containsExactly("docker-compose", "docker", "compose", "up", "--scale", "scale");
+        assertThat(LessonSearchIndex.tokenize("$ git push origin/main"))
+                .containsExactly("git", "push", "origin/main", "origin", "main");
+    }
+
+    @Test
+    void ranksTitleMatchesAboveMatchesInTheProse() {
+        LessonSearchIndex index = new LessonSearchIndex(directory.resolve("search.idx"));
+        index.index("git-branching", "git", "branching", List.of(
+                lesson("Merging branches", "Combine work. You could also rebase.", "git merge feature"),
+                lesson("Rebasing", "Replay commits onto another base.", "git rebase main")));
+
+        List<Hit> hits = index.search("rebase", 10);
+
+        assertThat(hits).extracting(Hit::title).containsExactly("Rebasing", "Merging branches");
+        assertThat(hits.getFirst()).extracting(Hit::technology, Hit::moduleKey, Hit::lessonNumber)
+                .containsExactly("git", "branching", 2);
+    }
+
+    @Test
+    void ranksLessonsThatMatchEveryTermFirstAndFallsBackToPrefixes() {
+        LessonSearchIndex index = new LessonSearchIndex(directory.resolve("search.idx"));
+        index.index("git-basics", "git", "basics", List.of(
+                lesson("Committing", "Record changes.", "git commit -m \"message\""),
+                lesson("Amending", "Change the last commit.", "git commit --amend")));
+
+        assertThat(index.search("commit amend", 10)).extracting(Hit::title).first().isEqualTo("Amending");
+        assertThat(index.search("--amend", 10)).extracting(Hit::title).containsExactly("Amending");
+        assertThat(index.search("amen", 10)).extracting(Hit::title).containsExactly("Amending");
+        assertThat(index.search("rebase", 10)).isEmpty();
+    }
+
+    @Test
+    void addsOnlyTheAppendedLessonsOfAModuleItAlreadyHolds() {
+        LessonSearchIndex index = new LessonSearchIndex(directory.resolve("search.idx"));
+        Lesson first = lesson("Status", "See what changed.", "git status");
+        index.index("git-basics", "git", "basics", List.of(first));
+
+        index.index("git-basics", "git", "basics", List.of(first, lesson("Stashing", "Put changes aside.", "git stash")));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("status", 10)).hasSize(1);
+        assertThat(index.search("stash", 10)).extracting(Hit::lessonNumber).containsExactly(2);
+    }
+
+    @Test
+    void replacesTheLessonsOfARegeneratedModuleAndForgetsRemovedOnes() {
+        LessonSearchIndex index = new LessonSearchIndex(directory.resolve("search.idx"));
+        index.index("git-basics", "git", "basics", List.of(lesson("Status", "See what changed.", "git status")));
+        index.index("docker-volumes", "docker", "volumes", List.of(lesson("Volumes", "Keep data.", "docker volume create data")));
+
+        index.index("git-basics", "git", "basics", List.of(lesson("Logging", "See the history.", "git log")));
+        index.remove("docker-volumes");
+
+        assertThat(index.search("status", 10)).isEmpty();
+        assertThat(index.search("volume", 10)).isEmpty();
+        assertThat(index.search("log", 10)).extracting(Hit::title).containsExactly("Logging");
+        assertThat(index.keys()).containsExactly("git-basics");
+    }
+
+    @Test
+    void findsTheSameLessonsAfterSavingAndReopening() throws IOException {
+        Path file = directory.resolve("search.idx");
+        LessonSearchIndex index = new LessonSearchIndex(file);
+        index.index("git-basics", "git", "basics", List.of(
+                lesson("Status", "See what changed.", "git status"),
+                lesson("Stashing", "Put changes aside.", "git stash")));
+        index.index("docker-volumes", "docker", "volumes", List.of(lesson("Volumes", "Keep data.", "docker volume create data")));
+        index.remove("docker-volumes");
+        List<Hit> before = index.search("git stash", 10);
+
+        index.save();
+        LessonSearchIndex reopened = new LessonSearchIndex(file);
+
+        assertThat(reopened.search("git stash", 10)).isEqualTo(before);
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.keys()).containsExactly("git-basics");
+        assertThat(reopened.savedAt()).isAfter(Instant.EPOCH);
+
+        // Changes after reopening go to the in-memory part and are merged by the next save.
+        reopened.index("git-branching", "git", "branching", List.of(lesson("Rebasing", "Replay commits.", "git rebase main")));
+        reopened.save();
+        assertThat(new LessonSearchIndex(file).search("rebase stash", 10))
+                .extracting(Hit::cacheKey, Hit::lessonNumber)
+                .containsExactlyInAnyOrder(tuple("git-branching", 1), tuple("git-basics", 2));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(path -> path.getFileName().toString())).containsExactly("search~2.idx");
+        }
+    }
+
+    @Test
+    void rebuildsFromScratchWhenTheFileIsUnreadable() throws IOException {
+        Path file = directory.resolve("search.idx");
+        Files.writeString(file, "not an index");
+
+        LessonSearchIndex index = new LessonSearchIndex(file);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.keys()).isEmpty();
+        index.index("git-basics", "git", "basics", List.of(lesson("Status", "See what changed.", "git status")));
+        assertThat(index.search("status", 10)).hasSize(1);
+    }
+
+    private static Lesson lesson(String title, String concept, String command) {
+        return new Lesson(title, concept, command, "", command, "");
+    }
+}
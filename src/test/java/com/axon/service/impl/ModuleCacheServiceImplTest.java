@@ -0,0 +1,151 @@
+package com.axon.service.impl;
+
+import com.axon.model.BundledModule;
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.ModuleCacheService.SearchHit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ModuleCacheServiceImplTest {
+
+    // The test JVM's user.home is a directory under target/, see the surefire configuration.
+    private static final Path AXON_DIR = Path.of(System.getProperty("user.home"), ".axon");
+    private static final Path CACHE_DIR = AXON_DIR.resolve("modules");
+
+    private ModuleCacheServiceImpl cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileSystemUtils.deleteRecursively(AXON_DIR);
+        cache = new ModuleCacheServiceImpl(new ObjectMapper(), 1);
+    }
+
+    @Test
+    void keyDependsOnEveryPartOfTheRequest() {
+        String key = cache.keyFor("git", "basics", "prompt", "model", 5000);
+
+        assertThat(cache.keyFor("Git", "basics", "prompt", "model", 5000)).isEqualTo(key);
+        assertThat(List.of(
+                cache.keyFor("docker", "basics", "prompt", "model", 5000),
+                cache.keyFor("git", "branching", "prompt", "model", 5000),
+                cache.keyFor("git", "basics", "other prompt", "model", 5000),
+                cache.keyFor("git", "basics", "prompt", "other-model", 5000),
+                cache.keyFor("git", "basics", "prompt", "model", 4000))).doesNotContain(key);
+        // Parts are separated, so moving text from one to the next changes the key.
+        assertThat(cache.keyFor("git", "basicsprompt", "", "model", 5000))
+                .isNotEqualTo(cache.keyFor("git", "basics", "prompt", "model", 5000));
+    }
+
+    @Test
+    void returnsWhatWasPut() {
+        LearningModule module = module("Git Basics", 3, 10);
+
+        cache.put("k1", "Git", "basics", module);
+
+        assertThat(cache.get("k1")).contains(module);
+        assertThat(cache.get("k2")).isEmpty();
+        assertThat(cache.listEntries()).singleElement().satisfies(entry -> {
+            assertThat(entry.technology()).isEqualTo("git");
+            assertThat(entry.lessonCount()).isEqualTo(3);
+        });
+        assertThat(CACHE_DIR).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void discardsAnUnreadableEntry() throws IOException {
+        Files.createDirectories(CACHE_DIR);
+        Files.writeString(CACHE_DIR.resolve("broken.json"), "{\"technology\": \"git\", \"modu");
+
+        assertThat(cache.get("broken")).isEmpty();
+        assertThat(CACHE_DIR.resolve("broken.json")).doesNotExist();
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOverTheSizeLimit() throws IOException {
+        // Each entry is about 400 KB, so the 1 MB cache holds two.
+        cache.put("a", "git", "a", module("A", 4, 100_000));
+        age("a", Duration.ofMinutes(2));
+        cache.put("b", "git", "b", module("B", 4, 100_000));
+        age("b", Duration.ofMinutes(1));
+        // Reading 'a' makes 'b' the least recently used entry.
+        assertThat(cache.get("a")).isPresent();
+
+        cache.put("c", "git", "c", module("C", 4, 100_000));
+
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("a")).isPresent();
+        assertThat(cache.get("c")).isPresent();
+        assertThat(cache.totalSizeBytes()).isLessThanOrEqualTo(cache.maxSizeBytes());
+    }
+
+    @Test
+    void sweepsOnlyStaleTemporaryFilesAtStartup() throws IOException {
+        Files.createDirectories(CACHE_DIR);
+        Path stale = Files.createFile(CACHE_DIR.resolve("crashed.tmp"));
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Path fresh = Files.createFile(CACHE_DIR.resolve("writing.tmp"));
+
+        cache.openSearchIndex();
+        // A search waits for the startup work to finish.
+        cache.search("anything", 1);
+
+        assertThat(stale).doesNotExist();
+        assertThat(fresh).exists();
+    }
+
+    @Test
+    void purgeRemovesEveryEntry() {
+        cache.put("a", "git", "a", module("A", 2, 10));
+        cache.put("b", "git", "b", module("B", 2, 10));
+
+        assertThat(cache.purge()).isEqualTo(2);
+        assertThat(cache.listEntries()).isEmpty();
+        assertThat(cache.search("lesson", 5)).isEmpty();
+    }
+
+    @Test
+    void purgeKeepsTheLessonsOfInstalledPacksSearchable(@TempDir Path directory) throws IOException {
+        LearningModule stashing = new LearningModule("Stashing", List.of(
+                new Lesson("Stashing changes", "Put work in progress aside.", "git stash", "", "git stash", "")));
+        Path file = directory.resolve("git.pack");
+        CurriculumPack.write(file, List.of(new BundledModule("git", "stash", "stash", stashing)));
+        cache.installPack(file);
+        // A cached copy, e.g. with more lessons, is what is served and indexed in place of the pack's.
+        cache.put("stash", "git", "stash", module("Cached", 2, 10));
+        cache.put("b", "git", "b", module("B", 2, 10));
+        assertThat(cache.search("aside", 5)).isEmpty();
+
+        assertThat(cache.purge()).isEqualTo(2);
+
+        assertThat(cache.search("lesson", 5)).isEmpty();
+        assertThat(cache.search("aside", 5)).extracting(SearchHit::moduleKey, SearchHit::title)
+                .containsExactly(tuple("stash", "Stashing changes"));
+        assertThat(cache.find("stash", "git", "stash")).contains(stashing);
+    }
+
+    private static void age(String key, Duration age) throws IOException {
+        Files.setLastModifiedTime(CACHE_DIR.resolve(key + ".json"), FileTime.from(Instant.now().minus(age)));
+    }
+
+    private static LearningModule module(String name, int lessons, int conceptLength) {
+        return new LearningModule(name, IntStream.rangeClosed(1, lessons)
+                .mapToObj(i -> new Lesson("Lesson " + i, "x".repeat(conceptLength), "git status", "", "git status", ""))
+                .toList());
+    }
+}
@@ -0,0 +1,157 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.CancellationToken;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoreLessonsPrefetcherTest {
+
+    private final StubAiTutorService ai = new StubAiTutorService();
+    private final GitPromptServiceImpl git = new GitPromptServiceImpl(400);
+    private final List<Lesson> lessons = StubAiTutorService.module("Git Basics", 10).lessons();
+
+    @Test
+    void prefetchesOnlyNearTheEndOfTheModule() {
+        ai.modules = prompt -> StubAiTutorService.module("More", 5);
+        MoreLessonsPrefetcher prefetcher = new MoreLessonsPrefetcher(ai, true, 3, 12000, Duration.ofHours(1));
+
+        prefetcher.onProgress("module", git, "basics", lessons, 5, 4000);
+        assertThat(prefetcher.take("module", 10)).isEmpty();
+
+        prefetcher.onProgress("module", git, "basics", lessons, 6, 4000);
+        prefetcher.onProgress("module", git, "basics", lessons, 7, 4000);
+
+        assertThat(prefetcher.take("module", 10)).hasValueSatisfying(batch -> assertThat(batch.lessons()).hasSize(5));
+        assertThat(ai.prompts).hasSize(1);
+    }
+
+    @Test
+    void doesNotHandABatchToAModuleThatChanged() {
+        ai.modules = prompt -> StubAiTutorService.module("More", 5);
+        MoreLessonsPrefetcher prefetcher = new MoreLessonsPrefetcher(ai, true, 3, 12000, Duration.ofHours(1));
+
+        prefetcher.onProgress("module", git, "basics", lessons, 9, 4000);
+
+        assertThat(prefetcher.take("module", 11)).isEmpty();
+        assertThat(prefetcher.take("other", 10)).isEmpty();
+        assertThat(prefetcher.take("module", 10)).isPresent();
+        // It was taken, so it is not staged anymore.
+        assertThat(prefetcher.take("module", 10)).isEmpty();
+    }
+
+    @Test
+    void stopsPrefetchingOnceDiscardedPrefetchesReachTheCap() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ai.modules = prompt -> {
+            started.countDown();
+            awaitQuietly(release);
+            return StubAiTutorService.module("More", 5);
+        };
+        MoreLessonsPrefetcher prefetcher = new MoreLessonsPrefetcher(ai, true, 3, 1000, Duration.ofHours(1));
+
+        prefetcher.onProgress("a", git, "basics", lessons, 9, 600);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // Switching modules discards the first prefetch, and another 600 tokens would exceed the cap.
+        prefetcher.onProgress("b", git, "basics", lessons, 9, 600);
+        release.countDown();
+
+        assertThat(prefetcher.take("b", 10)).isEmpty();
+        assertThat(ai.prompts).hasSize(1);
+    }
+
+    @Test
+    void forgetsDiscardedPrefetchesAfterTheWindow() throws InterruptedException {
+        ai.modules = prompt -> StubAiTutorService.module("More", 5);
+        MoreLessonsPrefetcher prefetcher = new MoreLessonsPrefetcher(ai, true, 3, 1000, Duration.ofMillis(50));
+
+        prefetcher.onProgress("a", git, "basics", lessons, 9, 600);
+        prefetcher.cancel();
+        Thread.sleep(100);
+        prefetcher.onProgress("b", git, "basics", lessons, 9, 600);
+
+        assertThat(prefetcher.take("b", 10)).isPresent();
+    }
+
+    @Test
+    void doesNotCountAFailedPrefetch() throws InterruptedException {
+        CountDownLatch failed = new CountDownLatch(1);
+        ai.modules = prompt -> {
+            failed.countDown();
+            throw new RuntimeException("provider down");
+        };
+        MoreLessonsPrefetcher prefetcher = new MoreLessonsPrefetcher(ai, true, 3, 1000, Duration.ofHours(1));
+
+        prefetcher.onProgress("a", git, "basics", lessons, 9, 600);
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+        // The batch completes exceptionally just after the request throws.
+        Thread.sleep(100);
+
+        // Switching modules discards the failed prefetch without counting its 600 tokens.
+        ai.modules = prompt -> StubAiTutorService.module("More", 5);
+        prefetcher.onProgress("b", git, "basics", lessons, 9, 600);
+
+        assertThat(prefetcher.take("b", 10)).map(LearningModule::moduleName).contains("More");
+    }
+
+    @Test
+    void cancellingTheCallerEndsTheWaitAndStagesTheBatchAgain() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ai.modules = prompt -> {
+            started.countDown();
+            awaitQuietly(release);
+            return StubAiTutorService.module("More", 5);
+        };
+        MoreLessonsPrefetcher prefetcher = new MoreLessonsPrefetcher(ai, true, 3, 12000, Duration.ofHours(1));
+        prefetcher.onProgress("module", git, "basics", lessons, 9, 4000);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CancellationToken command = new CancellationToken();
+        CompletableFuture<Throwable> outcome = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                command.call(() -> prefetcher.take("module", 10));
+                outcome.complete(null);
+            } catch (Throwable e) {
+                outcome.complete(e);
+            }
+        });
+
+        Thread.sleep(100);
+        command.cancel();
+
+        assertThat(outcome.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        // The prefetch itself keeps running, and the next 'more' takes its batch.
+        release.countDown();
+        assertThat(prefetcher.take("module", 10)).map(LearningModule::moduleName).contains("More");
+        assertThat(ai.prompts).hasSize(1);
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        MoreLessonsPrefetcher prefetcher = new MoreLessonsPrefetcher(ai, false, 3, 12000, Duration.ofHours(1));
+
+        prefetcher.onProgress("module", git, "basics", lessons, 9, 4000);
+
+        assertThat(prefetcher.take("module", 10)).isEmpty();
+        assertThat(ai.prompts).isEmpty();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.axon.service.impl;
+
+import com.axon.service.impl.TutorialStateServiceImpl.Progress;
+import com.axon.service.impl.TutorialStateServiceImpl.SavedProgress;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressJournalTest {
+
+    // The test JVM's user.home is a directory under target/, see the surefire configuration.
+    private static final Path HOME = Path.of(System.getProperty("user.home"));
+    private static final Path SNAPSHOT_FILE = HOME.resolve(".axon-progress.json");
+    private static final Path JOURNAL_FILE = HOME.resolve(".axon-progress.journal");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(HOME);
+        Files.deleteIfExists(SNAPSHOT_FILE);
+        Files.deleteIfExists(JOURNAL_FILE);
+    }
+
+    @Test
+    void loadsWhatWasSaved() {
+        ProgressJournal journal = newJournal(Duration.ZERO, DataSize.ofKilobytes(64));
+        assertThat(journal.load()).isEmpty();
+
+        journal.save(progress("git", "basics", 3));
+        journal.close();
+
+        assertThat(newJournal(Duration.ZERO, DataSize.ofKilobytes(64)).load()).contains(progress("git", "basics", 3));
+    }
+
+    @Test
+    void writesSavesInQuickSuccessionOnce() throws IOException {
+        ProgressJournal journal = newJournal(Duration.ofSeconds(5), DataSize.ofKilobytes(64));
+
+        for (int lesson = 1; lesson <= 5; lesson++) {
+            journal.save(progress("git", "basics", lesson));
+        }
+        // Closing writes what is queued without waiting out the delay.
+        journal.close();
+
+        assertThat(Files.readAllLines(JOURNAL_FILE)).hasSize(1);
+        assertThat(journal.load()).contains(progress("git", "basics", 5));
+    }
+
+    @Test
+    void skipsATornLastLineAndStartsTheNextEntryOnAFreshLine() throws IOException {
+        Files.writeString(JOURNAL_FILE, objectMapper.writeValueAsString(progress("git", "basics", 2)) + "\n{\"currentTechnology\":\"gi");
+        ProgressJournal journal = newJournal(Duration.ZERO, DataSize.ofKilobytes(64));
+
+        assertThat(journal.load()).contains(progress("git", "basics", 2));
+
+        journal.save(progress("git", "basics", 3));
+        journal.close();
+
+        assertThat(Files.readAllLines(JOURNAL_FILE)).hasSize(3);
+        assertThat(journal.load()).contains(progress("git", "basics", 3));
+    }
+
+    @Test
+    void compactsTheJournalIntoTheSnapshotOnceItIsTooLarge() throws IOException {
+        // An entry is about 90 bytes, so the second one takes the journal over the limit.
+        ProgressJournal journal = newJournal(Duration.ZERO, DataSize.ofBytes(120));
+
+        journal.save(progress("git", "basics", 1));
+        journal.close();
+        assertThat(SNAPSHOT_FILE).doesNotExist();
+
+        journal = newJournal(Duration.ZERO, DataSize.ofBytes(120));
+        journal.save(progress("git", "basics", 2));
+        journal.close();
+
+        assertThat(JOURNAL_FILE).isEmptyFile();
+        assertThat(objectMapper.readValue(SNAPSHOT_FILE.toFile(), SavedProgress.class)).isEqualTo(progress("git", "basics", 2));
+        assertThat(journal.load()).contains(progress("git", "basics", 2));
+    }
+
+    @Test
+    void keepsTracksStartedByAnotherSession() {
+        ProgressJournal other = newJournal(Duration.ZERO, DataSize.ofKilobytes(64));
+        other.save(progress("docker", "intro", 4));
+        other.close();
+
+        ProgressJournal journal = newJournal(Duration.ZERO, DataSize.ofKilobytes(64));
+        journal.save(progress("git", "basics", 1));
+        journal.close();
+
+        assertThat(journal.load()).contains(new SavedProgress("git", "basics", 1, List.of(new Progress("docker", "intro", 4))));
+    }
+
+    @Test
+    void mergePrefersOurTracksAndLeavesTheActiveOneOutOfTheList() {
+        SavedProgress ours = new SavedProgress("git", "basics", 3, List.of(new Progress("docker", "intro", 2)));
+        SavedProgress saved = new SavedProgress("linux", "files", 7,
+                List.of(new Progress("Git", "basics", 1), new Progress("docker", "intro", 5)));
+
+        SavedProgress merged = ProgressJournal.merge(ours, saved);
+
+        assertThat(merged).isEqualTo(new SavedProgress("git", "basics", 3,
+                List.of(new Progress("docker", "intro", 2), new Progress("linux", "files", 7))));
+    }
+
+    private ProgressJournal newJournal(Duration syncDelay, DataSize journalMaxSize) {
+        return new ProgressJournal(objectMapper, new SimpleMeterRegistry(), syncDelay, journalMaxSize);
+    }
+
+    private static SavedProgress progress(String technology, String moduleKey, int lessonIndex) {
+        return new SavedProgress(technology, moduleKey, lessonIndex, List.of());
+    }
+}
@@ -0,0 +1,153 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.AiServiceException;
+import com.axon.service.impl.AiTutorServiceImplTest.FakeProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.axon.service.impl.AiTutorServiceImplTest.chunk;
+import static com.axon.service.impl.AiTutorServiceImplTest.send;
+import static com.axon.service.impl.AiTutorServiceImplTest.sse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResilientAiTutorServiceTest {
+
+    private static final AiRequestContext ASK = AiRequestContext.of(AiRequestType.ASK, "git");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FakeProvider server = new FakeProvider();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.deleteIfExists(Path.of(System.getProperty("user.home"), ".axon", "token-usage.json"));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void retriesATransientFailure() {
+        server.respond("/v1", exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                send(exchange, 503, "text/plain", "overloaded");
+            } else {
+                sse(exchange, chunk("Use git status.", "stop"));
+            }
+        });
+        ResilientAiTutorService service = newService(transport(5), false);
+
+        String answer = service.streamAnswerFromPrompt(ASK, "question", 1000, delta -> {});
+
+        assertThat(answer).isEqualTo("Use git status.");
+        assertThat(server.requests).hasSize(2);
+    }
+
+    @Test
+    void doesNotRetryARejectedRequest() {
+        server.respond("/v1", exchange -> send(exchange, 400, "text/plain", "bad request"));
+        ResilientAiTutorService service = newService(transport(5), false);
+
+        assertThatThrownBy(() -> service.streamAnswerFromPrompt(ASK, "question", 1000, delta -> {}))
+                .isInstanceOf(AiServiceException.class)
+                .hasMessageContaining("400");
+        assertThat(server.requests).hasSize(1);
+    }
+
+    @Test
+    void givesUpWhenTheProviderAsksToWaitTooLong() {
+        server.respond("/v1", exchange -> {
+            exchange.getResponseHeaders().set("Retry-After", "120");
+            send(exchange, 429, "text/plain", "slow down");
+        });
+        ResilientAiTutorService service = newService(transport(5), false);
+
+        assertThatThrownBy(() -> service.streamAnswerFromPrompt(ASK, "question", 1000, delta -> {}))
+                .isInstanceOf(AiServiceException.class)
+                .hasMessageContaining("429");
+        assertThat(server.requests).hasSize(1);
+    }
+
+    @Test
+    void servesTheLastGoodResponseWhileTheCircuitIsOpen() {
+        server.respond("/v1", exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                sse(exchange, chunk("Use git status.", "stop"));
+            } else {
+                send(exchange, 503, "text/plain", "overloaded");
+            }
+        });
+        // The first failure opens the circuit, so the retry finds it open.
+        ResilientAiTutorService service = newService(transport(1), false);
+        service.streamAnswerFromPrompt(ASK, "question", 1000, delta -> {});
+        List<String> deltas = new ArrayList<>();
+
+        String answer = service.streamAnswerFromPrompt(ASK, "question", 1000, deltas::add);
+
+        assertThat(answer).isEqualTo("Use git status.");
+        assertThat(deltas).containsExactly("Use git status.");
+        assertThat(server.requests).hasSize(2);
+        assertThatThrownBy(() -> service.streamAnswerFromPrompt(ASK, "another question", 1000, delta -> {}))
+                .isInstanceOf(CircuitOpenException.class);
+    }
+
+    @Test
+    void hedgesACallThatIsSlowerThanUsual() {
+        server.respond("/v1", exchange -> {
+            if (calls.incrementAndGet() == 2) {
+                sleep(Duration.ofSeconds(5));
+            }
+            sse(exchange, chunk("Call " + calls.get(), "stop"));
+        });
+        ResilientAiTutorService service = newService(transport(5), true);
+        service.streamAnswerFromPrompt(ASK, "question", 1000, delta -> {});
+        List<String> deltas = new ArrayList<>();
+        long start = System.nanoTime();
+
+        String answer = service.streamAnswerFromPrompt(ASK, "question", 1000, deltas::add);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+        assertThat(answer).isEqualTo("Call 3");
+        // Only the winner's output reaches the caller.
+        assertThat(deltas).containsExactly("Call 3");
+        assertThat(server.requests).hasSize(3);
+    }
+
+    private ResilientAiTutorService newService(AiTutorServiceImpl transport, boolean hedging) {
+        return new ResilientAiTutorService(transport, 3, Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofSeconds(1),
+                hedging, 1, Duration.ofMillis(100), 16);
+    }
+
+    private AiTutorServiceImpl transport(int failureThreshold) {
+        AiProviderRouter router = new AiProviderRouter(new AiProviderProperties(List.of()), server.url("/v1"), "key", "model",
+                0.3, Duration.ofSeconds(30), failureThreshold, Duration.ofMinutes(1));
+        TokenBudget tokenBudget = new TokenBudget(objectMapper, false, 1.0, 0.0, 1, 50, 1.5, 1, 16384);
+        return new AiTutorServiceImpl(objectMapper, new SimpleMeterRegistry(), tokenBudget, router,
+                1, Duration.ofMinutes(1), Duration.ofSeconds(10), Duration.ofSeconds(10), false);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
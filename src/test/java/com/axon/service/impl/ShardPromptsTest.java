@@ -0,0 +1,39 @@
+package com.axon.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardPromptsTest {
+
+    private final GitPromptServiceImpl git = new GitPromptServiceImpl(400);
+
+    @Test
+    void asksForTheTitlesOfTheWholeModule() {
+        String prompt = ShardPrompts.outline("the basics of Git", 30);
+
+        assertThat(prompt).contains("learning about 'the basics of Git'", "exactly 30 lesson objects", "only a \"title\"");
+    }
+
+    @Test
+    void asksForOneSliceOfTheOutlineByItsTitles() {
+        String prompt = ShardPrompts.lessonSlice("the basics of Git", List.of("Init", "Add", "Commit", "Log"), 1, 3, "RULES");
+
+        assertThat(prompt).contains("1. Init\n2. Add\n3. Commit\n4. Log",
+                "Write lessons 2 to 3 only", "in this order: \"Add\", \"Commit\".\nRULES\n\nOutput only the raw JSON.");
+    }
+
+    @Test
+    void holdsASliceToTheSameRulesAsTheWholeModule() {
+        String initial = git.buildInitialModulePrompt("basics");
+        String slice = git.buildLessonSlicePrompt("basics", List.of("Init", "Add", "Commit"), 0, 2);
+
+        for (String rule : List.of("This MUST be the *exact*, simple command", "<commit>...</commit>", "EXAMPLE LESSON OBJECT:",
+                "\"practiceCommand\": \"git add README.md\"")) {
+            assertThat(initial).contains(rule);
+            assertThat(slice).contains(rule);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.CancellationToken;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightAiTutorServiceTest {
+
+    private static final AiRequestContext MODULE = AiRequestContext.of(AiRequestType.MODULE, "git");
+
+    private final StubAiTutorService ai = new StubAiTutorService();
+    private final SingleFlightAiTutorService service = new SingleFlightAiTutorService(new ForwardingResilientService(ai));
+    private final CountDownLatch firstLessonSent = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch requestCancelled = new CountDownLatch(1);
+
+    @Test
+    void collapsesIdenticalRequestsAndReplaysWhatWasAlreadyStreamed() throws Exception {
+        ai.streamedModules = this::twoLessonsOnRelease;
+        List<String> firstLessons = new CopyOnWriteArrayList<>();
+        List<String> secondLessons = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<LearningModule> first = request("prompt", firstLessons, new CancellationToken());
+        assertThat(firstLessonSent.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<LearningModule> second = request("prompt", secondLessons, new CancellationToken());
+        awaitCondition(() -> secondLessons.size() == 1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+        assertThat(firstLessons).containsExactly("Lesson 1", "Lesson 2");
+        assertThat(secondLessons).containsExactly("Lesson 1", "Lesson 2");
+        assertThat(ai.prompts).hasSize(1);
+    }
+
+    @Test
+    void doesNotCollapseDifferentPrompts() {
+        ai.modules = prompt -> StubAiTutorService.module(prompt, 1);
+
+        service.generateModuleFromPrompt(MODULE, "first", 1000);
+        service.generateModuleFromPrompt(MODULE, "second", 1000);
+        service.generateModuleFromPrompt(MODULE, "second", 2000);
+
+        assertThat(ai.prompts).containsExactly("first", "second", "second");
+    }
+
+    @Test
+    void keepsTheRequestRunningWhileAnyCallerIsAttached() throws Exception {
+        ai.streamedModules = this::twoLessonsOnRelease;
+        CancellationToken firstCaller = new CancellationToken();
+        List<String> secondLessons = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<LearningModule> first = request("prompt", new CopyOnWriteArrayList<>(), firstCaller);
+        assertThat(firstLessonSent.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<LearningModule> second = request("prompt", secondLessons, new CancellationToken());
+        awaitCondition(() -> secondLessons.size() == 1);
+        firstCaller.cancel();
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        release.countDown();
+        assertThat(second.get(5, TimeUnit.SECONDS).lessons()).hasSize(2);
+        assertThat(requestCancelled.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelsTheRequestWhenEveryCallerHasLeft() throws Exception {
+        ai.streamedModules = this::twoLessonsOnRelease;
+        CancellationToken firstCaller = new CancellationToken();
+        CancellationToken secondCaller = new CancellationToken();
+        List<String> secondLessons = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<LearningModule> first = request("prompt", new CopyOnWriteArrayList<>(), firstCaller);
+        assertThat(firstLessonSent.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<LearningModule> second = request("prompt", secondLessons, secondCaller);
+        awaitCondition(() -> secondLessons.size() == 1);
+        firstCaller.cancel();
+        secondCaller.cancel();
+
+        assertThat(requestCancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+
+        // An abandoned request is not reused.
+        ai.streamedModules = null;
+        ai.modules = prompt -> StubAiTutorService.module("Again", 1);
+        assertThat(service.streamModuleFromPrompt(MODULE, "prompt", 1000, lesson -> {}).moduleName()).isEqualTo("Again");
+        assertThat(ai.prompts).hasSize(2);
+    }
+
+    @Test
+    void sharesAFailureWithEveryAttachedCaller() throws InterruptedException {
+        ai.streamedModules = (prompt, onLesson) -> {
+            onLesson.accept(StubAiTutorService.module("Git", 1).lessons().getFirst());
+            firstLessonSent.countDown();
+            awaitQuietly(release);
+            throw new IllegalStateException("provider down");
+        };
+        List<String> secondLessons = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<LearningModule> first = request("prompt", new CopyOnWriteArrayList<>(), new CancellationToken());
+        assertThat(firstLessonSent.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<LearningModule> second = request("prompt", secondLessons, new CancellationToken());
+        awaitCondition(() -> secondLessons.size() == 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("provider down");
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("provider down");
+        assertThat(ai.prompts).hasSize(1);
+    }
+
+    /**
+     * Streams the first lesson, then waits for {@link #release} before streaming the second.
+     */
+    private LearningModule twoLessonsOnRelease(String prompt, Consumer<Lesson> onLesson) {
+        LearningModule module = StubAiTutorService.module("Git", 2);
+        try (CancellationToken.Registration ignored = CancellationToken.current().onCancel(requestCancelled::countDown)) {
+            onLesson.accept(module.lessons().get(0));
+            firstLessonSent.countDown();
+            awaitQuietly(release);
+            CancellationToken.current().throwIfCancelled();
+            onLesson.accept(module.lessons().get(1));
+            return module;
+        }
+    }
+
+    private CompletableFuture<LearningModule> request(String prompt, List<String> lessons, CancellationToken cancellation) {
+        CompletableFuture<LearningModule> result = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                result.complete(cancellation.call(() -> service.streamModuleFromPrompt(MODULE, prompt, 1000,
+                        lesson -> lessons.add(lesson.title()))));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Passes every call straight to the stub, without retries or hedging.
+     */
+    private static class ForwardingResilientService extends ResilientAiTutorService {
+
+        private final StubAiTutorService stub;
+
+        ForwardingResilientService(StubAiTutorService stub) {
+            super(null, 1, Duration.ZERO, Duration.ZERO, Duration.ZERO, false, 1, Duration.ZERO, 0);
+            this.stub = stub;
+        }
+
+        @Override
+        public LearningModule generateModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+            return stub.generateModuleFromPrompt(context, prompt, maxTokens);
+        }
+
+        @Override
+        public LearningModule streamModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<Lesson> onLesson) {
+            return stub.streamModuleFromPrompt(context, prompt, maxTokens, onLesson);
+        }
+
+        @Override
+        public String answerQuestionFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+            return stub.answerQuestionFromPrompt(context, prompt, maxTokens);
+        }
+
+        @Override
+        public String streamAnswerFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<String> onDelta) {
+            return stub.streamAnswerFromPrompt(context, prompt, maxTokens, onDelta);
+        }
+
+        @Override
+        public String getModelName(AiRequestType type) {
+            return stub.getModelName(type);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.model.Lesson;
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.AiTutorService;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * An AI service that answers from functions set by the test, and records the prompts it was sent.
+ * Streamed calls deliver the lessons or the answer in one piece, unless {@link #streamedModules} is set.
+ */
+class StubAiTutorService implements AiTutorService {
+
+    final List<String> prompts = new CopyOnWriteArrayList<>();
+    volatile Function<String, LearningModule> modules = prompt -> {
+        throw new AssertionError("Unexpected module request: " + prompt);
+    };
+    // Given the prompt and the lesson consumer; streams modules lesson by lesson when set.
+    volatile BiFunction<String, Consumer<Lesson>, LearningModule> streamedModules;
+    volatile Function<String, String> answers = prompt -> {
+        throw new AssertionError("Unexpected question: " + prompt);
+    };
+
+    @Override
+    public LearningModule generateModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+        prompts.add(prompt);
+        return modules.apply(prompt);
+    }
+
+    @Override
+    public LearningModule streamModuleFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<Lesson> onLesson) {
+        if (streamedModules != null) {
+            prompts.add(prompt);
+            return streamedModules.apply(prompt, onLesson);
+        }
+        LearningModule module = generateModuleFromPrompt(context, prompt, maxTokens);
+        module.lessons().forEach(onLesson);
+        return module;
+    }
+
+    @Override
+    public String answerQuestionFromPrompt(AiRequestContext context, String prompt, int maxTokens) {
+        prompts.add(prompt);
+        return answers.apply(prompt);
+    }
+
+    @Override
+    public String streamAnswerFromPrompt(AiRequestContext context, String prompt, int maxTokens, Consumer<String> onDelta) {
+        String answer = answerQuestionFromPrompt(context, prompt, maxTokens);
+        onDelta.accept(answer);
+        return answer;
+    }
+
+    @Override
+    public String getModelName(AiRequestType type) {
+        return "stub-model";
+    }
+
+    static LearningModule module(String name, int lessons) {
+        return new LearningModule(name, IntStream.rangeClosed(1, lessons)
+                .mapToObj(i -> new Lesson("Lesson " + i, "Concept " + i, "git status", "", "git status", "Hint " + i))
+                .toList());
+    }
+}
@@ -0,0 +1,120 @@
+package com.axon.service.impl;
+
+import com.axon.service.api.AiRequestContext;
+import com.axon.service.api.AiRequestType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBudgetTest {
+
+    // The test JVM's user.home is a directory under target/, see the surefire configuration.
+    private static final Path HISTORY_FILE = Path.of(System.getProperty("user.home"), ".axon", "token-usage.json");
+    private static final AiRequestContext GIT_MODULE = AiRequestContext.of(AiRequestType.MODULE, "git");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.deleteIfExists(HISTORY_FILE);
+    }
+
+    @Test
+    void sendsTheNominalLimitUntilThereIsEnoughHistory() {
+        TokenBudget budget = newBudget(5);
+
+        recordUsage(budget, 100, 200, 300, 400);
+
+        assertThat(budget.maxTokensFor(GIT_MODULE, 1000)).isEqualTo(1000);
+    }
+
+    @Test
+    void sendsTheUsagePercentilePlusHeadroomForAnyNominalLimit() {
+        TokenBudget budget = newBudget(5);
+
+        recordUsage(budget, 100, 200, 300, 400, 500);
+
+        // The 95th percentile of five samples is the largest, 50%, plus 20% headroom.
+        assertThat(budget.maxTokensFor(GIT_MODULE, 1000)).isEqualTo(600);
+        assertThat(budget.maxTokensFor(GIT_MODULE, 2000)).isEqualTo(1200);
+        assertThat(budget.maxTokensFor(AiRequestContext.of(AiRequestType.MODULE, "docker"), 1000)).isEqualTo(1000);
+        assertThat(budget.maxTokensFor(AiRequestContext.of(AiRequestType.ASK, "git"), 1000)).isEqualTo(1000);
+    }
+
+    @Test
+    void raisesTheLimitAfterATruncationAndLowersItGradually() {
+        TokenBudget budget = newBudget(5);
+        recordUsage(budget, 100, 200, 300, 400, 500);
+
+        assertThat(budget.record(GIT_MODULE, 1000, 600, 600, "length")).isTrue();
+
+        // 1.5 times the 600 that were not enough.
+        assertThat(budget.maxTokensFor(GIT_MODULE, 1000)).isEqualTo(900);
+
+        assertThat(budget.record(GIT_MODULE, 1000, 900, 100, "stop")).isFalse();
+
+        assertThat(budget.maxTokensFor(GIT_MODULE, 1000)).isEqualTo(855);
+    }
+
+    @Test
+    void keepsTheLimitWithinItsBounds() {
+        TokenBudget budget = newBudget(1);
+
+        recordUsage(budget, 1);
+
+        assertThat(budget.maxTokensFor(GIT_MODULE, 1000)).isEqualTo(256);
+        // A caller that asks for less than the minimum gets what it asked for.
+        assertThat(budget.maxTokensFor(GIT_MODULE, 100)).isEqualTo(100);
+
+        budget.record(GIT_MODULE, 1000, 1000, 1000, "length");
+        budget.record(GIT_MODULE, 1000, 1500, 1500, "length");
+
+        // 1.5 times 1500 is over the maximum.
+        assertThat(budget.maxTokensFor(GIT_MODULE, 1000)).isEqualTo(2000);
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentSamples() {
+        TokenBudget budget = new TokenBudget(objectMapper, true, 0.95, 0.0, 1, 3, 1.5, 1, 16384);
+
+        recordUsage(budget, 900, 100, 100, 100);
+
+        assertThat(budget.maxTokensFor(GIT_MODULE, 1000)).isEqualTo(100);
+    }
+
+    @Test
+    void remembersTheHistoryAcrossRestarts() {
+        recordUsage(newBudget(5), 100, 200, 300, 400, 500);
+
+        assertThat(newBudget(5).maxTokensFor(GIT_MODULE, 1000)).isEqualTo(600);
+    }
+
+    @Test
+    void sendsTheNominalLimitWhenDisabled() {
+        TokenBudget budget = new TokenBudget(objectMapper, false, 0.95, 0.2, 1, 50, 1.5, 256, 16384);
+
+        recordUsage(budget, 100);
+
+        assertThat(budget.maxTokensFor(GIT_MODULE, 1000)).isEqualTo(1000);
+        assertThat(HISTORY_FILE).doesNotExist();
+    }
+
+    private TokenBudget newBudget(int minSamples) {
+        return new TokenBudget(objectMapper, true, 0.95, 0.2, minSamples, 50, 1.5, 256, 2000);
+    }
+
+    /**
+     * Records untruncated responses that used the given tokens of a nominal 1000.
+     */
+    private static void recordUsage(TokenBudget budget, int... completionTokens) {
+        for (int tokens : completionTokens) {
+            budget.record(GIT_MODULE, 1000, 1000, tokens, "stop");
+        }
+    }
+}
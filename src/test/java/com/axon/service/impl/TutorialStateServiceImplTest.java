@@ -0,0 +1,277 @@
+package com.axon.service.impl;
+
+import com.axon.model.LearningModule;
+import com.axon.service.api.AiRequestType;
+import com.axon.service.api.CancellationToken;
+import com.axon.service.api.TrackSummary;
+import com.axon.service.impl.TutorialStateServiceImpl.Progress;
+import com.axon.service.impl.TutorialStateServiceImpl.SavedProgress;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TutorialStateServiceImplTest {
+
+    private static final Path HOME = Path.of(System.getProperty("user.home"));
+
+    private final StubAiTutorService ai = new StubAiTutorService();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<ProgressJournal> journals = new CopyOnWriteArrayList<>();
+    private ModuleCacheServiceImpl moduleCache;
+    private GitPromptServiceImpl git;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileSystemUtils.deleteRecursively(HOME.resolve(".axon"));
+        for (String file : List.of(".axon-progress.json", ".axon-progress.journal")) {
+            Files.deleteIfExists(HOME.resolve(file));
+        }
+        moduleCache = new ModuleCacheServiceImpl(objectMapper, 64);
+        git = new GitPromptServiceImpl(400);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // So that no writer is left to append to the journal of a later test.
+        journals.forEach(ProgressJournal::close);
+    }
+
+    @Test
+    void restoresTheSessionWithoutWaitingForTheModule() throws Exception {
+        saveProgress(new SavedProgress("git", "basics", 2, List.of()));
+        CountDownLatch generating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ai.modules = prompt -> {
+            generating.countDown();
+            await(release);
+            return StubAiTutorService.module("Git Basics", 5);
+        };
+        TutorialStateServiceImpl state = newService(true);
+
+        state.loadProgress();
+
+        // The saved position is known at once, while the module is still being generated.
+        assertThat(generating.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(state.getCurrentTechnology()).contains("git");
+        assertThat(state.getPendingResume()).isNotDone();
+
+        release.countDown();
+        state.getPendingResume().get(5, TimeUnit.SECONDS);
+        assertThat(state.getCurrentLesson()).hasValueSatisfying(lesson -> assertThat(lesson.title()).isEqualTo("Lesson 3"));
+    }
+
+    @Test
+    void resumesFromTheModuleCacheWithoutTheAi() throws Exception {
+        saveProgress(new SavedProgress("git", "basics", 1, List.of()));
+        LearningModule cached = StubAiTutorService.module("Git Basics", 3);
+        moduleCache.put(cacheKey("basics"), "git", "basics", cached);
+        TutorialStateServiceImpl state = newService(true);
+
+        state.loadProgress();
+        state.getPendingResume().get(5, TimeUnit.SECONDS);
+
+        assertThat(ai.prompts).isEmpty();
+        assertThat(state.getCurrentLesson()).hasValueSatisfying(lesson -> assertThat(lesson.title()).isEqualTo("Lesson 2"));
+    }
+
+    @Test
+    void reportsAFailedResumeInTheStatus() throws Exception {
+        saveProgress(new SavedProgress("git", "basics", 0, List.of()));
+        ai.modules = prompt -> {
+            throw new RuntimeException("provider down");
+        };
+        TutorialStateServiceImpl state = newService(true);
+
+        state.loadProgress();
+
+        assertThat(state.getPendingResume()).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(state.getStatus()).contains("Could not resume", "provider down");
+        assertThat(state.getCurrentTechnology()).isEmpty();
+    }
+
+    @Test
+    void doesNotResumeWhenTheCommandsComeFromTheCommandLine() {
+        saveProgress(new SavedProgress("git", "basics", 2, List.of()));
+
+        for (TutorialStateServiceImpl state : List.of(newService(false), newService(true, "generate", "--all"))) {
+            state.loadProgress();
+
+            assertThat(state.getPendingResume()).isDone();
+            assertThat(state.getCurrentTechnology()).isEmpty();
+        }
+        assertThat(ai.prompts).isEmpty();
+    }
+
+    @Test
+    void resumesWhenTheCommandLineOnlySetsProperties() throws Exception {
+        saveProgress(new SavedProgress("git", "basics", 1, List.of()));
+        moduleCache.put(cacheKey("basics"), "git", "basics", StubAiTutorService.module("Git Basics", 3));
+        TutorialStateServiceImpl state = newService(true, "--app.prefetch.enabled=false");
+
+        state.loadProgress();
+        state.getPendingResume().get(5, TimeUnit.SECONDS);
+
+        assertThat(state.getCurrentLesson()).hasValueSatisfying(lesson -> assertThat(lesson.title()).isEqualTo("Lesson 2"));
+    }
+
+    @Test
+    void showsTheFirstLessonWhileTheRestIsGenerated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LearningModule module = StubAiTutorService.module("Git Basics", 3);
+        ai.streamedModules = (prompt, onLesson) -> {
+            onLesson.accept(module.lessons().get(0));
+            await(release);
+            module.lessons().subList(1, 3).forEach(onLesson);
+            return module;
+        };
+        TutorialStateServiceImpl state = newService(true);
+
+        state.startModule("git", "basics");
+
+        assertThat(state.getCurrentLesson()).hasValueSatisfying(lesson -> assertThat(lesson.title()).isEqualTo("Lesson 1"));
+        assertThat(state.isGeneratingLessons()).isTrue();
+        assertThat(state.isLessonPending(2)).isTrue();
+
+        release.countDown();
+        awaitCondition(() -> !state.isGeneratingLessons());
+        assertThat(state.getCurrentModuleLessons()).hasSize(3);
+        assertThat(moduleCache.get(cacheKey("basics"))).contains(module);
+    }
+
+    @Test
+    void interruptingTheWaitForTheFirstLessonCancelsTheGeneration() throws Exception {
+        CountDownLatch generating = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        ai.streamedModules = (prompt, onLesson) -> {
+            generating.countDown();
+            CancellationToken.current().onCancel(cancelled::countDown);
+            await(cancelled);
+            throw new CancellationException("The AI request was cancelled.");
+        };
+        TutorialStateServiceImpl state = newService(true);
+        CompletableFuture<Throwable> outcome = new CompletableFuture<>();
+        Thread command = Thread.ofVirtual().start(() -> {
+            try {
+                state.startModule("git", "basics");
+                outcome.complete(null);
+            } catch (Throwable e) {
+                outcome.complete(e);
+            }
+        });
+
+        assertThat(generating.await(5, TimeUnit.SECONDS)).isTrue();
+        command.interrupt();
+
+        assertThat(outcome.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void keepsThePositionOfEachTrackAcrossSwitches() {
+        moduleCache.put(cacheKey("basics"), "git", "basics", StubAiTutorService.module("Git Basics", 5));
+        moduleCache.put(cacheKey("branching"), "git", "branching", StubAiTutorService.module("Git Branching", 4));
+        TutorialStateServiceImpl state = newService(false);
+
+        state.startModule("git", "basics");
+        state.goToLesson(3);
+        state.startModule("git", "branching");
+        state.getNextLesson();
+
+        assertThat(state.getTracks()).containsExactly(
+                new TrackSummary("git", "branching", 2, 4, true),
+                new TrackSummary("git", "basics", 3, 5, false));
+
+        state.switchTrack("git", "basics");
+
+        assertThat(state.getCurrentLesson()).hasValueSatisfying(lesson -> assertThat(lesson.title()).isEqualTo("Lesson 3"));
+        assertThat(state.getTracks()).extracting(TrackSummary::moduleKey, TrackSummary::active)
+                .containsExactly(tuple("basics", true), tuple("branching", false));
+        assertThatThrownBy(() -> state.switchTrack("git", "remotes")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(ai.prompts).isEmpty();
+    }
+
+    @Test
+    void restoresInactiveTracksWhoseLessonsAreReadOnSwitching() throws Exception {
+        saveProgress(new SavedProgress("git", "basics", 0, List.of(new Progress("git", "branching", 3))));
+        moduleCache.put(cacheKey("basics"), "git", "basics", StubAiTutorService.module("Git Basics", 5));
+        moduleCache.put(cacheKey("branching"), "git", "branching", StubAiTutorService.module("Git Branching", 4));
+        TutorialStateServiceImpl state = newService(true);
+
+        state.loadProgress();
+        state.getPendingResume().get(5, TimeUnit.SECONDS);
+
+        // The inactive track's lessons are not loaded until it is switched to.
+        assertThat(state.getTracks()).containsExactly(
+                new TrackSummary("git", "basics", 1, 5, true),
+                new TrackSummary("git", "branching", 4, null, false));
+
+        state.switchTrack("git", "branching");
+
+        assertThat(state.getCurrentLesson()).hasValueSatisfying(lesson -> assertThat(lesson.title()).isEqualTo("Lesson 4"));
+        assertThat(state.getTracks()).contains(new TrackSummary("git", "branching", 4, 4, true));
+    }
+
+    private TutorialStateServiceImpl newService(boolean interactive, String... args) {
+        CurriculumGenerator generator = new CurriculumGenerator(ai, "stream", 1, 1, 0);
+        MoreLessonsPrefetcher prefetcher = new MoreLessonsPrefetcher(ai, false, 5, 12000, Duration.ofHours(1));
+        AnswerCacheServiceImpl answerCache = new AnswerCacheServiceImpl(objectMapper, Duration.ofDays(7), 16, 16);
+        return new TutorialStateServiceImpl(newJournal(), ai, moduleCache, answerCache, generator, prefetcher,
+                new SimpleMeterRegistry(), ApplicationStartup.DEFAULT, List.of(git),
+                new DefaultApplicationArguments(args), interactive, 5000);
+    }
+
+    private String cacheKey(String moduleKey) {
+        return moduleCache.keyFor("git", moduleKey, git.buildInitialModulePrompt(moduleKey), ai.getModelName(AiRequestType.MODULE), 5000);
+    }
+
+    private ProgressJournal newJournal() {
+        ProgressJournal journal = new ProgressJournal(objectMapper, new SimpleMeterRegistry(), Duration.ZERO, DataSize.ofKilobytes(64));
+        journals.add(journal);
+        return journal;
+    }
+
+    private void saveProgress(SavedProgress progress) {
+        ProgressJournal journal = newJournal();
+        journal.save(progress);
+        journal.close();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("waiting for a condition").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
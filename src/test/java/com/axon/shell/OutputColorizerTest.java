@@ -0,0 +1,83 @@
+package com.axon.shell;
+
+import org.jline.utils.AttributedString;
+import org.jline.utils.AttributedStringBuilder;
+import org.jline.utils.AttributedStyle;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutputColorizerTest {
+
+    private static final AttributedStyle TEXT = AttributedStyle.DEFAULT.foreground(AttributedStyle.WHITE);
+    private static final AttributedStyle BRANCH = AttributedStyle.DEFAULT.foreground(AttributedStyle.MAGENTA).bold();
+    private static final AttributedStyle FILE = AttributedStyle.DEFAULT.foreground(AttributedStyle.CYAN);
+    private static final Map<String, AttributedStyle> STYLES = Map.of("branch", BRANCH, "file", FILE);
+
+    private final OutputColorizer colorizer = new OutputColorizer(STYLES, TEXT);
+
+    @Test
+    void stylesTheContentOfKnownTagsAndDropsTheTags() {
+        AttributedString output = colorizer.colorize("On branch <branch>main</branch>, modified: <file>a.txt</file>");
+
+        assertThat(output.toString()).isEqualTo("On branch main, modified: a.txt");
+        assertThat(output.styleAt(0)).isEqualTo(TEXT);
+        assertThat(output.styleAt("On branch ".length())).isEqualTo(BRANCH);
+        assertThat(output.styleAt("On branch main".length())).isEqualTo(TEXT);
+        assertThat(output.styleAt(output.length() - 1)).isEqualTo(FILE);
+    }
+
+    @Test
+    void keepsUnknownUnclosedAndMultiLineTagsAsText() {
+        String text = "<none>x</none> <branch>open\nclosed</branch> <file>a</branch> a < b <> <file>";
+
+        AttributedString output = colorizer.colorize(text);
+
+        assertThat(output.toString()).isEqualTo(text);
+        for (int i = 0; i < output.length(); i++) {
+            assertThat(output.styleAt(i)).isEqualTo(TEXT);
+        }
+    }
+
+    @Test
+    void producesTheSameOutputAsAPerTagRegularExpression() {
+        List<String> samples = List.of(
+                "",
+                "plain text",
+                "<branch>main</branch>",
+                "* <branch>main</branch>\n  <branch>feature</branch>\n",
+                "<branch></branch><file>x</file><file>y</file>",
+                "<branch>a <file>b</file></branch>",
+                "<branch>a</branch></branch>",
+                "<file>one</file> and <file>two",
+                "<<branch>x</branch>>",
+                "tail <");
+
+        for (String sample : samples) {
+            assertThat(colorizer.colorize(sample).toAnsi()).as(sample).isEqualTo(withRegex(sample).toAnsi());
+        }
+    }
+
+    /**
+     * How example output was colored before: one regular expression over the known tags.
+     */
+    private static AttributedString withRegex(String text) {
+        Matcher matcher = Pattern.compile("<(branch|file)>(.*?)</\\1>").matcher(text);
+        AttributedStringBuilder builder = new AttributedStringBuilder();
+        int lastEnd = 0;
+        while (matcher.find()) {
+            builder.style(TEXT).append(text.substring(lastEnd, matcher.start()));
+            builder.style(STYLES.get(matcher.group(1))).append(matcher.group(2));
+            lastEnd = matcher.end();
+        }
+        if (lastEnd < text.length()) {
+            builder.style(TEXT).append(text.substring(lastEnd));
+        }
+        return builder.toAttributedString();
+    }
+}
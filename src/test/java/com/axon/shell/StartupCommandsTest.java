@@ -0,0 +1,100 @@
+package com.axon.shell;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jline.terminal.Terminal;
+import org.jline.terminal.impl.DumbTerminal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupCommandsTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Terminal terminal;
+
+    @TempDir
+    Path directory;
+
+    StartupCommandsTest() throws IOException {
+        terminal = new DumbTerminal(new ByteArrayInputStream(new byte[0]), output);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        terminal.close();
+    }
+
+    @Test
+    void printsNestedStepsSlowestFirstAndFoldsShortOnes() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+        StartupStep context = startup.start("spring.context.refresh");
+        StartupStep slow = startup.start("spring.beans.instantiate").tag("beanName", "tutorCommands");
+        Thread.sleep(60);
+        slow.end();
+        startup.start("spring.beans.instantiate").tag("beanName", "quickBean").end();
+        context.end();
+
+        new StartupCommands(startup, new StartupTimer(false), new SimpleMeterRegistry(), objectMapper, terminal).startup(20, "");
+
+        String printed = printed();
+        assertThat(printed).contains("spring.context.refresh", "  spring.beans.instantiate (beanName=tutorCommands)");
+        assertThat(printed.indexOf("spring.context.refresh")).isLessThan(printed.indexOf("tutorCommands"));
+        assertThat(printed).doesNotContain("quickBean");
+    }
+
+    @Test
+    void writesEveryStepWithItsParentAsJson() throws IOException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+        StartupStep context = startup.start("spring.context.refresh");
+        startup.start("axon.progress.load").tag("tracks", "2").end();
+        context.end();
+        Path file = directory.resolve("reports/startup.json");
+
+        new StartupCommands(startup, new StartupTimer(false), new SimpleMeterRegistry(), objectMapper, terminal)
+                .startup(10, file.toString());
+
+        JsonNode steps = objectMapper.readTree(file.toFile()).path("steps");
+        assertThat(steps).hasSize(2);
+        JsonNode parent = step(steps, "spring.context.refresh");
+        JsonNode child = step(steps, "axon.progress.load");
+        assertThat(child.path("parentId").asLong()).isEqualTo(parent.path("id").asLong());
+        assertThat(child.path("tags").path("tracks").asText()).isEqualTo("2");
+        assertThat(printed()).contains("Wrote 2 steps to " + file);
+    }
+
+    @Test
+    void explainsWhenNoStepsWereRecorded() {
+        new StartupCommands(ApplicationStartup.DEFAULT, new StartupTimer(false), new SimpleMeterRegistry(), objectMapper, terminal)
+                .startup(10, "");
+
+        assertThat(printed()).contains("Startup steps were not recorded in this run.");
+    }
+
+    private static JsonNode step(JsonNode steps, String name) {
+        for (JsonNode step : steps) {
+            if (step.path("name").asText().equals(name)) {
+                return step;
+            }
+        }
+        throw new AssertionError("No step named " + name);
+    }
+
+    private String printed() {
+        terminal.writer().flush();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}